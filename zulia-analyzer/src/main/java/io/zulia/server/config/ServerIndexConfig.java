@@ -114,6 +114,10 @@ public class ServerIndexConfig {
 		return getIndexSettings().getDefaultConcurrency();
 	}
 
+	public int getShardQueryCacheRewarmCount() {
+		return getIndexSettings().getShardQueryCacheRewarmCount();
+	}
+
 	public List<QueryRequest> getWarmingSearches() {
 		return serverIndexConfigData.getWarmingSearches();
 	}
@@ -0,0 +1,82 @@
+package io.zulia.client.command;
+
+import io.grpc.Context;
+import io.zulia.client.command.base.MultiIndexRoutableCommand;
+import io.zulia.client.command.base.SimpleCommand;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.pool.ZuliaConnection;
+import io.zulia.client.result.StreamSearchResult;
+import io.zulia.message.ZuliaServiceGrpc.ZuliaServiceBlockingStub;
+import io.zulia.message.ZuliaServiceOuterClass.StreamQueryRequest;
+import io.zulia.message.ZuliaServiceOuterClass.StreamQueryResponse;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Streams the results of a search in chunks instead of returning them in one response.  The amount of the search is the total number of
+ * results streamed, 0 streams every hit.  The facets and stats of the search are returned with the first chunk.  The result should be closed
+ * with try-with-resources, otherwise a stream that is not read to the end stays open on the server
+ */
+public class StreamSearch extends SimpleCommand<StreamQueryRequest, StreamSearchResult> implements MultiIndexRoutableCommand {
+
+	private final Search search;
+	private int chunkSize;
+
+	public StreamSearch(Search search) {
+		this.search = search;
+	}
+
+	public Search getSearch() {
+		return search;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize the number of results in each chunk, defaults to 1000 on the server
+	 */
+	public StreamSearch setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	@Override
+	public Collection<String> getIndexNames() {
+		return search.getIndexNames();
+	}
+
+	@Override
+	public StreamQueryRequest getRequest() {
+		return StreamQueryRequest.newBuilder().setQueryRequest(search.getRequest()).setChunkSize(chunkSize).build();
+	}
+
+	@Override
+	public StreamSearchResult execute(ZuliaConnection zuliaConnection) {
+		ZuliaServiceBlockingStub service = zuliaConnection.getService();
+
+		// the call is bound to its own context so closing the result can cancel it
+		Context.CancellableContext context = Context.current().withCancellation();
+		Iterator<StreamQueryResponse> streamQueryResponse;
+		Context previous = context.attach();
+		try {
+			streamQueryResponse = service.streamQuery(getRequest());
+		}
+		catch (RuntimeException e) {
+			context.cancel(e);
+			throw e;
+		}
+		finally {
+			context.detach(previous);
+		}
+
+		return new StreamSearchResult(streamQueryResponse, context);
+	}
+
+	@Override
+	public String toString() {
+		return getRequest().toString();
+	}
+}
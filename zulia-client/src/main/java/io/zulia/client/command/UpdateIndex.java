@@ -54,6 +54,12 @@ public class UpdateIndex extends SimpleCommand<UpdateIndexRequest, UpdateIndexRe
 	private Integer nrtTaxoMaxCachedMB;
 	private Boolean nrtCachingDisabled;
 	private Boolean transientIndex;
+	private Integer shardQueryCacheRewarmCount;
+	private Integer totalHitsThreshold;
+	private Integer slowQueryThresholdMs;
+	private Float queryLogSampleRate;
+	private Integer realtimeRefreshMinIntervalMs;
+	private Integer refreshIntervalMs;
 
 	private Boolean disableCompression;
 	private Integer defaultConcurrency;
@@ -384,6 +390,84 @@ public class UpdateIndex extends SimpleCommand<UpdateIndexRequest, UpdateIndexRe
 		return this;
 	}
 
+	public Integer getShardQueryCacheRewarmCount() {
+		return shardQueryCacheRewarmCount;
+	}
+
+	/**
+	 * Number of the most frequently used cached shard queries re-executed against a refreshed reader before it is used for searching.
+	 * Default 0 disables re-warming, cached results are then only carried forward when the segments they were computed on are unchanged.
+	 */
+	public UpdateIndex setShardQueryCacheRewarmCount(Integer shardQueryCacheRewarmCount) {
+		this.shardQueryCacheRewarmCount = shardQueryCacheRewarmCount;
+		return this;
+	}
+
+	public Integer getTotalHitsThreshold() {
+		return totalHitsThreshold;
+	}
+
+	/**
+	 * Number of hits each shard counts exactly before its total hits becomes a lower bound, letting scoring skip documents that cannot
+	 * make the page.  Used when a query does not set its own threshold.  Default 0 always counts exactly.
+	 */
+	public UpdateIndex setTotalHitsThreshold(Integer totalHitsThreshold) {
+		this.totalHitsThreshold = totalHitsThreshold;
+		return this;
+	}
+
+	public Integer getSlowQueryThresholdMs() {
+		return slowQueryThresholdMs;
+	}
+
+	/**
+	 * Queries taking at least this many milliseconds are logged at WARN with the time spent in each phase and the full request.  Default 0
+	 * disables the slow query log.
+	 */
+	public UpdateIndex setSlowQueryThresholdMs(Integer slowQueryThresholdMs) {
+		this.slowQueryThresholdMs = slowQueryThresholdMs;
+		return this;
+	}
+
+	public Float getQueryLogSampleRate() {
+		return queryLogSampleRate;
+	}
+
+	/**
+	 * Fraction of the queries under the slow query threshold, from 0 to 1, logged at INFO with the time spent in each phase.  Default 0 only
+	 * logs slow queries.
+	 */
+	public UpdateIndex setQueryLogSampleRate(Float queryLogSampleRate) {
+		this.queryLogSampleRate = queryLogSampleRate;
+		return this;
+	}
+
+	public Integer getRealtimeRefreshMinIntervalMs() {
+		return realtimeRefreshMinIntervalMs;
+	}
+
+	/**
+	 * Minimum milliseconds between two reopens of a shard reader for realtime requests.  Concurrent realtime requests share the next reopen
+	 * either way, a larger interval trades freshness for fewer reopens under a high rate of realtime requests.  Default 0.
+	 */
+	public UpdateIndex setRealtimeRefreshMinIntervalMs(Integer realtimeRefreshMinIntervalMs) {
+		this.realtimeRefreshMinIntervalMs = realtimeRefreshMinIntervalMs;
+		return this;
+	}
+
+	public Integer getRefreshIntervalMs() {
+		return refreshIntervalMs;
+	}
+
+	/**
+	 * How often in milliseconds primary shards with changes reopen their readers in the background.  Changes become searchable within the
+	 * interval without a commit.  Default 0 only reopens readers on commit or for realtime requests.
+	 */
+	public UpdateIndex setRefreshIntervalMs(Integer refreshIntervalMs) {
+		this.refreshIntervalMs = refreshIntervalMs;
+		return this;
+	}
+
 	public Integer getMaxMergeThreads() {
 		return maxMergeThreads;
 	}
@@ -646,6 +730,36 @@ public class UpdateIndex extends SimpleCommand<UpdateIndexRequest, UpdateIndexRe
 			updateIndexSettings.setTransientIndex(transientIndex);
 		}
 
+		if (shardQueryCacheRewarmCount != null) {
+			updateIndexSettings.setSetShardQueryCacheRewarmCount(true);
+			updateIndexSettings.setShardQueryCacheRewarmCount(shardQueryCacheRewarmCount);
+		}
+
+		if (totalHitsThreshold != null) {
+			updateIndexSettings.setSetTotalHitsThreshold(true);
+			updateIndexSettings.setTotalHitsThreshold(totalHitsThreshold);
+		}
+
+		if (slowQueryThresholdMs != null) {
+			updateIndexSettings.setSetSlowQueryThresholdMs(true);
+			updateIndexSettings.setSlowQueryThresholdMs(slowQueryThresholdMs);
+		}
+
+		if (queryLogSampleRate != null) {
+			updateIndexSettings.setSetQueryLogSampleRate(true);
+			updateIndexSettings.setQueryLogSampleRate(queryLogSampleRate);
+		}
+
+		if (realtimeRefreshMinIntervalMs != null) {
+			updateIndexSettings.setSetRealtimeRefreshMinIntervalMs(true);
+			updateIndexSettings.setRealtimeRefreshMinIntervalMs(realtimeRefreshMinIntervalMs);
+		}
+
+		if (refreshIntervalMs != null) {
+			updateIndexSettings.setSetRefreshIntervalMs(true);
+			updateIndexSettings.setRefreshIntervalMs(refreshIntervalMs);
+		}
+
 		if (maxMergeThreads != null) {
 			updateIndexSettings.setSetMaxMergeThreads(true);
 			updateIndexSettings.setMaxMergeThreads(maxMergeThreads);
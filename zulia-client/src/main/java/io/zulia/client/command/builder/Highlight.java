@@ -37,6 +37,19 @@ public class Highlight implements HighlightBuilder {
 		return this;
 	}
 
+	public ZuliaQuery.HighlightRequest.Engine getEngine() {
+		return highlightBuilder.getEngine();
+	}
+
+	/**
+	 * The unified engine reads the matches from the postings instead of analyzing the stored text again when the field is indexed with
+	 * offsets, see {@link io.zulia.fields.FieldConfigBuilder#indexWithOffsets(String)}
+	 */
+	public Highlight setEngine(ZuliaQuery.HighlightRequest.Engine engine) {
+		highlightBuilder.setEngine(engine);
+		return this;
+	}
+
 	@Override
 	public ZuliaQuery.HighlightRequest getHighlight() {
 		return highlightBuilder.build();
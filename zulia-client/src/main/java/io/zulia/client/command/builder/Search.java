@@ -14,6 +14,7 @@ import io.zulia.message.ZuliaQuery.LastResult;
 import io.zulia.message.ZuliaServiceGrpc;
 import io.zulia.message.ZuliaServiceOuterClass.QueryRequest;
 import io.zulia.message.ZuliaServiceOuterClass.QueryResponse;
+import io.zulia.message.ZuliaServiceOuterClass.ShardGeneration;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -148,6 +149,30 @@ public class Search extends SimpleCommand<QueryRequest, SearchResult> implements
 		return this;
 	}
 
+	public List<String> getDocValueFields() {
+		return queryRequest.getDocValueFieldsList();
+	}
+
+	/**
+	 * Returns the values of a sortable field from its doc values on each result without loading the stored document, which works with
+	 * {@link FetchType#NONE}.  Values are as they are sorted, so string values have the sort string handling applied.  Geo point fields are
+	 * not supported
+	 */
+	public Search addDocValueField(String docValueField) {
+		queryRequest.addDocValueFields(docValueField);
+		return this;
+	}
+
+	public Search addDocValueFields(String... docValueFields) {
+		queryRequest.addAllDocValueFields(List.of(docValueFields));
+		return this;
+	}
+
+	public Search clearDocValueFields() {
+		queryRequest.clearDocValueFields();
+		return this;
+	}
+
 	public Search addFacetDrillDown(DrillDownBuilder drillDownBuilder) {
 		facetRequest.addDrillDown(drillDownBuilder.getDrillDown());
 		return this;
@@ -170,7 +195,14 @@ public class Search extends SimpleCommand<QueryRequest, SearchResult> implements
 		return queryRequest.getLastResult();
 	}
 
+	/**
+	 * Continues after the last result of the given page.  When the page was from a point in time search the next page searches the same point
+	 * in time
+	 */
 	public Search setLastResult(SearchResult lastQueryResult) {
+		if (lastQueryResult.getPointInTimeId() != null) {
+			setPointInTimeId(lastQueryResult.getPointInTimeId());
+		}
 		return setLastResult(lastQueryResult.getLastResult());
 	}
 
@@ -287,6 +319,114 @@ public class Search extends SimpleCommand<QueryRequest, SearchResult> implements
 		return queryRequest.getConcurrency();
 	}
 
+	/**
+	 * Shards only return ids, scores and sort values and the documents and highlights are fetched afterward for the page returned only
+	 */
+	public Search setQueryThenFetch(boolean queryThenFetch) {
+		queryRequest.setQueryThenFetch(queryThenFetch);
+		return this;
+	}
+
+	public boolean getQueryThenFetch() {
+		return queryRequest.getQueryThenFetch();
+	}
+
+	/**
+	 * Stored documents that are returned unchanged (no highlighting, analysis or field filtering) are sent still compressed and are
+	 * decompressed when accessed through {@link io.zulia.client.result.CompleteResult} or {@link io.zulia.util.ResultHelper}.  Code that
+	 * reads the document bytes of a {@link ZuliaQuery.ScoredResult} directly must use ResultHelper when this is enabled
+	 */
+	public Search setCompressedDocuments(boolean compressedDocuments) {
+		queryRequest.setCompressedDocuments(compressedDocuments);
+		return this;
+	}
+
+	public boolean getCompressedDocuments() {
+		return queryRequest.getCompressedDocuments();
+	}
+
+	/**
+	 * Number of hits each shard counts exactly before total hits becomes a lower bound, letting scoring skip documents that cannot make the
+	 * page.  Defaults to the index setting when not set, a negative value always counts exactly
+	 */
+	public Search setTotalHitsThreshold(int totalHitsThreshold) {
+		queryRequest.setTotalHitsThreshold(totalHitsThreshold);
+		return this;
+	}
+
+	public int getTotalHitsThreshold() {
+		return queryRequest.getTotalHitsThreshold();
+	}
+
+	/**
+	 * Returns the results collected so far once the time is exceeded instead of waiting for every shard.  Shards that did not finish are
+	 * given by {@link io.zulia.client.result.SearchResult#getIncompleteShards()}
+	 */
+	public Search setTimeoutMs(int timeoutMs) {
+		queryRequest.setTimeoutMs(timeoutMs);
+		return this;
+	}
+
+	public int getTimeoutMs() {
+		return queryRequest.getTimeoutMs();
+	}
+
+	/**
+	 * Pins the shard readers searched by the first page so later pages see the same documents even when the index changes in between.  The
+	 * readers are released when the point in time is not used for keepAliveMs.  Later pages continue the point in time with the id returned by
+	 * {@link io.zulia.client.result.SearchResult#getPointInTimeId()}, which {@link #setLastResult(SearchResult)} does automatically
+	 */
+	public Search setPointInTime(int keepAliveMs) {
+		queryRequest.setPointInTimeKeepAliveMs(keepAliveMs);
+		return this;
+	}
+
+	public int getPointInTimeKeepAliveMs() {
+		return queryRequest.getPointInTimeKeepAliveMs();
+	}
+
+	/**
+	 * Returns the time spent in each phase of the search with the results, see {@link io.zulia.client.result.SearchResult#getProfile()}.  Each
+	 * shard reports rewrite, weight creation, collection of each segment, aggregation, document loading and highlighting, or that it was
+	 * answered from its cache.  The coordinating node reports parse, merge and fetch time, and the request and network time of each node
+	 */
+	public Search setProfile(boolean profile) {
+		queryRequest.setProfile(profile);
+		return this;
+	}
+
+	public boolean getProfile() {
+		return queryRequest.getProfile();
+	}
+
+	/**
+	 * Makes the shard of the write wait until its reader includes the write before it is searched, see
+	 * {@link io.zulia.client.result.StoreResult#getShardGeneration()}.  Only the shards of the given writes wait, unlike realtime which refreshes
+	 * every shard.  The shard has to be searched on its primary, which is the default.
+	 */
+	public Search addMinShardGeneration(ShardGeneration shardGeneration) {
+		queryRequest.addMinShardGeneration(shardGeneration);
+		return this;
+	}
+
+	public List<ShardGeneration> getMinShardGenerations() {
+		return queryRequest.getMinShardGenerationList();
+	}
+
+	public Search setPointInTimeId(String pointInTimeId) {
+		queryRequest.setPointInTimeId(pointInTimeId);
+		return this;
+	}
+
+	public String getPointInTimeId() {
+		return queryRequest.getPointInTimeId();
+	}
+
+	public Search clearPointInTime() {
+		queryRequest.clearPointInTimeId().clearPointInTimeKeepAliveMs();
+		return this;
+	}
+
 	@Override
 	public QueryRequest getRequest() {
 		queryRequest.setFacetRequest(facetRequest);
@@ -47,6 +47,13 @@ public class ClientIndexConfig {
 	private Integer nrtTaxoMaxCachedMB;
 	private Boolean nrtCachingDisabled;
 	private Boolean transientIndex;
+	private Integer shardQueryCacheRewarmCount;
+	private Integer totalHitsThreshold;
+	private Integer slowQueryThresholdMs;
+	private Float queryLogSampleRate;
+	private Integer realtimeRefreshMinIntervalMs;
+	private Integer refreshIntervalMs;
+	private ZuliaIndex.IndexSort indexSort;
 
 	private Boolean disableCompression;
 
@@ -208,6 +215,101 @@ public class ClientIndexConfig {
 		return this;
 	}
 
+	public Integer getShardQueryCacheRewarmCount() {
+		return shardQueryCacheRewarmCount;
+	}
+
+	/**
+	 * Number of the most frequently used cached shard queries re-executed against a refreshed reader before it is used for searching.
+	 * Default 0 disables re-warming, cached results are then only carried forward when the segments they were computed on are unchanged.
+	 */
+	public ClientIndexConfig setShardQueryCacheRewarmCount(Integer shardQueryCacheRewarmCount) {
+		this.shardQueryCacheRewarmCount = shardQueryCacheRewarmCount;
+		return this;
+	}
+
+	public Integer getTotalHitsThreshold() {
+		return totalHitsThreshold;
+	}
+
+	/**
+	 * Number of hits each shard counts exactly before its total hits becomes a lower bound, letting scoring skip documents that cannot
+	 * make the page.  Used when a query does not set its own threshold.  Default 0 always counts exactly.
+	 */
+	public ClientIndexConfig setTotalHitsThreshold(Integer totalHitsThreshold) {
+		this.totalHitsThreshold = totalHitsThreshold;
+		return this;
+	}
+
+	public Integer getSlowQueryThresholdMs() {
+		return slowQueryThresholdMs;
+	}
+
+	/**
+	 * Queries taking at least this many milliseconds are logged at WARN with the time spent in each phase and the full request.  Default 0
+	 * disables the slow query log.
+	 */
+	public ClientIndexConfig setSlowQueryThresholdMs(Integer slowQueryThresholdMs) {
+		this.slowQueryThresholdMs = slowQueryThresholdMs;
+		return this;
+	}
+
+	public Float getQueryLogSampleRate() {
+		return queryLogSampleRate;
+	}
+
+	/**
+	 * Fraction of the queries under the slow query threshold, from 0 to 1, logged at INFO with the time spent in each phase.  Default 0 only
+	 * logs slow queries.
+	 */
+	public ClientIndexConfig setQueryLogSampleRate(Float queryLogSampleRate) {
+		this.queryLogSampleRate = queryLogSampleRate;
+		return this;
+	}
+
+	public Integer getRealtimeRefreshMinIntervalMs() {
+		return realtimeRefreshMinIntervalMs;
+	}
+
+	/**
+	 * Minimum milliseconds between two reopens of a shard reader for realtime requests.  Concurrent realtime requests share the next reopen
+	 * either way, a larger interval trades freshness for fewer reopens under a high rate of realtime requests.  Default 0.
+	 */
+	public ClientIndexConfig setRealtimeRefreshMinIntervalMs(Integer realtimeRefreshMinIntervalMs) {
+		this.realtimeRefreshMinIntervalMs = realtimeRefreshMinIntervalMs;
+		return this;
+	}
+
+	public Integer getRefreshIntervalMs() {
+		return refreshIntervalMs;
+	}
+
+	/**
+	 * How often in milliseconds primary shards with changes reopen their readers in the background.  Changes become searchable within the
+	 * interval without a commit.  Default 0 only reopens readers on commit or for realtime requests.
+	 */
+	public ClientIndexConfig setRefreshIntervalMs(Integer refreshIntervalMs) {
+		this.refreshIntervalMs = refreshIntervalMs;
+		return this;
+	}
+
+	public ZuliaIndex.IndexSort getIndexSort() {
+		return indexSort;
+	}
+
+	/**
+	 * Sort the documents of each segment are written in.  Queries sorted by the index sort stop collecting a segment once enough hits are
+	 * found.  The index sort can only be set when the index is created.
+	 */
+	public ClientIndexConfig setIndexSort(ZuliaIndex.IndexSort indexSort) {
+		this.indexSort = indexSort;
+		return this;
+	}
+
+	public ClientIndexConfig setIndexSort(String sortField, boolean descending) {
+		return setIndexSort(ZuliaIndex.IndexSort.newBuilder().setSortField(sortField).setDescending(descending).build());
+	}
+
 	public Boolean getDisableCompression() {
 		return disableCompression;
 	}
@@ -497,6 +599,34 @@ public class ClientIndexConfig {
 			isb.setTransientIndex(transientIndex);
 		}
 
+		if (shardQueryCacheRewarmCount != null) {
+			isb.setShardQueryCacheRewarmCount(shardQueryCacheRewarmCount);
+		}
+
+		if (totalHitsThreshold != null) {
+			isb.setTotalHitsThreshold(totalHitsThreshold);
+		}
+
+		if (slowQueryThresholdMs != null) {
+			isb.setSlowQueryThresholdMs(slowQueryThresholdMs);
+		}
+
+		if (queryLogSampleRate != null) {
+			isb.setQueryLogSampleRate(queryLogSampleRate);
+		}
+
+		if (realtimeRefreshMinIntervalMs != null) {
+			isb.setRealtimeRefreshMinIntervalMs(realtimeRefreshMinIntervalMs);
+		}
+
+		if (refreshIntervalMs != null) {
+			isb.setRefreshIntervalMs(refreshIntervalMs);
+		}
+
+		if (indexSort != null) {
+			isb.setIndexSort(indexSort);
+		}
+
 		if (disableCompression != null) {
 			isb.setDisableCompression(disableCompression);
 		}
@@ -575,6 +705,13 @@ public class ClientIndexConfig {
 		this.nrtTaxoMaxCachedMB = indexSettings.getNrtTaxoMaxCachedMB();
 		this.nrtCachingDisabled = indexSettings.getNrtCachingDisabled();
 		this.transientIndex = indexSettings.getTransientIndex();
+		this.shardQueryCacheRewarmCount = indexSettings.getShardQueryCacheRewarmCount();
+		this.totalHitsThreshold = indexSettings.getTotalHitsThreshold();
+		this.slowQueryThresholdMs = indexSettings.getSlowQueryThresholdMs();
+		this.queryLogSampleRate = indexSettings.getQueryLogSampleRate();
+		this.realtimeRefreshMinIntervalMs = indexSettings.getRealtimeRefreshMinIntervalMs();
+		this.refreshIntervalMs = indexSettings.getRefreshIntervalMs();
+		this.indexSort = indexSettings.hasIndexSort() ? indexSettings.getIndexSort() : null;
 		this.disableCompression = indexSettings.getDisableCompression();
 		this.defaultConcurrency = indexSettings.getDefaultConcurrency();
 		this.description = indexSettings.getDescription();
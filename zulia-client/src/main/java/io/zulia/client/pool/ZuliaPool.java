@@ -129,6 +129,8 @@ public class ZuliaPool {
 				throw new IllegalStateException("Cannot execute " + command.getClass().getSimpleName() + " because the pool is closed");
 			}
 			Node selectedNode = null;
+			// set when the node rejected the call because it is over its concurrency limit
+			long retryAfterMs = 0;
 			try {
 				if (routingEnabled && (indexRouting != null)) {
 					if (command instanceof ShardRoutableCommand rc) {
@@ -193,6 +195,10 @@ public class ZuliaPool {
 					catch (StatusRuntimeException e) {
 
 						Metadata trailers = e.getTrailers();
+						if (trailers != null && Status.Code.RESOURCE_EXHAUSTED.equals(e.getStatus().getCode()) && trailers.containsKey(
+								MetaKeys.RETRY_AFTER_MS_KEY)) {
+							retryAfterMs = Long.parseLong(trailers.get(MetaKeys.RETRY_AFTER_MS_KEY));
+						}
 						if (trailers != null && trailers.containsKey(MetaKeys.ERROR_KEY)) {
 							String errorMessage = grpcCommand.getClass().getSimpleName() + ": " + trailers.get(MetaKeys.ERROR_KEY);
 							if (Status.INVALID_ARGUMENT.equals(e.getStatus())) {
@@ -221,6 +227,10 @@ public class ZuliaPool {
 				if (connectionListener != null) {
 					connectionListener.exceptionWithRetry(selectedNode, command, e, tries);
 				}
+				if (retryAfterMs > 0) {
+					// retrying right away would most likely be rejected again
+					Thread.sleep(retryAfterMs);
+				}
 			}
 		}
 
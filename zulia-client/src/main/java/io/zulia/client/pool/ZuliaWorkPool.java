@@ -229,6 +229,14 @@ public class ZuliaWorkPool extends ZuliaBaseWorkPool {
 		return execute(search);
 	}
 
+	/**
+	 * Streams the results of a search.  Use the result in a try-with-resources block so a stream that is not read to the end, for example after
+	 * {@code stream().limit(n)} or {@code findFirst()}, is cancelled on the server instead of holding its readers open
+	 */
+	public StreamSearchResult streamSearch(StreamSearch streamSearch) throws Exception {
+		return execute(streamSearch);
+	}
+
 	public <T> void searchAllAsMappedDocument(Search search, GsonDocumentMapper<T> mapper, Consumer<T> mappedDocumentHandler) throws Exception {
 		searchAllAsScoredResult(search, scoredResult -> {
 			try {
@@ -2,7 +2,6 @@ package io.zulia.client.result;
 
 import io.zulia.message.ZuliaQuery;
 import io.zulia.util.ResultHelper;
-import io.zulia.util.ZuliaUtil;
 import org.bson.Document;
 
 import java.util.ArrayList;
@@ -79,9 +78,27 @@ public class CompleteResult {
 		return this.scoredResult.getAnalysisResultList();
 	}
 
+	public List<ZuliaQuery.DocValueResult> getDocValueResultList() {
+		return this.scoredResult.getDocValueResultList();
+	}
+
+	/**
+	 * @return the values read from the doc values of a field requested with {@link io.zulia.client.command.builder.Search#addDocValueField(String)}
+	 * or an empty list when the document has no value.  The value is set the same way as the sort values for the field type
+	 */
+	public List<ZuliaQuery.SortValue> getDocValues(String field) {
+		List<ZuliaQuery.SortValue> values = new ArrayList<>();
+		for (ZuliaQuery.DocValueResult docValueResult : this.scoredResult.getDocValueResultList()) {
+			if (field.equals(docValueResult.getField())) {
+				values.addAll(docValueResult.getValueList());
+			}
+		}
+		return values;
+	}
+
 	public Document getMetadata() {
 		if (metadata == null) {
-			metadata = ZuliaUtil.byteStringToMongoDocument(scoredResult.getResultDocument().getMetadata());
+			metadata = ResultHelper.getMetadataFromResultDocument(scoredResult.getResultDocument());
 		}
 		return metadata;
 	}
@@ -6,7 +6,9 @@ import io.zulia.message.ZuliaQuery.AnalysisResult;
 import io.zulia.message.ZuliaQuery.FacetCount;
 import io.zulia.message.ZuliaQuery.FacetGroup;
 import io.zulia.message.ZuliaQuery.FacetStats;
+import io.zulia.message.ZuliaQuery.IncompleteShard;
 import io.zulia.message.ZuliaQuery.LastResult;
+import io.zulia.message.ZuliaQuery.QueryProfile;
 import io.zulia.message.ZuliaQuery.ScoredResult;
 import io.zulia.message.ZuliaQuery.StatGroup;
 import io.zulia.message.ZuliaServiceOuterClass.QueryResponse;
@@ -107,7 +109,7 @@ public class SearchResult extends Result {
 	public List<Document> getMetaDocuments() {
 		List<Document> documents = new ArrayList<>();
 		for (ScoredResult scoredResult : queryResponse.getResultsList()) {
-			Document metadata = ZuliaUtil.byteStringToMongoDocument(scoredResult.getResultDocument().getMetadata());
+			Document metadata = ResultHelper.getMetadataFromResultDocument(scoredResult.getResultDocument());
 			if (metadata != null) {
 				documents.add(metadata);
 			}
@@ -276,6 +278,34 @@ public class SearchResult extends Result {
 		return queryResponse.getAnalysisResultList();
 	}
 
+	/**
+	 * @return true if total hits is a lower bound because a shard stopped counting at the total hits threshold
+	 */
+	public boolean isTotalHitsLowerBound() {
+		return queryResponse.getTotalHitsLowerBound();
+	}
+
+	/**
+	 * @return true if the timeout was exceeded and the results are incomplete
+	 */
+	public boolean isTimedOut() {
+		return queryResponse.getTimedOut();
+	}
+
+	/**
+	 * @return the shards that did not respond or only returned the hits collected before the timeout
+	 */
+	public List<IncompleteShard> getIncompleteShards() {
+		return queryResponse.getIncompleteShardList();
+	}
+
+	/**
+	 * @return the id of the point in time searched or null if the search was not a point in time search
+	 */
+	public String getPointInTimeId() {
+		return !queryResponse.getPointInTimeId().isEmpty() ? queryResponse.getPointInTimeId() : null;
+	}
+
 	public boolean getFullyCached() {
 		return queryResponse.getFullyCached();
 	}
@@ -292,6 +322,13 @@ public class SearchResult extends Result {
 		return queryResponse.getShardsPinned();
 	}
 
+	/**
+	 * @return the time spent in each phase by shard and by node or null if the search was not profiled
+	 */
+	public QueryProfile getProfile() {
+		return queryResponse.hasProfile() ? queryResponse.getProfile() : null;
+	}
+
 	@Override
 	public String toString() {
 		return queryResponse.toString();
@@ -1,14 +1,23 @@
 package io.zulia.client.result;
 
+import io.zulia.message.ZuliaServiceOuterClass.ShardGeneration;
+
 import static io.zulia.message.ZuliaServiceOuterClass.StoreResponse;
 
 public class StoreResult extends Result {
 
-	@SuppressWarnings("unused")
 	private final StoreResponse storeResponse;
 
 	public StoreResult(StoreResponse storeResponse) {
 		this.storeResponse = storeResponse;
 	}
 
+	/**
+	 * @return the write to the shard for {@link io.zulia.client.command.builder.Search#addMinShardGeneration(ShardGeneration)}, null when no
+	 * document was indexed
+	 */
+	public ShardGeneration getShardGeneration() {
+		return storeResponse.hasShardGeneration() ? storeResponse.getShardGeneration() : null;
+	}
+
 }
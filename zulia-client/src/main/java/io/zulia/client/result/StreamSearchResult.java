@@ -0,0 +1,124 @@
+package io.zulia.client.result;
+
+import io.grpc.Context;
+import io.zulia.message.ZuliaQuery.ScoredResult;
+import io.zulia.message.ZuliaServiceOuterClass.QueryResponse;
+import io.zulia.message.ZuliaServiceOuterClass.StreamQueryResponse;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The results of a stream search.  The first chunk is read when the result is created so the total hits and facets are available before the
+ * results are iterated.  The results can only be iterated once and the remaining chunks are read from the server as they are iterated.
+ * <p>
+ * The call stays open on the server, holding the readers of the search, until every result is read or the result is closed.  Close it with
+ * try-with-resources when the results may not be read to the end
+ */
+public class StreamSearchResult extends Result implements AutoCloseable {
+
+	private final Iterator<StreamQueryResponse> chunks;
+	private final Context.CancellableContext context;
+	private final SearchResult summary;
+	private Iterator<ScoredResult> chunkResults;
+
+	/**
+	 * @param chunks  the responses of the call
+	 * @param context the context the call was started in, cancelling it cancels the call
+	 */
+	public StreamSearchResult(Iterator<StreamQueryResponse> chunks, Context.CancellableContext context) {
+		this.chunks = chunks;
+		this.context = context;
+		if (hasNextChunk()) {
+			StreamQueryResponse first = nextChunk();
+			this.summary = new SearchResult(first.getSummary());
+			this.chunkResults = first.getResultsList().iterator();
+		}
+		else {
+			this.summary = new SearchResult(QueryResponse.getDefaultInstance());
+			this.chunkResults = Collections.emptyIterator();
+		}
+	}
+
+	private boolean hasNextChunk() {
+		try {
+			if (chunks.hasNext()) {
+				return true;
+			}
+		}
+		catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+		// the server completed the call so there is nothing left to cancel
+		close();
+		return false;
+	}
+
+	private StreamQueryResponse nextChunk() {
+		try {
+			return chunks.next();
+		}
+		catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the response of the search without its results, includes the total hits, facets and stats
+	 */
+	public SearchResult getSummary() {
+		return summary;
+	}
+
+	public long getTotalHits() {
+		return summary.getTotalHits();
+	}
+
+	public Iterator<CompleteResult> getCompleteResults() {
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				while (!chunkResults.hasNext()) {
+					if (!hasNextChunk()) {
+						return false;
+					}
+					chunkResults = nextChunk().getResultsList().iterator();
+				}
+				return true;
+			}
+
+			@Override
+			public CompleteResult next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return new CompleteResult(chunkResults.next());
+			}
+		};
+	}
+
+	/**
+	 * Closing the returned stream closes this result
+	 */
+	public Stream<CompleteResult> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(getCompleteResults(), Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(this::close);
+	}
+
+	/**
+	 * Cancels the call if the results were not read to the end so the server stops the search and releases its readers.  Closing more than once
+	 * or after the last result was read does nothing
+	 */
+	@Override
+	public void close() {
+		context.cancel(null);
+	}
+
+}
@@ -202,6 +202,14 @@ public class FieldConfigBuilder {
 		return indexAs(builder.build());
 	}
 
+	/**
+	 * Indexes the field with offsets in the postings so the unified highlighter does not analyze the stored text again.  Must be set before the
+	 * field is indexed, an index that already has documents for the field has to be recreated
+	 */
+	public FieldConfigBuilder indexWithOffsets(String analyzerName) {
+		return indexAs(IndexAs.newBuilder().setIndexFieldName(storedFieldName).setAnalyzerName(analyzerName).setIndexOffsets(true).build());
+	}
+
 	public FieldConfigBuilder indexAs(IndexAs indexAs) {
 		this.indexAsList.add(indexAs);
 		return this;
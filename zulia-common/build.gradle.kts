@@ -18,6 +18,7 @@ dependencies {
     api(libs.javax.annotation)
     api(libs.protobuf.java.util)
     api(libs.simplemagic)
+    implementation(libs.snappy.java)
 
     // commented out and DDSketch.proto is copied from the ddsktech repo, until ddsketch is patched to fix the poisoning
     // https://github.com/DataDog/sketches-java/issues/76
@@ -10,4 +10,6 @@ import static io.grpc.Metadata.Key;
  */
 public interface MetaKeys {
 	Key<String> ERROR_KEY = Key.of("error", ASCII_STRING_MARSHALLER);
+	// milliseconds a client should wait before retrying a call the node rejected with RESOURCE_EXHAUSTED
+	Key<String> RETRY_AFTER_MS_KEY = Key.of("retry-after-ms", ASCII_STRING_MARSHALLER);
 }
@@ -13,6 +13,7 @@ public class FieldAndSubFields {
 
 	private final Map<String, Set<String>> topLevelToChildren = new HashMap<>();
 	private final Set<String> topLevelFields = new HashSet<>();
+	private final Map<String, FieldAndSubFields> topLevelToChildFields = new HashMap<>();
 
 	public FieldAndSubFields(Collection<String> fields) {
 		for (String field : fields) {
@@ -26,6 +27,11 @@ public class FieldAndSubFields {
 				topLevelFields.add(field);
 			}
 		}
+
+		// built once so filtering many documents does not split the sub fields again for every document
+		for (Map.Entry<String, Set<String>> entry : topLevelToChildren.entrySet()) {
+			topLevelToChildFields.put(entry.getKey(), new FieldAndSubFields(entry.getValue()));
+		}
 	}
 
 	public Map<String, Set<String>> getTopLevelToChildren() {
@@ -35,4 +41,11 @@ public class FieldAndSubFields {
 	public Set<String> getTopLevelFields() {
 		return topLevelFields;
 	}
+
+	/**
+	 * @return the sub fields of the top level field, or {@link #NO_FIELDS} if it has none
+	 */
+	public FieldAndSubFields getChildFields(String topLevelField) {
+		return topLevelToChildFields.getOrDefault(topLevelField, NO_FIELDS);
+	}
 }
@@ -0,0 +1,157 @@
+package io.zulia.util;
+
+import org.bson.BsonType;
+import org.bson.io.BasicOutputBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filters the return and masked fields out of a bson encoded document without decoding it.  The elements kept are copied from the stored
+ * bytes as they are and only the sub documents that are filtered are walked.  Keeps the same fields as
+ * {@link ZuliaUtil#filterDocument(org.bson.Document, FieldAndSubFields, FieldAndSubFields)}
+ */
+public class RawDocumentFilter {
+
+	public static byte[] filterDocument(byte[] bson, FieldAndSubFields returnFields, FieldAndSubFields maskFields) {
+		if (bson.length == 0) {
+			return bson;
+		}
+		BasicOutputBuffer outputBuffer = new BasicOutputBuffer(Math.min(bson.length, 1024));
+		filterDocument(bson, 0, outputBuffer, returnFields, maskFields);
+		return outputBuffer.toByteArray();
+	}
+
+	private static void filterDocument(byte[] bson, int start, BasicOutputBuffer out, FieldAndSubFields returnFields, FieldAndSubFields maskFields) {
+		int size = readInt(bson, start);
+
+		boolean hasReturn = !returnFields.getTopLevelFields().isEmpty();
+		boolean hasMask = !maskFields.getTopLevelFields().isEmpty();
+		if (!hasReturn && !hasMask) {
+			out.writeBytes(bson, start, size);
+			return;
+		}
+
+		Set<String> topLevelFieldsToReturn = returnFields.getTopLevelFields();
+		Set<String> topLevelFieldsToMask = maskFields.getTopLevelFields();
+		Map<String, Set<String>> topLevelToChildrenToReturn = returnFields.getTopLevelToChildren();
+		Map<String, Set<String>> topLevelToChildrenToMask = maskFields.getTopLevelToChildren();
+
+		int sizePosition = out.getPosition();
+		out.writeInt32(0);
+
+		// the document ends with a 0 byte
+		int end = start + size - 1;
+		int position = start + 4;
+		while (position < end) {
+			BsonType bsonType = BsonType.findByValue(bson[position] & 0xFF);
+			int nameStart = position + 1;
+			int nameEnd = nameStart;
+			while (bson[nameEnd] != 0) {
+				nameEnd++;
+			}
+			int valueStart = nameEnd + 1;
+			int valueEnd = valueStart + getValueSize(bson, bsonType, valueStart);
+			String field = new String(bson, nameStart, nameEnd - nameStart, StandardCharsets.UTF_8);
+
+			boolean remove;
+			boolean filterChildren;
+			if (hasReturn) {
+				remove = (!topLevelFieldsToReturn.contains(field) && !topLevelToChildrenToMask.containsKey(field)) || (topLevelFieldsToMask.contains(field)
+						&& !topLevelToChildrenToMask.containsKey(field));
+				filterChildren = topLevelToChildrenToReturn.containsKey(field) || topLevelToChildrenToMask.containsKey(field);
+			}
+			else {
+				remove = topLevelFieldsToMask.contains(field) && !topLevelToChildrenToMask.containsKey(field);
+				filterChildren = topLevelToChildrenToMask.containsKey(field);
+			}
+
+			if (!remove) {
+				if (filterChildren && (BsonType.DOCUMENT.equals(bsonType) || BsonType.ARRAY.equals(bsonType))) {
+					// type and name
+					out.writeBytes(bson, position, valueStart - position);
+					filterValue(bson, bsonType, valueStart, out, returnFields.getChildFields(field), maskFields.getChildFields(field));
+				}
+				else {
+					out.writeBytes(bson, position, valueEnd - position);
+				}
+			}
+			position = valueEnd;
+		}
+
+		out.writeByte(0);
+		out.writeInt32(sizePosition, out.getPosition() - sizePosition);
+	}
+
+	private static void filterValue(byte[] bson, BsonType bsonType, int start, BasicOutputBuffer out, FieldAndSubFields returnFields,
+			FieldAndSubFields maskFields) {
+		if (BsonType.DOCUMENT.equals(bsonType)) {
+			filterDocument(bson, start, out, returnFields, maskFields);
+			return;
+		}
+
+		// every document in a list is filtered, including in nested lists, and other values are kept
+		int size = readInt(bson, start);
+		int sizePosition = out.getPosition();
+		out.writeInt32(0);
+
+		int end = start + size - 1;
+		int position = start + 4;
+		while (position < end) {
+			BsonType elementType = BsonType.findByValue(bson[position] & 0xFF);
+			int valueStart = position + 1;
+			while (bson[valueStart] != 0) {
+				valueStart++;
+			}
+			valueStart++;
+			int valueEnd = valueStart + getValueSize(bson, elementType, valueStart);
+
+			if (BsonType.DOCUMENT.equals(elementType) || BsonType.ARRAY.equals(elementType)) {
+				out.writeBytes(bson, position, valueStart - position);
+				filterValue(bson, elementType, valueStart, out, returnFields, maskFields);
+			}
+			else {
+				out.writeBytes(bson, position, valueEnd - position);
+			}
+			position = valueEnd;
+		}
+
+		out.writeByte(0);
+		out.writeInt32(sizePosition, out.getPosition() - sizePosition);
+	}
+
+	private static int getValueSize(byte[] bson, BsonType bsonType, int valueStart) {
+		if (bsonType == null) {
+			throw new IllegalArgumentException("Unknown bson type <" + bson[valueStart - 1] + ">");
+		}
+		return switch (bsonType) {
+			case DOUBLE, DATE_TIME, TIMESTAMP, INT64 -> 8;
+			case STRING, JAVASCRIPT, SYMBOL -> 4 + readInt(bson, valueStart);
+			case DOCUMENT, ARRAY, JAVASCRIPT_WITH_SCOPE -> readInt(bson, valueStart);
+			case BINARY -> 5 + readInt(bson, valueStart);
+			case UNDEFINED, NULL, MIN_KEY, MAX_KEY, END_OF_DOCUMENT -> 0;
+			case OBJECT_ID -> 12;
+			case BOOLEAN -> 1;
+			case INT32 -> 4;
+			case DECIMAL128 -> 16;
+			case DB_POINTER -> 4 + readInt(bson, valueStart) + 12;
+			case REGULAR_EXPRESSION -> {
+				// pattern and options are both null terminated strings
+				int position = valueStart;
+				while (bson[position] != 0) {
+					position++;
+				}
+				position++;
+				while (bson[position] != 0) {
+					position++;
+				}
+				yield position + 1 - valueStart;
+			}
+		};
+	}
+
+	private static int readInt(byte[] bson, int position) {
+		return (bson[position] & 0xFF) | (bson[position + 1] & 0xFF) << 8 | (bson[position + 2] & 0xFF) << 16 | (bson[position + 3] & 0xFF) << 24;
+	}
+}
@@ -1,7 +1,13 @@
 package io.zulia.util;
 
+import com.google.protobuf.ByteString;
+import io.zulia.message.ZuliaBase;
 import io.zulia.util.document.DocumentHelper;
 import org.bson.Document;
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import static io.zulia.message.ZuliaBase.ResultDocument;
 import static io.zulia.message.ZuliaBase.ResultDocumentOrBuilder;
@@ -22,11 +28,30 @@ public class ResultHelper {
 
 	public static Document getDocumentFromResultDocument(ResultDocumentOrBuilder rd) {
 		if (rd.getDocument() != null) {
-			return ZuliaUtil.byteArrayToMongoDocument(rd.getDocument().toByteArray());
+			return ZuliaUtil.byteArrayToMongoDocument(getBytes(rd, rd.getDocument()));
 		}
 		return null;
 	}
 
+	public static Document getMetadataFromResultDocument(ResultDocumentOrBuilder rd) {
+		return ZuliaUtil.byteArrayToMongoDocument(getBytes(rd, rd.getMetadata()));
+	}
+
+	/**
+	 * @return the bson bytes of the document or metadata, decompressed if the server returned them as stored
+	 */
+	private static byte[] getBytes(ResultDocumentOrBuilder rd, ByteString bytes) {
+		if (ZuliaBase.DocumentCodec.SNAPPY.equals(rd.getDocumentCodec()) && !bytes.isEmpty()) {
+			try {
+				return Snappy.uncompress(bytes.toByteArray());
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException("Failed to decompress document <" + rd.getUniqueId() + ">", e);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
 	@Deprecated
 	public static Object getValueFromMongoDocument(org.bson.Document mongoDocument, String storedFieldName) {
 		return DocumentHelper.getValueFromMongoDocument(mongoDocument, storedFieldName);
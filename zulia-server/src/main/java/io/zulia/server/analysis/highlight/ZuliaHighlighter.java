@@ -1,29 +1,22 @@
 package io.zulia.server.analysis.highlight;
 
-import io.zulia.server.analysis.ZuliaPerFieldAnalyzer;
-import org.apache.lucene.analysis.TokenStream;
-import org.apache.lucene.search.highlight.Formatter;
-import org.apache.lucene.search.highlight.Highlighter;
-import org.apache.lucene.search.highlight.Scorer;
+import org.apache.lucene.index.LeafReader;
+
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Created by Matt Davis on 6/21/16.
  *
  * @author mdavis
  */
-public class ZuliaHighlighter extends Highlighter {
-	private final String highlightField;
+public abstract class ZuliaHighlighter {
 	private final String storedFieldName;
 	private final int numberOfFragments;
-	private final ZuliaPerFieldAnalyzer zuliaPerFieldAnalyzer;
 
-	public ZuliaHighlighter(Formatter formatter, Scorer fragmentScorer, String highlightField, String storedFieldName, int numberOfFragments,
-			ZuliaPerFieldAnalyzer zuliaPerFieldAnalyzer) {
-		super(formatter, fragmentScorer);
-		this.numberOfFragments = numberOfFragments;
+	protected ZuliaHighlighter(String storedFieldName, int numberOfFragments) {
 		this.storedFieldName = storedFieldName;
-		this.highlightField = highlightField;
-		this.zuliaPerFieldAnalyzer = zuliaPerFieldAnalyzer;
+		this.numberOfFragments = numberOfFragments;
 	}
 
 	public String getStoredFieldName() {
@@ -34,7 +27,11 @@ public class ZuliaHighlighter extends Highlighter {
 		return numberOfFragments;
 	}
 
-	public TokenStream getTokenStream(String content) {
-		return zuliaPerFieldAnalyzer.tokenStream(highlightField, content);
-	}
+	/**
+	 * @param storedFieldValues the value of the stored field from the document, a single value or a list of values
+	 * @param leafReader        the segment the document is in
+	 * @param localDocId        the id of the document in the segment
+	 * @return the highlighted fragments that matched the query
+	 */
+	public abstract List<String> getFragments(Object storedFieldValues, LeafReader leafReader, int localDocId) throws IOException;
 }
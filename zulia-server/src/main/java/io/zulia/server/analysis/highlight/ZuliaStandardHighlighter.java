@@ -0,0 +1,60 @@
+package io.zulia.server.analysis.highlight;
+
+import io.zulia.server.analysis.ZuliaPerFieldAnalyzer;
+import io.zulia.util.ZuliaUtil;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.search.highlight.Formatter;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.Scorer;
+import org.apache.lucene.search.highlight.TextFragment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Highlights by analyzing each stored value again with the analyzer of the highlighted field
+ */
+public class ZuliaStandardHighlighter extends ZuliaHighlighter {
+	private final Highlighter highlighter;
+	private final String highlightField;
+	private final ZuliaPerFieldAnalyzer zuliaPerFieldAnalyzer;
+
+	public ZuliaStandardHighlighter(Formatter formatter, Scorer fragmentScorer, String highlightField, String storedFieldName, int numberOfFragments,
+			ZuliaPerFieldAnalyzer zuliaPerFieldAnalyzer) {
+		super(storedFieldName, numberOfFragments);
+		this.highlighter = new Highlighter(formatter, fragmentScorer);
+		this.highlightField = highlightField;
+		this.zuliaPerFieldAnalyzer = zuliaPerFieldAnalyzer;
+	}
+
+	public Highlighter getHighlighter() {
+		return highlighter;
+	}
+
+	public TokenStream getTokenStream(String content) {
+		return zuliaPerFieldAnalyzer.tokenStream(highlightField, content);
+	}
+
+	@Override
+	public List<String> getFragments(Object storedFieldValues, LeafReader leafReader, int localDocId) {
+		List<String> fragments = new ArrayList<>();
+		ZuliaUtil.handleLists(storedFieldValues, (value) -> {
+			String content = value.toString();
+
+			try (TokenStream tokenStream = getTokenStream(content)) {
+				TextFragment[] bestTextFragments = highlighter.getBestTextFragments(tokenStream, content, false, getNumberOfFragments());
+				for (TextFragment bestTextFragment : bestTextFragments) {
+					if (bestTextFragment != null && bestTextFragment.getScore() > 0) {
+						fragments.add(bestTextFragment.toString());
+					}
+				}
+			}
+			catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+
+		});
+		return fragments;
+	}
+}
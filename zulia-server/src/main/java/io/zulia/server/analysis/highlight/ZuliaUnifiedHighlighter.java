@@ -0,0 +1,97 @@
+package io.zulia.server.analysis.highlight;
+
+import io.zulia.util.ZuliaUtil;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.FieldHighlighter;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.Passage;
+import org.apache.lucene.search.uhighlight.PassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+
+import java.io.IOException;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Highlights with a {@link UnifiedHighlighter}.  When the field is indexed with offsets in the postings the matches are read from the postings
+ * of the document and the stored text is only cut into passages, otherwise the stored text is analyzed again like the standard highlighter
+ */
+public class ZuliaUnifiedHighlighter extends ZuliaHighlighter {
+
+	private final FieldHighlighter fieldHighlighter;
+
+	public ZuliaUnifiedHighlighter(IndexSearcher indexSearcher, Analyzer analyzer, Query query, String highlightField, String storedFieldName,
+			int numberOfFragments, int fragmentLength, String preTag, String postTag) {
+		super(storedFieldName, numberOfFragments);
+
+		// the passages are cut at the sentence boundary closest to the fragment length, documents without a match get no fragments like the
+		// standard highlighter
+		UnifiedHighlighter.Builder builder = UnifiedHighlighter.builder(indexSearcher, analyzer)
+				.withBreakIterator(() -> LengthGoalBreakIterator.createClosestToLength(BreakIterator.getSentenceInstance(Locale.ROOT), fragmentLength))
+				.withFormatter(new FragmentPassageFormatter(preTag, postTag)).withMaxNoHighlightPassages(0);
+		this.fieldHighlighter = new FieldHighlighterFactory(builder).getFieldHighlighter(highlightField, query, numberOfFragments);
+	}
+
+	@Override
+	public List<String> getFragments(Object storedFieldValues, LeafReader leafReader, int localDocId) throws IOException {
+		// values of a list are indexed one after the other with an offset gap of one, which matches the single separator char the unified
+		// highlighter expects between values
+		StringBuilder content = new StringBuilder();
+		ZuliaUtil.handleLists(storedFieldValues, (value) -> {
+			if (value != null) {
+				if (!content.isEmpty()) {
+					content.append(UnifiedHighlighter.MULTIVAL_SEP_CHAR);
+				}
+				content.append(value);
+			}
+		});
+
+		String[] fragments = (String[]) fieldHighlighter.highlightFieldForDoc(leafReader, localDocId, content.toString());
+		return fragments != null ? List.of(fragments) : List.of();
+	}
+
+	private static class FieldHighlighterFactory extends UnifiedHighlighter {
+
+		private FieldHighlighterFactory(Builder builder) {
+			super(builder);
+		}
+
+		private FieldHighlighter getFieldHighlighter(String field, Query query, int maxPassages) {
+			Set<Term> queryTerms = new HashSet<>();
+			query.visit(QueryVisitor.termCollector(queryTerms));
+			return getFieldHighlighter(field, query, queryTerms, maxPassages);
+		}
+	}
+
+	/**
+	 * Formats every passage as its own fragment instead of joining them
+	 */
+	private static class FragmentPassageFormatter extends PassageFormatter {
+
+		private final DefaultPassageFormatter passageFormatter;
+
+		private FragmentPassageFormatter(String preTag, String postTag) {
+			this.passageFormatter = new DefaultPassageFormatter(preTag, postTag, "", false);
+		}
+
+		@Override
+		public String[] format(Passage[] passages, String content) {
+			List<String> fragments = new ArrayList<>(passages.length);
+			for (Passage passage : passages) {
+				String fragment = passageFormatter.format(new Passage[] { passage }, content);
+				fragments.add(fragment.replace(UnifiedHighlighter.MULTIVAL_SEP_CHAR, ' ').trim());
+			}
+			return fragments.toArray(new String[0]);
+		}
+	}
+}
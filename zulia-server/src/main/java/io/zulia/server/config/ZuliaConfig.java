@@ -10,6 +10,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Singleton
 @NullMarked
@@ -64,6 +65,52 @@ public class ZuliaConfig {
 	// write-active replicated indexes would cycle in and out of memory.
 	private boolean transientIndexEvictReplicated = false;
 
+	// Bytes of serialized query results cached across every shard and index on this node. 0 = 10% of the
+	// max heap. Each index is entitled to an equal share among the indexes using the cache.
+	private long queryCacheMaxBytes = 0;
+
+	// Bytes of per-segment filter doc id sets cached for FILTER and FILTER_NOT clauses across every index on
+	// this node. 0 = 5% of the max heap. Filters are only cached after repeated use.
+	private long filterCacheMaxBytes = 0;
+
+	// Maximum number of distinct filter queries in the filter cache.
+	private int filterCacheMaxQueries = 1000;
+
+	// Maximum number of point in time searches pinning shard readers on this node at once.  Each pins the segments
+	// its shards had when it was created until it expires.
+	private int pointInTimeMaxLeases = 100;
+
+	// Upper bound on how long a point in time search may keep its readers pinned after its last page.
+	private long pointInTimeMaxKeepAliveMs = 3_600_000;
+
+	// Number of parsed queries cached per index so repeated query text skips the query parser.  0 disables the cache.
+	private int parsedQueryCacheSize = 1000;
+
+	// Segment and document tasks run at once across every search on this node.  0 = the number of processors.
+	private int searchThreads = 0;
+
+	// Share of the search threads an index gets while other indexes have tasks waiting, relative to the default weight of 1.
+	private Map<String, Integer> searchIndexWeights = Collections.emptyMap();
+
+	// Search tasks an index may run at once.  Indexes not listed use searchDefaultIndexQuota.
+	private Map<String, Integer> searchIndexQuotas = Collections.emptyMap();
+
+	// Search tasks an index not in searchIndexQuotas may run at once.  0 = no limit beyond searchThreads.
+	private int searchDefaultIndexQuota = 0;
+
+	// Adaptive concurrency limits on the query, store and fetch calls of this node.  Calls over a limit fail fast with RESOURCE_EXHAUSTED.
+	private boolean admissionControl = false;
+
+	// Limit each call type starts at before it adapts to the observed latency, and the bounds it adapts within.
+	private int admissionInitialLimit = 20;
+	private int admissionMinLimit = 4;
+	private int admissionMaxLimit = 1000;
+
+	// Latency above which a finished call lowers the limit of its call type.
+	private long queryLatencyTargetMs = 1000;
+	private long storeLatencyTargetMs = 500;
+	private long fetchLatencyTargetMs = 200;
+
 	public ZuliaConfig() {
 	}
 
@@ -251,6 +298,142 @@ public class ZuliaConfig {
 		this.transientIndexEvictReplicated = transientIndexEvictReplicated;
 	}
 
+	public long getQueryCacheMaxBytes() {
+		return queryCacheMaxBytes;
+	}
+
+	public void setQueryCacheMaxBytes(long queryCacheMaxBytes) {
+		this.queryCacheMaxBytes = queryCacheMaxBytes;
+	}
+
+	public long getFilterCacheMaxBytes() {
+		return filterCacheMaxBytes;
+	}
+
+	public void setFilterCacheMaxBytes(long filterCacheMaxBytes) {
+		this.filterCacheMaxBytes = filterCacheMaxBytes;
+	}
+
+	public int getFilterCacheMaxQueries() {
+		return filterCacheMaxQueries;
+	}
+
+	public void setFilterCacheMaxQueries(int filterCacheMaxQueries) {
+		this.filterCacheMaxQueries = filterCacheMaxQueries;
+	}
+
+	public int getPointInTimeMaxLeases() {
+		return pointInTimeMaxLeases;
+	}
+
+	public void setPointInTimeMaxLeases(int pointInTimeMaxLeases) {
+		this.pointInTimeMaxLeases = pointInTimeMaxLeases;
+	}
+
+	public long getPointInTimeMaxKeepAliveMs() {
+		return pointInTimeMaxKeepAliveMs;
+	}
+
+	public void setPointInTimeMaxKeepAliveMs(long pointInTimeMaxKeepAliveMs) {
+		this.pointInTimeMaxKeepAliveMs = pointInTimeMaxKeepAliveMs;
+	}
+
+	public int getParsedQueryCacheSize() {
+		return parsedQueryCacheSize;
+	}
+
+	public void setParsedQueryCacheSize(int parsedQueryCacheSize) {
+		this.parsedQueryCacheSize = parsedQueryCacheSize;
+	}
+
+	public int getSearchThreads() {
+		return searchThreads;
+	}
+
+	public void setSearchThreads(int searchThreads) {
+		this.searchThreads = searchThreads;
+	}
+
+	public Map<String, Integer> getSearchIndexWeights() {
+		return searchIndexWeights;
+	}
+
+	public void setSearchIndexWeights(Map<String, Integer> searchIndexWeights) {
+		this.searchIndexWeights = searchIndexWeights;
+	}
+
+	public Map<String, Integer> getSearchIndexQuotas() {
+		return searchIndexQuotas;
+	}
+
+	public void setSearchIndexQuotas(Map<String, Integer> searchIndexQuotas) {
+		this.searchIndexQuotas = searchIndexQuotas;
+	}
+
+	public int getSearchDefaultIndexQuota() {
+		return searchDefaultIndexQuota;
+	}
+
+	public void setSearchDefaultIndexQuota(int searchDefaultIndexQuota) {
+		this.searchDefaultIndexQuota = searchDefaultIndexQuota;
+	}
+
+	public boolean isAdmissionControl() {
+		return admissionControl;
+	}
+
+	public void setAdmissionControl(boolean admissionControl) {
+		this.admissionControl = admissionControl;
+	}
+
+	public int getAdmissionInitialLimit() {
+		return admissionInitialLimit;
+	}
+
+	public void setAdmissionInitialLimit(int admissionInitialLimit) {
+		this.admissionInitialLimit = admissionInitialLimit;
+	}
+
+	public int getAdmissionMinLimit() {
+		return admissionMinLimit;
+	}
+
+	public void setAdmissionMinLimit(int admissionMinLimit) {
+		this.admissionMinLimit = admissionMinLimit;
+	}
+
+	public int getAdmissionMaxLimit() {
+		return admissionMaxLimit;
+	}
+
+	public void setAdmissionMaxLimit(int admissionMaxLimit) {
+		this.admissionMaxLimit = admissionMaxLimit;
+	}
+
+	public long getQueryLatencyTargetMs() {
+		return queryLatencyTargetMs;
+	}
+
+	public void setQueryLatencyTargetMs(long queryLatencyTargetMs) {
+		this.queryLatencyTargetMs = queryLatencyTargetMs;
+	}
+
+	public long getStoreLatencyTargetMs() {
+		return storeLatencyTargetMs;
+	}
+
+	public void setStoreLatencyTargetMs(long storeLatencyTargetMs) {
+		this.storeLatencyTargetMs = storeLatencyTargetMs;
+	}
+
+	public long getFetchLatencyTargetMs() {
+		return fetchLatencyTargetMs;
+	}
+
+	public void setFetchLatencyTargetMs(long fetchLatencyTargetMs) {
+		this.fetchLatencyTargetMs = fetchLatencyTargetMs;
+	}
+
 	@Override
 	public String toString() {
 		return "ZuliaConfig{" + "dataPath='" + dataPath + '\'' + ", cluster=" + cluster + ", clusterName='" + clusterName + '\'' + ", clusterStorageEngine='"
@@ -260,6 +443,13 @@ public class ZuliaConfig {
 				+ debug + ", maxFacetsCachedPerDimension=" + maxFacetsCachedPerDimension + ", hitsPerConcurrentRequest=" + hitsPerConcurrentRequest
 				+ ", replicaResponseTimeout=" + replicaResponseTimeout + ", replicationMaxBytesPerSec=" + replicationMaxBytesPerSec
 				+ ", transientIndexCacheSize=" + transientIndexCacheSize + ", transientIndexIdleTimeoutSeconds=" + transientIndexIdleTimeoutSeconds
-				+ ", transientIndexEvictReplicated=" + transientIndexEvictReplicated + '}';
+				+ ", transientIndexEvictReplicated=" + transientIndexEvictReplicated + ", queryCacheMaxBytes=" + queryCacheMaxBytes
+				+ ", filterCacheMaxBytes=" + filterCacheMaxBytes + ", filterCacheMaxQueries=" + filterCacheMaxQueries + ", pointInTimeMaxLeases="
+				+ pointInTimeMaxLeases + ", pointInTimeMaxKeepAliveMs=" + pointInTimeMaxKeepAliveMs
+				+ ", parsedQueryCacheSize=" + parsedQueryCacheSize + ", searchThreads=" + searchThreads + ", searchIndexWeights=" + searchIndexWeights
+				+ ", searchIndexQuotas=" + searchIndexQuotas + ", searchDefaultIndexQuota=" + searchDefaultIndexQuota + ", admissionControl="
+				+ admissionControl + ", admissionInitialLimit=" + admissionInitialLimit + ", admissionMinLimit=" + admissionMinLimit + ", admissionMaxLimit="
+				+ admissionMaxLimit + ", queryLatencyTargetMs=" + queryLatencyTargetMs + ", storeLatencyTargetMs=" + storeLatencyTargetMs
+				+ ", fetchLatencyTargetMs=" + fetchLatencyTargetMs + '}';
 	}
 }
@@ -0,0 +1,130 @@
+package io.zulia.server.connection.server;
+
+import io.zulia.message.ZuliaBase.AdmissionLimitStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one type of call that adapts to the latency of the calls it admits (AIMD).  The limit grows by one for each call that
+ * finishes under the latency target while at least half the limit was in use, and is cut by a tenth when a call finishes over the target.
+ * Only a call that started after the last cut can cut the limit again, so a burst of slow calls lowers it once instead of once per call.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private static final double BACKOFF_RATIO = 0.9;
+	private static final double LATENCY_SMOOTHING = 0.1;
+
+	private final String name;
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyTargetNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private double limit;
+	private int inFlight;
+	private long lastDecreaseNanos;
+	private double smoothedLatencyNanos;
+	private long admittedCount;
+	private long rejectedCount;
+
+	public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, long latencyTargetMs) {
+		this.name = name;
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+		this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+		this.lastDecreaseNanos = System.nanoTime();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return true if the call is admitted and must be released once it finishes, false if the limit is in use
+	 */
+	public boolean tryAcquire() {
+		lock.lock();
+		try {
+			if (inFlight >= (int) limit) {
+				rejectedCount++;
+				return false;
+			}
+			inFlight++;
+			admittedCount++;
+			return true;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param startNanos start of the admitted call
+	 * @param sample     false when the call failed or was cancelled, its latency then says nothing about the load on the node
+	 */
+	public void release(long startNanos, boolean sample) {
+		long now = System.nanoTime();
+		long latencyNanos = now - startNanos;
+
+		lock.lock();
+		try {
+			boolean limited = inFlight * 2 >= limit;
+			inFlight--;
+			if (!sample) {
+				return;
+			}
+
+			smoothedLatencyNanos = smoothedLatencyNanos == 0 ? latencyNanos : smoothedLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+
+			if (latencyNanos > latencyTargetNanos) {
+				if (startNanos - lastDecreaseNanos > 0) {
+					limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+					lastDecreaseNanos = now;
+				}
+			}
+			else if (limited) {
+				limit = Math.min(maxLimit, limit + 1);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public int getLimit() {
+		lock.lock();
+		try {
+			return (int) limit;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return how long a rejected call should wait before it is retried, the smoothed latency of the admitted calls is about how long it takes
+	 * for one of them to finish
+	 */
+	public long getRetryAfterMs() {
+		lock.lock();
+		try {
+			return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) smoothedLatencyNanos));
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public AdmissionLimitStats getAdmissionLimitStats() {
+		lock.lock();
+		try {
+			return AdmissionLimitStats.newBuilder().setName(name).setLimit((int) limit).setInFlight(inFlight).setAdmittedCount(admittedCount)
+					.setRejectedCount(rejectedCount).setLatencyMs(TimeUnit.NANOSECONDS.toMillis((long) smoothedLatencyNanos)).build();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package io.zulia.server.connection.server;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.zulia.cache.MetaKeys;
+import io.zulia.message.ZuliaBase.AdmissionLimitStats;
+import io.zulia.message.ZuliaServiceGrpc;
+import io.zulia.server.config.ZuliaConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits query, store and fetch calls from clients through a separate adaptive concurrency limit for each.  A call over its limit is closed
+ * with RESOURCE_EXHAUSTED before it is handled, with the time to wait before retrying in the trailers.  Internal calls between nodes are
+ * not limited, they were already admitted by the node that received the call from the client.
+ */
+public class AdmissionControlIntercept implements ServerInterceptor {
+
+	private final List<AdaptiveConcurrencyLimiter> limiters;
+	private final Map<String, AdaptiveConcurrencyLimiter> methodToLimiter;
+
+	public AdmissionControlIntercept(ZuliaConfig zuliaConfig) {
+		AdaptiveConcurrencyLimiter queryLimiter = createLimiter("query", zuliaConfig, zuliaConfig.getQueryLatencyTargetMs());
+		AdaptiveConcurrencyLimiter storeLimiter = createLimiter("store", zuliaConfig, zuliaConfig.getStoreLatencyTargetMs());
+		AdaptiveConcurrencyLimiter fetchLimiter = createLimiter("fetch", zuliaConfig, zuliaConfig.getFetchLatencyTargetMs());
+
+		limiters = List.of(queryLimiter, storeLimiter, fetchLimiter);
+		methodToLimiter = Map.of(ZuliaServiceGrpc.getQueryMethod().getFullMethodName(), queryLimiter, ZuliaServiceGrpc.getStoreMethod().getFullMethodName(),
+				storeLimiter, ZuliaServiceGrpc.getFetchMethod().getFullMethodName(), fetchLimiter,
+				ZuliaServiceGrpc.getBatchFetchMethod().getFullMethodName(), fetchLimiter);
+	}
+
+	private static AdaptiveConcurrencyLimiter createLimiter(String name, ZuliaConfig zuliaConfig, long latencyTargetMs) {
+		return new AdaptiveConcurrencyLimiter(name, zuliaConfig.getAdmissionInitialLimit(), zuliaConfig.getAdmissionMinLimit(),
+				zuliaConfig.getAdmissionMaxLimit(), latencyTargetMs);
+	}
+
+	@Override
+	public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+		AdaptiveConcurrencyLimiter limiter = methodToLimiter.get(call.getMethodDescriptor().getFullMethodName());
+		if (limiter == null) {
+			return next.startCall(call, headers);
+		}
+
+		if (!limiter.tryAcquire()) {
+			long retryAfterMs = limiter.getRetryAfterMs();
+			Metadata trailers = new Metadata();
+			trailers.put(MetaKeys.ERROR_KEY,
+					"Node is over its " + limiter.getName() + " concurrency limit of " + limiter.getLimit() + ", retry after " + retryAfterMs + "ms");
+			trailers.put(MetaKeys.RETRY_AFTER_MS_KEY, String.valueOf(retryAfterMs));
+			call.close(Status.RESOURCE_EXHAUSTED, trailers);
+			return new ServerCall.Listener<>() {
+			};
+		}
+
+		AdmittedCall<ReqT, RespT> admittedCall = new AdmittedCall<>(call, limiter);
+		try {
+			return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(admittedCall, headers)) {
+
+				@Override
+				public void onCancel() {
+					admittedCall.release(false);
+					super.onCancel();
+				}
+
+				@Override
+				public void onComplete() {
+					// already released when the handler closed the call, this covers a call closed by gRPC after the handler threw
+					admittedCall.release(false);
+					super.onComplete();
+				}
+			};
+		}
+		catch (RuntimeException e) {
+			admittedCall.release(false);
+			throw e;
+		}
+	}
+
+	public List<AdmissionLimitStats> getAdmissionLimitStats() {
+		return limiters.stream().map(AdaptiveConcurrencyLimiter::getAdmissionLimitStats).toList();
+	}
+
+	private static class AdmittedCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+		private final AdaptiveConcurrencyLimiter limiter;
+		private final long startNanos;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private AdmittedCall(ServerCall<ReqT, RespT> call, AdaptiveConcurrencyLimiter limiter) {
+			super(call);
+			this.limiter = limiter;
+			this.startNanos = System.nanoTime();
+		}
+
+		@Override
+		public void close(Status status, Metadata trailers) {
+			release(status.isOk());
+			super.close(status, trailers);
+		}
+
+		private void release(boolean sample) {
+			if (released.compareAndSet(false, true)) {
+				limiter.release(startNanos, sample);
+			}
+		}
+	}
+}
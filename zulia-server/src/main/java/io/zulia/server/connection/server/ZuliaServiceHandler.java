@@ -10,6 +10,7 @@ public class ZuliaServiceHandler extends ZuliaServiceImplBase {
 
 	private final InternalQueryServerRequest internalQueryServerRequest;
 	private final QueryServerRequest queryServerRequest;
+	private final StreamQueryServerRequest streamQueryServerRequest;
 	private final StoreServerRequest storeServerRequest;
 	private final InternalStoreServerRequest internalStoreServerRequest;
 	private final DeleteServerRequest deleteServerRequest;
@@ -51,6 +52,7 @@ public class ZuliaServiceHandler extends ZuliaServiceImplBase {
 	public ZuliaServiceHandler(ZuliaIndexManager indexManager) {
 		internalQueryServerRequest = new InternalQueryServerRequest(indexManager);
 		queryServerRequest = new QueryServerRequest(indexManager);
+		streamQueryServerRequest = new StreamQueryServerRequest(indexManager);
 		storeServerRequest = new StoreServerRequest(indexManager);
 		internalStoreServerRequest = new InternalStoreServerRequest(indexManager);
 		deleteServerRequest = new DeleteServerRequest(indexManager);
@@ -99,6 +101,11 @@ public class ZuliaServiceHandler extends ZuliaServiceImplBase {
 		queryServerRequest.handleRequest(request, responseObserver);
 	}
 
+	@Override
+	public void streamQuery(StreamQueryRequest request, StreamObserver<StreamQueryResponse> responseObserver) {
+		streamQueryServerRequest.handleRequest(request, responseObserver);
+	}
+
 	@Override
 	public void store(StoreRequest request, StreamObserver<StoreResponse> responseObserver) {
 		storeServerRequest.handleRequest(request, responseObserver);
@@ -8,12 +8,14 @@ import io.grpc.ServerInterceptor;
 import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
 import io.grpc.netty.shaded.io.netty.channel.ChannelOption;
 import io.grpc.netty.shaded.io.netty.util.NettyRuntime;
+import io.zulia.message.ZuliaBase.AdmissionLimitStats;
 import io.zulia.server.config.ZuliaConfig;
 import io.zulia.server.index.ZuliaIndexManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +31,8 @@ public class ZuliaServiceServer {
 
 	private final ExecutorService executor;
 
+	private final AdmissionControlIntercept admissionControlIntercept;
+
 	public static class ResponseCompressionIntercept implements ServerInterceptor {
 
 		@Override
@@ -61,9 +65,21 @@ public class ZuliaServiceServer {
 		if (zuliaConfig.isResponseCompression()) {
 			nettyServerBuilder = nettyServerBuilder.intercept(new ResponseCompressionIntercept());
 		}
+
+		if (zuliaConfig.isAdmissionControl()) {
+			admissionControlIntercept = new AdmissionControlIntercept(zuliaConfig);
+			nettyServerBuilder = nettyServerBuilder.intercept(admissionControlIntercept);
+		}
+		else {
+			admissionControlIntercept = null;
+		}
 		server = nettyServerBuilder.build();
 	}
 
+	public List<AdmissionLimitStats> getAdmissionLimitStats() {
+		return admissionControlIntercept != null ? admissionControlIntercept.getAdmissionLimitStats() : List.of();
+	}
+
 	public void start() throws IOException {
 		server.start();
 	}
@@ -6,6 +6,8 @@ import io.zulia.server.index.ZuliaIndexManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CancellationException;
+
 public class InternalQueryServerRequest extends ServerRequestHandler<InternalQueryResponse, InternalQueryRequest> {
 
 	private final static Logger LOG = LoggerFactory.getLogger(InternalQueryServerRequest.class);
@@ -21,6 +23,11 @@ public class InternalQueryServerRequest extends ServerRequestHandler<InternalQue
 
 	@Override
 	protected void onError(Throwable e) {
-		LOG.error("Failed to handle internal query", e);
+		if (e instanceof CancellationException) {
+			LOG.info(e.getMessage());
+		}
+		else {
+			LOG.error("Failed to handle internal query", e);
+		}
 	}
 }
@@ -7,6 +7,8 @@ import io.zulia.server.index.ZuliaIndexManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CancellationException;
+
 public class QueryServerRequest extends ServerRequestHandler<QueryResponse, QueryRequest> {
 
 	private final static Logger LOG = LoggerFactory.getLogger(QueryServerRequest.class);
@@ -25,6 +27,9 @@ public class QueryServerRequest extends ServerRequestHandler<QueryResponse, Quer
 		if (e instanceof IndexDoesNotExistException) {
 			LOG.error(e.getMessage());
 		}
+		else if (e instanceof CancellationException) {
+			LOG.info(e.getMessage());
+		}
 		else {
 			LOG.error("Failed to handle query", e);
 		}
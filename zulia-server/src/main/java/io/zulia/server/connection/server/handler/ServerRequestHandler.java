@@ -5,9 +5,12 @@ import io.grpc.Status;
 import io.grpc.StatusException;
 import io.grpc.stub.StreamObserver;
 import io.zulia.cache.MetaKeys;
+import io.zulia.server.exceptions.PointInTimeDoesNotExistException;
 import io.zulia.server.exceptions.ShardOfflineException;
 import io.zulia.server.index.ZuliaIndexManager;
 
+import java.util.concurrent.CancellationException;
+
 public abstract class ServerRequestHandler<S, Q> {
 
 	private final ZuliaIndexManager indexManager;
@@ -23,26 +26,35 @@ public abstract class ServerRequestHandler<S, Q> {
 			responseObserver.onCompleted();
 		}
 		catch (Throwable e) {
-			Metadata metadata = new Metadata();
-			if (e.getMessage() != null) {
-				metadata.put(MetaKeys.ERROR_KEY, e.getMessage());
-			}
-			else {
-				metadata.put(MetaKeys.ERROR_KEY, e.getClass().getSimpleName());
-			}
-			Status status = Status.UNKNOWN;
-			if (e instanceof IllegalArgumentException) {
-				status = Status.INVALID_ARGUMENT;
-			}
-			if (e instanceof ShardOfflineException) {
-				status = Status.UNAVAILABLE;
-			}
-
-			responseObserver.onError(new StatusException(status, metadata));
+			responseObserver.onError(toStatusException(e));
 			onError(e);
 		}
 	}
 
+	static StatusException toStatusException(Throwable e) {
+		Metadata metadata = new Metadata();
+		if (e.getMessage() != null) {
+			metadata.put(MetaKeys.ERROR_KEY, e.getMessage());
+		}
+		else {
+			metadata.put(MetaKeys.ERROR_KEY, e.getClass().getSimpleName());
+		}
+		Status status = Status.UNKNOWN;
+		if (e instanceof IllegalArgumentException) {
+			status = Status.INVALID_ARGUMENT;
+		}
+		if (e instanceof ShardOfflineException) {
+			status = Status.UNAVAILABLE;
+		}
+		if (e instanceof PointInTimeDoesNotExistException) {
+			status = Status.NOT_FOUND;
+		}
+		if (e instanceof CancellationException) {
+			status = Status.CANCELLED;
+		}
+		return new StatusException(status, metadata);
+	}
+
 	protected abstract S handleCall(ZuliaIndexManager indexManager, Q request) throws Exception;
 
 	protected abstract void onError(Throwable e);
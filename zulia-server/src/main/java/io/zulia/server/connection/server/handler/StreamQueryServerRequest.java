@@ -0,0 +1,91 @@
+package io.zulia.server.connection.server.handler;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.zulia.message.ZuliaServiceOuterClass.StreamQueryRequest;
+import io.zulia.message.ZuliaServiceOuterClass.StreamQueryResponse;
+import io.zulia.server.exceptions.IndexDoesNotExistException;
+import io.zulia.server.index.ZuliaIndexManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class StreamQueryServerRequest {
+
+	private final static Logger LOG = LoggerFactory.getLogger(StreamQueryServerRequest.class);
+	private final ZuliaIndexManager indexManager;
+
+	public StreamQueryServerRequest(ZuliaIndexManager indexManager) {
+		this.indexManager = indexManager;
+	}
+
+	public void handleRequest(StreamQueryRequest request, StreamObserver<StreamQueryResponse> responseObserver) {
+		try {
+			indexManager.streamQuery(request, new FlowControlledObserver((ServerCallStreamObserver<StreamQueryResponse>) responseObserver));
+			responseObserver.onCompleted();
+		}
+		catch (Throwable e) {
+			responseObserver.onError(ServerRequestHandler.toStatusException(e));
+			onError(e);
+		}
+	}
+
+	protected void onError(Throwable e) {
+		if (e instanceof IndexDoesNotExistException) {
+			LOG.error(e.getMessage());
+		}
+		else if (e instanceof CancellationException) {
+			LOG.info(e.getMessage());
+		}
+		else {
+			LOG.error("Failed to handle stream query", e);
+		}
+	}
+
+	/**
+	 * Waits for the client to take the chunks already sent before sending another, so a slow client holds back the search instead of the
+	 * chunks buffering on the server
+	 */
+	private static class FlowControlledObserver implements StreamObserver<StreamQueryResponse> {
+
+		private final ServerCallStreamObserver<StreamQueryResponse> responseObserver;
+		private final Semaphore ready;
+
+		private FlowControlledObserver(ServerCallStreamObserver<StreamQueryResponse> responseObserver) {
+			this.responseObserver = responseObserver;
+			this.ready = new Semaphore(0);
+			responseObserver.setOnReadyHandler(ready::release);
+			responseObserver.setOnCancelHandler(ready::release);
+		}
+
+		@Override
+		public void onNext(StreamQueryResponse value) {
+			try {
+				while (!responseObserver.isReady() && !responseObserver.isCancelled()) {
+					ready.tryAcquire(100, TimeUnit.MILLISECONDS);
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CancellationException("Stream query was interrupted");
+			}
+			if (responseObserver.isCancelled()) {
+				throw new CancellationException("Stream query was cancelled by the client");
+			}
+			responseObserver.onNext(value);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			responseObserver.onError(t);
+		}
+
+		@Override
+		public void onCompleted() {
+			responseObserver.onCompleted();
+		}
+	}
+}
@@ -6,7 +6,9 @@ import io.zulia.message.ZuliaIndex;
 import io.zulia.message.ZuliaIndex.IndexSettings;
 import io.zulia.message.ZuliaServiceOuterClass.CreateIndexRequest;
 import io.zulia.message.ZuliaServiceOuterClass.QueryRequest;
+import io.zulia.server.config.ServerIndexConfig;
 import io.zulia.server.field.FieldTypeUtil;
+import io.zulia.server.search.SortFieldUtil;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -161,6 +163,11 @@ public class CreateIndexRequestValidator implements DefaultValidator<CreateIndex
 
 		}
 
+		if (indexSettings.hasIndexSort()) {
+			// throws if the index sort field is not a sortable field
+			SortFieldUtil.getIndexSort(new ServerIndexConfig(indexSettings.build()));
+		}
+
 		HashSet<String> searchLabels = new HashSet<>();
 		List<ByteString> warmingSearchesList = new ArrayList<>();
 		for (ByteString bytes : indexSettings.getWarmingSearchesList()) {
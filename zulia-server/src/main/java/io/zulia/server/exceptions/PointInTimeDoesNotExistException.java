@@ -0,0 +1,17 @@
+package io.zulia.server.exceptions;
+
+public class PointInTimeDoesNotExistException extends NotFoundException {
+
+	private static final long serialVersionUID = 1L;
+	private final String pointInTimeId;
+
+	public PointInTimeDoesNotExistException(String pointInTimeId) {
+		super("Point in time <" + pointInTimeId + "> does not exist on this node or has expired");
+		this.pointInTimeId = pointInTimeId;
+	}
+
+	public String getPointInTimeId() {
+		return pointInTimeId;
+	}
+
+}
@@ -0,0 +1,6 @@
+package io.zulia.server.index;
+
+import io.zulia.message.ZuliaIndex.FieldConfig;
+
+public record DocValueMeta(String field, String internalSortFieldName, FieldConfig.FieldType fieldType) {
+}
@@ -10,20 +10,23 @@ import io.zulia.server.analysis.highlight.ZuliaHighlighter;
 import io.zulia.server.field.FieldTypeUtil;
 import io.zulia.server.util.BytesRefUtil;
 import io.zulia.util.FieldAndSubFields;
+import io.zulia.util.RawDocumentFilter;
 import io.zulia.util.ZuliaUtil;
 import io.zulia.util.document.DocumentHelper;
-import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.ScoreDoc;
-import org.apache.lucene.search.highlight.TextFragment;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NumericUtils;
 import org.xerial.snappy.Snappy;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 import static io.zulia.ZuliaFieldConstants.STORED_DOC_FIELD;
 import static io.zulia.ZuliaFieldConstants.STORED_ID_FIELD;
@@ -32,12 +35,18 @@ import static io.zulia.ZuliaFieldConstants.STORED_META_FIELD;
 public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuery.ScoredResult> {
 
 
+	private LeafReader leafReader;
+
 	private BinaryDocValues idDocValues;
 
 	private BinaryDocValues metaDocValues;
 
 	private BinaryDocValues fullDocValues;
 
+	private SortedNumericDocValues[] numericDocValues;
+
+	private SortedSetDocValues[] stringDocValues;
+
 	private final String indexName;
 	private final int shardNumber;
 	private final boolean meta;
@@ -48,14 +57,20 @@ public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuer
 
 	private final boolean needsAnalysis;
 
+	private final boolean passCompressed;
+
 	private final FieldAndSubFields fieldsToReturnObj;
 	private final FieldAndSubFields fieldsToMaskObj;
 	private final List<SortMeta> sortMetas;
 	private final List<ZuliaHighlighter> highlighterList;
 	private final List<AnalysisHandler> analysisHandlerList;
+	private final List<DocValueMeta> docValueMetas;
+
+	private LongAdder highlightNanos;
 
 	public DocumentScoredDocLeafHandler(String indexName, int shardNumber, ZuliaQuery.FetchType fetchType, List<String> fieldsToReturn,
-			List<String> fieldsToMask, List<SortMeta> sortMetas, List<ZuliaHighlighter> highlighterList, List<AnalysisHandler> analysisHandlerList) {
+			List<String> fieldsToMask, List<SortMeta> sortMetas, List<ZuliaHighlighter> highlighterList, List<AnalysisHandler> analysisHandlerList,
+			boolean compressedDocuments, List<DocValueMeta> docValueMetas) {
 
 		this.indexName = indexName;
 		this.shardNumber = shardNumber;
@@ -69,12 +84,24 @@ public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuer
 		this.needsAnalysis = !analysisHandlerList.isEmpty();
 		this.sortMetas = sortMetas;
 		this.needsDocFiltering = !fieldsToMask.isEmpty() || !fieldsToReturn.isEmpty();
+		// documents are only returned as stored when nothing needs to read or change them
+		this.passCompressed = compressedDocuments && !needsHighlight && !needsAnalysis && !needsDocFiltering;
+		this.docValueMetas = docValueMetas;
+		this.numericDocValues = new SortedNumericDocValues[docValueMetas.size()];
+		this.stringDocValues = new SortedSetDocValues[docValueMetas.size()];
+
+	}
 
+	/**
+	 * @param highlightNanos adds the time spent highlighting when the query is profiled, null otherwise
+	 */
+	public void setHighlightNanos(LongAdder highlightNanos) {
+		this.highlightNanos = highlightNanos;
 	}
 
 	@Override
 	protected void handleNewLeaf(LeafReaderContext currentLeaf) throws IOException {
-		LeafReader leafReader = currentLeaf.reader();
+		leafReader = currentLeaf.reader();
 
 		idDocValues = leafReader.getBinaryDocValues(STORED_ID_FIELD);
 
@@ -85,6 +112,16 @@ public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuer
 		if (full) {
 			fullDocValues = leafReader.getBinaryDocValues(STORED_DOC_FIELD);
 		}
+
+		for (int i = 0; i < docValueMetas.size(); i++) {
+			DocValueMeta docValueMeta = docValueMetas.get(i);
+			if (FieldTypeUtil.isStringFieldType(docValueMeta.fieldType())) {
+				stringDocValues[i] = leafReader.getSortedSetDocValues(docValueMeta.internalSortFieldName());
+			}
+			else {
+				numericDocValues[i] = leafReader.getSortedNumericDocValues(docValueMeta.internalSortFieldName());
+			}
+		}
 	}
 
 	@Override
@@ -117,46 +154,30 @@ public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuer
 			rdBuilder.setTimestamp(idInfo.getTimestamp());
 			boolean compressed = idInfo.getCompressedDoc();
 
-			if (meta) {
-				if (metaDocValues != null && metaDocValues.advanceExact(localDocId)) {
-					byte[] metaBytes = BytesRefUtil.getByteArray(metaDocValues.binaryValue());
-					if (compressed) {
-						metaBytes = Snappy.uncompress(metaBytes);
-					}
-					rdBuilder.setMetadata(storedByteString(metaBytes, compressed));
+			if (compressed && passCompressed) {
+				// the client decompresses the stored bytes when the document is accessed
+				rdBuilder.setDocumentCodec(ZuliaBase.DocumentCodec.SNAPPY);
+				if (meta && metaDocValues != null && metaDocValues.advanceExact(localDocId)) {
+					rdBuilder.setMetadata(copyByteString(metaDocValues.binaryValue()));
+				}
+				if (full && fullDocValues != null && fullDocValues.advanceExact(localDocId)) {
+					rdBuilder.setDocument(copyByteString(fullDocValues.binaryValue()));
 				}
 			}
-
-			if (full) {
-				if (fullDocValues != null && fullDocValues.advanceExact(localDocId)) {
-					byte[] docBytes = BytesRefUtil.getByteArray(fullDocValues.binaryValue());
-					if (compressed) {
-						docBytes = Snappy.uncompress(docBytes);
-					}
-
-					if (needsHighlight || needsAnalysis || needsDocFiltering) {
-						// Decode straight from the bytes in hand instead of round-tripping through a ByteString and back
-						org.bson.Document mongoDoc = ZuliaUtil.byteArrayToMongoDocument(docBytes);
-						if (needsHighlight) {
-							handleHighlight(highlighterList, srBuilder, mongoDoc);
-						}
-						if (needsAnalysis) {
-							AnalysisHandler.handleDocument(mongoDoc, analysisHandlerList, srBuilder);
-						}
-
-						if (needsDocFiltering) {
-							ZuliaUtil.filterDocument(mongoDoc, fieldsToReturnObj, fieldsToMaskObj);
-							rdBuilder.setDocument(ZuliaUtil.mongoDocumentToByteString(mongoDoc));
-						}
-						else {
-							rdBuilder.setDocument(storedByteString(docBytes, compressed));
+			else {
+				if (meta) {
+					if (metaDocValues != null && metaDocValues.advanceExact(localDocId)) {
+						byte[] metaBytes = BytesRefUtil.getByteArray(metaDocValues.binaryValue());
+						if (compressed) {
+							metaBytes = Snappy.uncompress(metaBytes);
 						}
-					}
-					else {
-						rdBuilder.setDocument(storedByteString(docBytes, compressed));
+						rdBuilder.setMetadata(storedByteString(metaBytes, compressed));
 					}
 				}
 
+				if (full) {
+					handleFullDocument(srBuilder, rdBuilder, localDocId, compressed);
+				}
 			}
 			srBuilder.setResultDocument(rdBuilder);
 
@@ -166,14 +187,105 @@ public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuer
 			handleSortValues(sortMetas, scoreDoc, srBuilder);
 		}
 
+		if (!docValueMetas.isEmpty()) {
+			handleDocValues(localDocId, srBuilder);
+		}
+
 		return srBuilder.build();
 	}
 
+	private void handleDocValues(int localDocId, ZuliaQuery.ScoredResult.Builder srBuilder) throws IOException {
+		for (int i = 0; i < docValueMetas.size(); i++) {
+			DocValueMeta docValueMeta = docValueMetas.get(i);
+			ZuliaQuery.DocValueResult.Builder docValueResult = ZuliaQuery.DocValueResult.newBuilder().setField(docValueMeta.field());
+
+			SortedSetDocValues stringValues = stringDocValues[i];
+			SortedNumericDocValues numericValues = numericDocValues[i];
+			if (stringValues != null && stringValues.advanceExact(localDocId)) {
+				for (int v = 0; v < stringValues.docValueCount(); v++) {
+					String value = stringValues.lookupOrd(stringValues.nextOrd()).utf8ToString();
+					docValueResult.addValue(ZuliaQuery.SortValue.newBuilder().setExists(true).setStringValue(value));
+				}
+			}
+			else if (numericValues != null && numericValues.advanceExact(localDocId)) {
+				for (int v = 0; v < numericValues.docValueCount(); v++) {
+					docValueResult.addValue(getNumericDocValue(docValueMeta.fieldType(), numericValues.nextValue()));
+				}
+			}
+			srBuilder.addDocValueResult(docValueResult);
+		}
+	}
+
+	private static ZuliaQuery.SortValue.Builder getNumericDocValue(ZuliaIndex.FieldConfig.FieldType fieldType, long value) {
+		// decoded the same way the sort values are so a value reads the same from either
+		ZuliaQuery.SortValue.Builder sortValueBuilder = ZuliaQuery.SortValue.newBuilder().setExists(true);
+		if (FieldTypeUtil.isStoredAsInt(fieldType)) {
+			sortValueBuilder.setIntegerValue((int) value);
+		}
+		else if (FieldTypeUtil.isNumericLongFieldType(fieldType)) {
+			sortValueBuilder.setLongValue(value);
+		}
+		else if (FieldTypeUtil.isDateFieldType(fieldType)) {
+			sortValueBuilder.setDateValue(value);
+		}
+		else if (FieldTypeUtil.isNumericFloatFieldType(fieldType)) {
+			sortValueBuilder.setFloatValue(NumericUtils.sortableIntToFloat((int) value));
+		}
+		else if (FieldTypeUtil.isNumericDoubleFieldType(fieldType)) {
+			sortValueBuilder.setDoubleValue(NumericUtils.sortableLongToDouble(value));
+		}
+		return sortValueBuilder;
+	}
+
+	private void handleFullDocument(ZuliaQuery.ScoredResult.Builder srBuilder, ZuliaBase.ResultDocument.Builder rdBuilder, int localDocId,
+			boolean compressed) throws IOException {
+		if (fullDocValues != null && fullDocValues.advanceExact(localDocId)) {
+			byte[] docBytes = BytesRefUtil.getByteArray(fullDocValues.binaryValue());
+			if (compressed) {
+				docBytes = Snappy.uncompress(docBytes);
+			}
+
+			if (needsDocFiltering && !needsHighlight && !needsAnalysis) {
+				// only the fields kept are copied from the stored bytes, the document is never decoded
+				rdBuilder.setDocument(UnsafeByteOperations.unsafeWrap(RawDocumentFilter.filterDocument(docBytes, fieldsToReturnObj, fieldsToMaskObj)));
+			}
+			else if (needsHighlight || needsAnalysis || needsDocFiltering) {
+				// Decode straight from the bytes in hand instead of round-tripping through a ByteString and back
+				org.bson.Document mongoDoc = ZuliaUtil.byteArrayToMongoDocument(docBytes);
+				if (needsHighlight) {
+					long highlightStart = highlightNanos != null ? System.nanoTime() : 0;
+					handleHighlight(highlighterList, srBuilder, mongoDoc, localDocId);
+					if (highlightNanos != null) {
+						highlightNanos.add(System.nanoTime() - highlightStart);
+					}
+				}
+				if (needsAnalysis) {
+					AnalysisHandler.handleDocument(mongoDoc, analysisHandlerList, srBuilder);
+				}
+
+				if (needsDocFiltering) {
+					ZuliaUtil.filterDocument(mongoDoc, fieldsToReturnObj, fieldsToMaskObj);
+					rdBuilder.setDocument(ZuliaUtil.mongoDocumentToByteString(mongoDoc));
+				}
+				else {
+					rdBuilder.setDocument(storedByteString(docBytes, compressed));
+				}
+			}
+			else {
+				rdBuilder.setDocument(storedByteString(docBytes, compressed));
+			}
+		}
+	}
+
 	private static ByteString storedByteString(byte[] storedBytes, boolean owned) {
 		// A freshly decompressed array is uniquely owned and safe to wrap; an uncompressed array may alias Lucene's reusable buffer
 		return owned ? UnsafeByteOperations.unsafeWrap(storedBytes) : ByteString.copyFrom(storedBytes);
 	}
 
+	private static ByteString copyByteString(BytesRef bytesRef) {
+		return ByteString.copyFrom(bytesRef.bytes, bytesRef.offset, bytesRef.length);
+	}
+
 
 
 	private void handleSortValues(List<SortMeta> sortMetas, ScoreDoc scoreDoc, ZuliaQuery.ScoredResult.Builder srBuilder) {
@@ -236,7 +348,8 @@ public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuer
 		srBuilder.setSortValues(sortValues);
 	}
 
-	private void handleHighlight(List<ZuliaHighlighter> highlighterList, ZuliaQuery.ScoredResult.Builder srBuilder, org.bson.Document doc) {
+	private void handleHighlight(List<ZuliaHighlighter> highlighterList, ZuliaQuery.ScoredResult.Builder srBuilder, org.bson.Document doc,
+			int localDocId) throws IOException {
 
 		for (ZuliaHighlighter highlighter : highlighterList) {
 
@@ -248,23 +361,7 @@ public class DocumentScoredDocLeafHandler extends ScoredDocLeafHandler<ZuliaQuer
 				highLightResult.setField(storedFieldName);
 
 				Object storeFieldValues = DocumentHelper.getValueFromMongoDocument(doc, storedFieldName);
-
-				ZuliaUtil.handleLists(storeFieldValues, (value) -> {
-					String content = value.toString();
-
-					try (TokenStream tokenStream = highlighter.getTokenStream(content)) {
-						TextFragment[] bestTextFragments = highlighter.getBestTextFragments(tokenStream, content, false, highlighter.getNumberOfFragments());
-						for (TextFragment bestTextFragment : bestTextFragments) {
-							if (bestTextFragment != null && bestTextFragment.getScore() > 0) {
-								highLightResult.addFragments(bestTextFragment.toString());
-							}
-						}
-					}
-					catch (Exception e) {
-						throw new RuntimeException(e);
-					}
-
-				});
+				highLightResult.addAllFragments(highlighter.getFragments(storeFieldValues, leafReader, localDocId));
 
 				srBuilder.addHighlightResult(highLightResult);
 			}
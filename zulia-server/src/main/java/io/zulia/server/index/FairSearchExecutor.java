@@ -0,0 +1,238 @@
+package io.zulia.server.index;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.zulia.message.ZuliaBase;
+import io.zulia.util.pool.TaskExecutor;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Node level executor for the segment and document tasks of searches.  At most a fixed number of tasks run at once across every index on
+ * the node.  Waiting tasks are queued by index and an index is picked by weighted fair queuing, so an index with many concurrent searches
+ * cannot starve the others.  Each index can also be limited to a number of running tasks.
+ */
+public class FairSearchExecutor {
+
+	private static final int DEFAULT_INDEX_WEIGHT = 1;
+
+	private final int threads;
+	private final int defaultIndexQuota;
+	private final Map<String, Integer> indexWeights;
+	private final Map<String, Integer> indexQuotas;
+
+	private final ExecutorService executorService;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<String, IndexQueue> indexQueues = new TreeMap<>();
+	private int running;
+	private long completedCount;
+	private long queueWaitNanos;
+	private long maxQueueWaitNanos;
+	// advances as tasks are dispatched, an index that was idle starts from here instead of getting credit for the time it had no tasks
+	private double virtualTime;
+
+	/**
+	 * @param threads           tasks running at once across every index
+	 * @param indexWeights      share of the threads an index gets when every index has tasks waiting, relative to the other indexes
+	 * @param indexQuotas       tasks an index may run at once
+	 * @param defaultIndexQuota tasks an index not in indexQuotas may run at once, 0 for no limit
+	 */
+	public FairSearchExecutor(int threads, Map<String, Integer> indexWeights, Map<String, Integer> indexQuotas, int defaultIndexQuota) {
+		this.threads = threads;
+		this.defaultIndexQuota = defaultIndexQuota;
+		this.indexWeights = Map.copyOf(indexWeights);
+		this.indexQuotas = Map.copyOf(indexQuotas);
+		this.executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("search-", 0).factory());
+	}
+
+	/**
+	 * @return threads configured or the number of processors when it is not configured
+	 */
+	public static int getThreads(int configuredThreads) {
+		return configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Executor for the tasks of one search of an index.  Submitting blocks while the search already has concurrency tasks waiting or running,
+	 * and closing waits for the tasks of the search to finish.
+	 */
+	public TaskExecutor forSearch(String indexName, int concurrency) {
+		return new SearchTaskExecutor(indexName, concurrency);
+	}
+
+	private void submit(String indexName, Runnable task) {
+		lock.lock();
+		try {
+			IndexQueue indexQueue = indexQueues.computeIfAbsent(indexName, IndexQueue::new);
+			if (indexQueue.isIdle()) {
+				indexQueue.virtualFinish = Math.max(indexQueue.virtualFinish, virtualTime);
+			}
+			indexQueue.tasks.add(new QueuedTask(task, System.nanoTime()));
+			dispatch();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void dispatch() {
+		while (running < threads) {
+			IndexQueue next = null;
+			for (IndexQueue indexQueue : indexQueues.values()) {
+				boolean ready = !indexQueue.tasks.isEmpty() && indexQueue.running < indexQueue.quota;
+				if (ready && (next == null || indexQueue.virtualFinish < next.virtualFinish)) {
+					next = indexQueue;
+				}
+			}
+			if (next == null) {
+				return;
+			}
+
+			QueuedTask queuedTask = next.tasks.poll();
+			long waitNanos = System.nanoTime() - queuedTask.queuedNanos();
+			queueWaitNanos += waitNanos;
+			maxQueueWaitNanos = Math.max(maxQueueWaitNanos, waitNanos);
+			next.queueWaitNanos += waitNanos;
+
+			virtualTime = next.virtualFinish;
+			next.virtualFinish += 1.0 / next.weight;
+			next.running++;
+			running++;
+
+			IndexQueue indexQueue = next;
+			executorService.execute(() -> {
+				try {
+					queuedTask.task().run();
+				}
+				finally {
+					finished(indexQueue);
+				}
+			});
+		}
+	}
+
+	private void finished(IndexQueue indexQueue) {
+		lock.lock();
+		try {
+			indexQueue.running--;
+			indexQueue.completedCount++;
+			running--;
+			completedCount++;
+			dispatch();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public ZuliaBase.SearchExecutorStats getSearchExecutorStats() {
+		lock.lock();
+		try {
+			ZuliaBase.SearchExecutorStats.Builder b = ZuliaBase.SearchExecutorStats.newBuilder();
+			b.setThreads(threads);
+			b.setRunning(running);
+			b.setCompletedCount(completedCount);
+			b.setQueueWaitMs(TimeUnit.NANOSECONDS.toMillis(queueWaitNanos));
+			b.setMaxQueueWaitMs(TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos));
+			int queued = 0;
+			for (IndexQueue indexQueue : indexQueues.values()) {
+				queued += indexQueue.tasks.size();
+				b.addIndexStat(ZuliaBase.IndexSearchExecutorStats.newBuilder().setIndexName(indexQueue.indexName).setWeight(indexQueue.weight)
+						.setQuota(indexQueue.quota).setRunning(indexQueue.running).setQueued(indexQueue.tasks.size())
+						.setCompletedCount(indexQueue.completedCount).setQueueWaitMs(TimeUnit.NANOSECONDS.toMillis(indexQueue.queueWaitNanos)));
+			}
+			b.setQueued(queued);
+			return b.build();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public void close() {
+		executorService.close();
+	}
+
+	private record QueuedTask(Runnable task, long queuedNanos) {
+	}
+
+	private class IndexQueue {
+		private final String indexName;
+		private final int weight;
+		private final int quota;
+		private final ArrayDeque<QueuedTask> tasks = new ArrayDeque<>();
+		private int running;
+		private double virtualFinish;
+		private long completedCount;
+		private long queueWaitNanos;
+
+		private IndexQueue(String indexName) {
+			this.indexName = indexName;
+			this.weight = Math.max(1, indexWeights.getOrDefault(indexName, DEFAULT_INDEX_WEIGHT));
+			int indexQuota = indexQuotas.getOrDefault(indexName, defaultIndexQuota);
+			this.quota = indexQuota > 0 ? indexQuota : Integer.MAX_VALUE;
+		}
+
+		private boolean isIdle() {
+			return tasks.isEmpty() && running == 0;
+		}
+	}
+
+	private class SearchTaskExecutor implements TaskExecutor {
+
+		private final String indexName;
+		private final int concurrency;
+		private final Semaphore permits;
+
+		private SearchTaskExecutor(String indexName, int concurrency) {
+			this.indexName = indexName;
+			this.concurrency = concurrency;
+			this.permits = new Semaphore(concurrency);
+		}
+
+		@Override
+		public <T> ListenableFuture<T> executeAsync(Callable<T> task) {
+			try {
+				permits.acquire();
+			}
+			catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+
+			SettableFuture<T> future = SettableFuture.create();
+			try {
+				submit(indexName, () -> {
+					try {
+						future.set(task.call());
+					}
+					catch (Throwable t) {
+						future.setException(t);
+					}
+					finally {
+						permits.release();
+					}
+				});
+			}
+			catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+			return future;
+		}
+
+		@Override
+		public void close() {
+			// every permit is back once the tasks of the search have finished
+			permits.acquireUninterruptibly(concurrency);
+			permits.release(concurrency);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package io.zulia.server.index;
+
+import io.zulia.message.ZuliaBase;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LRUQueryCache;
+import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.UsageTrackingQueryCachingPolicy;
+
+/**
+ * Node level cache of the per segment doc id sets matched by non scoring clauses (FILTER and FILTER_NOT queries, facet drill downs, and
+ * vector pre filters).  Entries are keyed by the filter query and the segment, so a filter reused with different scored queries is evaluated
+ * once per segment and shared by every shard on the node.  A filter is only admitted after it has been used several times recently, and
+ * entries are evicted least recently used to stay within the memory budget.
+ */
+public class FilterCache {
+
+	// small segments are cheap to evaluate and are merged away quickly
+	public static final int DEFAULT_MIN_SEGMENT_DOCS = 10000;
+
+	// skip caching a filter that costs this many times more than the scored clauses leading the search
+	private static final float SKIP_CACHE_FACTOR = 10;
+
+	private final long maxBytes;
+	private final LRUQueryCache queryCache;
+	private final QueryCachingPolicy cachingPolicy;
+
+	public FilterCache(int maxQueries, long maxBytes) {
+		this(maxQueries, maxBytes, DEFAULT_MIN_SEGMENT_DOCS);
+	}
+
+	public FilterCache(int maxQueries, long maxBytes, int minSegmentDocs) {
+		this.maxBytes = maxBytes;
+		this.queryCache = new LRUQueryCache(maxQueries, maxBytes, context -> context.reader().maxDoc() >= minSegmentDocs, SKIP_CACHE_FACTOR);
+		this.cachingPolicy = new UsageTrackingQueryCachingPolicy();
+	}
+
+	/**
+	 * @return the configured budget, or 5% of the max heap when it is not configured
+	 */
+	public static long getMaxBytes(long configuredMaxBytes) {
+		return configuredMaxBytes > 0 ? configuredMaxBytes : Runtime.getRuntime().maxMemory() / 20;
+	}
+
+	public void apply(IndexSearcher indexSearcher) {
+		indexSearcher.setQueryCache(queryCache);
+		indexSearcher.setQueryCachingPolicy(cachingPolicy);
+	}
+
+	public ZuliaBase.FilterCacheStats getFilterCacheStats() {
+		ZuliaBase.FilterCacheStats.Builder b = ZuliaBase.FilterCacheStats.newBuilder();
+		b.setHitCount(queryCache.getHitCount());
+		b.setMissCount(queryCache.getMissCount());
+		b.setCacheSize(queryCache.getCacheSize());
+		b.setCacheCount(queryCache.getCacheCount());
+		b.setEvictionCount(queryCache.getEvictionCount());
+		b.setRamBytesUsed(queryCache.ramBytesUsed());
+		b.setMaxRamBytes(maxBytes);
+		return b.build();
+	}
+}
@@ -0,0 +1,108 @@
+package io.zulia.server.index;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.zulia.server.search.QueryCacheKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node level budget for the general shard query caches.  The cached results of every shard of every index live in one cache weighed by
+ * serialized response size, so a few large FULL fetch responses cannot push heap use past the configured number of bytes.  Each index is
+ * entitled to an equal share of the budget among the indexes using it, and an index over its share only caches new results while there is
+ * room that no other index needs.
+ */
+public class NodeQueryCache {
+
+	record Key(ShardQueryCache.ResultCache owner, QueryCacheKey queryCacheKey) {
+
+	}
+
+	private final long maxBytes;
+	private final AsyncCache<@NotNull Key, ShardQueryCache.CachedResponse> cache;
+	private final ConcurrentHashMap<String, AtomicLong> indexToBytes;
+
+	public NodeQueryCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+		this.indexToBytes = new ConcurrentHashMap<>();
+
+		// maintenance and removal notifications run on the calling thread so the byte accounting is current when a request returns
+		this.cache = Caffeine.newBuilder().maximumWeight(maxBytes)
+				.weigher((Key key, ShardQueryCache.CachedResponse value) -> weigh(key.queryCacheKey(), value)).executor(Runnable::run)
+				.removalListener(ShardQueryCache.REMOVAL_LISTENER).buildAsync();
+	}
+
+	/**
+	 * @return the configured budget, or 10% of the max heap when it is not configured
+	 */
+	public static long getMaxBytes(long configuredMaxBytes) {
+		return configuredMaxBytes > 0 ? configuredMaxBytes : Runtime.getRuntime().maxMemory() / 10;
+	}
+
+	static int weigh(QueryCacheKey queryCacheKey, ShardQueryCache.CachedResponse cachedResponse) {
+		return queryCacheKey.getSize() + cachedResponse.response().getSerializedSize();
+	}
+
+	AsyncCache<@NotNull Key, ShardQueryCache.CachedResponse> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Decides whether a newly computed result is kept
+	 */
+	boolean admit(String indexName, long bytes) {
+		if (bytes > maxBytes) {
+			return false;
+		}
+		if (getIndexBytes(indexName) + bytes <= getFairShareBytes(indexName)) {
+			return true;
+		}
+		// over its fair share, so only use space that would not evict anything
+		return getUsedBytes() + bytes <= maxBytes;
+	}
+
+	void added(String indexName, long bytes) {
+		indexToBytes.computeIfAbsent(indexName, k -> new AtomicLong()).getAndAdd(bytes);
+	}
+
+	void removed(String indexName, long bytes) {
+		AtomicLong indexBytes = indexToBytes.get(indexName);
+		if (indexBytes != null) {
+			indexBytes.getAndAdd(-bytes);
+		}
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public long getUsedBytes() {
+		return cache.synchronous().policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+	}
+
+	public long getIndexBytes(String indexName) {
+		AtomicLong indexBytes = indexToBytes.get(indexName);
+		return indexBytes != null ? indexBytes.get() : 0;
+	}
+
+	/**
+	 * @return the budget divided evenly between the indexes holding cached results and the given index
+	 */
+	public long getFairShareBytes(String indexName) {
+		int indexes = 0;
+		boolean counted = false;
+		for (Map.Entry<String, AtomicLong> entry : indexToBytes.entrySet()) {
+			if (entry.getValue().get() > 0) {
+				indexes++;
+				counted |= entry.getKey().equals(indexName);
+			}
+		}
+		if (!counted) {
+			indexes++;
+		}
+		return maxBytes / indexes;
+	}
+}
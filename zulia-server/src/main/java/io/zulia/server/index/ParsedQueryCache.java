@@ -0,0 +1,65 @@
+package io.zulia.server.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.zulia.message.ZuliaQuery;
+import org.apache.lucene.search.Query;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per index cache of the Lucene queries built by the query parser, keyed by the query text and the parser settings.  Lucene queries are
+ * immutable so a cached query is shared by every search that parses the same text.  The key includes the version of the index config so a
+ * query parsed while the fields or analyzers were changing is never returned after the change.
+ */
+public class ParsedQueryCache {
+
+	@FunctionalInterface
+	public interface QueryParser {
+		Query parse() throws Exception;
+	}
+
+	private record Key(long configVersion, String queryText, int minimumShouldMatch, ZuliaQuery.Query.Operator defaultOperator,
+					   List<String> defaultFields) {
+	}
+
+	private final AtomicLong configVersion = new AtomicLong();
+	private final Cache<@NotNull Key, Query> cache;
+
+	/**
+	 * @param maxQueries the number of parsed queries kept, 0 disables the cache
+	 */
+	public ParsedQueryCache(int maxQueries) {
+		this.cache = maxQueries > 0 ? Caffeine.newBuilder().maximumSize(maxQueries).build() : null;
+	}
+
+	public Query getQuery(String queryText, int minimumShouldMatch, ZuliaQuery.Query.Operator defaultOperator, Collection<String> defaultFields,
+			QueryParser queryParser) throws Exception {
+		if (cache == null) {
+			return queryParser.parse();
+		}
+
+		// the version is read before parsing so a query parsed against a config that changed during the parse is stored under the old version
+		Key key = new Key(configVersion.get(), queryText, minimumShouldMatch, defaultOperator, List.copyOf(defaultFields));
+		Query query = cache.getIfPresent(key);
+		if (query == null) {
+			// invalid queries are not cached, concurrent misses for the same key parse it more than once
+			query = queryParser.parse();
+			cache.put(key, query);
+		}
+		return query;
+	}
+
+	/**
+	 * Called after the index config changes so queries parsed with the previous fields and analyzers are no longer returned
+	 */
+	public void invalidate() {
+		configVersion.incrementAndGet();
+		if (cache != null) {
+			cache.invalidateAll();
+		}
+	}
+}
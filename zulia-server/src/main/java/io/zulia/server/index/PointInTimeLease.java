@@ -0,0 +1,96 @@
+package io.zulia.server.index;
+
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.IOSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The shard readers and lucene queries of one point in time search on this node.  The first page pins the current reader of each shard it
+ * searches and later pages run against the pinned readers, so paging does not skip or repeat documents when the index refreshes in between.
+ */
+public class PointInTimeLease {
+
+	private final static Logger LOG = LoggerFactory.getLogger(PointInTimeLease.class);
+
+	private final String id;
+	private volatile long keepAliveMs;
+	private final Map<String, ShardReader> shardReaders;
+	private final Map<String, Query> queries;
+	private boolean closed;
+
+	public PointInTimeLease(String id, long keepAliveMs) {
+		this.id = id;
+		this.keepAliveMs = keepAliveMs;
+		this.shardReaders = new HashMap<>();
+		this.queries = new ConcurrentHashMap<>();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getKeepAliveMs() {
+		return keepAliveMs;
+	}
+
+	public void setKeepAliveMs(long keepAliveMs) {
+		this.keepAliveMs = keepAliveMs;
+	}
+
+	/**
+	 * @param pin          true for the first page of the search which pins the shard's current reader if it is not already pinned
+	 * @param latestReader acquires the current reader of the shard, the reference is kept by the lease until it is closed
+	 * @return the pinned reader with a reference the caller must release with {@link ShardReader#decRef()}
+	 */
+	public synchronized ShardReader acquire(String indexName, int shardNumber, boolean pin, IOSupplier<ShardReader> latestReader) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("Point in time <" + id + "> has expired");
+		}
+
+		String shardKey = indexName + ":s" + shardNumber;
+		ShardReader shardReader = shardReaders.get(shardKey);
+		if (shardReader == null) {
+			if (!pin) {
+				throw new IllegalStateException("Point in time <" + id + "> has expired or was not created on this node for shard " + shardKey);
+			}
+			shardReader = latestReader.get();
+			shardReaders.put(shardKey, shardReader);
+		}
+
+		if (!shardReader.tryIncRef()) {
+			throw new IllegalStateException("Point in time <" + id + "> reader for shard " + shardKey + " is closed");
+		}
+		return shardReader;
+	}
+
+	public Query getQuery(String indexName) {
+		return queries.get(indexName);
+	}
+
+	public void putQuery(String indexName, Query query) {
+		queries.put(indexName, query);
+	}
+
+	/**
+	 * Releases the pinned readers.  Searches still running against them keep their own reference until they finish
+	 */
+	public synchronized void close() {
+		closed = true;
+		for (Map.Entry<String, ShardReader> entry : shardReaders.entrySet()) {
+			try {
+				entry.getValue().decRef();
+			}
+			catch (IOException e) {
+				LOG.error("Failed to release reader for shard {} of point in time <{}>", entry.getKey(), id, e);
+			}
+		}
+		shardReaders.clear();
+		queries.clear();
+	}
+}
@@ -0,0 +1,118 @@
+package io.zulia.server.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.zulia.server.exceptions.PointInTimeDoesNotExistException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node level registry of point in time leases.  A lease expires when it is not used for its keep alive, which releases the shard readers
+ * it pinned.  The number of leases on the node is bounded because every lease keeps the segments it pinned open.
+ */
+public class PointInTimeLeases {
+
+	private final int maxLeases;
+	private final long maxKeepAliveMs;
+	private final Cache<@NotNull String, PointInTimeLease> leases;
+
+	public PointInTimeLeases(int maxLeases, long maxKeepAliveMs) {
+		this.maxLeases = maxLeases;
+		this.maxKeepAliveMs = maxKeepAliveMs;
+
+		// the scheduler releases the pinned readers promptly on expiration instead of waiting for the next cache access
+		this.leases = Caffeine.newBuilder().expireAfter(new Expiry<@NotNull String, PointInTimeLease>() {
+			@Override
+			public long expireAfterCreate(@NotNull String id, @NotNull PointInTimeLease lease, long currentTime) {
+				return TimeUnit.MILLISECONDS.toNanos(lease.getKeepAliveMs());
+			}
+
+			@Override
+			public long expireAfterUpdate(@NotNull String id, @NotNull PointInTimeLease lease, long currentTime, long currentDuration) {
+				return TimeUnit.MILLISECONDS.toNanos(lease.getKeepAliveMs());
+			}
+
+			@Override
+			public long expireAfterRead(@NotNull String id, @NotNull PointInTimeLease lease, long currentTime, long currentDuration) {
+				return TimeUnit.MILLISECONDS.toNanos(lease.getKeepAliveMs());
+			}
+		}).scheduler(Scheduler.systemScheduler()).removalListener((String id, PointInTimeLease lease, RemovalCause cause) -> {
+			if (lease != null) {
+				lease.close();
+			}
+		}).build();
+	}
+
+	/**
+	 * Gets the lease for the id or creates it for the first page of a point in time search.  The check against the maximum number of leases
+	 * and the insert are done under one lock so concurrent first pages cannot go over the maximum.
+	 *
+	 * @param keepAliveMs the new keep alive or 0 to keep the current one
+	 */
+	public synchronized PointInTimeLease createLease(String id, long keepAliveMs) {
+		PointInTimeLease lease = findLease(id, keepAliveMs);
+		if (lease != null) {
+			return lease;
+		}
+
+		if (leases.estimatedSize() >= maxLeases) {
+			leases.cleanUp();
+			if (leases.estimatedSize() >= maxLeases) {
+				throw new IllegalStateException("Point in time <" + id + "> cannot be created, the node already has the maximum of " + maxLeases
+						+ " point in time searches");
+			}
+		}
+		long boundedKeepAliveMs = Math.min(keepAliveMs, maxKeepAliveMs);
+		lease = new PointInTimeLease(id, boundedKeepAliveMs > 0 ? boundedKeepAliveMs : maxKeepAliveMs);
+		leases.put(id, lease);
+		return lease;
+	}
+
+	/**
+	 * Gets the lease for a later page of a point in time search.  A lease that expired or was never created on this node is not recreated
+	 *
+	 * @param keepAliveMs the new keep alive or 0 to keep the current one
+	 * @throws PointInTimeDoesNotExistException when there is no lease for the id
+	 */
+	public PointInTimeLease getLease(String id, long keepAliveMs) throws PointInTimeDoesNotExistException {
+		PointInTimeLease lease = findLease(id, keepAliveMs);
+		if (lease == null) {
+			throw new PointInTimeDoesNotExistException(id);
+		}
+		return lease;
+	}
+
+	/**
+	 * @param keepAliveMs the new keep alive or 0 to keep the current one
+	 * @return the lease for the id or null when there is none on this node
+	 */
+	public PointInTimeLease findLease(String id, long keepAliveMs) {
+		long boundedKeepAliveMs = Math.min(keepAliveMs, maxKeepAliveMs);
+		return leases.asMap().computeIfPresent(id, (k, existing) -> {
+			if (boundedKeepAliveMs > 0) {
+				existing.setKeepAliveMs(boundedKeepAliveMs);
+			}
+			return existing;
+		});
+	}
+
+	/**
+	 * Releases the readers pinned by the lease before its keep alive runs out
+	 */
+	public void release(String id) {
+		leases.invalidate(id);
+	}
+
+	public long getLeaseCount() {
+		return leases.estimatedSize();
+	}
+
+	public void close() {
+		leases.invalidateAll();
+		leases.cleanUp();
+	}
+}
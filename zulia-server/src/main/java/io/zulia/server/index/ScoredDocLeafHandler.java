@@ -1,15 +1,21 @@
 package io.zulia.server.index;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import io.zulia.util.pool.TaskExecutor;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.search.ScoreDoc;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 public abstract class ScoredDocLeafHandler<T> {
 
@@ -26,35 +32,92 @@ public abstract class ScoredDocLeafHandler<T> {
 	public T[] handle(IndexReader indexReader, ScoreDoc[] scoreDocs, IntFunction<T[]> resultArrayConstructor) throws IOException {
 
 		if (scoreDocs.length > 0) {
-
-			IndexedScoreDoc[] zuliaResults = new IndexedScoreDoc[scoreDocs.length];
-			for (int i = 0; i < scoreDocs.length; i++) {
-				zuliaResults[i] = new IndexedScoreDoc(i, scoreDocs[i]);
-			}
-			Arrays.sort(zuliaResults, Comparator.comparingInt(IndexedScoreDoc::getDocId));
+			IndexedScoreDoc[] zuliaResults = sortByDocId(scoreDocs);
 			T[] results = resultArrayConstructor.apply(zuliaResults.length);
+			handleRange(indexReader.leaves(), zuliaResults, 0, zuliaResults.length, results);
+			return results;
+		}
+		return resultArrayConstructor.apply(0);
+	}
 
-			int docId = zuliaResults[0].getDocId();
-
-			List<LeafReaderContext> leaves = indexReader.leaves();
+	/**
+	 * Splits the hits in doc id order into up to concurrency chunks and handles each chunk with its own handler on the task executor.  A handler
+	 * keeps per leaf state, so every chunk gets a new one from the supplier.  Each result is stored at the position of its hit so the results
+	 * are in the same order as the hits
+	 *
+	 * @param minChunkSize chunks are not made smaller than this, fewer hits than two chunks are handled on the calling thread
+	 */
+	public static <T> T[] handleConcurrently(Supplier<? extends ScoredDocLeafHandler<T>> handlerSupplier, IndexReader indexReader, ScoreDoc[] scoreDocs,
+			IntFunction<T[]> resultArrayConstructor, TaskExecutor taskExecutor, int concurrency, int minChunkSize) throws IOException {
+
+		int chunks = Math.min(concurrency, scoreDocs.length / Math.max(1, minChunkSize));
+		if (chunks <= 1) {
+			return handlerSupplier.get().handle(indexReader, scoreDocs, resultArrayConstructor);
+		}
 
-			LeafReaderContext currentLeaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
-			handleNewLeaf(currentLeaf);
-			int endOfCurrentLeaf = currentLeaf.docBase + currentLeaf.reader().maxDoc();
-			for (IndexedScoreDoc indexedScoreDoc : zuliaResults) {
-				docId = indexedScoreDoc.getDocId();
+		IndexedScoreDoc[] zuliaResults = sortByDocId(scoreDocs);
+		T[] results = resultArrayConstructor.apply(zuliaResults.length);
+		List<LeafReaderContext> leaves = indexReader.leaves();
+
+		int chunkSize = (zuliaResults.length + chunks - 1) / chunks;
+		List<ListenableFuture<Object>> futures = new ArrayList<>();
+		for (int start = 0; start < zuliaResults.length; start += chunkSize) {
+			int from = start;
+			int to = Math.min(start + chunkSize, zuliaResults.length);
+			futures.add(taskExecutor.executeAsync(() -> {
+				handlerSupplier.get().handleRange(leaves, zuliaResults, from, to, results);
+				return null;
+			}));
+		}
 
-				if (docId >= endOfCurrentLeaf) {
-					currentLeaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
-					endOfCurrentLeaf = currentLeaf.docBase + currentLeaf.reader().maxDoc();
-					handleNewLeaf(currentLeaf);
+		for (ListenableFuture<Object> future : futures) {
+			try {
+				// waiting on every chunk also makes the results they stored visible to this thread
+				future.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException ioException) {
+					throw ioException;
 				}
-				results[indexedScoreDoc.index] = handleDocument(currentLeaf, docId, currentLeaf.docBase, indexedScoreDoc.scoreDoc);
+				if (e.getCause() instanceof CancellationException cancellationException) {
+					throw cancellationException;
+				}
+				throw new RuntimeException(e.getCause());
 			}
+		}
+		return results;
+	}
 
-			return results;
+	private static IndexedScoreDoc[] sortByDocId(ScoreDoc[] scoreDocs) {
+		IndexedScoreDoc[] zuliaResults = new IndexedScoreDoc[scoreDocs.length];
+		for (int i = 0; i < scoreDocs.length; i++) {
+			zuliaResults[i] = new IndexedScoreDoc(i, scoreDocs[i]);
+		}
+		Arrays.sort(zuliaResults, Comparator.comparingInt(IndexedScoreDoc::getDocId));
+		return zuliaResults;
+	}
+
+	private void handleRange(List<LeafReaderContext> leaves, IndexedScoreDoc[] zuliaResults, int from, int to, T[] results) throws IOException {
+		int docId = zuliaResults[from].getDocId();
+
+		LeafReaderContext currentLeaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
+		handleNewLeaf(currentLeaf);
+		int endOfCurrentLeaf = currentLeaf.docBase + currentLeaf.reader().maxDoc();
+		for (int i = from; i < to; i++) {
+			IndexedScoreDoc indexedScoreDoc = zuliaResults[i];
+			docId = indexedScoreDoc.getDocId();
+
+			if (docId >= endOfCurrentLeaf) {
+				currentLeaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
+				endOfCurrentLeaf = currentLeaf.docBase + currentLeaf.reader().maxDoc();
+				handleNewLeaf(currentLeaf);
+			}
+			results[indexedScoreDoc.index] = handleDocument(currentLeaf, docId, currentLeaf.docBase, indexedScoreDoc.scoreDoc);
 		}
-		return resultArrayConstructor.apply(0);
 	}
 
 	protected abstract void handleNewLeaf(LeafReaderContext currentLeaf) throws IOException;
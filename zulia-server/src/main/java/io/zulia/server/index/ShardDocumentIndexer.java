@@ -244,7 +244,8 @@ public class ShardDocumentIndexer {
 				BooleanFieldIndexer.INSTANCE.index(luceneDocument, storedFieldName, o, indexedFieldName);
 			}
 			else if (FieldTypeUtil.isStringFieldType(fieldType)) {
-				StringFieldIndexer.INSTANCE.index(luceneDocument, storedFieldName, o, indexedFieldName);
+				StringFieldIndexer stringFieldIndexer = indexAs.getIndexOffsets() ? StringFieldIndexer.WITH_OFFSETS_INSTANCE : StringFieldIndexer.INSTANCE;
+				stringFieldIndexer.index(luceneDocument, storedFieldName, o, indexedFieldName);
 			}
 			else if (FieldTypeUtil.isVectorFieldType(fieldType)) {
 				if (o instanceof Collection<?> collection) {
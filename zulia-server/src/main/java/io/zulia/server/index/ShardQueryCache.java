@@ -0,0 +1,420 @@
+package io.zulia.server.index;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.zulia.message.ZuliaBase;
+import io.zulia.message.ZuliaQuery.ShardQueryResponse;
+import io.zulia.server.config.ServerIndexConfig;
+import io.zulia.server.search.QueryCacheKey;
+import io.zulia.server.search.ShardQuery;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shard level query result cache that outlives the {@link ShardReader} instances created on each refresh.  Every result remembers the reader
+ * state it was computed on and is only served to a reader with the same segments (and deletes), anything else is recomputed in place.
+ * General results are stored in the byte bounded {@link NodeQueryCache} shared by every shard on the node, pinned results are kept per shard.
+ */
+public class ShardQueryCache {
+
+	private final static Logger LOG = LoggerFactory.getLogger(ShardQueryCache.class);
+
+	public interface ShardQueryExecutor {
+		ShardQueryResponse execute(ShardQuery shardQuery) throws Exception;
+	}
+
+	/**
+	 * Identifies the point in time view of a shard reader. Segment readers that are unchanged across a refresh are shared by the new reader
+	 * so their cache keys stay the same, while new segments, merges, and new deletes all produce new keys
+	 */
+	public record ReaderState(long version, List<IndexReader.CacheKey> segmentKeys) {
+
+		public static ReaderState of(DirectoryReader directoryReader) {
+			List<IndexReader.CacheKey> segmentKeys = new ArrayList<>();
+			for (LeafReaderContext leaf : directoryReader.leaves()) {
+				IndexReader.CacheHelper cacheHelper = leaf.reader().getReaderCacheHelper();
+				if (cacheHelper == null) {
+					return new ReaderState(directoryReader.getVersion(), null);
+				}
+				segmentKeys.add(cacheHelper.getKey());
+			}
+			return new ReaderState(directoryReader.getVersion(), segmentKeys);
+		}
+
+		public boolean sameSegments(ReaderState other) {
+			return segmentKeys != null && segmentKeys.equals(other.segmentKeys);
+		}
+	}
+
+	record CachedResponse(ShardQuery shardQuery, ReaderState readerState, ShardQueryResponse response) {
+
+	}
+
+	static final RemovalListener<NodeQueryCache.@NotNull Key, CachedResponse> REMOVAL_LISTENER = (key, value, cause) -> {
+		if (key != null && value != null) {
+			key.owner().removed(key.queryCacheKey(), value, cause);
+		}
+	};
+
+	private final String indexName;
+	private final int shardNumber;
+	private final ServerIndexConfig indexConfig;
+	private final ResultCache queryResultCache;
+	private final ResultCache pinnedQueryResultCache;
+
+	public ShardQueryCache(NodeQueryCache nodeQueryCache, ServerIndexConfig indexConfig, int shardNumber) {
+		this.indexConfig = indexConfig;
+		this.indexName = indexConfig.getIndexName();
+		this.shardNumber = shardNumber;
+		this.queryResultCache = new ResultCache(nodeQueryCache.getCache(), nodeQueryCache, indexConfig.getIndexSettings().getShardQueryCacheSize());
+		// pinned searches are explicitly requested so they are not subject to the node budget
+		this.pinnedQueryResultCache = new ResultCache(
+				Caffeine.newBuilder().executor(Runnable::run).removalListener(REMOVAL_LISTENER).buildAsync(), null, Integer.MAX_VALUE);
+	}
+
+	public ShardQueryResponse getIfPresent(QueryCacheKey queryCacheKey, ReaderState readerState) throws Exception {
+		return queryResultCache.getIfPresent(queryCacheKey, readerState);
+	}
+
+	public ShardQueryResponse get(QueryCacheKey queryCacheKey, ShardQuery shardQuery, ReaderState readerState, ShardQueryExecutor executor)
+			throws Exception {
+		return queryResultCache.get(queryCacheKey, shardQuery, readerState, executor);
+	}
+
+	public ShardQueryResponse getPinnedIfPresent(QueryCacheKey queryCacheKey, ReaderState readerState) throws Exception {
+		return pinnedQueryResultCache.getIfPresent(queryCacheKey, readerState);
+	}
+
+	public ShardQueryResponse getPinned(QueryCacheKey queryCacheKey, ShardQuery shardQuery, ReaderState readerState, ShardQueryExecutor executor)
+			throws Exception {
+		return pinnedQueryResultCache.get(queryCacheKey, shardQuery, readerState, executor);
+	}
+
+	/**
+	 * Called with a new reader before it is published.  The most frequently used general cache entries are recomputed against it so the first
+	 * searches after a refresh are still cache hits, then results that cannot be served by the new reader are dropped.  Pinned searches are
+	 * re-run by search warming instead.
+	 */
+	public void readerRefreshed(ReaderState readerState, ShardQueryExecutor executor) {
+		int rewarmCount = indexConfig.getShardQueryCacheRewarmCount();
+		if (rewarmCount > 0) {
+			queryResultCache.rewarm(rewarmCount, readerState, executor);
+		}
+		queryResultCache.removeStale(readerState);
+		pinnedQueryResultCache.removeStale(readerState);
+	}
+
+	public void updateIndexSettings() {
+		queryResultCache.setMaximumEntries(indexConfig.getIndexSettings().getShardQueryCacheSize());
+	}
+
+	/**
+	 * Releases this shard's share of the node cache when the shard is unloaded
+	 */
+	public void close() {
+		queryResultCache.invalidateAll();
+		pinnedQueryResultCache.invalidateAll();
+	}
+
+	public ZuliaBase.ShardCacheStats.Builder getShardCacheStats() {
+		ZuliaBase.ShardCacheStats.Builder b = ZuliaBase.ShardCacheStats.newBuilder();
+		b.setGeneralCache(queryResultCache.getCacheStats());
+		b.setPinnedCache(pinnedQueryResultCache.getCacheStats());
+		return b;
+	}
+
+	class ResultCache {
+
+		private final AsyncCache<NodeQueryCache.@NotNull Key, CachedResponse> cache;
+		private final NodeQueryCache nodeQueryCache;
+		private volatile int maximumEntries;
+		// the keys this shard has in the cache, the general cache is shared so it is not iterated
+		private final Set<QueryCacheKey> keys = ConcurrentHashMap.newKeySet();
+		private final ConcurrentStatsCounter statsCounter = new ConcurrentStatsCounter();
+		private final AtomicLong entryCount = new AtomicLong();
+		private final AtomicLong resultSize = new AtomicLong();
+		private final LongAdder carriedForwardCount = new LongAdder();
+		private final LongAdder rewarmCount = new LongAdder();
+		private final LongAdder rejectedCount = new LongAdder();
+
+		ResultCache(AsyncCache<NodeQueryCache.@NotNull Key, CachedResponse> cache, NodeQueryCache nodeQueryCache, int maximumEntries) {
+			this.cache = cache;
+			this.nodeQueryCache = nodeQueryCache;
+			this.maximumEntries = maximumEntries;
+		}
+
+		private NodeQueryCache.Key key(QueryCacheKey queryCacheKey) {
+			return new NodeQueryCache.Key(this, queryCacheKey);
+		}
+
+		ShardQueryResponse getIfPresent(QueryCacheKey queryCacheKey, ReaderState readerState) throws Exception {
+			CompletableFuture<CachedResponse> existing = cache.asMap().get(key(queryCacheKey));
+			if (existing != null) {
+				CachedResponse cachedResponse = await(existing);
+				if (cachedResponse != null && canServe(cachedResponse, readerState)) {
+					return cachedResponse.response();
+				}
+			}
+			return null;
+		}
+
+		ShardQueryResponse get(QueryCacheKey queryCacheKey, ShardQuery shardQuery, ReaderState readerState, ShardQueryExecutor executor) throws Exception {
+			NodeQueryCache.Key key = key(queryCacheKey);
+			CompletableFuture<CachedResponse> existing = cache.asMap().get(key);
+			if (existing != null) {
+				CachedResponse cachedResponse = await(existing);
+				if (cachedResponse != null && canServe(cachedResponse, readerState)) {
+					return cachedResponse.response();
+				}
+				if (cachedResponse != null && cachedResponse.readerState().version() > readerState.version()) {
+					// this request holds an older reader than the one already cached, do not replace the newer result
+					return executor.execute(shardQuery);
+				}
+			}
+
+			statsCounter.recordMisses(1);
+
+			// compute in place of a missing or stale entry so identical concurrent requests are deduplicated
+			CompletableFuture<CachedResponse> future = new CompletableFuture<>();
+			CompletableFuture<CachedResponse> current = cache.asMap().compute(key, (k, v) -> (v == null || v == existing) ? future : v);
+			if (current != future) {
+				CachedResponse cachedResponse = await(current);
+				if (cachedResponse != null && canServe(cachedResponse, readerState)) {
+					return cachedResponse.response();
+				}
+				return executor.execute(shardQuery);
+			}
+
+			long start = System.nanoTime();
+			try {
+				ShardQueryResponse shardQueryResponse = executor.execute(shardQuery);
+				statsCounter.recordLoadSuccess(System.nanoTime() - start);
+
+				CachedResponse cachedResponse = new CachedResponse(shardQuery, readerState, shardQueryResponse);
+				int bytes = NodeQueryCache.weigh(queryCacheKey, cachedResponse);
+				// the partial results of a timed out search are never kept
+				boolean partial = shardQueryResponse.getTimedOut();
+				boolean admitted = !partial && (nodeQueryCache == null || nodeQueryCache.admit(indexName, bytes));
+
+				// counted until the removal listener sees the value, which happens once the future completes even if the entry was already removed
+				added(bytes);
+				if (!admitted) {
+					// removed before completing so it is never weighed against the other entries
+					if (!partial) {
+						rejectedCount.increment();
+					}
+					cache.asMap().remove(key, future);
+				}
+				future.complete(cachedResponse);
+
+				if (admitted) {
+					keys.add(queryCacheKey);
+					if (entryCount.get() > maximumEntries) {
+						evictColdest();
+					}
+				}
+				return shardQueryResponse;
+			}
+			catch (Throwable t) {
+				statsCounter.recordLoadFailure(System.nanoTime() - start);
+				future.completeExceptionally(t);
+				cache.asMap().remove(key, future);
+				throw t;
+			}
+		}
+
+		void rewarm(int count, ReaderState readerState, ShardQueryExecutor executor) {
+			List<NodeQueryCache.Key> hottest = cache.synchronous().policy().eviction()
+					.map(eviction -> eviction.hottest(stream -> stream.map(Map.Entry::getKey).filter(k -> k.owner() == this).limit(count).toList()))
+					.orElse(List.of());
+
+			long start = System.currentTimeMillis();
+			int rewarmed = 0;
+			for (NodeQueryCache.Key key : hottest) {
+				CompletableFuture<CachedResponse> existing = cache.asMap().get(key);
+				// skip entries removed since or still computing or failed, they are handled by the request waiting on them
+				if (existing == null || !existing.isDone() || existing.isCompletedExceptionally()) {
+					continue;
+				}
+
+				CachedResponse cachedResponse = existing.join();
+				if (cachedResponse.readerState().sameSegments(readerState)) {
+					continue;
+				}
+
+				try {
+					ShardQueryResponse shardQueryResponse = executor.execute(cachedResponse.shardQuery());
+					CachedResponse rewarmedResponse = new CachedResponse(cachedResponse.shardQuery(), readerState, shardQueryResponse);
+					int bytes = NodeQueryCache.weigh(key.queryCacheKey(), rewarmedResponse);
+					// held to the same budget as a new result, an entry that is refused or timed out is dropped rather than kept stale
+					boolean partial = shardQueryResponse.getTimedOut();
+					if (partial || (nodeQueryCache != null && !nodeQueryCache.admit(indexName, bytes))) {
+						if (!partial) {
+							rejectedCount.increment();
+						}
+						cache.asMap().remove(key, existing);
+						continue;
+					}
+					added(bytes);
+					if (!cache.asMap().replace(key, existing, CompletableFuture.completedFuture(rewarmedResponse))) {
+						subtract(bytes);
+					}
+					else {
+						rewarmCount.increment();
+						rewarmed++;
+					}
+				}
+				catch (Exception e) {
+					LOG.warn("Failed to rewarm cached query for index {}:s{}: {}", indexName, shardNumber, e.getMessage());
+				}
+			}
+
+			if (rewarmed > 0) {
+				LOG.info("Rewarmed {} cached queries for index {}:s{} in {}ms", rewarmed, indexName, shardNumber, System.currentTimeMillis() - start);
+			}
+		}
+
+		void removeStale(ReaderState readerState) {
+			for (QueryCacheKey queryCacheKey : keys) {
+				NodeQueryCache.Key key = key(queryCacheKey);
+				CompletableFuture<CachedResponse> future = cache.asMap().get(key);
+				if (future == null) {
+					keys.remove(queryCacheKey);
+				}
+				else if (future.isDone() && !future.isCompletedExceptionally() && !future.join().readerState().sameSegments(readerState)) {
+					cache.asMap().remove(key, future);
+				}
+			}
+		}
+
+		void invalidateAll() {
+			for (QueryCacheKey queryCacheKey : keys) {
+				cache.asMap().remove(key(queryCacheKey));
+			}
+			keys.clear();
+		}
+
+		/**
+		 * Keeps the shard within its entry limit by evicting its own least valuable entry instead of one belonging to another shard
+		 */
+		private void evictColdest() {
+			cache.synchronous().policy().eviction().ifPresent(eviction -> {
+				Optional<NodeQueryCache.Key> coldest = eviction.coldest(stream -> stream.map(Map.Entry::getKey).filter(k -> k.owner() == this).findFirst());
+				coldest.ifPresent(key -> {
+					CompletableFuture<CachedResponse> future = cache.asMap().get(key);
+					if (future != null && future.isDone() && !future.isCompletedExceptionally() && cache.asMap().remove(key, future)) {
+						statsCounter.recordEviction(NodeQueryCache.weigh(key.queryCacheKey(), future.join()), RemovalCause.SIZE);
+					}
+				});
+			});
+		}
+
+		void removed(QueryCacheKey queryCacheKey, CachedResponse cachedResponse, RemovalCause cause) {
+			int bytes = NodeQueryCache.weigh(queryCacheKey, cachedResponse);
+			subtract(bytes);
+			if (cause.wasEvicted()) {
+				statsCounter.recordEviction(bytes, cause);
+			}
+			if (!cache.asMap().containsKey(key(queryCacheKey))) {
+				keys.remove(queryCacheKey);
+			}
+		}
+
+		private void added(int bytes) {
+			entryCount.getAndIncrement();
+			resultSize.getAndAdd(bytes);
+			if (nodeQueryCache != null) {
+				nodeQueryCache.added(indexName, bytes);
+			}
+		}
+
+		private void subtract(int bytes) {
+			entryCount.getAndDecrement();
+			resultSize.getAndAdd(-bytes);
+			if (nodeQueryCache != null) {
+				nodeQueryCache.removed(indexName, bytes);
+			}
+		}
+
+		private boolean canServe(CachedResponse cachedResponse, ReaderState readerState) {
+			if (cachedResponse.response().getTimedOut()) {
+				// only an identical request that waited on a timed out search sees its partial result, and it searches again itself
+				return false;
+			}
+			if (cachedResponse.readerState().version() == readerState.version()) {
+				statsCounter.recordHits(1);
+				return true;
+			}
+			if (cachedResponse.readerState().sameSegments(readerState)) {
+				statsCounter.recordHits(1);
+				carriedForwardCount.increment();
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return the computed response or null if the search computing it was cancelled by its own caller
+		 */
+		private CachedResponse await(CompletableFuture<CachedResponse> future) throws Exception {
+			try {
+				return future.get();
+			}
+			catch (CancellationException e) {
+				// get() rethrows the cancellation of the computing search as is, the waiters were not cancelled and search themselves
+				return null;
+			}
+			catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception ex) {
+					throw ex;
+				}
+				if (cause instanceof Error error) {
+					throw error;
+				}
+				throw new RuntimeException(cause);
+			}
+		}
+
+		void setMaximumEntries(int maximumEntries) {
+			if (nodeQueryCache != null) {
+				this.maximumEntries = maximumEntries;
+			}
+		}
+
+		ZuliaBase.CacheStats.Builder getCacheStats() {
+			CacheStats stats = statsCounter.snapshot();
+			ZuliaBase.CacheStats.Builder b = ZuliaBase.CacheStats.newBuilder();
+			b.setEstimatedSize(Math.max(0, entryCount.get()));
+			b.setHitCount(stats.hitCount());
+			b.setMissCount(stats.missCount());
+			b.setTotalLoadTime(stats.totalLoadTime() / 1_000_000);
+			b.setEvictionCount(stats.evictionCount());
+			b.setResultSize(Math.max(0, resultSize.get()));
+			b.setCarriedForwardCount(carriedForwardCount.sum());
+			b.setRewarmCount(rewarmCount.sum());
+			b.setRejectedCount(rejectedCount.sum());
+			return b;
+		}
+	}
+}
@@ -155,11 +155,13 @@ public class ShardReadManager implements Closeable {
 		}
 	}
 
-	public ShardReader createShardReader() throws IOException {
+	public ShardReader createShardReader(ShardQueryCache shardQueryCache, FilterCache filterCache, FairSearchExecutor fairSearchExecutor)
+			throws IOException {
 		DirectoryReader indexReader = DirectoryReader.open(indexDirectory);
 		DirectoryTaxonomyReader taxoReader = new DirectoryTaxonomyReader(taxoDirectory);
 		taxoReader.setCacheSize(128000);
-		return new ShardReader(shardNumber, indexReader, taxoReader, indexConfig, zuliaPerFieldAnalyzer, segmentOpenExecutor, aggregationSettings);
+		return new ShardReader(shardNumber, indexReader, taxoReader, indexConfig, zuliaPerFieldAnalyzer, segmentOpenExecutor, aggregationSettings,
+				shardQueryCache, filterCache, fairSearchExecutor);
 	}
 
 	public void close() throws IOException {
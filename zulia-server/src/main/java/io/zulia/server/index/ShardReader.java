@@ -1,10 +1,5 @@
 package io.zulia.server.index;
 
-import com.github.benmanes.caffeine.cache.AsyncCache;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.RemovalListener;
-import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.zulia.ZuliaFieldConstants;
 import io.zulia.message.ZuliaBase;
 import io.zulia.message.ZuliaIndex;
@@ -15,20 +10,23 @@ import io.zulia.message.ZuliaServiceOuterClass;
 import io.zulia.server.analysis.ZuliaFieldAnalyzer;
 import io.zulia.server.analysis.ZuliaPerFieldAnalyzer;
 import io.zulia.server.analysis.highlight.ZuliaHighlighter;
+import io.zulia.server.analysis.highlight.ZuliaStandardHighlighter;
+import io.zulia.server.analysis.highlight.ZuliaUnifiedHighlighter;
 import io.zulia.server.analysis.similarity.ConstantSimilarity;
 import io.zulia.server.analysis.similarity.TFSimilarity;
 import io.zulia.server.config.IndexFieldInfo;
 import io.zulia.server.config.ServerIndexConfig;
 import io.zulia.server.config.SortFieldInfo;
-import io.zulia.server.exceptions.WrappedCheckedException;
 import io.zulia.server.field.FieldTypeUtil;
+import io.zulia.server.search.BoundedHitCountCollectorManager;
 import io.zulia.server.search.GeoDistUtil;
+import io.zulia.server.search.ProfilingCollectorManager;
 import io.zulia.server.search.QueryCacheKey;
 import io.zulia.server.search.ShardQuery;
+import io.zulia.server.search.SortFieldUtil;
 import io.zulia.server.search.aggregation.AggregationHandler;
 import io.zulia.server.search.aggregation.AggregationSettings;
-import io.zulia.util.pool.SemaphoreLimitedVirtualPool;
-import io.zulia.util.pool.VirtualThreadPerTaskTaskExecutor;
+import io.zulia.util.pool.TaskExecutor;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.facet.FacetsCollector;
 import org.apache.lucene.facet.FacetsCollectorManager;
@@ -62,12 +60,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class ShardReader implements AutoCloseable {
 
@@ -80,19 +79,23 @@ public class ShardReader implements AutoCloseable {
 	private final long creationTime;
 	private final ZuliaPerFieldAnalyzer zuliaPerFieldAnalyzer;
 	private final ExecutorService segmentOpenExecutor;
-	private final AsyncCache<@NotNull QueryCacheKey, ZuliaQuery.ShardQueryResponse> queryResultCache;
-	private final AsyncCache<@NotNull QueryCacheKey, ZuliaQuery.ShardQueryResponse> pinnedQueryResultCache;
+	private final ShardQueryCache shardQueryCache;
+	private final FilterCache filterCache;
+	private final FairSearchExecutor fairSearchExecutor;
+	private final ShardQueryCache.ReaderState readerState;
+	private final Sort indexSort;
 	private final AggregationSettings aggregationSettings;
 
-	private final AtomicInteger queryResultCacheSize = new AtomicInteger();
-	private final AtomicInteger pinnedQueryResultCacheSize = new AtomicInteger();
-
 	private final ConcurrentHashMap<Integer, Integer> dimensionChildCountCache = new ConcurrentHashMap<>();
 
 	private static final String[] EMPTY_STRING_ARRAY = new String[0];
 
+	// fewest documents worth handing to another thread when building the results of a page
+	private static final int CONCURRENT_DOCUMENT_CHUNK_SIZE = 100;
+
 	public ShardReader(int shardNumber, DirectoryReader indexReader, DirectoryTaxonomyReader taxoReader, ServerIndexConfig indexConfig,
-			ZuliaPerFieldAnalyzer zuliaPerFieldAnalyzer, ExecutorService segmentOpenExecutor, AggregationSettings aggregationSettings) {
+			ZuliaPerFieldAnalyzer zuliaPerFieldAnalyzer, ExecutorService segmentOpenExecutor, AggregationSettings aggregationSettings,
+			ShardQueryCache shardQueryCache, FilterCache filterCache, FairSearchExecutor fairSearchExecutor) {
 		this.creationTime = System.currentTimeMillis();
 		this.shardNumber = shardNumber;
 		this.indexReader = indexReader;
@@ -102,11 +105,26 @@ public class ShardReader implements AutoCloseable {
 		this.zuliaPerFieldAnalyzer = zuliaPerFieldAnalyzer;
 		this.segmentOpenExecutor = segmentOpenExecutor;
 		this.aggregationSettings = aggregationSettings;
-		RemovalListener<@NotNull QueryCacheKey, ZuliaQuery.@NotNull ShardQueryResponse> removalListener = (key, value, cause) -> queryResultCacheSize.getAndAdd(
-				-value.getSerializedSize());
-		this.queryResultCache = Caffeine.newBuilder().maximumSize(indexConfig.getIndexSettings().getShardQueryCacheSize()).removalListener(removalListener)
-				.recordStats().buildAsync();
-		this.pinnedQueryResultCache = Caffeine.newBuilder().recordStats().buildAsync();
+		this.shardQueryCache = shardQueryCache;
+		this.filterCache = filterCache;
+		this.fairSearchExecutor = fairSearchExecutor;
+		this.readerState = ShardQueryCache.ReaderState.of(indexReader);
+		this.indexSort = getIndexSort(indexReader);
+	}
+
+	/**
+	 * @return the sort shared by every segment, the index writer guarantees all segments are written with the configured index sort
+	 */
+	private static Sort getIndexSort(DirectoryReader indexReader) {
+		Sort indexSort = null;
+		for (LeafReaderContext leaf : indexReader.leaves()) {
+			Sort leafSort = leaf.reader().getMetaData().sort();
+			if (leafSort == null || (indexSort != null && !indexSort.equals(leafSort))) {
+				return null;
+			}
+			indexSort = leafSort;
+		}
+		return indexSort;
 	}
 
 	@Override
@@ -194,13 +212,15 @@ public class ShardReader implements AutoCloseable {
 		if (queryCacheKey != null) {
 
 			// Check if the search is existing in the pinned cache, so we can indicate it is cached. Otherwise, compute it in the cache so multiple identical requests are deduplicated
-			CompletableFuture<ZuliaQuery.ShardQueryResponse> pinnedCacheHit = pinnedQueryResultCache.getIfPresent(queryCacheKey);
+			// Cached results outlive this reader and are only served when they were computed on the same segments
+			ZuliaQuery.ShardQueryResponse pinnedCacheHit = shardQueryCache.getPinnedIfPresent(queryCacheKey, readerState);
 			if (pinnedCacheHit != null) {
-				return pinnedCacheHit.get().toBuilder().setCached(true).setPinned(true).build();
+				return getCacheHit(shardQuery, pinnedCacheHit, true);
 			}
 
 			if (queryCacheKey.isPinned()) {
-				return getFromAsyncCache(pinnedQueryResultCache, queryCacheKey, shardQuery, pinnedQueryResultCacheSize);
+				ZuliaQuery.ShardQueryResponse pinnedResponse = shardQueryCache.getPinned(queryCacheKey, shardQuery, readerState, this::getShardQueryResponse);
+				return withRequestedProfile(shardQuery, pinnedResponse);
 			}
 
 			int segmentQueryCacheMaxAmount = indexConfig.getIndexSettings().getShardQueryCacheMaxAmount();
@@ -208,12 +228,12 @@ public class ShardReader implements AutoCloseable {
 			if (useCache) {
 
 				// Check if the search is existing, so we can indicate it is cached. Otherwise, compute it in the cache so multiple identical requests are deduplicated
-				CompletableFuture<ZuliaQuery.ShardQueryResponse> cachedResult = queryResultCache.getIfPresent(queryCacheKey);
+				ZuliaQuery.ShardQueryResponse cachedResult = shardQueryCache.getIfPresent(queryCacheKey, readerState);
 				if (cachedResult != null) {
-					return cachedResult.get().toBuilder().setCached(true).build();
+					return getCacheHit(shardQuery, cachedResult, false);
 				}
 
-				return getFromAsyncCache(queryResultCache, queryCacheKey, shardQuery, queryResultCacheSize);
+				return withRequestedProfile(shardQuery, shardQueryCache.get(queryCacheKey, shardQuery, readerState, this::getShardQueryResponse));
 			}
 		}
 
@@ -221,48 +241,65 @@ public class ShardReader implements AutoCloseable {
 
 	}
 
-	private ZuliaQuery.ShardQueryResponse getFromAsyncCache(AsyncCache<@NotNull QueryCacheKey, ZuliaQuery.ShardQueryResponse> cache,
-			QueryCacheKey queryCacheKey, ShardQuery shardQuery, AtomicInteger cacheSize) throws Exception {
-		try {
-			CompletableFuture<ZuliaQuery.ShardQueryResponse> future = cache.get(queryCacheKey, key -> {
-				try {
-					ZuliaQuery.ShardQueryResponse shardQueryResponse = getShardQueryResponse(shardQuery);
-					cacheSize.getAndAdd(shardQueryResponse.getSerializedSize());
-					return shardQueryResponse;
-				}
-				catch (Exception e) {
-					throw new WrappedCheckedException(e);
-				}
-			});
-			return future.get();
+	private ZuliaQuery.ShardQueryResponse getCacheHit(ShardQuery shardQuery, ZuliaQuery.ShardQueryResponse cachedResult, boolean pinned) {
+		ZuliaQuery.ShardQueryResponse.Builder cacheHit = cachedResult.toBuilder().setCached(true).setPinned(pinned);
+		if (shardQuery.isProfile()) {
+			// the cached profile timed the search that computed the response
+			cacheHit.setProfile(
+					ZuliaQuery.ShardProfile.newBuilder().setIndexName(indexName).setShardNumber(shardNumber).setCacheHit(true).setPinned(pinned));
 		}
-		catch (ExecutionException e) {
-			Throwable cause = e.getCause();
-			if (cause instanceof WrappedCheckedException wce) {
-				throw wce.getCause();
-			}
-			if (cause instanceof Exception ex) {
-				throw ex;
-			}
-			throw new RuntimeException(cause);
+		else {
+			// profiled and unprofiled searches share cache entries so a profile computed for another search is not returned
+			cacheHit.clearProfile();
+		}
+		return cacheHit.build();
+	}
+
+	/**
+	 * An identical search waiting on the cache is given the response computed for another search, which may or may not have been profiled
+	 */
+	private ZuliaQuery.ShardQueryResponse withRequestedProfile(ShardQuery shardQuery, ZuliaQuery.ShardQueryResponse shardQueryResponse) {
+		if (!shardQuery.isProfile() && shardQueryResponse.hasProfile()) {
+			return shardQueryResponse.toBuilder().clearProfile().build();
+		}
+		if (shardQuery.isProfile() && !shardQueryResponse.hasProfile()) {
+			return shardQueryResponse.toBuilder()
+					.setProfile(ZuliaQuery.ShardProfile.newBuilder().setIndexName(indexName).setShardNumber(shardNumber).setCacheHit(true)).build();
 		}
+		return shardQueryResponse;
 	}
 
 	private ZuliaQuery.ShardQueryResponse getShardQueryResponse(ShardQuery shardQuery) throws Exception {
+		return getShardQueryResponse(shardQuery, shardQuery.getDeadlineNanos(), shardQuery::isCancelled);
+	}
+
+	private ZuliaQuery.ShardQueryResponse getShardQueryResponse(ShardQuery shardQuery, long deadlineNanos, BooleanSupplier cancelled) throws Exception {
+
+		checkCancelled(shardQuery, cancelled);
 
 		int concurrency = shardQuery.getConcurrency();
 		if (concurrency == 0) {
 			concurrency = 1;
 		}
 
-		try (VirtualThreadPerTaskTaskExecutor searchExecutor = new SemaphoreLimitedVirtualPool(concurrency)) {
+		// the tasks of the search share the node's search threads fairly with the searches of the other indexes
+		try (TaskExecutor searchExecutor = fairSearchExecutor.forSearch(indexName, concurrency)) {
 			IndexSearcher indexSearcher = new IndexSearcher(indexReader, searchExecutor);
-			return getShardQueryResponse(shardQuery, indexSearcher, concurrency);
+			filterCache.apply(indexSearcher);
+			// scoring stops when the search is cancelled, or at the deadline where the hits collected so far are returned
+			indexSearcher.setTimeout(() -> cancelled.getAsBoolean() || (deadlineNanos != 0 && System.nanoTime() - deadlineNanos > 0));
+			return getShardQueryResponse(shardQuery, indexSearcher, searchExecutor, concurrency, cancelled);
 		}
 	}
 
-	private ZuliaQuery.ShardQueryResponse getShardQueryResponse(ShardQuery shardQuery, IndexSearcher indexSearcher, int aggregationConcurrency)
-			throws Exception {
+	private void checkCancelled(ShardQuery shardQuery, BooleanSupplier cancelled) {
+		if (cancelled.getAsBoolean()) {
+			throw new CancellationException("Search id " + shardQuery.getSearchId() + " for index " + indexName + ":s" + shardNumber + " was cancelled");
+		}
+	}
+
+	private ZuliaQuery.ShardQueryResponse getShardQueryResponse(ShardQuery shardQuery, IndexSearcher indexSearcher, TaskExecutor searchExecutor,
+			int concurrency, BooleanSupplier cancelled) throws Exception {
 
 		PerFieldSimilarityWrapper similarity = getSimilarity(shardQuery.getSimilarityOverrideMap());
 
@@ -286,11 +323,29 @@ public class ShardReader implements AutoCloseable {
 
 		boolean sortingWithScores = false;
 
+		ZuliaQuery.FacetRequest facetRequest = shardQuery.getFacetRequest();
+
+		List<ZuliaQuery.CountRequest> countRequestList = facetRequest.getCountRequestList();
+		List<ZuliaQuery.StatRequest> statRequestList = facetRequest.getStatRequestList();
+
+		boolean hasFacetRequests = !countRequestList.isEmpty();
+		boolean hasStatRequests = !statRequestList.isEmpty();
+
+		boolean earlyTerminate = false;
+
+		// past the threshold lucene skips documents that cannot make the page and total hits becomes a lower bound.  aggregations and the
+		// facet total hits limits need every hit counted
+		int totalHitsThreshold = hasFacetRequests || hasStatRequests ? Integer.MAX_VALUE : shardQuery.getTotalHitsThreshold();
+
 		FieldDoc after = shardQuery.getAfter(shardNumber);
 		if (sorting) {
 			Sort sort = buildSortFromSortRequest(shardQuery.getSortRequest());
 			sortingWithScores = sort.needsScores();
-			collectorManager = new TopFieldCollectorManager(sort, hasMoreAmount, after, Integer.MAX_VALUE);
+
+			// when the sort is a prefix of the index sort each segment is already in sort order, so collection of a segment stops once it
+			// has filled the page.  aggregations visit every hit anyway
+			earlyTerminate = !hasFacetRequests && !hasStatRequests && SortFieldUtil.isIndexSortPrefix(sort, indexSort);
+			collectorManager = new TopFieldCollectorManager(sort, hasMoreAmount, after, earlyTerminate ? hasMoreAmount : totalHitsThreshold);
 
 			for (ZuliaQuery.FieldSort fieldSort : shardQuery.getSortRequest().getFieldSortList()) {
 				String sf = fieldSort.getSortField();
@@ -304,23 +359,29 @@ public class ShardReader implements AutoCloseable {
 			}
 		}
 		else {
-			collectorManager = new TopScoreDocCollectorManager(hasMoreAmount, after, Integer.MAX_VALUE);
+			collectorManager = new TopScoreDocCollectorManager(hasMoreAmount, after, totalHitsThreshold);
 		}
 
 		ZuliaQuery.ShardQueryResponse.Builder shardQueryReponseBuilder = ZuliaQuery.ShardQueryResponse.newBuilder();
 
-		ZuliaQuery.FacetRequest facetRequest = shardQuery.getFacetRequest();
-
-		List<ZuliaQuery.CountRequest> countRequestList = facetRequest.getCountRequestList();
-		List<ZuliaQuery.StatRequest> statRequestList = facetRequest.getStatRequestList();
-
-		boolean hasFacetRequests = !countRequestList.isEmpty();
-		boolean hasStatRequests = !statRequestList.isEmpty();
+		ZuliaQuery.ShardProfile.Builder profile = null;
+		if (shardQuery.isProfile()) {
+			profile = ZuliaQuery.ShardProfile.newBuilder().setIndexName(indexName).setShardNumber(shardNumber);
+			// the searcher rewrites the query and creates the weight again when it searches, the first rewrite is timed on its own here
+			long rewriteStart = System.nanoTime();
+			Query rewritten = indexSearcher.rewrite(shardQuery.getQuery());
+			long weightStart = System.nanoTime();
+			indexSearcher.createWeight(rewritten, sorting && !sortingWithScores ? ScoreMode.COMPLETE_NO_SCORES : ScoreMode.COMPLETE, 1);
+			profile.setRewriteNanos(weightStart - rewriteStart).setCreateWeightNanos(System.nanoTime() - weightStart);
+		}
 
+		long searchStart = System.nanoTime();
+		long aggregationNanos = 0;
 		TopDocs topDocs;
 		if (hasFacetRequests || hasStatRequests) {
 			FacetsCollectorManager facetsCollectorManager = new FacetsCollectorManager();
-			Object[] results = indexSearcher.search(shardQuery.getQuery(), new MultiCollectorManager(collectorManager, facetsCollectorManager));
+			MultiCollectorManager multiCollectorManager = new MultiCollectorManager(collectorManager, facetsCollectorManager);
+			Object[] results = search(indexSearcher, shardQuery.getQuery(), multiCollectorManager, profile);
 			topDocs = (TopDocs) results[0];
 			int shardTotalHits = (int) topDocs.totalHits.value();
 
@@ -339,13 +400,16 @@ public class ShardReader implements AutoCloseable {
 
 				if (!filteredCountRequests.isEmpty() || !filteredStatRequests.isEmpty()) {
 					FacetsCollector facetsCollector = (FacetsCollector) results[1];
-					handleAggregations(shardQueryReponseBuilder, filteredStatRequests, filteredCountRequests, facetsCollector, aggregationConcurrency,
-							shardQuery.isDebug(), shardQuery.getSearchId());
+					checkCancelled(shardQuery, cancelled);
+					long aggregationStart = System.nanoTime();
+					handleAggregations(shardQueryReponseBuilder, filteredStatRequests, filteredCountRequests, facetsCollector, concurrency,
+							shardQuery.isDebug(), shardQuery.getSearchId(), cancelled, profile);
+					aggregationNanos = System.nanoTime() - aggregationStart;
 				}
 			}
 		}
 		else {
-			topDocs = indexSearcher.search(shardQuery.getQuery(), collectorManager);
+			topDocs = search(indexSearcher, shardQuery.getQuery(), collectorManager, profile);
 		}
 
 		ScoreDoc[] results = topDocs.scoreDocs;
@@ -354,21 +418,61 @@ public class ShardReader implements AutoCloseable {
 		}
 
 		//TODO is there a way to avoid this cast?  should we support more total hits than an int
+		// a cancelled search stops like a timed out one but its partial results are not returned
+		checkCancelled(shardQuery, cancelled);
+
 		int totalHits = (int) topDocs.totalHits.value();
+		boolean timedOut = indexSearcher.timedOut();
+		boolean totalHitsLowerBound = timedOut || TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO.equals(topDocs.totalHits.relation());
+		if (earlyTerminate && !timedOut && totalHitsLowerBound && totalHits < totalHitsThreshold) {
+			// early termination stops counting at the page size, so count up to the threshold.  counting uses per segment shortcuts where
+			// available and never scores or compares sort values
+			TotalHits count = indexSearcher.search(shardQuery.getQuery(), new BoundedHitCountCollectorManager(totalHitsThreshold));
+			totalHits = (int) count.value();
+			// the count also stops at the deadline
+			timedOut = indexSearcher.timedOut();
+			totalHitsLowerBound = timedOut || TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO.equals(count.relation());
+		}
 
 		shardQueryReponseBuilder.setTotalHits(totalHits);
+		shardQueryReponseBuilder.setTotalHitsLowerBound(totalHitsLowerBound);
+		shardQueryReponseBuilder.setTimedOut(timedOut);
+		shardQueryReponseBuilder.setSearchNanos(System.nanoTime() - searchStart - aggregationNanos);
+		shardQueryReponseBuilder.setAggregationNanos(aggregationNanos);
+		if (profile != null) {
+			profile.setSearchNanos(shardQueryReponseBuilder.getSearchNanos()).setEarlyTerminated(earlyTerminate);
+		}
 
 		boolean moreAvailable = (results.length == hasMoreAmount);
 
 		int numResults = Math.min(results.length, shardQuery.getAmount());
 
-		List<ZuliaHighlighter> highlighterList = getHighlighterList(shardQuery.getHighlightList(), shardQuery.getQuery());
-
 		List<AnalysisHandler> analysisHandlerList = getAnalysisHandlerList(shardQuery.getAnalysisRequestList());
+		List<DocValueMeta> docValueMetas = getDocValueMetas(shardQuery.getDocValueFields());
+
+		LongAdder highlightNanos = profile != null ? new LongAdder() : null;
+
+		// highlighters keep state for the document being highlighted, so each handler gets its own
+		Supplier<DocumentScoredDocLeafHandler> handlerSupplier = () -> {
+			DocumentScoredDocLeafHandler handler = new DocumentScoredDocLeafHandler(indexName, shardNumber, shardQuery.getResultFetchType(),
+					shardQuery.getFieldsToReturn(), shardQuery.getFieldsToMask(), sortMetas,
+					getHighlighterList(shardQuery.getHighlightList(), shardQuery.getHighlightQuery(), indexSearcher), analysisHandlerList,
+					shardQuery.isCompressedDocuments(), docValueMetas);
+			handler.setHighlightNanos(highlightNanos);
+			return handler;
+		};
 
-		DocumentScoredDocLeafHandler documentScoredDocLeafHandler = new DocumentScoredDocLeafHandler(indexName, shardNumber, shardQuery.getResultFetchType(),
-				shardQuery.getFieldsToReturn(), shardQuery.getFieldsToMask(), sortMetas, highlighterList, analysisHandlerList);
-		ZuliaQuery.ScoredResult[] scoredResults = documentScoredDocLeafHandler.handle(indexReader, results, ZuliaQuery.ScoredResult[]::new);
+		long documentStart = System.nanoTime();
+		ZuliaQuery.ScoredResult[] scoredResults;
+		if (!ZuliaQuery.FetchType.NONE.equals(shardQuery.getResultFetchType()) && analysisHandlerList.isEmpty()) {
+			// loading, decompressing, filtering and highlighting large pages of documents is split across the search executor.  analysis
+			// handlers sum terms across the documents of the shard so they stay on this thread
+			scoredResults = ScoredDocLeafHandler.handleConcurrently(handlerSupplier, indexReader, results, ZuliaQuery.ScoredResult[]::new, searchExecutor,
+					concurrency, CONCURRENT_DOCUMENT_CHUNK_SIZE);
+		}
+		else {
+			scoredResults = handlerSupplier.get().handle(indexReader, results, ZuliaQuery.ScoredResult[]::new);
+		}
 
 		for (int i = 0; i < numResults; i++) {
 			shardQueryReponseBuilder.addScoredResult(scoredResults[i]);
@@ -377,6 +481,11 @@ public class ShardReader implements AutoCloseable {
 		if (moreAvailable) {
 			shardQueryReponseBuilder.setNext(scoredResults[numResults]);
 		}
+		shardQueryReponseBuilder.setDocumentNanos(System.nanoTime() - documentStart);
+		if (profile != null) {
+			profile.setDocumentNanos(shardQueryReponseBuilder.getDocumentNanos()).setHighlightNanos(highlightNanos.sum());
+			shardQueryReponseBuilder.setProfile(profile);
+		}
 
 		shardQueryReponseBuilder.setIndexName(indexName);
 		shardQueryReponseBuilder.setShardNumber(shardNumber);
@@ -394,11 +503,14 @@ public class ShardReader implements AutoCloseable {
 	}
 
 	private void handleAggregations(ZuliaQuery.ShardQueryResponse.Builder shardQueryReponseBuilder, List<ZuliaQuery.StatRequest> statRequestList,
-			List<ZuliaQuery.CountRequest> countRequestList, FacetsCollector facetsCollector, int aggregrationConcurrency, boolean debug, long searchId)
-			throws IOException {
+			List<ZuliaQuery.CountRequest> countRequestList, FacetsCollector facetsCollector, int aggregrationConcurrency, boolean debug, long searchId,
+			BooleanSupplier cancelled, ZuliaQuery.ShardProfile.Builder profile) throws IOException {
 
+		long collectStart = System.nanoTime();
 		AggregationHandler aggregationHandler = new AggregationHandler(taxoReader, facetsCollector, statRequestList, countRequestList, indexConfig,
-				aggregrationConcurrency, this::getDimensionChildCount, debug, searchId, aggregationSettings);
+				aggregrationConcurrency, this::getDimensionChildCount, debug, searchId, aggregationSettings, cancelled,
+				concurrency -> fairSearchExecutor.forSearch(indexName, concurrency));
+		long topStart = System.nanoTime();
 
 		for (ZuliaQuery.CountRequest countRequest : countRequestList) {
 
@@ -448,6 +560,21 @@ public class ShardReader implements AutoCloseable {
 			shardQueryReponseBuilder.addStatGroup(statGroupBuilder.build());
 		}
 
+		if (profile != null) {
+			profile.setAggregationCollectNanos(topStart - collectStart).setAggregationTopNanos(System.nanoTime() - topStart);
+		}
+	}
+
+	private static <C extends Collector, T> T search(IndexSearcher indexSearcher, Query query, CollectorManager<C, T> collectorManager,
+			ZuliaQuery.ShardProfile.Builder profile) throws IOException {
+		if (profile == null) {
+			return indexSearcher.search(query, collectorManager);
+		}
+
+		ProfilingCollectorManager<C, T> profilingCollectorManager = new ProfilingCollectorManager<>(collectorManager);
+		T result = indexSearcher.search(query, profilingCollectorManager);
+		profile.addAllSegmentProfile(profilingCollectorManager.getSegmentProfiles(indexSearcher.getIndexReader().leaves()));
+		return result;
 	}
 
 	private static void addEmptyFacetAndStatGroups(ZuliaQuery.ShardQueryResponse.Builder shardQueryReponseBuilder,
@@ -504,7 +631,7 @@ public class ShardReader implements AutoCloseable {
 
 	}
 
-	private List<ZuliaHighlighter> getHighlighterList(List<ZuliaQuery.HighlightRequest> highlightRequests, Query q) {
+	private List<ZuliaHighlighter> getHighlighterList(List<ZuliaQuery.HighlightRequest> highlightRequests, Query q, IndexSearcher indexSearcher) {
 
 		if (highlightRequests.isEmpty()) {
 			return Collections.emptyList();
@@ -522,13 +649,20 @@ public class ShardReader implements AutoCloseable {
 				throw new RuntimeException("Cannot highlight non-indexed field " + indexField);
 			}
 
+			if (ZuliaQuery.HighlightRequest.Engine.UNIFIED.equals(highlightRequest.getEngine())) {
+				highlighterList.add(new ZuliaUnifiedHighlighter(indexSearcher, zuliaPerFieldAnalyzer, q, indexField, indexFieldInfo.getStoredFieldName(),
+						highlightRequest.getNumberOfFragments(), highlightRequest.getFragmentLength(), highlightRequest.getPreTag(),
+						highlightRequest.getPostTag()));
+				continue;
+			}
+
 			QueryScorer queryScorer = new QueryScorer(q, highlightRequest.getField());
 			queryScorer.setExpandMultiTermQuery(true);
 			Fragmenter fragmenter = new SimpleSpanFragmenter(queryScorer, highlightRequest.getFragmentLength());
 			SimpleHTMLFormatter simpleHTMLFormatter = new SimpleHTMLFormatter(highlightRequest.getPreTag(), highlightRequest.getPostTag());
-			ZuliaHighlighter highlighter = new ZuliaHighlighter(simpleHTMLFormatter, queryScorer, highlightRequest.getField(),
+			ZuliaStandardHighlighter highlighter = new ZuliaStandardHighlighter(simpleHTMLFormatter, queryScorer, highlightRequest.getField(),
 					indexFieldInfo.getStoredFieldName(), highlightRequest.getNumberOfFragments(), zuliaPerFieldAnalyzer);
-			highlighter.setTextFragmenter(fragmenter);
+			highlighter.getHighlighter().setTextFragmenter(fragmenter);
 			highlighterList.add(highlighter);
 		}
 		return highlighterList;
@@ -645,55 +779,26 @@ public class ShardReader implements AutoCloseable {
 				throw new IllegalArgumentException("Field " + sortField + " must be sortable");
 			}
 
-			FieldType sortFieldType = sortFieldInfo.getFieldType();
-			String internalSortFieldName = sortFieldInfo.getInternalSortFieldName();
+			sortFields.add(SortFieldUtil.getSortField(sortFieldInfo, sortField, reverse, fs.getMissingLast()));
 
-			if (FieldTypeUtil.isStringFieldType(sortFieldType)) {
+		}
 
-				SortedSetSelector.Type sortedSetSelector = SortedSetSelector.Type.MIN;
-				if (reverse) {
-					sortedSetSelector = SortedSetSelector.Type.MAX;
-				}
+		return new Sort(sortFields.toArray(new SortField[0]));
+	}
 
-				SortedSetSortField setSortField = new SortedSetSortField(internalSortFieldName, reverse, sortedSetSelector,
-						!fs.getMissingLast() ? SortField.STRING_FIRST : SortField.STRING_LAST);
-				sortFields.add(setSortField);
+	private List<DocValueMeta> getDocValueMetas(List<String> docValueFields) {
+		List<DocValueMeta> docValueMetas = new ArrayList<>(docValueFields.size());
+		for (String docValueField : docValueFields) {
+			SortFieldInfo sortFieldInfo = indexConfig.getSortFieldInfo(docValueField);
+			if (sortFieldInfo == null) {
+				throw new IllegalArgumentException("Field " + docValueField + " must be sortable to be returned from doc values");
 			}
-			else {
-
-				SortedNumericSelector.Type sortedNumericSelector = SortedNumericSelector.Type.MIN;
-				if (reverse) {
-					sortedNumericSelector = SortedNumericSelector.Type.MAX;
-				}
-
-				Object missingValue;
-				SortField.Type type;
-				if (FieldTypeUtil.isStoredAsInt(sortFieldType)) {
-					type = SortField.Type.INT;
-					missingValue = !fs.getMissingLast() ? Integer.MIN_VALUE : Integer.MAX_VALUE;
-				}
-				else if (FieldTypeUtil.isStoredAsLong(sortFieldType)) {
-					type = SortField.Type.LONG;
-					missingValue = !fs.getMissingLast() ? Long.MIN_VALUE : Long.MAX_VALUE;
-				}
-				else if (FieldTypeUtil.isNumericFloatFieldType(sortFieldType)) {
-					type = SortField.Type.FLOAT;
-					missingValue = !fs.getMissingLast() ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
-				}
-				else if (FieldTypeUtil.isNumericDoubleFieldType(sortFieldType)) {
-					type = SortField.Type.DOUBLE;
-					missingValue = !fs.getMissingLast() ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
-				}
-				else {
-					throw new Exception("Invalid numeric sort type " + sortFieldType + " for sort field " + sortField);
-				}
-
-				sortFields.add(new SortedNumericSortField(internalSortFieldName, type, reverse, sortedNumericSelector, missingValue));
+			if (FieldTypeUtil.isGeoPointFieldType(sortFieldInfo.getFieldType())) {
+				throw new IllegalArgumentException("Field <" + docValueField + "> is a GEO_POINT field and cannot be returned from doc values");
 			}
-
+			docValueMetas.add(new DocValueMeta(docValueField, sortFieldInfo.getInternalSortFieldName(), sortFieldInfo.getFieldType()));
 		}
-
-		return new Sort(sortFields.toArray(new SortField[0]));
+		return docValueMetas;
 	}
 
 	public ZuliaBase.ResultDocument getSourceDocument(String uniqueId, ZuliaQuery.FetchType resultFetchType, List<String> fieldsToReturn,
@@ -780,7 +885,8 @@ public class ShardReader implements AutoCloseable {
 				tr = taxoReader;
 			}
 
-			return new ShardReader(shardNumber, r, tr, indexConfig, zuliaPerFieldAnalyzer, segmentOpenExecutor, aggregationSettings);
+			return new ShardReader(shardNumber, r, tr, indexConfig, zuliaPerFieldAnalyzer, segmentOpenExecutor, aggregationSettings, shardQueryCache,
+					filterCache, fairSearchExecutor);
 		}
 
 	}
@@ -820,21 +926,11 @@ public class ShardReader implements AutoCloseable {
 		}
 	}
 
-	public ZuliaBase.ShardCacheStats.Builder getShardCacheStats() {
-		ZuliaBase.ShardCacheStats.Builder b = ZuliaBase.ShardCacheStats.newBuilder();
-		b.setGeneralCache(getCacheStats(queryResultCache.synchronous()).setResultSize(queryResultCacheSize.get()));
-		b.setPinnedCache(getCacheStats(pinnedQueryResultCache.synchronous()).setResultSize(pinnedQueryResultCacheSize.get()));
-		return b;
-	}
-
-	private static ZuliaBase.CacheStats.Builder getCacheStats(Cache<@NotNull QueryCacheKey, ZuliaQuery.ShardQueryResponse> cache) {
-		CacheStats stats = cache.stats();
-		ZuliaBase.CacheStats.Builder b = ZuliaBase.CacheStats.newBuilder();
-		b.setEstimatedSize(cache.estimatedSize());
-		b.setHitCount(stats.hitCount());
-		b.setMissCount(stats.missCount());
-		b.setTotalLoadTime(stats.totalLoadTime() / 1_000_000);
-		b.setEvictionCount(stats.evictionCount());
-		return b;
+	/**
+	 * Rewarm the hottest cached queries against this reader and drop the ones it cannot serve, before the reader is published
+	 */
+	public void refreshQueryCache() {
+		// re-warming is not bound by the timeout or cancellation of the request that first cached the query
+		shardQueryCache.readerRefreshed(readerState, shardQuery -> getShardQueryResponse(shardQuery, 0, () -> false));
 	}
 }
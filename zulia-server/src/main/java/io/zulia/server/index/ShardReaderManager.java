@@ -3,14 +3,36 @@ package io.zulia.server.index;
 import org.apache.lucene.search.ReferenceManager;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 public class ShardReaderManager extends ReferenceManager<ShardReader> {
 
-	private long latestShardTime;
+	private volatile long latestShardTime;
 
-	public ShardReaderManager(ShardReader initial) {
+	private final LongSupplier completedSequenceNumber;
+	// every write with a sequence number up to this is in the current reader
+	private volatile long searchingSequenceNumber;
+
+	private final LongSupplier realtimeRefreshMinIntervalMs;
+	private final ReentrantLock realtimeLock = new ReentrantLock();
+	private final Condition realtimeRefreshFinished = realtimeLock.newCondition();
+	// realtime reopens are numbered as they start, a request needs the first reopen numbered after the ones started before it arrived
+	private long startedRefreshes;
+	private long finishedRefresh;
+	private boolean refreshing;
+	private long lastRefreshStartNanos;
+
+	/**
+	 * @param completedSequenceNumber highest sequence number of the finished writes to the shard, 0 for a replica
+	 */
+	public ShardReaderManager(ShardReader initial, LongSupplier realtimeRefreshMinIntervalMs, LongSupplier completedSequenceNumber) {
 		this.current = initial;
 		this.latestShardTime = initial.getCreationTime();
+		this.realtimeRefreshMinIntervalMs = realtimeRefreshMinIntervalMs;
+		this.completedSequenceNumber = completedSequenceNumber;
 	}
 
 	@Override
@@ -20,11 +42,16 @@ public class ShardReaderManager extends ReferenceManager<ShardReader> {
 
 	@Override
 	protected ShardReader refreshIfNeeded(ShardReader referenceToRefresh) throws IOException {
+		// read before the reopen, the writes finished by now are in the reader it returns or in the current reader when nothing changed
+		long sequenceNumber = completedSequenceNumber.getAsLong();
 		// Evaluate last build time for outside decision-making
 		ShardReader next = referenceToRefresh.refreshIfNeeded();
 		if (next != null) {
+			// the new reader is not visible to searches until it is returned
+			next.refreshQueryCache();
 			latestShardTime = next.getCreationTime();
 		}
+		searchingSequenceNumber = Math.max(searchingSequenceNumber, sequenceNumber);
 		return next;
 	}
 
@@ -41,4 +68,74 @@ public class ShardReaderManager extends ReferenceManager<ShardReader> {
 	public long getLatestShardTime() {
 		return latestShardTime;
 	}
+
+	public long getSearchingSequenceNumber() {
+		return searchingSequenceNumber;
+	}
+
+	/**
+	 * Makes the changes made before the call visible to readers acquired after it.  Concurrent realtime requests share reopens: a request waits
+	 * for the first reopen that starts after it arrived, which one of the waiting requests runs for all of them, and reopens start at least
+	 * the minimum realtime refresh interval apart.  A failed reopen is thrown to the request that ran it and the others try again.
+	 */
+	public void maybeRefreshRealtime() throws IOException {
+		realtimeLock.lock();
+		try {
+			// a reopen already running may have opened its reader before the changes of this request
+			long needed = startedRefreshes + 1;
+			while (finishedRefresh < needed) {
+				if (refreshing) {
+					try {
+						realtimeRefreshFinished.await();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new RuntimeException(e);
+					}
+					continue;
+				}
+
+				long waitNanos = 0;
+				if (startedRefreshes > 0) {
+					long intervalNanos = TimeUnit.MILLISECONDS.toNanos(realtimeRefreshMinIntervalMs.getAsLong());
+					waitNanos = lastRefreshStartNanos + intervalNanos - System.nanoTime();
+				}
+				if (waitNanos > 0) {
+					try {
+						realtimeRefreshFinished.awaitNanos(waitNanos);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new RuntimeException(e);
+					}
+					continue;
+				}
+
+				runRealtimeRefresh();
+			}
+		}
+		finally {
+			realtimeLock.unlock();
+		}
+	}
+
+	private void runRealtimeRefresh() throws IOException {
+		long refreshNumber = ++startedRefreshes;
+		refreshing = true;
+		lastRefreshStartNanos = System.nanoTime();
+		realtimeLock.unlock();
+		boolean refreshed = false;
+		try {
+			maybeRefreshBlocking();
+			refreshed = true;
+		}
+		finally {
+			realtimeLock.lock();
+			refreshing = false;
+			if (refreshed) {
+				finishedRefresh = refreshNumber;
+			}
+			realtimeRefreshFinished.signalAll();
+		}
+	}
 }
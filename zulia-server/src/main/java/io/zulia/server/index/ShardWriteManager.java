@@ -4,6 +4,7 @@ import io.zulia.ZuliaFieldConstants;
 import io.zulia.server.analysis.ZuliaPerFieldAnalyzer;
 import io.zulia.server.config.ServerIndexConfig;
 import io.zulia.server.index.cache.ZuliaTaxonomyWriterCache;
+import io.zulia.server.search.SortFieldUtil;
 import io.zulia.server.search.aggregation.AggregationSettings;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.facet.taxonomy.directory.DirectoryTaxonomyReader;
@@ -15,6 +16,7 @@ import org.apache.lucene.index.KeepOnlyLastCommitDeletionPolicy;
 import org.apache.lucene.index.SnapshotDeletionPolicy;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TieredMergePolicy;
+import org.apache.lucene.search.Sort;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.store.NRTCachingDirectory;
@@ -138,6 +140,12 @@ public class ShardWriteManager implements Closeable {
 
 		config.setMergeScheduler(mergeScheduler);
 
+		// an index sort cannot change once segments are written with it, so it is only set when the index is created
+		Sort indexSort = SortFieldUtil.getIndexSort(indexConfig);
+		if (indexSort != null) {
+			config.setIndexSort(indexSort);
+		}
+
 		NRTCachingDirectory nrtCachingDirectory = new ZuliaNRTCachingDirectory(d, indexConfig::getNrtIndexMaxMergeSizeMB, indexConfig::getNrtIndexMaxCachedMB,
 				indexConfig::isNrtCachingDisabled);
 
@@ -171,11 +179,13 @@ public class ShardWriteManager implements Closeable {
 		IOUtils.close(indexWriter::rollback, indexWriter.getDirectory(), taxoWriter, taxoWriter.getDirectory());
 	}
 
-	public ShardReader createShardReader() throws IOException {
+	public ShardReader createShardReader(ShardQueryCache shardQueryCache, FilterCache filterCache, FairSearchExecutor fairSearchExecutor)
+			throws IOException {
 		DirectoryReader indexReader = DirectoryReader.open(indexWriter);
 		DirectoryTaxonomyReader taxoReader = new DirectoryTaxonomyReader(taxoWriter);
 		taxoReader.setCacheSize(128000);
-		return new ShardReader(shardNumber, indexReader, taxoReader, indexConfig, zuliaPerFieldAnalyzer, segmentOpenExecutor, aggregationSettings);
+		return new ShardReader(shardNumber, indexReader, taxoReader, indexConfig, zuliaPerFieldAnalyzer, segmentOpenExecutor, aggregationSettings,
+				shardQueryCache, filterCache, fairSearchExecutor);
 	}
 
 	public synchronized void commit() throws IOException {
@@ -328,27 +338,39 @@ public class ShardWriteManager implements Closeable {
 		indexWriter.deleteAll();
 	}
 
-	public void indexDocument(String uniqueId, long timestamp, DocumentContainer mongoDocument, DocumentContainer metadata) throws Exception {
+	/**
+	 * @return sequence number of the write in the index writer
+	 */
+	public long indexDocument(String uniqueId, long timestamp, DocumentContainer mongoDocument, DocumentContainer metadata) throws Exception {
 		Document luceneDocument = shardDocumentIndexer.getIndexDocument(uniqueId, timestamp, mongoDocument, metadata, taxoWriter);
 		Term updateQuery = new Term(ZuliaFieldConstants.ID_FIELD, uniqueId);
 
 		if (mergeScheduler.mergeSaturated()) {
 			indexingThrottle.acquire();
 			try {
-				indexWriter.updateDocument(updateQuery, luceneDocument);
+				long sequenceNumber = indexWriter.updateDocument(updateQuery, luceneDocument);
 				totalIndexedThrottled.incrementAndGet();
+				return sequenceNumber;
 			}
 			finally {
 				indexingThrottle.release();
 			}
 		}
 		else {
-			indexWriter.updateDocument(updateQuery, luceneDocument);
+			long sequenceNumber = indexWriter.updateDocument(updateQuery, luceneDocument);
 			totalIndexedUnthrottled.incrementAndGet();
+			return sequenceNumber;
 		}
 
 	}
 
+	/**
+	 * @return highest sequence number of the finished writes, a reader opened after this is read includes every write up to it
+	 */
+	public long getMaxCompletedSequenceNumber() {
+		return indexWriter.getMaxCompletedSequenceNumber();
+	}
+
 	public Directory getIndexDirectory() {
 		return indexWriter.getDirectory();
 	}
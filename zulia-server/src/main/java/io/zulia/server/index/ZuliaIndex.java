@@ -2,6 +2,7 @@ package io.zulia.server.index;
 
 import com.google.common.primitives.Floats;
 import com.google.protobuf.ProtocolStringList;
+import io.grpc.Context;
 import io.zulia.ZuliaFieldConstants;
 import io.zulia.message.ZuliaBase;
 import io.zulia.message.ZuliaBase.AssociatedDocument;
@@ -35,6 +36,7 @@ import io.zulia.server.config.SortFieldInfo;
 import io.zulia.server.config.ZuliaConfig;
 import io.zulia.server.connection.client.InternalClient;
 import io.zulia.server.exceptions.IndexDoesNotExistException;
+import io.zulia.server.exceptions.PointInTimeDoesNotExistException;
 import io.zulia.server.exceptions.ShardDoesNotExistException;
 import io.zulia.server.field.FieldTypeUtil;
 import io.zulia.server.filestorage.DocumentStorage;
@@ -101,6 +103,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -109,6 +112,7 @@ public class ZuliaIndex {
 	private final static Logger LOG = LoggerFactory.getLogger(ZuliaIndex.class);
 	private final ServerIndexConfig indexConfig;
 	private final ConcurrentLinkedDeque<ZuliaFlexibleQueryParser> parsers;
+	private final ParsedQueryCache parsedQueryCache;
 	private final ConcurrentHashMap<Integer, ZuliaShard> primaryShardMap;
 	private final ConcurrentHashMap<Integer, ZuliaShard> replicaShardMap;
 	private final ExecutorService shardPool;
@@ -118,6 +122,7 @@ public class ZuliaIndex {
 	private final ZuliaConfig zuliaConfig;
 	private Thread commitThread;
 	private Thread warmThread;
+	private Thread refreshThread;
 	private Thread replicationWatchdogThread;
 	private volatile boolean maintenanceRunning = true;
 	private final CountDownLatch maintenanceShutdownLatch = new CountDownLatch(1);
@@ -134,11 +139,20 @@ public class ZuliaIndex {
 	private volatile IndexShardMapping indexShardMapping;
 	private final AggregationSettings aggregationSettings;
 	private final SegmentReplicationManager segmentReplicationManager;
+	private final NodeQueryCache nodeQueryCache;
+	private final FilterCache filterCache;
+	private final FairSearchExecutor fairSearchExecutor;
+	private final PointInTimeLeases pointInTimeLeases;
 
 	public ZuliaIndex(ZuliaConfig zuliaConfig, ServerIndexConfig indexConfig, DocumentStorage documentStorage, IndexService indexService,
-			IndexShardMapping indexShardMapping, InternalClient internalClient, ReplicationRateLimiter replicationRateLimiter) {
+			IndexShardMapping indexShardMapping, InternalClient internalClient, ReplicationRateLimiter replicationRateLimiter,
+			NodeQueryCache nodeQueryCache, FilterCache filterCache, FairSearchExecutor fairSearchExecutor, PointInTimeLeases pointInTimeLeases) {
 
 		this.zuliaConfig = zuliaConfig;
+		this.nodeQueryCache = nodeQueryCache;
+		this.filterCache = filterCache;
+		this.fairSearchExecutor = fairSearchExecutor;
+		this.pointInTimeLeases = pointInTimeLeases;
 		this.aggregationSettings = new AggregationSettings(zuliaConfig.getHitsPerConcurrentRequest(), zuliaConfig.getMaxFacetsCachedPerDimension());
 		this.indexConfig = indexConfig;
 		this.indexName = indexConfig.getIndexName();
@@ -155,6 +169,7 @@ public class ZuliaIndex {
 		this.zuliaPerFieldAnalyzer = new ZuliaPerFieldAnalyzer(indexConfig);
 
 		this.parsers = new ConcurrentLinkedDeque<>();
+		this.parsedQueryCache = new ParsedQueryCache(zuliaConfig.getParsedQueryCacheSize());
 
 		this.primaryShardMap = new ConcurrentHashMap<>();
 		this.replicaShardMap = new ConcurrentHashMap<>();
@@ -179,6 +194,16 @@ public class ZuliaIndex {
 			}
 		}));
 
+		// ticks at the refresh interval of the index, which can change while the loop runs
+		refreshThread = Thread.ofVirtual().name(indexName + "-RefreshTimer").start(() -> runMaintenanceLoop(() -> {
+			int refreshIntervalMs = indexConfig.getIndexSettings().getRefreshIntervalMs();
+			return refreshIntervalMs != 0 ? refreshIntervalMs : MAINTENANCE_TICK_INTERVAL_MS;
+		}, () -> {
+			if (indexConfig.getIndexSettings().getRefreshIntervalMs() != 0) {
+				doScheduledRefresh();
+			}
+		}));
+
 		replicationWatchdogThread = Thread.ofVirtual().name(indexName + "-ReplicationWatchdog")
 				.start(() -> runMaintenanceLoop(REPLICATION_WATCHDOG_INTERVAL_MS, () -> segmentReplicationManager.watchdogTick(primaryShardMap.values())));
 	}
@@ -186,9 +211,13 @@ public class ZuliaIndex {
 	// Runs task every intervalMs until unload(). Sleeps on the shutdown latch (not Thread.sleep) so unload()
 	// wakes the loop immediately via countDown() without interrupting a thread that may be mid-commit.
 	private void runMaintenanceLoop(long intervalMs, Runnable task) {
+		runMaintenanceLoop(() -> intervalMs, task);
+	}
+
+	private void runMaintenanceLoop(LongSupplier intervalMs, Runnable task) {
 		while (maintenanceRunning) {
 			try {
-				if (maintenanceShutdownLatch.await(intervalMs, TimeUnit.MILLISECONDS)) {
+				if (maintenanceShutdownLatch.await(intervalMs.getAsLong(), TimeUnit.MILLISECONDS)) {
 					return; // latch released -> shutting down
 				}
 			}
@@ -243,6 +272,17 @@ public class ZuliaIndex {
 
 	}
 
+	private void doScheduledRefresh() {
+		for (ZuliaShard shard : primaryShardMap.values()) {
+			try {
+				shard.tryScheduledRefresh();
+			}
+			catch (Exception e) {
+				LOG.error("Failed to refresh index {}:s{}", indexName, shard.getShardNumber(), e);
+			}
+		}
+	}
+
 	/**
 	 * Force commits every primary shard, propagating the first failure. Eviction runs this before
 	 * unload because unload's close path rolls back, so a commit fault must abort the eviction
@@ -261,6 +301,7 @@ public class ZuliaIndex {
 		maintenanceShutdownLatch.countDown();
 		joinMaintenance(commitThread);
 		joinMaintenance(warmThread);
+		joinMaintenance(refreshThread);
 		joinMaintenance(replicationWatchdogThread);
 
 		if (!terminate) {
@@ -337,7 +378,7 @@ public class ZuliaIndex {
 				zuliaPerFieldAnalyzer, aggregationSettings);
 		ZuliaShard s;
 		try {
-			s = new ZuliaShard(shardWriteManager);
+			s = new ZuliaShard(shardWriteManager, nodeQueryCache, filterCache, fairSearchExecutor);
 		}
 		catch (Exception e) {
 			// reader creation failed, so close the fully opened write manager or its write.lock stays held until JVM restart
@@ -357,7 +398,7 @@ public class ZuliaIndex {
 	private void loadReplicaShard(int shardNumber) throws Exception {
 		ShardReadManager shardReadManager = new ShardReadManager(shardNumber, getPathForIndex(shardNumber), getPathForFacetsIndex(shardNumber), indexConfig,
 				zuliaPerFieldAnalyzer, aggregationSettings);
-		ZuliaShard s = new ZuliaShard(shardReadManager);
+		ZuliaShard s = new ZuliaShard(shardReadManager, nodeQueryCache, filterCache, fairSearchExecutor);
 		LOG.info("Loaded replica shard {}:s{}", indexName, shardNumber);
 		replicaShardMap.put(shardNumber, s);
 	}
@@ -419,13 +460,16 @@ public class ZuliaIndex {
 
 		String uniqueId = storeRequest.getUniqueId();
 
+		StoreResponse.Builder storeResponse = StoreResponse.newBuilder();
 		if (storeRequest.hasResultDocument()) {
 			ResultDocument resultDocument = storeRequest.getResultDocument();
 			DocumentContainer document = new DocumentContainer(resultDocument.getDocument());
 			DocumentContainer metadata = new DocumentContainer(resultDocument.getMetadata());
 
 			ZuliaShard s = findShardFromUniqueId(uniqueId);
-			s.index(uniqueId, timestamp, document, metadata);
+			long sequenceNumber = s.index(uniqueId, timestamp, document, metadata);
+			storeResponse.setShardGeneration(
+					ShardGeneration.newBuilder().setIndexName(indexName).setShardNumber(s.getShardNumber()).setSequenceNumber(sequenceNumber));
 
 		}
 
@@ -443,7 +487,7 @@ public class ZuliaIndex {
 			documentStorage.registerExternalDocument(ed);
 		}
 
-		return StoreResponse.newBuilder().build();
+		return storeResponse.build();
 
 	}
 
@@ -821,14 +865,18 @@ public class ZuliaIndex {
 			//defaults to filter
 		}
 
-		String scoreFunction = query.getScoreFunction();
-		if (!scoreFunction.isEmpty()) {
-			luceneQuery = handleScoreFunction(query.getScoreFunction(), luceneQuery);
-		}
+		// score functions and boosts do not change what a non scoring clause matches, leaving them off lets the filter cache share an entry
+		boolean scoring = occur == BooleanClause.Occur.MUST || occur == BooleanClause.Occur.SHOULD;
+		if (scoring) {
+			String scoreFunction = query.getScoreFunction();
+			if (!scoreFunction.isEmpty()) {
+				luceneQuery = handleScoreFunction(query.getScoreFunction(), luceneQuery);
+			}
 
-		float boost = query.getBoost();
-		if (boost != 0f && boost != 1f) {
-			luceneQuery = new BoostQuery(luceneQuery, boost);
+			float boost = query.getBoost();
+			if (boost != 0f && boost != 1f) {
+				luceneQuery = new BoostQuery(luceneQuery, boost);
+			}
 		}
 
 		return new BooleanClause(luceneQuery, occur);
@@ -945,6 +993,12 @@ public class ZuliaIndex {
 
 	private Query parseWithQueryParser(String queryText, int minimumShouldMatchNumber, ZuliaQuery.Query.Operator defaultOperator,
 			Collection<String> defaultSearchFieldList) throws Exception {
+		return parsedQueryCache.getQuery(queryText, minimumShouldMatchNumber, defaultOperator, defaultSearchFieldList,
+				() -> parseWithPooledQueryParser(queryText, minimumShouldMatchNumber, defaultOperator, defaultSearchFieldList));
+	}
+
+	private Query parseWithPooledQueryParser(String queryText, int minimumShouldMatchNumber, ZuliaQuery.Query.Operator defaultOperator,
+			Collection<String> defaultSearchFieldList) throws Exception {
 		Query query;
 		ZuliaFlexibleQueryParser qp = parsers.pollFirst();
 		if (qp == null) {
@@ -974,7 +1028,16 @@ public class ZuliaIndex {
 			}
 		}
 
+		PointInTimeLease pointInTimeLease = getPointInTimeLease(internalQueryRequest);
+
+		if (internalQueryRequest.getShardFetchCount() != 0) {
+			return internalFetchPhase(query, internalQueryRequest, shardsForQuery, pointInTimeLease);
+		}
+
 		ShardQuery shardQuery = getShardQuery(query, queryRequest, internalQueryRequest.getSearchId());
+		if (queryRequest.getTimeoutMs() != 0) {
+			shardQuery.setDeadlineNanos(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queryRequest.getTimeoutMs()));
+		}
 		// if concurrency is not set in the query default to the index concurrency if that is set or default to the node level config
 		if (shardQuery.getConcurrency() == 0) {
 			int indexDefaultConcurrency = indexConfig.getDefaultConcurrency();
@@ -990,17 +1053,82 @@ public class ZuliaIndex {
 
 		IndexShardResponse.Builder builder = IndexShardResponse.newBuilder();
 
+		// shard searches stop when the caller's gRPC call is cancelled or when another shard of the search fails
+		Context.CancellableContext searchContext = Context.current().withCancellation();
+		shardQuery.setCancelled(searchContext::isCancelled);
+		try {
+			List<Future<ShardQueryResponse>> responses = new ArrayList<>();
+
+			boolean pin = internalQueryRequest.getCreatePointInTime();
+			for (final ZuliaShard shard : shardsForQuery) {
+				long minSequenceNumber = getMinSequenceNumber(queryRequest, shard.getShardNumber());
+				Future<ShardQueryResponse> response = shardPool.submit(() -> {
+					shard.waitForSequenceNumber(minSequenceNumber);
+					return queryShard(shard, shardQuery, pointInTimeLease, pin);
+				});
+				responses.add(response);
+			}
+
+			for (Future<ShardQueryResponse> response : responses) {
+				try {
+					ShardQueryResponse rs = response.get();
+					builder.addShardQueryResponse(rs);
+				}
+				catch (ExecutionException e) {
+					Throwable t = e.getCause();
+					searchContext.cancel(t);
+
+					if (t instanceof OutOfMemoryError) {
+						throw (OutOfMemoryError) t;
+					}
+
+					throw ((Exception) e.getCause());
+				}
+			}
+		}
+		finally {
+			searchContext.cancel(null);
+		}
+
+		builder.setIndexName(indexName);
+		return builder.build();
+
+	}
+
+	/**
+	 * Second phase of a query then fetch search.  Loads the documents (and highlights) for the ids selected by the merge on the coordinating node
+	 */
+	private IndexShardResponse internalFetchPhase(Query query, InternalQueryRequest internalQueryRequest, Set<ZuliaShard> shardsForQuery,
+			PointInTimeLease pointInTimeLease) throws Exception {
+
+		QueryRequest queryRequest = internalQueryRequest.getQueryRequest();
+
+		Map<Integer, ZuliaShard> shardNumberToShard = new HashMap<>();
+		for (ZuliaShard shard : shardsForQuery) {
+			shardNumberToShard.put(shard.getShardNumber(), shard);
+		}
+
+		IndexShardResponse.Builder builder = IndexShardResponse.newBuilder();
+
 		List<Future<ShardQueryResponse>> responses = new ArrayList<>();
+		for (ZuliaQuery.ShardFetch shardFetch : internalQueryRequest.getShardFetchList()) {
+			if (indexName.equals(shardFetch.getIndexName())) {
+				ZuliaShard shard = shardNumberToShard.get(shardFetch.getShardNumber());
+				if (shard == null) {
+					throw new ShardDoesNotExistException(indexName, shardFetch.getShardNumber());
+				}
 
-		for (final ZuliaShard shard : shardsForQuery) {
-			Future<ShardQueryResponse> response = shardPool.submit(() -> shard.queryShard(shardQuery));
-			responses.add(response);
+				ShardQuery shardQuery = ShardQuery.fetchByIds(shardFetch.getUniqueIdList(), query, queryRequest.getResultFetchType(),
+						queryRequest.getDocumentFieldsList(), queryRequest.getDocumentMaskedFieldsList(), queryRequest.getHighlightRequestList(),
+						internalQueryRequest.getSearchId(), queryRequest.getSearchLabel());
+				shardQuery.setCompressedDocuments(queryRequest.getCompressedDocuments());
+				responses.add(shardPool.submit(() -> queryShard(shard, shardQuery, pointInTimeLease, internalQueryRequest.getCreatePointInTime())));
+			}
 		}
 
 		for (Future<ShardQueryResponse> response : responses) {
 			try {
-				ShardQueryResponse rs = response.get();
-				builder.addShardQueryResponse(rs);
+				builder.addShardQueryResponse(response.get());
 			}
 			catch (ExecutionException e) {
 				Throwable t = e.getCause();
@@ -1015,7 +1143,43 @@ public class ZuliaIndex {
 
 		builder.setIndexName(indexName);
 		return builder.build();
+	}
 
+	/**
+	 * Only the first page of a point in time search creates its lease, later pages fail when the lease expired instead of silently searching
+	 * newer readers
+	 */
+	private PointInTimeLease getPointInTimeLease(InternalQueryRequest internalQueryRequest) throws PointInTimeDoesNotExistException {
+		QueryRequest queryRequest = internalQueryRequest.getQueryRequest();
+		String pointInTimeId = queryRequest.getPointInTimeId();
+		if (pointInTimeId.isEmpty()) {
+			return null;
+		}
+		if (internalQueryRequest.getCreatePointInTime()) {
+			return pointInTimeLeases.createLease(pointInTimeId, queryRequest.getPointInTimeKeepAliveMs());
+		}
+		return pointInTimeLeases.getLease(pointInTimeId, queryRequest.getPointInTimeKeepAliveMs());
+	}
+
+	/**
+	 * @return highest sequence number of the writes to the shard the query has to see, 0 when it does not wait for the shard
+	 */
+	private long getMinSequenceNumber(QueryRequest queryRequest, int shardNumber) {
+		long minSequenceNumber = 0;
+		for (ShardGeneration shardGeneration : queryRequest.getMinShardGenerationList()) {
+			if (shardGeneration.getShardNumber() == shardNumber && indexName.equals(shardGeneration.getIndexName())) {
+				minSequenceNumber = Math.max(minSequenceNumber, shardGeneration.getSequenceNumber());
+			}
+		}
+		return minSequenceNumber;
+	}
+
+	private static ShardQueryResponse queryShard(ZuliaShard shard, ShardQuery shardQuery, PointInTimeLease pointInTimeLease, boolean pin)
+			throws Exception {
+		if (pointInTimeLease != null) {
+			return shard.queryShard(shardQuery, pointInTimeLease, pin);
+		}
+		return shard.queryShard(shardQuery);
 	}
 
 	public ShardQuery getShardQuery(Query query, QueryRequest queryRequest, long searchId) throws Exception {
@@ -1108,12 +1272,29 @@ public class ZuliaIndex {
 			fieldSimilarityMap.put(fieldSimilarity.getField(), fieldSimilarity.getSimilarity());
 		}
 
-		QueryCacheKey queryCacheKey = queryRequest.getDontCache() ? null : new QueryCacheKey(queryRequest);
+		// if the total hits threshold is not set in the query default to the index threshold, zero or a negative value counts exactly.  the
+		// resolved threshold is part of the cache key so changing the index default does not serve results counted the other way
+		int totalHitsThreshold = queryRequest.getTotalHitsThreshold();
+		if (totalHitsThreshold == 0) {
+			totalHitsThreshold = indexConfig.getIndexSettings().getTotalHitsThreshold();
+		}
+		totalHitsThreshold = totalHitsThreshold > 0 ? totalHitsThreshold : Integer.MAX_VALUE;
+
+		// the pages of a point in time search run against pinned readers and are not shared with other searches so they are not cached
+		boolean dontCache = queryRequest.getDontCache() || !queryRequest.getPointInTimeId().isEmpty();
+		// the shard generations only decide which reader is searched so they would only split the cache entries of the same query
+		QueryCacheKey queryCacheKey = dontCache ? null :
+				new QueryCacheKey(queryRequest.toBuilder().setTotalHitsThreshold(totalHitsThreshold).clearMinShardGeneration().build());
 		boolean debug = queryRequest.getDebug();
-		return new ShardQuery(query, fieldSimilarityMap, requestedAmount, lastScoreDocMap, queryRequest.getFacetRequest(), queryRequest.getSortRequest(),
-				queryCacheKey, queryRequest.getResultFetchType(), queryRequest.getDocumentFieldsList(), queryRequest.getDocumentMaskedFieldsList(),
+		ShardQuery shardQuery = new ShardQuery(query, fieldSimilarityMap, requestedAmount, lastScoreDocMap, queryRequest.getFacetRequest(),
+				queryRequest.getSortRequest(), queryCacheKey, queryRequest.getResultFetchType(), queryRequest.getDocumentFieldsList(), queryRequest.getDocumentMaskedFieldsList(),
 				queryRequest.getHighlightRequestList(), queryRequest.getAnalysisRequestList(), debug, searchId, queryRequest.getSearchLabel(),
 				queryRequest.getRealtime(), queryRequest.getConcurrency());
+		shardQuery.setTotalHitsThreshold(totalHitsThreshold);
+		shardQuery.setCompressedDocuments(queryRequest.getCompressedDocuments());
+		shardQuery.setDocValueFields(queryRequest.getDocValueFieldsList());
+		shardQuery.setProfile(queryRequest.getProfile());
+		return shardQuery;
 	}
 
 	public Integer getNumberOfShards() {
@@ -1124,6 +1305,14 @@ public class ZuliaIndex {
 		return indexConfig.getIndexSettings().getShardTolerance();
 	}
 
+	public int getSlowQueryThresholdMs() {
+		return indexConfig.getIndexSettings().getSlowQueryThresholdMs();
+	}
+
+	public float getQueryLogSampleRate() {
+		return indexConfig.getIndexSettings().getQueryLogSampleRate();
+	}
+
 	public void reloadIndexSettings() throws Exception {
 
 		IndexSettings indexSettings = indexService.getIndex(indexName);
@@ -1133,6 +1322,7 @@ public class ZuliaIndex {
 
 		indexConfig.configure(indexSettings);
 		zuliaPerFieldAnalyzer.refresh();
+		parsedQueryCache.invalidate();
 
 		for (ZuliaShard s : primaryShardMap.values()) {
 			try {
@@ -1690,6 +1880,8 @@ public class ZuliaIndex {
 		ZuliaBase.IndexStats.Builder indexStats = ZuliaBase.IndexStats.newBuilder();
 		indexStats.setIndexName(indexName);
 		indexStats.setResident(true);
+		indexStats.setQueryCacheBytes(nodeQueryCache.getIndexBytes(indexName));
+		indexStats.setQueryCacheFairShareBytes(nodeQueryCache.getFairShareBytes(indexName));
 		for (ZuliaShard zuliaShard : primaryShardMap.values()) {
 			indexStats.addShardCacheStat(zuliaShard.getShardCacheStats());
 		}
@@ -13,6 +13,7 @@ import io.zulia.message.ZuliaIndex.AnalyzerSettings;
 import io.zulia.message.ZuliaIndex.FieldConfig;
 import io.zulia.message.ZuliaIndex.FieldMapping;
 import io.zulia.message.ZuliaIndex.IndexAlias;
+import io.zulia.message.ZuliaIndex.IndexAs;
 import io.zulia.message.ZuliaIndex.IndexSettings;
 import io.zulia.message.ZuliaIndex.IndexShardMapping;
 import io.zulia.message.ZuliaIndex.ShardMapping;
@@ -63,6 +64,7 @@ import io.zulia.server.index.router.DeleteRequestRouter;
 import io.zulia.server.index.router.FetchRequestRouter;
 import io.zulia.server.index.router.StoreRequestRouter;
 import io.zulia.server.node.ZuliaNode;
+import io.zulia.server.search.QueryThenFetch;
 import io.zulia.server.util.DeletingFileVisitor;
 import io.zulia.server.util.MongoProvider;
 import io.zulia.util.IndexAliasUtil;
@@ -93,6 +95,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -120,14 +123,27 @@ public class ZuliaIndexManager {
 	private final ConcurrentHashMap<String, IndexAlias> indexAliasMap;
 	private final ConcurrentHashMap<IndexShardKey, Semaphore> replicaApplyLockMap = new ConcurrentHashMap<>();
 	private final ReplicationRateLimiter replicationRateLimiter;
+	private final NodeQueryCache nodeQueryCache;
+	private final FilterCache filterCache;
+	private final FairSearchExecutor fairSearchExecutor;
+	private final PointInTimeLeases pointInTimeLeases;
 
 	private static final int MONGO_DB_NAME_MAX_LENGTH = 63;
 	private static final int MLT_MAX_SOURCE_DOCS = 100;
+	private static final int DEFAULT_STREAM_CHUNK_SIZE = 1000;
+	// ids, scores, and sort values of a window are small, so a window holds many chunks of a stream
+	private static final int STREAM_WINDOW_SIZE = 10_000;
+	private static final long STREAM_POINT_IN_TIME_KEEP_ALIVE_MS = 300_000;
 
 	public ZuliaIndexManager(ZuliaConfig zuliaConfig, NodeService nodeService) throws Exception {
 
 		this.zuliaConfig = zuliaConfig;
 		this.replicationRateLimiter = new ReplicationRateLimiter(zuliaConfig.getReplicationMaxBytesPerSec());
+		this.nodeQueryCache = new NodeQueryCache(NodeQueryCache.getMaxBytes(zuliaConfig.getQueryCacheMaxBytes()));
+		this.filterCache = new FilterCache(zuliaConfig.getFilterCacheMaxQueries(), FilterCache.getMaxBytes(zuliaConfig.getFilterCacheMaxBytes()));
+		this.fairSearchExecutor = new FairSearchExecutor(FairSearchExecutor.getThreads(zuliaConfig.getSearchThreads()), zuliaConfig.getSearchIndexWeights(),
+				zuliaConfig.getSearchIndexQuotas(), zuliaConfig.getSearchDefaultIndexQuota());
+		this.pointInTimeLeases = new PointInTimeLeases(zuliaConfig.getPointInTimeMaxLeases(), zuliaConfig.getPointInTimeMaxKeepAliveMs());
 
 		this.thisNode = ZuliaNode.nodeFromConfig(zuliaConfig);
 		this.nodeService = nodeService;
@@ -174,6 +190,10 @@ public class ZuliaIndexManager {
 
 		pool.shutdownNow();
 
+		pointInTimeLeases.close();
+
+		fairSearchExecutor.close();
+
 		loadedIndexCache.shutdown();
 
 	}
@@ -254,7 +274,7 @@ public class ZuliaIndexManager {
 		DocumentStorage documentStorage = getDocumentStorage(serverIndexConfig);
 
 		ZuliaIndex zuliaIndex = new ZuliaIndex(zuliaConfig, serverIndexConfig, documentStorage, indexService, previouslyApplied, internalClient,
-				replicationRateLimiter);
+				replicationRateLimiter, nodeQueryCache, filterCache, fairSearchExecutor, pointInTimeLeases);
 
 		try {
 			zuliaIndex.loadShards((node) -> ZuliaNode.isEqual(thisNode, node));
@@ -462,13 +482,31 @@ public class ZuliaIndexManager {
 			Set<ZuliaIndex> indexes = new HashSet<>();
 
 			Map<String, ZuliaIndex> resolvedIndexes = leases.getIndexes();
-			populateIndexesAndIndexMap(request.getQueryRequest(), resolvedIndexes, queryMap, indexes);
+			PointInTimeLease pointInTimeLease = getPointInTimeLease(request.getQueryRequest(), request.getCreatePointInTime());
+			populateIndexesAndIndexMap(request.getQueryRequest(), resolvedIndexes, queryMap, indexes, pointInTimeLease);
 
 			return QueryRequestFederator.internalQuery(indexes, request, queryMap);
 		}
 	}
 
 	public QueryResponse query(QueryRequest request) throws Exception {
+		request = prepareQueryRequest(request);
+
+		// a new point in time pins the current shard readers on the first page and later pages pass its id to search the same readers
+		boolean createPointInTime = request.getPointInTimeKeepAliveMs() != 0 && request.getPointInTimeId().isEmpty();
+		if (createPointInTime) {
+			request = request.toBuilder().setPointInTimeId(UUID.randomUUID().toString()).build();
+		}
+
+		QueryRequest pageRequest = request;
+		QueryResponse queryResponse = federate(pageRequest, createPointInTime, federator -> federator.getResponse(pageRequest));
+		if (!request.getPointInTimeId().isEmpty()) {
+			queryResponse = queryResponse.toBuilder().setPointInTimeId(request.getPointInTimeId()).build();
+		}
+		return queryResponse;
+	}
+
+	private QueryRequest prepareQueryRequest(QueryRequest request) throws Exception {
 		if (request.getIndexCount() == 0) {
 			throw new IllegalArgumentException("Query requires at least one index");
 		}
@@ -483,18 +521,124 @@ public class ZuliaIndexManager {
 			// Validate MLT params and resolve document IDs into text + vectors before query building
 			request = processMoreLikeThisQueries(request);
 		}
+		return request;
+	}
+
+	@FunctionalInterface
+	private interface FederatedCall<T> {
+		T call(QueryRequestFederator federator) throws Exception;
+	}
 
+	/**
+	 * Leases the indexes of the request and runs the call with a federator over their shards.  The leases are released when the call returns
+	 */
+	private <T> T federate(QueryRequest request, boolean createPointInTime, FederatedCall<T> call) throws Exception {
 		try (IndexLeases leases = leaseQueryIndexes(request.getIndexList())) {
 			Map<String, Query> queryMap = new HashMap<>();
 			Set<ZuliaIndex> indexes = new HashSet<>();
 
 			Map<String, ZuliaIndex> resolvedIndexes = leases.getIndexes();
-			populateIndexesAndIndexMap(request, resolvedIndexes, queryMap, indexes);
+			long parseStart = System.nanoTime();
+			populateIndexesAndIndexMap(request, resolvedIndexes, queryMap, indexes, getPointInTimeLease(request, createPointInTime));
+			long parseNanos = System.nanoTime() - parseStart;
 
 			QueryRequestFederator federator = new QueryRequestFederator(thisNode, currentOtherNodesActive, request.getPrimaryReplicaSettings(), indexes, pool,
 					internalClient, queryMap);
+			federator.setCreatePointInTime(createPointInTime);
+			federator.setParseNanos(parseNanos);
 
-			return federator.getResponse(request);
+			return call.call(federator);
+		}
+	}
+
+	/**
+	 * Streams the results of a query in chunks.  The query is merged once per window of results that only holds the ids, scores, and sort
+	 * values, then the documents are loaded from the shards one chunk at a time, so no more than a chunk of documents is held on the shards,
+	 * this node, or the client.  A query for more results than a window continues from the last result of the previous window.  Every window
+	 * and chunk searches the same shard readers: a stream without a point in time gets its own for its duration.  Facets and stats are only
+	 * computed for the first window and returned in the summary of the first chunk.  Analysis is computed from the documents of the first
+	 * chunk, which is then loaded in the same pass as its query.
+	 */
+	public void streamQuery(StreamQueryRequest request, StreamObserver<StreamQueryResponse> responseObserver) throws Exception {
+		QueryRequest queryRequest = prepareQueryRequest(request.getQueryRequest());
+		int chunkSize = request.getChunkSize() != 0 ? request.getChunkSize() : DEFAULT_STREAM_CHUNK_SIZE;
+
+		boolean streamPointInTime = queryRequest.getPointInTimeId().isEmpty() && queryRequest.getPointInTimeKeepAliveMs() == 0;
+		if (streamPointInTime) {
+			queryRequest = queryRequest.toBuilder().setPointInTimeKeepAliveMs(STREAM_POINT_IN_TIME_KEEP_ALIVE_MS).build();
+		}
+		boolean createPointInTime = queryRequest.getPointInTimeId().isEmpty();
+		if (createPointInTime) {
+			queryRequest = queryRequest.toBuilder().setPointInTimeId(UUID.randomUUID().toString()).build();
+		}
+
+		try {
+			streamWindows(queryRequest, chunkSize, createPointInTime, !streamPointInTime, responseObserver);
+		}
+		finally {
+			if (streamPointInTime) {
+				// the other nodes release the readers they pinned for the stream when its keep alive runs out
+				pointInTimeLeases.release(queryRequest.getPointInTimeId());
+			}
+		}
+	}
+
+	/**
+	 * @param returnPointInTime true when the point in time was requested by the client and its id is returned in the summary
+	 */
+	private void streamWindows(QueryRequest queryRequest, int chunkSize, boolean createPointInTime, boolean returnPointInTime,
+			StreamObserver<StreamQueryResponse> responseObserver) throws Exception {
+		int amount = queryRequest.getAmount();
+		boolean fetchDocuments = !FetchType.NONE.equals(queryRequest.getResultFetchType());
+		int maxWindowSize = Math.max(chunkSize, STREAM_WINDOW_SIZE);
+
+		ZuliaQuery.LastResult lastResult = null;
+		long streamed = 0;
+		boolean first = true;
+		while (true) {
+			QueryRequest.Builder windowRequest = queryRequest.toBuilder().setQueryThenFetch(false);
+			if (!first) {
+				windowRequest.setStart(0).setLastResult(lastResult).clearAnalysisRequest()
+						.setFacetRequest(queryRequest.getFacetRequest().toBuilder().clearCountRequest().clearStatRequest());
+			}
+
+			// analysis needs the documents of the first chunk while it is searched, every other window only returns ids that are fetched by chunk
+			boolean fetchInWindow = fetchDocuments && first && queryRequest.getAnalysisRequestCount() != 0;
+			boolean fetchByChunk = fetchDocuments && !fetchInWindow;
+			int windowSize = fetchInWindow ? chunkSize : maxWindowSize;
+			if (amount != 0) {
+				windowSize = (int) Math.min(windowSize, amount - streamed);
+			}
+			windowRequest.setAmount(windowSize);
+
+			QueryRequest windowQuery = fetchByChunk ? QueryThenFetch.getQueryPhaseRequest(windowRequest.build()) : windowRequest.build();
+			QueryResponse window = federate(windowQuery, createPointInTime && first, federator -> federator.getResponse(windowQuery));
+
+			List<ZuliaQuery.ScoredResult> windowResults = window.getResultsList();
+			for (int i = 0; i < windowResults.size() || (first && i == 0); i += chunkSize) {
+				List<ZuliaQuery.ScoredResult> chunkResults = windowResults.subList(i, Math.min(i + chunkSize, windowResults.size()));
+				if (fetchByChunk && !chunkResults.isEmpty()) {
+					QueryResponse chunk = QueryResponse.newBuilder().addAllResults(chunkResults).build();
+					chunkResults = federate(queryRequest, false, federator -> federator.fetch(queryRequest, chunk)).getResultsList();
+				}
+
+				StreamQueryResponse.Builder streamQueryResponse = StreamQueryResponse.newBuilder().addAllResults(chunkResults);
+				if (first && i == 0) {
+					QueryResponse.Builder summary = window.toBuilder().clearResults().clearLastResult();
+					if (returnPointInTime) {
+						summary.setPointInTimeId(queryRequest.getPointInTimeId());
+					}
+					streamQueryResponse.setSummary(summary);
+				}
+				responseObserver.onNext(streamQueryResponse.build());
+			}
+
+			first = false;
+			streamed += windowResults.size();
+			if (windowResults.size() < windowSize || (amount != 0 && streamed >= amount)) {
+				return;
+			}
+			lastResult = window.getLastResult();
 		}
 	}
 
@@ -786,13 +930,37 @@ public class ZuliaIndexManager {
 		return q.toBuilder().setMoreLikeThisParams(resolvedParams).build();
 	}
 
+	/**
+	 * The lease only caches the parsed queries here, the shards check that their readers are pinned.  A later page coordinated by a node
+	 * without the lease parses the queries again.
+	 */
+	private PointInTimeLease getPointInTimeLease(QueryRequest queryRequest, boolean createPointInTime) {
+		if (queryRequest.getPointInTimeId().isEmpty()) {
+			return null;
+		}
+		if (createPointInTime) {
+			return pointInTimeLeases.createLease(queryRequest.getPointInTimeId(), queryRequest.getPointInTimeKeepAliveMs());
+		}
+		return pointInTimeLeases.findLease(queryRequest.getPointInTimeId(), queryRequest.getPointInTimeKeepAliveMs());
+	}
+
+	/**
+	 * @param pointInTimeLease when set the queries built for the first page of the point in time are reused by later pages
+	 */
 	private static void populateIndexesAndIndexMap(QueryRequest queryRequest, Map<String, ZuliaIndex> resolvedIndexes, Map<String, Query> queryMap,
-			Set<ZuliaIndex> indexes) throws Exception {
+			Set<ZuliaIndex> indexes, PointInTimeLease pointInTimeLease) throws Exception {
 
 		for (Map.Entry<String, ZuliaIndex> entry : resolvedIndexes.entrySet()) {
 			ZuliaIndex index = entry.getValue();
 			if (indexes.add(index)) {
-				queryMap.put(entry.getKey(), index.getQuery(queryRequest));
+				Query query = pointInTimeLease != null ? pointInTimeLease.getQuery(entry.getKey()) : null;
+				if (query == null) {
+					query = index.getQuery(queryRequest);
+					if (pointInTimeLease != null) {
+						pointInTimeLease.putQuery(entry.getKey(), query);
+					}
+				}
+				queryMap.put(entry.getKey(), query);
 			}
 		}
 	}
@@ -1033,6 +1201,35 @@ public class ZuliaIndexManager {
 		return builder.build();
 	}
 
+	/**
+	 * Rejects turning {@link IndexAs#getIndexOffsets()} on or off for a field that is already indexed.  Offsets are part of the postings
+	 * written for the documents, so changing them only applies to new segments and a field mixing both would fall back to analyzing the stored
+	 * text for the old ones.  The index must be recreated and its documents indexed again to change them.
+	 */
+	static void validateIndexOffsetsUnchanged(IndexSettings requested, IndexSettings existingIndex) {
+		if (existingIndex == null) {
+			return;
+		}
+
+		Map<String, Boolean> existingOffsets = new HashMap<>();
+		for (FieldConfig fc : existingIndex.getFieldConfigList()) {
+			for (IndexAs indexAs : fc.getIndexAsList()) {
+				existingOffsets.put(indexAs.getIndexFieldName(), indexAs.getIndexOffsets());
+			}
+		}
+
+		for (FieldConfig fc : requested.getFieldConfigList()) {
+			for (IndexAs indexAs : fc.getIndexAsList()) {
+				String indexFieldName = indexAs.getIndexFieldName();
+				Boolean existing = existingOffsets.get(indexFieldName);
+				if (existing != null && existing != indexAs.getIndexOffsets()) {
+					throw new IllegalArgumentException("Cannot change indexOffsets for existing indexed field <" + indexFieldName + "> of index <"
+							+ existingIndex.getIndexName() + ">, the index must be recreated and reindexed to change it");
+				}
+			}
+		}
+	}
+
 	public CreateIndexResponse createIndex(CreateIndexRequest request) throws Exception {
 		//if existing index make sure not to allow changing number of shards
 
@@ -1055,6 +1252,7 @@ public class ZuliaIndexManager {
 		try {
 			existingIndex = indexService.getIndex(indexName);
 
+			validateIndexOffsetsUnchanged(indexSettings, existingIndex);
 			indexSettings = applyDocValueSkipIndexPolicy(indexSettings, existingIndex);
 
 			long currentTimeMillis = System.currentTimeMillis();
@@ -1078,6 +1276,10 @@ public class ZuliaIndexManager {
 					throw new IllegalArgumentException("Cannot change shards for existing index");
 				}
 
+				if (!existingIndex.getIndexSort().equals(indexSettings.getIndexSort())) {
+					throw new IllegalArgumentException("Cannot change index sort for existing index");
+				}
+
 				if (existingIndex.getNumberOfReplicas() != indexSettings.getNumberOfReplicas()) {
 					IndexShardMapping existingShardMapping = indexService.getIndexShardMapping(indexName);
 					IndexShardMapping newShardMapping = adjustReplicaCount(existingShardMapping, indexSettings, nodeWeightComputation);
@@ -1307,6 +1509,30 @@ public class ZuliaIndexManager {
 				existingSettings.setTransientIndex(updateIndexSettings.getTransientIndex());
 			}
 
+			if (updateIndexSettings.getSetShardQueryCacheRewarmCount()) {
+				existingSettings.setShardQueryCacheRewarmCount(updateIndexSettings.getShardQueryCacheRewarmCount());
+			}
+
+			if (updateIndexSettings.getSetTotalHitsThreshold()) {
+				existingSettings.setTotalHitsThreshold(updateIndexSettings.getTotalHitsThreshold());
+			}
+
+			if (updateIndexSettings.getSetSlowQueryThresholdMs()) {
+				existingSettings.setSlowQueryThresholdMs(updateIndexSettings.getSlowQueryThresholdMs());
+			}
+
+			if (updateIndexSettings.getSetQueryLogSampleRate()) {
+				existingSettings.setQueryLogSampleRate(updateIndexSettings.getQueryLogSampleRate());
+			}
+
+			if (updateIndexSettings.getSetRealtimeRefreshMinIntervalMs()) {
+				existingSettings.setRealtimeRefreshMinIntervalMs(updateIndexSettings.getRealtimeRefreshMinIntervalMs());
+			}
+
+			if (updateIndexSettings.getSetRefreshIntervalMs()) {
+				existingSettings.setRefreshIntervalMs(updateIndexSettings.getRefreshIntervalMs());
+			}
+
 			Operation metaUpdateOperation = updateIndexSettings.getMetaUpdateOperation();
 			if (metaUpdateOperation.getEnable()) {
 				Document existingMeta = ZuliaUtil.byteStringToMongoDocument(existingSettings.getMeta());
@@ -1333,6 +1559,7 @@ public class ZuliaIndexManager {
 			}
 
 			CreateIndexRequestValidator.validateIndexSettingsAndSetDefaults(existingSettings);
+			validateIndexOffsetsUnchanged(existingSettings.build(), originalIndexSettings);
 			// Freeze the doc-values skip index flag to the persisted schema for fields that already exist. An update must
 			// never flip it on a live field (the IndexWriter would reject writes). New fields keep whatever was requested.
 			indexSettings = applyDocValueSkipIndexPolicy(existingSettings.build(), originalIndexSettings);
@@ -1774,10 +2001,26 @@ public class ZuliaIndexManager {
 		return List.of();
 	}
 
+	public NodeQueryCache getNodeQueryCache() {
+		return nodeQueryCache;
+	}
+
+	public FairSearchExecutor getFairSearchExecutor() {
+		return fairSearchExecutor;
+	}
+
+	public FilterCache getFilterCache() {
+		return filterCache;
+	}
+
 	public LoadedIndexCache getLoadedIndexCache() {
 		return loadedIndexCache;
 	}
 
+	public PointInTimeLeases getPointInTimeLeases() {
+		return pointInTimeLeases;
+	}
+
 	/**
 	 * Binary semaphore serializing inbound segment replication applies per index and shard on this node.
 	 * Owned at the node level, so it survives index eviction and reload. The primary's per-shard push
@@ -34,6 +34,7 @@ public class ZuliaShard {
 
 	private final ShardReaderManager shardReaderManager;
 	private final ShardWriteManager shardWriteManager;
+	private final ShardQueryCache shardQueryCache;
 	private final String indexName;
 
 	private final boolean primary;
@@ -47,25 +48,32 @@ public class ZuliaShard {
 
 	private final ShardReadManager shardReadManager;
 
-	public ZuliaShard(ShardWriteManager shardWriteManager) throws Exception {
+	public ZuliaShard(ShardWriteManager shardWriteManager, NodeQueryCache nodeQueryCache, FilterCache filterCache,
+			FairSearchExecutor fairSearchExecutor) throws Exception {
 
 		this.primary = true;
 		this.shardWriteManager = shardWriteManager;
 		this.shardReadManager = null;
 		this.shardNumber = shardWriteManager.getShardNumber();
 		this.indexName = shardWriteManager.getIndexConfig().getIndexName();
-		this.shardReaderManager = new ShardReaderManager(shardWriteManager.createShardReader());
+		this.shardQueryCache = new ShardQueryCache(nodeQueryCache, shardWriteManager.getIndexConfig(), shardNumber);
+		this.shardReaderManager = new ShardReaderManager(shardWriteManager.createShardReader(shardQueryCache, filterCache, fairSearchExecutor),
+				() -> shardWriteManager.getIndexConfig().getIndexSettings().getRealtimeRefreshMinIntervalMs(),
+				shardWriteManager::getMaxCompletedSequenceNumber);
 
 	}
 
-	public ZuliaShard(ShardReadManager shardReadManager) throws Exception {
+	public ZuliaShard(ShardReadManager shardReadManager, NodeQueryCache nodeQueryCache, FilterCache filterCache,
+			FairSearchExecutor fairSearchExecutor) throws Exception {
 
 		this.primary = false;
 		this.shardWriteManager = null;
 		this.shardReadManager = shardReadManager;
 		this.shardNumber = shardReadManager.getShardNumber();
 		this.indexName = shardReadManager.getIndexConfig().getIndexName();
-		this.shardReaderManager = new ShardReaderManager(shardReadManager.createShardReader());
+		this.shardQueryCache = new ShardQueryCache(nodeQueryCache, shardReadManager.getIndexConfig(), shardNumber);
+		this.shardReaderManager = new ShardReaderManager(shardReadManager.createShardReader(shardQueryCache, filterCache, fairSearchExecutor),
+				() -> shardReadManager.getIndexConfig().getIndexSettings().getRealtimeRefreshMinIntervalMs(), () -> 0);
 
 	}
 
@@ -89,6 +97,7 @@ public class ZuliaShard {
 		if (shardWriteManager != null) {
 			shardWriteManager.updateIndexSettings();
 		}
+		shardQueryCache.updateIndexSettings();
 	}
 
 	public int getShardNumber() {
@@ -98,7 +107,7 @@ public class ZuliaShard {
 	public ShardQueryResponse queryShard(ShardQuery shardQuery) throws Exception {
 
 		if (shardQuery.isRealtime()) {
-			shardReaderManager.maybeRefreshBlocking();
+			shardReaderManager.maybeRefreshRealtime();
 		}
 		ShardReader shardReader = shardReaderManager.acquire();
 
@@ -110,6 +119,48 @@ public class ZuliaShard {
 		}
 	}
 
+	/**
+	 * Waits until the reader of this primary shard includes the write with the sequence number from its StoreResponse.  Only refreshes when the
+	 * current reader does not include it yet, and the refresh is shared with the other requests waiting on this shard.
+	 *
+	 * @param sequenceNumber 0 does not wait
+	 */
+	public void waitForSequenceNumber(long sequenceNumber) throws IOException {
+		if (sequenceNumber <= 0 || shardReaderManager.getSearchingSequenceNumber() >= sequenceNumber) {
+			return;
+		}
+		if (!primary) {
+			throw new IllegalArgumentException(
+					"Index " + indexName + ":s" + shardNumber + " cannot wait for a shard generation on a replica, query the primary");
+		}
+		// a sequence number higher than any finished write comes from the index writer before the shard was reloaded, which committed it on unload
+		if (sequenceNumber <= shardWriteManager.getMaxCompletedSequenceNumber()) {
+			shardReaderManager.maybeRefreshRealtime();
+		}
+	}
+
+	/**
+	 * Queries the reader pinned for the point in time instead of the latest reader
+	 *
+	 * @param pin true for the first page which pins the latest reader when the shard is not pinned yet
+	 */
+	public ShardQueryResponse queryShard(ShardQuery shardQuery, PointInTimeLease pointInTimeLease, boolean pin) throws Exception {
+
+		ShardReader shardReader = pointInTimeLease.acquire(indexName, shardNumber, pin, () -> {
+			if (shardQuery.isRealtime()) {
+				shardReaderManager.maybeRefreshRealtime();
+			}
+			return shardReaderManager.acquire();
+		});
+
+		try {
+			return shardReader.queryShard(shardQuery);
+		}
+		finally {
+			shardReader.decRef();
+		}
+	}
+
 	public void forceCommit() throws IOException {
 		if (!primary) {
 			throw new IllegalStateException("Cannot force commit from replica for index " + indexName + ":s" + shardNumber);
@@ -136,6 +187,17 @@ public class ZuliaShard {
 		}
 	}
 
+	/**
+	 * Reopens the reader when the shard changed since the reader was opened.  The new segments are flushed to the NRT caching directory
+	 * without a commit or fsync, and the reopen is shared with realtime requests waiting on this shard.
+	 */
+	public void tryScheduledRefresh() throws IOException {
+		Long lastChange = shardWriteManager.getLastChanged();
+		if (lastChange != null && lastChange >= shardReaderManager.getLatestShardTime()) {
+			shardReaderManager.maybeRefreshRealtime();
+		}
+	}
+
 	public void tryWarmSearches(ZuliaIndex zuliaIndex, boolean primary) {
 
 		if (shardWriteManager != null) {
@@ -329,12 +391,16 @@ public class ZuliaShard {
 
 	public void close() throws IOException {
 		unloaded = true;
+		shardQueryCache.close();
 		// close every manager even when an earlier close fails, a skipped ShardWriteManager close
 		// leaks an open IndexWriter whose write.lock blocks reopening this shard until JVM restart
 		IOUtils.close(shardReaderManager, shardWriteManager, shardReadManager);
 	}
 
-	public void index(String uniqueId, long timestamp, DocumentContainer mongoDocument, DocumentContainer metadata) throws Exception {
+	/**
+	 * @return sequence number of the write for queries that have to see it
+	 */
+	public long index(String uniqueId, long timestamp, DocumentContainer mongoDocument, DocumentContainer metadata) throws Exception {
 		if (!primary) {
 			throw new IllegalStateException("Cannot index document " + uniqueId + " from replica:  index " + indexName + ":s" + shardNumber);
 		}
@@ -343,10 +409,11 @@ public class ZuliaShard {
 			trackedIds.add(uniqueId);
 		}
 
-		shardWriteManager.indexDocument(uniqueId, timestamp, mongoDocument, metadata);
+		long sequenceNumber = shardWriteManager.indexDocument(uniqueId, timestamp, mongoDocument, metadata);
 		if (shardWriteManager.markedChangedCheckIfCommitNeeded()) {
 			forceCommit();
 		}
+		return sequenceNumber;
 
 	}
 
@@ -387,7 +454,7 @@ public class ZuliaShard {
 	public GetFieldNamesResponse getFieldNames(boolean realtime) throws IOException {
 
 		if (realtime) {
-			shardReaderManager.maybeRefreshBlocking();
+			shardReaderManager.maybeRefreshRealtime();
 		}
 		ShardReader shardReader = shardReaderManager.acquire();
 
@@ -402,7 +469,7 @@ public class ZuliaShard {
 	public GetTermsResponse getTerms(GetTermsRequest request) throws IOException {
 
 		if (request.getRealtime()) {
-			shardReaderManager.maybeRefreshBlocking();
+			shardReaderManager.maybeRefreshRealtime();
 		}
 		ShardReader shardReader = shardReaderManager.acquire();
 
@@ -420,7 +487,7 @@ public class ZuliaShard {
 	public ShardCountResponse getNumberOfDocs(boolean realtime) throws IOException {
 
 		if (realtime) {
-			shardReaderManager.maybeRefreshBlocking();
+			shardReaderManager.maybeRefreshRealtime();
 		}
 		ShardReader shardReader = shardReaderManager.acquire();
 
@@ -441,7 +508,7 @@ public class ZuliaShard {
 	public ZuliaBase.ResultDocument getSourceDocument(String uniqueId, FetchType resultFetchType, List<String> fieldsToReturn, List<String> fieldsToMask, boolean realtime)
 			throws Exception {
 		if (realtime) {
-			shardReaderManager.maybeRefreshBlocking();
+			shardReaderManager.maybeRefreshRealtime();
 		}
 		ShardReader shardReader = shardReaderManager.acquire();
 
@@ -456,7 +523,7 @@ public class ZuliaShard {
 	public Map<String, ZuliaBase.ResultDocument> getSourceDocuments(List<String> uniqueIds, FetchType resultFetchType, List<String> fieldsToReturn,
 			List<String> fieldsToMask, boolean realtime) throws Exception {
 		if (realtime) {
-			shardReaderManager.maybeRefreshBlocking();
+			shardReaderManager.maybeRefreshRealtime();
 		}
 		ShardReader shardReader = shardReaderManager.acquire();
 
@@ -483,16 +550,8 @@ public class ZuliaShard {
 		}
 	}
 
-	public ZuliaBase.ShardCacheStats getShardCacheStats() throws IOException {
-
-		ShardReader shardReader = shardReaderManager.acquire();
-
-		try {
-			return shardReader.getShardCacheStats().setPrimary(primary).build();
-		}
-		finally {
-			shardReaderManager.decRef(shardReader);
-		}
+	public ZuliaBase.ShardCacheStats getShardCacheStats() {
+		return shardQueryCache.getShardCacheStats().setPrimary(primary).build();
 	}
 
 }
@@ -1,16 +1,22 @@
 package io.zulia.server.index.federator;
 
+import io.grpc.Context;
 import io.zulia.message.ZuliaBase.Node;
 import io.zulia.server.index.NodeRequestBase;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public abstract class NodeRequestFederator<I, O> extends NodeRequestBase<I, O> {
 
@@ -25,49 +31,98 @@ public abstract class NodeRequestFederator<I, O> extends NodeRequestBase<I, O> {
 	}
 
 	public List<O> send(final I request) throws Exception {
+		return send(request, nodes);
+	}
 
-		List<Future<O>> futureResponses = new ArrayList<>();
+	public List<O> send(final I request, Collection<Node> targetNodes) throws Exception {
+		return send(request, targetNodes, 0);
+	}
 
-		for (final Node node : nodes) {
+	/**
+	 * Waits for the remote nodes until the deadline, a {@link System#nanoTime()} or 0 to wait for every node, and leaves out the responses of
+	 * the ones that have not answered by then.  The local request is always joined because it runs under the caller's index lease, it is
+	 * expected to stop at the deadline itself.
+	 */
+	public List<O> send(final I request, Collection<Node> targetNodes, long deadlineNanos) throws Exception {
 
-			Future<O> futureResponse = pool.submit(() -> {
-				if (nodeIsLocal(node)) {
-					return processInternal(node, request);
-				}
-				return processExternal(node, request);
+		Context.CancellableContext requestContext = isCancellable() ? Context.current().withCancellation() : null;
+		try {
+			Map<Node, Future<O>> futureResponses = new LinkedHashMap<>();
 
-			});
+			for (final Node node : targetNodes) {
 
-			futureResponses.add(futureResponse);
-		}
+				Callable<O> task = () -> {
+					if (nodeIsLocal(node)) {
+						return processInternal(node, request);
+					}
+					return processExternal(node, request);
 
-		// Join every subtask before reporting a failure. Abandoning still-running subtasks would let them
-		// outlive the caller's index lease, so an eviction could unload the index under a live operation.
-		ArrayList<O> results = new ArrayList<>();
-		Exception firstFailure = null;
-		for (Future<O> response : futureResponses) {
-			try {
-				results.add(response.get());
-			}
-			catch (InterruptedException e) {
-				throw e;
+				};
+
+				Future<O> futureResponse = pool.submit(requestContext != null ? requestContext.wrap(task) : task);
+
+				futureResponses.put(node, futureResponse);
 			}
-			catch (ExecutionException e) {
-				Exception failure = e.getCause() instanceof Exception cause ? cause : e;
-				if (firstFailure == null) {
-					firstFailure = failure;
+
+			// Join every local subtask before reporting a failure. Abandoning a still-running local subtask would let it
+			// outlive the caller's index lease, so an eviction could unload the index under a live operation. A remote
+			// subtask that misses the deadline is cancel(true)'d and not joined, which is safe because it only waits on
+			// the other node and holds no local index lease.
+			ArrayList<O> results = new ArrayList<>();
+			Exception firstFailure = null;
+			for (Map.Entry<Node, Future<O>> entry : futureResponses.entrySet()) {
+				Future<O> response = entry.getValue();
+				try {
+					if (deadlineNanos != 0 && !nodeIsLocal(entry.getKey())) {
+						results.add(response.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+					}
+					else {
+						results.add(response.get());
+					}
 				}
-				else if (firstFailure != failure) {
-					firstFailure.addSuppressed(failure);
+				catch (TimeoutException e) {
+					response.cancel(true);
+				}
+				catch (InterruptedException e) {
+					if (requestContext != null) {
+						requestContext.cancel(e);
+					}
+					throw e;
+				}
+				catch (ExecutionException e) {
+					Exception failure = e.getCause() instanceof Exception cause ? cause : e;
+					if (firstFailure == null) {
+						firstFailure = failure;
+						// the remaining subtasks stop early, they are still joined
+						if (requestContext != null) {
+							requestContext.cancel(failure);
+						}
+					}
+					else if (firstFailure != failure) {
+						firstFailure.addSuppressed(failure);
+					}
 				}
 			}
-		}
 
-		if (firstFailure != null) {
-			throw firstFailure;
+			if (firstFailure != null) {
+				throw firstFailure;
+			}
+
+			return results;
+		}
+		finally {
+			if (requestContext != null) {
+				requestContext.cancel(null);
+			}
 		}
 
-		return results;
+	}
 
+	/**
+	 * When true the node requests run in a child of the caller's gRPC context, so they are cancelled when the caller goes away or when one
+	 * of them fails and the others can no longer be used.  Only for read requests that are safe to stop part way.
+	 */
+	protected boolean isCancellable() {
+		return false;
 	}
 }
@@ -50,4 +50,15 @@ public abstract class PrimaryReplicaNodeRequestFederator<I, O> extends NodeReque
 	public List<IndexRouting> getIndexRouting(Node node) {
 		return nodeToRouting.get(node);
 	}
+
+	public Node getNodeForShard(String indexName, int shardNumber) {
+		for (Map.Entry<Node, List<IndexRouting>> entry : nodeToRouting.entrySet()) {
+			for (IndexRouting indexRouting : entry.getValue()) {
+				if (indexRouting.getIndex().equals(indexName) && indexRouting.getShardList().contains(shardNumber)) {
+					return entry.getKey();
+				}
+			}
+		}
+		return null;
+	}
 }
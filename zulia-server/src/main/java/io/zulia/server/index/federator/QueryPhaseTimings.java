@@ -0,0 +1,79 @@
+package io.zulia.server.index.federator;
+
+import io.zulia.message.ZuliaQuery.IndexShardResponse;
+import io.zulia.message.ZuliaQuery.ShardQueryResponse;
+import io.zulia.message.ZuliaServiceOuterClass.InternalQueryResponse;
+
+import java.util.List;
+
+/**
+ * Time spent in each phase of a federated query.  The shards are searched in parallel so the shard phases are taken from the slowest shard
+ * of each round of requests, and the rest of the wall time of the round is counted as network, which includes queueing on the nodes.
+ */
+public class QueryPhaseTimings {
+
+	private final long parseNanos;
+	private long searchNanos;
+	private long aggregationNanos;
+	private long documentNanos;
+	private long fetchNanos;
+	private long networkNanos;
+	private long mergeNanos;
+
+	public QueryPhaseTimings(long parseNanos) {
+		this.parseNanos = parseNanos;
+	}
+
+	public void addShardRound(long wallNanos, List<InternalQueryResponse> responses) {
+		ShardQueryResponse slowest = null;
+		for (InternalQueryResponse response : responses) {
+			for (IndexShardResponse indexShardResponse : response.getIndexShardResponseList()) {
+				for (ShardQueryResponse shardQueryResponse : indexShardResponse.getShardQueryResponseList()) {
+					// cached responses carry the timings of the search that computed them
+					if (!shardQueryResponse.getCached() && (slowest == null || getShardNanos(shardQueryResponse) > getShardNanos(slowest))) {
+						slowest = shardQueryResponse;
+					}
+				}
+			}
+		}
+
+		long shardNanos = 0;
+		if (slowest != null) {
+			searchNanos += slowest.getSearchNanos();
+			aggregationNanos += slowest.getAggregationNanos();
+			documentNanos += slowest.getDocumentNanos();
+			shardNanos = getShardNanos(slowest);
+		}
+		networkNanos += Math.max(0, wallNanos - shardNanos);
+	}
+
+	public void addMerge(long nanos) {
+		mergeNanos += nanos;
+	}
+
+	public void addFetch(long nanos) {
+		fetchNanos += nanos;
+	}
+
+	public long getFetchNanos() {
+		return fetchNanos;
+	}
+
+	public long getMergeNanos() {
+		return mergeNanos;
+	}
+
+	static long getShardNanos(ShardQueryResponse shardQueryResponse) {
+		return shardQueryResponse.getSearchNanos() + shardQueryResponse.getAggregationNanos() + shardQueryResponse.getDocumentNanos();
+	}
+
+	private static String toMs(long nanos) {
+		return String.format("%.1fms", nanos / 1_000_000.0);
+	}
+
+	@Override
+	public String toString() {
+		return "parse " + toMs(parseNanos) + ", search " + toMs(searchNanos) + ", aggregation " + toMs(aggregationNanos) + ", documents " + toMs(
+				documentNanos) + ", fetch " + toMs(fetchNanos) + ", network " + toMs(networkNanos) + ", merge " + toMs(mergeNanos);
+	}
+}
@@ -1,9 +1,15 @@
 package io.zulia.server.index.federator;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat;
 import io.zulia.message.ZuliaBase.PrimaryReplicaSettings;
 import io.zulia.message.ZuliaBase.Node;
 import io.zulia.message.ZuliaQuery.IndexShardResponse;
+import io.zulia.message.ZuliaQuery.NodeProfile;
+import io.zulia.message.ZuliaQuery.QueryProfile;
+import io.zulia.message.ZuliaQuery.ShardQueryResponse;
+import io.zulia.message.ZuliaQuery.ShardFetch;
+import io.zulia.message.ZuliaServiceOuterClass.IndexRouting;
 import io.zulia.message.ZuliaServiceOuterClass.InternalQueryRequest;
 import io.zulia.message.ZuliaServiceOuterClass.InternalQueryResponse;
 import io.zulia.message.ZuliaServiceOuterClass.QueryRequest;
@@ -11,25 +17,40 @@ import io.zulia.message.ZuliaServiceOuterClass.QueryResponse;
 import io.zulia.server.connection.client.InternalClient;
 import io.zulia.server.index.ZuliaIndex;
 import io.zulia.server.search.QueryCombiner;
+import io.zulia.server.search.QueryThenFetch;
 import org.apache.lucene.search.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class QueryRequestFederator extends PrimaryReplicaNodeRequestFederator<QueryRequest, InternalQueryResponse> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(QueryRequestFederator.class);
 	private static final AtomicLong QUERY_NUMBER = new AtomicLong();
+	private static final int MAX_CONTINUATIONS = 3;
 	private final InternalClient internalClient;
 	private final Collection<ZuliaIndex> indexes;
 	private final Map<String, Query> queryMap;
 	private final long searchId;
+	private Map<Node, List<ShardFetch>> nodeToShardFetch = Map.of();
+	private Map<Node, List<IndexRouting>> nodeToContinuationRouting;
+	private boolean createPointInTime;
+	private long parseNanos;
+	private final List<NodeProfile> nodeProfiles = new CopyOnWriteArrayList<>();
+	private String phase = "query";
 
 	public QueryRequestFederator(Node thisNode, Collection<Node> otherNodesActive, PrimaryReplicaSettings primaryReplicaSettings, Collection<ZuliaIndex> indexes,
 			ExecutorService pool, InternalClient internalClient, Map<String, Query> queryMap) throws IOException {
@@ -40,18 +61,65 @@ public class QueryRequestFederator extends PrimaryReplicaNodeRequestFederator<Qu
 		this.searchId = QUERY_NUMBER.incrementAndGet();
 	}
 
+	/**
+	 * @param createPointInTime true when the request's point in time id is new so the shards pin their current readers for it
+	 */
+	public void setCreatePointInTime(boolean createPointInTime) {
+		this.createPointInTime = createPointInTime;
+	}
+
+	/**
+	 * @param parseNanos time spent parsing the query for the indexes, reported in the query log
+	 */
+	public void setParseNanos(long parseNanos) {
+		this.parseNanos = parseNanos;
+	}
+
+	@Override
+	protected boolean isCancellable() {
+		return true;
+	}
+
 	@Override
 	protected InternalQueryResponse processExternal(Node node, QueryRequest request) throws Exception {
-		InternalQueryRequest internalQueryRequest = InternalQueryRequest.newBuilder().addAllIndexRouting(getIndexRouting(node)).setQueryRequest(request)
-				.setSearchId(searchId).build();
-		return internalClient.executeQuery(node, internalQueryRequest);
+		InternalQueryRequest internalQueryRequest = getInternalQueryRequest(node, request);
+		return profileNode(node, request, () -> internalClient.executeQuery(node, internalQueryRequest));
 	}
 
 	@Override
 	protected InternalQueryResponse processInternal(Node node, QueryRequest request) throws Exception {
-		InternalQueryRequest internalQueryRequest = InternalQueryRequest.newBuilder().addAllIndexRouting(getIndexRouting(node)).setQueryRequest(request)
-				.setSearchId(searchId).build();
-		return internalQuery(indexes, internalQueryRequest, queryMap);
+		InternalQueryRequest internalQueryRequest = getInternalQueryRequest(node, request);
+		return profileNode(node, request, () -> internalQuery(indexes, internalQueryRequest, queryMap));
+	}
+
+	private InternalQueryResponse profileNode(Node node, QueryRequest request, Callable<InternalQueryResponse> nodeRequest) throws Exception {
+		if (!request.getProfile()) {
+			return nodeRequest.call();
+		}
+
+		long start = System.nanoTime();
+		InternalQueryResponse response = nodeRequest.call();
+		long requestNanos = System.nanoTime() - start;
+
+		long shardNanos = 0;
+		for (IndexShardResponse indexShardResponse : response.getIndexShardResponseList()) {
+			for (ShardQueryResponse shardQueryResponse : indexShardResponse.getShardQueryResponseList()) {
+				if (!shardQueryResponse.getCached()) {
+					shardNanos = Math.max(shardNanos, QueryPhaseTimings.getShardNanos(shardQueryResponse));
+				}
+			}
+		}
+
+		nodeProfiles.add(NodeProfile.newBuilder().setServerAddress(node.getServerAddress()).setServicePort(node.getServicePort()).setPhase(phase)
+				.setRequestNanos(requestNanos).setShardNanos(shardNanos).setNetworkNanos(Math.max(0, requestNanos - shardNanos))
+				.setResponseBytes(response.getSerializedSize()).build());
+		return response;
+	}
+
+	private InternalQueryRequest getInternalQueryRequest(Node node, QueryRequest request) {
+		List<IndexRouting> indexRouting = nodeToContinuationRouting != null ? nodeToContinuationRouting.get(node) : getIndexRouting(node);
+		return InternalQueryRequest.newBuilder().addAllIndexRouting(indexRouting).setQueryRequest(request).setSearchId(searchId)
+				.addAllShardFetch(nodeToShardFetch.getOrDefault(node, List.of())).setCreatePointInTime(createPointInTime).build();
 	}
 
 	public static InternalQueryResponse internalQuery(Collection<ZuliaIndex> indexes, InternalQueryRequest request, Map<String, Query> queryMap)
@@ -67,32 +135,62 @@ public class QueryRequestFederator extends PrimaryReplicaNodeRequestFederator<Qu
 
 	public QueryResponse getResponse(QueryRequest request) throws Exception {
 
-		long start = System.currentTimeMillis();
+		long start = System.nanoTime();
+		// remote nodes that have not answered by the deadline are left out and their shards reported as incomplete
+		long deadlineNanos = request.getTimeoutMs() != 0 ? start + TimeUnit.MILLISECONDS.toNanos(request.getTimeoutMs()) : 0;
 
-		String queryJson = JsonFormat.printer().print(request);
-
-		queryJson = queryJson.replace('\n', ' ').replaceAll("\\s+", " ");
-
-		String searchLabel = request.getSearchLabel();
-
-		if (searchLabel.isEmpty()) {
-			LOG.info("Running id {} query {}", searchId, queryJson);
-		}
-		else {
-			LOG.info("Running id {} with label {} query {}", searchId, searchLabel, queryJson);
+		// rendering the request is only worth it when debugging, slow queries render it once they are known to be slow
+		if (request.getDebug()) {
+			if (request.getSearchLabel().isEmpty()) {
+				LOG.info("Running id {} query {}", searchId, getQueryJson(request));
+			}
+			else {
+				LOG.info("Running id {} with label {} query {}", searchId, request.getSearchLabel(), getQueryJson(request));
+			}
 		}
 
-		List<InternalQueryResponse> results = send(request);
+		QueryPhaseTimings timings = new QueryPhaseTimings(parseNanos);
+		boolean queryThenFetch = QueryThenFetch.isQueryThenFetch(request);
 
-		long mergeStart = System.currentTimeMillis();
+		QueryRequest phaseRequest = queryThenFetch ? QueryThenFetch.getQueryPhaseRequest(request) : request;
+		phase = "query";
+		List<InternalQueryResponse> results = send(phaseRequest, nodes, deadlineNanos);
+		timings.addShardRound(System.nanoTime() - start, results);
+		List<InternalQueryResponse> shardResponses = new ArrayList<>(results);
 
+		long mergeStart = System.nanoTime();
 		QueryCombiner queryCombiner = new QueryCombiner(indexes, request, results);
 
 		QueryResponse qr = queryCombiner.getQueryResponse();
+		timings.addMerge(System.nanoTime() - mergeStart);
+		// ask only the shards that could still contribute to the page for their next results instead of rerunning the whole query
+		for (int i = 0; i < MAX_CONTINUATIONS && queryCombiner.isShort() && !qr.getTimedOut(); i++) {
+			long continuationStart = System.nanoTime();
+			phase = "continuation";
+			List<InternalQueryResponse> continuationResults = sendContinuation(phaseRequest, queryCombiner, deadlineNanos);
+			timings.addShardRound(System.nanoTime() - continuationStart, continuationResults);
+			shardResponses.addAll(continuationResults);
+
+			mergeStart = System.nanoTime();
+			queryCombiner.addContinuation(continuationResults);
+			qr = queryCombiner.getQueryResponse();
+			timings.addMerge(System.nanoTime() - mergeStart);
+		}
+		// a timed out search returns what it has rather than retrying with a full request
+		boolean retryFull = queryCombiner.isShort() && !qr.getTimedOut();
+		if (queryThenFetch && !retryFull) {
+			long fetchStart = System.nanoTime();
+			phase = "fetch";
+			qr = fetchDocuments(request, qr, deadlineNanos);
+			timings.addFetch(System.nanoTime() - fetchStart);
+		}
+
+		if (request.getProfile()) {
+			qr = qr.toBuilder().setProfile(getQueryProfile(timings, shardResponses)).build();
+		}
 
-		long end = System.currentTimeMillis();
-		handleLog(searchId, searchLabel, request.getDebug(), qr, results, end - start, end - mergeStart);
-		if (!queryCombiner.isShort()) {
+		handleLog(request, qr, results, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), timings);
+		if (!retryFull) {
 			return qr;
 		}
 		else {
@@ -105,31 +203,149 @@ public class QueryRequestFederator extends PrimaryReplicaNodeRequestFederator<Qu
 
 	}
 
-	private static void handleLog(long queryId, String searchLabel, boolean debug, QueryResponse qr, List<InternalQueryResponse> results, long time,
-			long mergeTime) {
+	/**
+	 * Loads the documents (and highlights) of a page of results from a query phase searched without documents.  The documents are fetched
+	 * from the same shards as the query phase, so the page must come from the point in time of the request to be consistent.
+	 */
+	public QueryResponse fetch(QueryRequest request, QueryResponse page) throws Exception {
+		long deadlineNanos = request.getTimeoutMs() != 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(request.getTimeoutMs()) : 0;
+		phase = "fetch";
+		return fetchDocuments(request, page, deadlineNanos);
+	}
+
+	private List<InternalQueryResponse> sendContinuation(QueryRequest request, QueryCombiner queryCombiner, long deadlineNanos) throws Exception {
+		Map<Node, Map<String, IndexRouting.Builder>> routingForNode = new HashMap<>();
+		for (Map.Entry<String, Set<Integer>> entry : queryCombiner.getShortShards().entrySet()) {
+			String indexName = entry.getKey();
+			for (int shardNumber : entry.getValue()) {
+				Node node = getNodeForShard(indexName, shardNumber);
+				if (node == null) {
+					throw new Exception("No node available to continue shard <" + shardNumber + "> for index <" + indexName + ">");
+				}
+				routingForNode.computeIfAbsent(node, k -> new HashMap<>()).computeIfAbsent(indexName, k -> IndexRouting.newBuilder().setIndex(k))
+						.addShard(shardNumber);
+			}
+		}
+
+		Map<Node, List<IndexRouting>> continuationRouting = new HashMap<>();
+		for (Map.Entry<Node, Map<String, IndexRouting.Builder>> entry : routingForNode.entrySet()) {
+			continuationRouting.put(entry.getKey(), entry.getValue().values().stream().map(IndexRouting.Builder::build).toList());
+		}
+
+		// the first pass already has the totals and aggregations so the continuation only needs the next results of each shard
+		QueryRequest continuationRequest = request.toBuilder().setAmount(request.getAmount() + request.getStart()).setStart(0).setFetchFull(true)
+				.setLastResult(queryCombiner.getContinuationLastResult())
+				.setFacetRequest(request.getFacetRequest().toBuilder().clearCountRequest().clearStatRequest()).clearAnalysisRequest().setTotalHitsThreshold(1).setDontCache(true).build();
+
+		nodeToContinuationRouting = continuationRouting;
+		try {
+			return send(continuationRequest, continuationRouting.keySet(), deadlineNanos);
+		}
+		finally {
+			nodeToContinuationRouting = null;
+		}
+	}
+
+	private QueryResponse fetchDocuments(QueryRequest request, QueryResponse queryResponse, long deadlineNanos) throws Exception {
+		// fetch from the same node as the query phase so the documents come from the same shard copy that scored them
+		Map<Node, List<ShardFetch>> fetchesForNode = new HashMap<>();
+		for (ShardFetch shardFetch : QueryThenFetch.getShardFetches(queryResponse.getResultsList())) {
+			Node node = getNodeForShard(shardFetch.getIndexName(), shardFetch.getShardNumber());
+			if (node == null) {
+				throw new Exception("No node available to fetch shard <" + shardFetch.getShardNumber() + "> for index <" + shardFetch.getIndexName() + ">");
+			}
+			fetchesForNode.computeIfAbsent(node, k -> new ArrayList<>()).add(shardFetch);
+		}
+
+		if (fetchesForNode.isEmpty()) {
+			return queryResponse;
+		}
+
+		nodeToShardFetch = fetchesForNode;
+		try {
+			// the results of remote nodes that do not answer by the deadline are returned without documents and their shards reported as incomplete
+			List<InternalQueryResponse> fetchResponses = send(request, fetchesForNode.keySet(), deadlineNanos);
+			QueryResponse fetchedResponse = QueryThenFetch.mergeFetchedDocuments(queryResponse, fetchResponses);
+			if (fetchResponses.size() < fetchesForNode.size()) {
+				List<ShardFetch> shardFetches = fetchesForNode.values().stream().flatMap(List::stream).toList();
+				return QueryThenFetch.markUnfetchedShards(fetchedResponse, shardFetches, fetchResponses);
+			}
+			return fetchedResponse;
+		}
+		finally {
+			nodeToShardFetch = Map.of();
+		}
+	}
+
+	private QueryProfile getQueryProfile(QueryPhaseTimings timings, List<InternalQueryResponse> shardResponses) {
+		QueryProfile.Builder queryProfile = QueryProfile.newBuilder().setParseNanos(parseNanos).setMergeNanos(timings.getMergeNanos())
+				.setFetchNanos(timings.getFetchNanos()).addAllNodeProfile(nodeProfiles);
+		for (InternalQueryResponse response : shardResponses) {
+			for (IndexShardResponse indexShardResponse : response.getIndexShardResponseList()) {
+				for (ShardQueryResponse shardQueryResponse : indexShardResponse.getShardQueryResponseList()) {
+					if (shardQueryResponse.hasProfile()) {
+						queryProfile.addShardProfile(shardQueryResponse.getProfile());
+					}
+				}
+			}
+		}
+		return queryProfile.build();
+	}
+
+	private void handleLog(QueryRequest request, QueryResponse qr, List<InternalQueryResponse> results, long time, QueryPhaseTimings timings)
+			throws InvalidProtocolBufferException {
+		// with several indexes the strictest setting applies
+		int slowQueryThresholdMs = 0;
+		float sampleRate = 0;
+		for (ZuliaIndex index : indexes) {
+			int indexThreshold = index.getSlowQueryThresholdMs();
+			if (indexThreshold > 0 && (slowQueryThresholdMs == 0 || indexThreshold < slowQueryThresholdMs)) {
+				slowQueryThresholdMs = indexThreshold;
+			}
+			sampleRate = Math.max(sampleRate, index.getQueryLogSampleRate());
+		}
+
+		boolean slow = slowQueryThresholdMs > 0 && time >= slowQueryThresholdMs;
+		if (!slow && !request.getDebug() && (sampleRate <= 0 || ThreadLocalRandom.current().nextFloat() >= sampleRate)) {
+			return;
+		}
+
 		String prefix = "Finished query";
-		if (qr.getShardsQueried() == qr.getShardsPinned()) {
+		if (qr.getTimedOut()) {
+			prefix = "Timed out query with " + qr.getIncompleteShardCount() + " incomplete shards";
+		}
+		else if (qr.getShardsQueried() == qr.getShardsPinned()) {
 			prefix = "Finished query from pinned cache";
 		}
 		else if (qr.getShardsQueried() == qr.getShardsCached()) {
 			prefix = "Finished query from cache";
 		}
 
+		String label = request.getSearchLabel().isEmpty() ? "" : " with label " + request.getSearchLabel();
 		String resultSize = String.format("%.2f", (qr.getSerializedSize() / 1024.0));
 		String hits = qr.getResultsCount() + " of " + qr.getTotalHits();
 
 		String debugInfo = "";
-		if (debug && results.size() > 1) {
+		if (request.getDebug() && results.size() > 1) {
 			int totalShardSize = results.stream().mapToInt(InternalQueryResponse::getSerializedSize).sum();
-			debugInfo = String.format(" merging %d responses (%.2fKB, %dms)", results.size(), totalShardSize / 1024.0, mergeTime);
+			debugInfo = String.format(" merging %d responses (%.2fKB)", results.size(), totalShardSize / 1024.0);
 		}
 
-		if (searchLabel.isEmpty()) {
-			LOG.info("{} id {} returning {} hits{} with result size {}KB in {}ms", prefix, queryId, hits, debugInfo, resultSize, time);
+		if (slow) {
+			LOG.warn("{} id {}{} returning {} hits{} with result size {}KB in {}ms over the slow query threshold of {}ms ({}) query {}", prefix, searchId,
+					label, hits, debugInfo, resultSize, time, slowQueryThresholdMs, timings, getQueryJson(request));
+		}
+		else if (request.getDebug()) {
+			LOG.info("{} id {}{} returning {} hits{} with result size {}KB in {}ms ({}) query {}", prefix, searchId, label, hits, debugInfo, resultSize,
+					time, timings, getQueryJson(request));
 		}
 		else {
-			LOG.info("{} id {} with label {} returning {} hits{} with result size {}KB in {}ms", prefix, queryId, searchLabel, hits, debugInfo, resultSize,
-					time);
+			LOG.info("{} id {}{} returning {} hits{} with result size {}KB in {}ms ({})", prefix, searchId, label, hits, debugInfo, resultSize, time,
+					timings);
 		}
 	}
+
+	private static String getQueryJson(QueryRequest request) throws InvalidProtocolBufferException {
+		return JsonFormat.printer().omittingInsignificantWhitespace().print(request);
+	}
 }
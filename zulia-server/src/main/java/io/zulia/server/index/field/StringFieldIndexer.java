@@ -8,20 +8,34 @@ import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
 
 public class StringFieldIndexer extends FieldIndexer {
 
 	private final static FieldType notStoredTextField;
 
+	private final static FieldType notStoredTextFieldWithOffsets;
+
 	static {
 		notStoredTextField = new FieldType(TextField.TYPE_NOT_STORED);
 		notStoredTextField.freeze();
+
+		notStoredTextFieldWithOffsets = new FieldType(TextField.TYPE_NOT_STORED);
+		notStoredTextFieldWithOffsets.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+		notStoredTextFieldWithOffsets.freeze();
 	}
 
-	public static final StringFieldIndexer INSTANCE = new StringFieldIndexer();
+	public static final StringFieldIndexer INSTANCE = new StringFieldIndexer(notStoredTextField);
+
+	/**
+	 * Indexes offsets in the postings so the unified highlighter does not have to analyze the stored text again
+	 */
+	public static final StringFieldIndexer WITH_OFFSETS_INSTANCE = new StringFieldIndexer(notStoredTextFieldWithOffsets);
 
-	protected StringFieldIndexer() {
+	private final FieldType textFieldType;
 
+	protected StringFieldIndexer(FieldType textFieldType) {
+		this.textFieldType = textFieldType;
 	}
 
 	@Override
@@ -29,7 +43,7 @@ public class StringFieldIndexer extends FieldIndexer {
 
 		if (value != null) {
 			String val = value.toString();
-			d.add((new Field(FieldTypeUtil.getIndexField(indexedFieldName, FieldConfig.FieldType.STRING), val, notStoredTextField)));
+			d.add((new Field(FieldTypeUtil.getIndexField(indexedFieldName, FieldConfig.FieldType.STRING), val, textFieldType)));
 			int length = val.length();
 			d.add(new IntPoint(FieldTypeUtil.getCharLengthIndexField(indexedFieldName), length));
 			d.add(new SortedNumericDocValuesField(FieldTypeUtil.getCharLengthSortField(indexedFieldName), length));
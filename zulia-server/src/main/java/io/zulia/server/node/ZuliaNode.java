@@ -146,6 +146,10 @@ public class ZuliaNode {
 		return indexManager;
 	}
 
+	public ZuliaServiceServer getZuliaServiceServer() {
+		return zuliaServiceServer;
+	}
+
 	public ZuliaConfig getZuliaConfig() {
 		return zuliaConfig;
 	}
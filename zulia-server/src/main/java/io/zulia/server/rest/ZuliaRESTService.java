@@ -11,9 +11,12 @@ import io.zulia.rest.dto.*;
 import io.zulia.server.health.HealthResultDTO;
 import io.zulia.server.health.HealthResultDetailsDTO;
 import io.zulia.server.rest.controllers.AssociatedController;
+import io.zulia.server.serde.AdmissionLimitStatsModifier;
+import io.zulia.server.serde.IndexSearchExecutorStatsModifier;
 import io.zulia.server.serde.IndexStatsModifier;
 import io.zulia.server.serde.NodeStatsModifier;
 import io.zulia.server.serde.ProtoIgnoredGetters;
+import io.zulia.server.serde.SearchExecutorStatsModifier;
 import io.zulia.server.serde.ShardCacheStatsModifier;
 import jakarta.inject.Singleton;
 
@@ -41,6 +44,13 @@ import jakarta.inject.Singleton;
 @SerdeImport(value = ZuliaBase.ShardCacheStats.class, mixin = ShardCacheStatsModifier.class)
 @SerdeImport(value = ZuliaBase.ShardCacheStats.class, mixin = ProtoIgnoredGetters.class)
 @SerdeImport(value = ZuliaBase.CacheStats.class, mixin = ProtoIgnoredGetters.class)
+@SerdeImport(value = ZuliaBase.FilterCacheStats.class, mixin = ProtoIgnoredGetters.class)
+@SerdeImport(value = ZuliaBase.SearchExecutorStats.class, mixin = SearchExecutorStatsModifier.class)
+@SerdeImport(value = ZuliaBase.SearchExecutorStats.class, mixin = ProtoIgnoredGetters.class)
+@SerdeImport(value = ZuliaBase.IndexSearchExecutorStats.class, mixin = IndexSearchExecutorStatsModifier.class)
+@SerdeImport(value = ZuliaBase.IndexSearchExecutorStats.class, mixin = ProtoIgnoredGetters.class)
+@SerdeImport(value = ZuliaBase.AdmissionLimitStats.class, mixin = AdmissionLimitStatsModifier.class)
+@SerdeImport(value = ZuliaBase.AdmissionLimitStats.class, mixin = ProtoIgnoredGetters.class)
 @SerdeImport(TermDTO.class)
 @SerdeImport(TermsResponseDTO.class)
 @SerdeImport(HealthResultDTO.class)
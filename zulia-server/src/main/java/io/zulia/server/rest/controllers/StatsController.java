@@ -15,6 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.zulia.ZuliaRESTConstants;
 import io.zulia.message.ZuliaBase;
 import io.zulia.message.ZuliaBase.NodeStats;
+import io.zulia.server.index.NodeQueryCache;
 import io.zulia.server.index.ZuliaIndexManager;
 import io.zulia.server.index.resident.LoadedIndexCache;
 import io.zulia.server.node.ZuliaNode;
@@ -76,6 +77,13 @@ public class StatsController {
 		nodeStats.setIndexLoadCount(loadedIndexCache.getLoadCount());
 		nodeStats.setIndexEvictionCount(loadedIndexCache.getEvictionCount());
 
+		NodeQueryCache nodeQueryCache = indexManager.getNodeQueryCache();
+		nodeStats.setQueryCacheBytes(nodeQueryCache.getUsedBytes());
+		nodeStats.setQueryCacheMaxBytes(nodeQueryCache.getMaxBytes());
+		nodeStats.setFilterCache(indexManager.getFilterCache().getFilterCacheStats());
+		nodeStats.setSearchExecutor(indexManager.getFairSearchExecutor().getSearchExecutorStats());
+		nodeStats.addAllAdmissionLimit(zuliaNode.getZuliaServiceServer().getAdmissionLimitStats());
+
 		return nodeStats.build();
 
 	}
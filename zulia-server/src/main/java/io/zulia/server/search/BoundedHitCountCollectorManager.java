@@ -0,0 +1,90 @@
+package io.zulia.server.search;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the hits of a query up to a threshold.  The count is shared by the slices of a concurrent search so every slice stops once the
+ * threshold is reached, and a segment whose count is known from its index statistics is counted without visiting its documents.  The
+ * relation is {@link TotalHits.Relation#GREATER_THAN_OR_EQUAL_TO} when counting stopped at the threshold.
+ */
+public class BoundedHitCountCollectorManager implements CollectorManager<BoundedHitCountCollectorManager.BoundedHitCountCollector, TotalHits> {
+
+	private final int threshold;
+	private final AtomicInteger count = new AtomicInteger();
+
+	public BoundedHitCountCollectorManager(int threshold) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	public BoundedHitCountCollector newCollector() {
+		return new BoundedHitCountCollector();
+	}
+
+	@Override
+	public TotalHits reduce(Collection<BoundedHitCountCollector> collectors) {
+		int total = count.get();
+		if (total >= threshold) {
+			return new TotalHits(total, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+		}
+		return new TotalHits(total, TotalHits.Relation.EQUAL_TO);
+	}
+
+	public class BoundedHitCountCollector implements Collector {
+
+		private Weight weight;
+
+		private BoundedHitCountCollector() {
+		}
+
+		@Override
+		public void setWeight(Weight weight) {
+			this.weight = weight;
+		}
+
+		@Override
+		public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+			if (count.get() >= threshold) {
+				throw new CollectionTerminatedException();
+			}
+
+			// segments are not split into partitions by the searcher so the count of the segment is counted once
+			int leafCount = weight != null ? weight.count(context) : -1;
+			if (leafCount >= 0) {
+				count.addAndGet(leafCount);
+				throw new CollectionTerminatedException();
+			}
+
+			return new LeafCollector() {
+
+				@Override
+				public void setScorer(Scorable scorer) {
+				}
+
+				@Override
+				public void collect(int doc) {
+					if (count.incrementAndGet() >= threshold) {
+						throw new CollectionTerminatedException();
+					}
+				}
+			};
+		}
+
+		@Override
+		public ScoreMode scoreMode() {
+			return ScoreMode.COMPLETE_NO_SCORES;
+		}
+	}
+}
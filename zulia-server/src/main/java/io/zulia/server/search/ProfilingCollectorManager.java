@@ -0,0 +1,129 @@
+package io.zulia.server.search;
+
+import io.zulia.message.ZuliaQuery.SegmentProfile;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.DocIdStream;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times the collection of each segment for a profiled query.  The searcher gets the leaf collector of a segment before it creates the
+ * scorer and finishes it once the segment is scored, so the time between the two is the time the segment took.
+ */
+public class ProfilingCollectorManager<C extends Collector, T> implements CollectorManager<ProfilingCollectorManager.ProfilingCollector<C>, T> {
+
+	private final CollectorManager<C, T> collectorManager;
+	private final Map<Integer, Long> segmentNanos = new ConcurrentHashMap<>();
+
+	public ProfilingCollectorManager(CollectorManager<C, T> collectorManager) {
+		this.collectorManager = collectorManager;
+	}
+
+	@Override
+	public ProfilingCollector<C> newCollector() throws IOException {
+		return new ProfilingCollector<>(collectorManager.newCollector(), segmentNanos);
+	}
+
+	@Override
+	public T reduce(Collection<ProfilingCollector<C>> collectors) throws IOException {
+		List<C> delegates = new ArrayList<>(collectors.size());
+		for (ProfilingCollector<C> collector : collectors) {
+			delegates.add(collector.collector);
+		}
+		return collectorManager.reduce(delegates);
+	}
+
+	public List<SegmentProfile> getSegmentProfiles(List<LeafReaderContext> leaves) {
+		List<SegmentProfile> segmentProfiles = new ArrayList<>();
+		for (LeafReaderContext leaf : leaves) {
+			Long nanos = segmentNanos.get(leaf.ord);
+			if (nanos != null) {
+				segmentProfiles.add(SegmentProfile.newBuilder().setSegmentOrd(leaf.ord).setMaxDoc(leaf.reader().maxDoc()).setCollectNanos(nanos).build());
+			}
+		}
+		return segmentProfiles;
+	}
+
+	public static class ProfilingCollector<C extends Collector> implements Collector {
+
+		private final C collector;
+		private final Map<Integer, Long> segmentNanos;
+
+		private ProfilingCollector(C collector, Map<Integer, Long> segmentNanos) {
+			this.collector = collector;
+			this.segmentNanos = segmentNanos;
+		}
+
+		@Override
+		public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+			long start = System.nanoTime();
+			LeafCollector leafCollector = collector.getLeafCollector(context);
+			return new ProfilingLeafCollector(leafCollector, context.ord, start, segmentNanos);
+		}
+
+		@Override
+		public ScoreMode scoreMode() {
+			return collector.scoreMode();
+		}
+
+		@Override
+		public void setWeight(Weight weight) {
+			collector.setWeight(weight);
+		}
+	}
+
+	private static class ProfilingLeafCollector implements LeafCollector {
+
+		private final LeafCollector leafCollector;
+		private final int segmentOrd;
+		private final long start;
+		private final Map<Integer, Long> segmentNanos;
+
+		private ProfilingLeafCollector(LeafCollector leafCollector, int segmentOrd, long start, Map<Integer, Long> segmentNanos) {
+			this.leafCollector = leafCollector;
+			this.segmentOrd = segmentOrd;
+			this.start = start;
+			this.segmentNanos = segmentNanos;
+		}
+
+		@Override
+		public void setScorer(Scorable scorer) throws IOException {
+			leafCollector.setScorer(scorer);
+		}
+
+		@Override
+		public void collect(int doc) throws IOException {
+			leafCollector.collect(doc);
+		}
+
+		@Override
+		public void collect(DocIdStream stream) throws IOException {
+			leafCollector.collect(stream);
+		}
+
+		@Override
+		public DocIdSetIterator competitiveIterator() throws IOException {
+			// the wrapped collector still skips non competitive documents
+			return leafCollector.competitiveIterator();
+		}
+
+		@Override
+		public void finish() throws IOException {
+			leafCollector.finish();
+			// a segment searched in partitions is finished once per partition
+			segmentNanos.merge(segmentOrd, System.nanoTime() - start, Long::sum);
+		}
+	}
+}
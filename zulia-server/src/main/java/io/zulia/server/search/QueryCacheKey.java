@@ -12,14 +12,15 @@ public class QueryCacheKey {
 
 		// make sure it has the same signature as an unpinned search
 
-		// remove the search label and concurrency from caching consideration as well
+		// remove the search label, concurrency, query then fetch flag, timeout, and profile flag from caching consideration as well
 
 		// clear out all indexes from the request except for this index
 		// this allows caching to happen at the index level, i.e. ->
 		//  * the caching for identical queries searched again two indexes could be used for a combined query against two indexes
 		//  * the two identical queries against different aliases pointed at the same index would be cache hits for each other
 
-		this.queryRequest = queryRequest.toBuilder().clearIndex().setPinToCache(false).setSearchLabel("").setConcurrency(1).build();
+		this.queryRequest = queryRequest.toBuilder().clearIndex().setPinToCache(false).setSearchLabel("").setConcurrency(1).setQueryThenFetch(false)
+				.setTimeoutMs(0).setProfile(false).build();
 	}
 
 	public boolean isPinned() {
@@ -8,6 +8,7 @@ import io.zulia.message.ZuliaQuery.AnalysisResult;
 import io.zulia.message.ZuliaQuery.CountRequest;
 import io.zulia.message.ZuliaQuery.FacetGroup;
 import io.zulia.message.ZuliaQuery.FieldSort;
+import io.zulia.message.ZuliaQuery.IncompleteShard;
 import io.zulia.message.ZuliaQuery.IndexShardResponse;
 import io.zulia.message.ZuliaQuery.LastIndexResult;
 import io.zulia.message.ZuliaQuery.LastResult;
@@ -23,18 +24,20 @@ import io.zulia.server.config.SortFieldInfo;
 import io.zulia.server.index.ZuliaIndex;
 import io.zulia.server.search.aggregation.facets.FacetCombiner;
 import io.zulia.server.search.aggregation.stats.StatCombiner;
+import io.zulia.server.search.score.ScoredResultMerger;
 import io.zulia.server.search.score.ZuliaPostSortingComparator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class QueryCombiner {
 
@@ -50,6 +53,10 @@ public class QueryCombiner {
 	private final Collection<ZuliaIndex> indexes;
 	private final Map<String, Integer> indexToShardCount;
 	private final int vectorTopN;
+	private final boolean partialResults;
+	private final List<IncompleteShard> incompleteShards;
+	private final Map<String, Set<Integer>> shortShards;
+	private boolean validated;
 	private boolean isShort;
 
 	public QueryCombiner(Collection<ZuliaIndex> indexes, QueryRequest request, List<InternalQueryResponse> responses) {
@@ -74,6 +81,11 @@ public class QueryCombiner {
 
 		this.vectorTopN = getMinVectorTopN(request);
 
+		// with a timeout shards that did not respond in time are reported instead of failing the search
+		this.partialResults = request.getTimeoutMs() != 0;
+		this.incompleteShards = new ArrayList<>();
+		this.shortShards = new HashMap<>();
+
 	}
 
 	private static int getMinVectorTopN(QueryRequest request) {
@@ -100,6 +112,11 @@ public class QueryCombiner {
 
 
 	private void validate() throws Exception {
+		if (validated) {
+			return;
+		}
+		validated = true;
+
 		for (InternalQueryResponse iqr : responses) {
 
 			for (IndexShardResponse isr : iqr.getIndexShardResponseList()) {
@@ -127,6 +144,17 @@ public class QueryCombiner {
 			int numberOfShards = index.getNumberOfShards();
 			Map<Integer, ShardQueryResponse> shardResponseMap = indexToShardQueryResponseMap.get(index.getIndexName());
 
+			if (partialResults) {
+				for (int shardNumber = 0; shardNumber < numberOfShards; shardNumber++) {
+					ShardQueryResponse sr = shardResponseMap != null ? shardResponseMap.get(shardNumber) : null;
+					if (sr == null || sr.getTimedOut()) {
+						incompleteShards.add(IncompleteShard.newBuilder().setIndexName(index.getIndexName()).setShardNumber(shardNumber).setMissing(sr == null)
+								.build());
+					}
+				}
+				continue;
+			}
+
 			if (shardResponseMap == null) {
 				throw new Exception("Missing index " + index.getIndexName() + "> in response");
 			}
@@ -147,13 +175,18 @@ public class QueryCombiner {
 
 		validate();
 
+		isShort = false;
+		shortShards.clear();
+
 		long totalHits = 0;
 		long returnedHits = 0;
 		int shardsCached = 0;
 		int shardsPinned = 0;
+		boolean totalHitsLowerBound = false;
 
 		for (ShardQueryResponse sr : shardResponses) {
 			totalHits += sr.getTotalHits();
+			totalHitsLowerBound |= sr.getTotalHitsLowerBound();
 			returnedHits += sr.getScoredResultList().size();
 			if (sr.getCached()) {
 				shardsCached++;
@@ -171,6 +204,9 @@ public class QueryCombiner {
 		builder.setShardsCached(shardsCached);
 		builder.setShardsPinned(shardsPinned);
 		builder.setShardsQueried(shardResponses.size());
+		builder.setTotalHitsLowerBound(totalHitsLowerBound || !incompleteShards.isEmpty());
+		builder.setTimedOut(!incompleteShards.isEmpty());
+		builder.addAllIncompleteShard(incompleteShards);
 
 		int resultsSize = Math.min(amount, (int) returnedHits);
 		if (vectorTopN > 0) {
@@ -250,6 +286,10 @@ public class QueryCombiner {
 		if (shardResponses.size() > 1) {
 			results = mergeResults((int) returnedHits, resultsSize, lastIndexResultMap);
 		}
+		else if (shardResponses.isEmpty()) {
+			// every shard timed out without responding
+			results = Collections.emptyList();
+		}
 		else {
 			ShardQueryResponse shardQueryResponse = shardResponses.get(0);
 			results = shardQueryResponse.getScoredResultList();
@@ -284,27 +324,25 @@ public class QueryCombiner {
 
 		boolean sorting = (sortRequest != null && !sortRequest.getFieldSortList().isEmpty());
 
-		List<ScoredResult> mergedResults = new ArrayList<>(returnedHits);
-		for (ShardQueryResponse sr : shardResponses) {
-			mergedResults.addAll(sr.getScoredResultList());
-		}
-
-		if (!mergedResults.isEmpty()) {
+		if (returnedHits > 0) {
 
 			List<FieldSort> fieldSortList = sortRequest != null ? sortRequest.getFieldSortList() : Collections.emptyList();
 			HashMap<String, FieldConfig.FieldType> sortTypeMap = createSortTypeMap(fieldSortList);
 
 			Comparator<ScoredResult> comparator = new ZuliaPostSortingComparator(fieldSortList, sortTypeMap);
-			mergedResults.sort(comparator);
 
-			results = mergedResults.subList(0, resultsSize);
+			// each shard returns its results already sorted so only the first resultsSize results need to be merged
+			List<List<ScoredResult>> shardResults = new ArrayList<>(shardResponses.size());
+			for (ShardQueryResponse sr : shardResponses) {
+				shardResults.add(sr.getScoredResultList());
+			}
+			results = new ScoredResultMerger(fieldSortList, sortTypeMap).merge(shardResults, resultsSize);
 
 			for (ScoredResult sr : results) {
 				ScoredResult[] lastForShardArr = lastIndexResultMap.get(sr.getIndexName());
 				lastForShardArr[sr.getShard()] = sr;
 			}
 
-			outside:
 			for (ZuliaIndex index : indexes) {
 				String indexName = index.getIndexName();
 				ScoredResult[] lastForShardArr = lastIndexResultMap.get(indexName);
@@ -330,53 +368,27 @@ public class QueryCombiner {
 				double shardTolerance = index.getShardTolerance();
 
 				int numberOfShards = index.getNumberOfShards();
-				Map<Integer, ShardQueryResponse> shardResponseMap = indexToShardQueryResponseMap.get(indexName);
+				Map<Integer, ShardQueryResponse> shardResponseMap = indexToShardQueryResponseMap.getOrDefault(indexName, Map.of());
 				for (int shardNumber = 0; shardNumber < numberOfShards; shardNumber++) {
 					ShardQueryResponse sr = shardResponseMap.get(shardNumber);
-					if (sr.hasNext()) {
+					// missing when the shard did not respond before the timeout
+					if (sr != null && sr.hasNext()) {
 						ScoredResult next = sr.getNext();
 						int compare = comparator.compare(lastForIndex, next);
-						if (compare > 0) {
-
-							if (sorting) {
-								String msg = "Result set did not return the most relevant sorted documents for index " + indexName + "\n";
-								msg += "    Last for index from shard <" + lastForIndex.getShard() + "> has sort values <" + lastForIndex.getSortValues()
-										+ ">\n";
-								msg += "    Next for shard <" + next.getShard() + ">  has sort values <" + next.getSortValues() + ">\n";
-								msg += "    Last for shards: \n";
-								msg += "      " + Arrays.toString(lastForShardArr) + "\n";
-								msg += "    Results: \n";
-								msg += "      " + results + "\n";
-								msg += "    If this happens frequently increase requestFactor or minShardRequest\n";
-								msg += "    Retrying with full request.\n";
-								LOG.error(msg);
-
-								isShort = true;
-								break outside;
-							}
-
-							double diff = (Math.abs(lastForIndex.getScore() - next.getScore()));
-							if (diff > shardTolerance) {
-								String msg = "Result set did not return the most relevant documents for index <" + indexName + "> with shard tolerance <"
-										+ shardTolerance + ">\n";
-								msg += "    Last for index from shard <" + lastForIndex.getShard() + "> has score <" + lastForIndex.getScore() + ">\n";
-								msg += "    Next for shard <" + next.getShard() + "> has score <" + next.getScore() + ">\n";
-								msg += "    Last for shards: \n";
-								msg += "      " + Arrays.toString(lastForShardArr) + "\n";
-								msg += "    Results: \n";
-								msg += "      " + results + "\n";
-								msg += "    If this happens frequently increase requestFactor, minShardRequest, or shardTolerance\n";
-								msg += "    Retrying with full request.\n";
-								LOG.error(msg);
-
-								isShort = true;
-								break outside;
-							}
+						// a shard whose next result sorts before the last result of the page may have results that belong in the page
+						if (compare > 0 && (sorting || Math.abs(lastForIndex.getScore() - next.getScore()) > shardTolerance)) {
+							addShortShard(indexName, shardNumber);
 						}
 					}
 				}
 			}
 
+			if (isShort) {
+				String tuning = sorting ? "requestFactor or minShardRequest" : "requestFactor, minShardRequest, or shardTolerance";
+				LOG.warn("Result set did not return the most relevant {}documents, continuing the shards that may have more results {}.  If this "
+						+ "happens frequently increase {}", sorting ? "sorted " : "", shortShards, tuning);
+			}
+
 		}
 		return results;
 	}
@@ -441,8 +453,8 @@ public class QueryCombiner {
 	private Map<String, ScoredResult[]> createLastIndexResultMapWithPreviousLastResults() {
 		Map<String, ScoredResult[]> lastIndexResultMap = new HashMap<>();
 
-		for (String indexName : indexToShardQueryResponseMap.keySet()) {
-			lastIndexResultMap.put(indexName, new ScoredResult[indexToShardCount.get(indexName)]);
+		for (Map.Entry<String, Integer> entry : indexToShardCount.entrySet()) {
+			lastIndexResultMap.put(entry.getKey(), new ScoredResult[entry.getValue()]);
 		}
 
 		for (LastIndexResult lir : lastResult.getLastIndexResultList()) {
@@ -455,8 +467,85 @@ public class QueryCombiner {
 		return lastIndexResultMap;
 	}
 
+	private void addShortShard(String indexName, int shardNumber) {
+		isShort = true;
+		shortShards.computeIfAbsent(indexName, k -> new TreeSet<>()).add(shardNumber);
+	}
+
 	public boolean isShort() {
 		return isShort;
 	}
 
+	/**
+	 * @return the shards by index whose next result could still be in the page requested
+	 */
+	public Map<String, Set<Integer>> getShortShards() {
+		return shortShards;
+	}
+
+	/**
+	 * @return a last result that continues each short shard after the last result it returned
+	 */
+	public LastResult getContinuationLastResult() {
+		Map<String, ScoredResult[]> previousLastIndexResultMap = createLastIndexResultMapWithPreviousLastResults();
+
+		LastResult.Builder continuationBuilder = LastResult.newBuilder();
+		for (Map.Entry<String, Set<Integer>> entry : shortShards.entrySet()) {
+			String indexName = entry.getKey();
+			Map<Integer, ShardQueryResponse> shardResponseMap = indexToShardQueryResponseMap.get(indexName);
+			LastIndexResult.Builder lastIndexResultBuilder = LastIndexResult.newBuilder().setIndexName(indexName);
+			for (int shardNumber : entry.getValue()) {
+				List<ScoredResult> scoredResults = shardResponseMap.get(shardNumber).getScoredResultList();
+				// a shard that returned nothing continues from where the previous page left it
+				ScoredResult last =
+						!scoredResults.isEmpty() ? scoredResults.get(scoredResults.size() - 1) : previousLastIndexResultMap.get(indexName)[shardNumber];
+				if (last != null) {
+					lastIndexResultBuilder.addLastForShard(
+							ScoredResult.newBuilder(last).clearUniqueId().clearIndexName().clearResultIndex().clearTimestamp().clearResultDocument());
+				}
+			}
+			if (lastIndexResultBuilder.getLastForShardCount() != 0) {
+				continuationBuilder.addLastIndexResult(lastIndexResultBuilder);
+			}
+		}
+		return continuationBuilder.build();
+	}
+
+	/**
+	 * Appends the results of a continuation request to the responses of the shards that were short.  Totals and aggregations are kept from
+	 * the first response of each shard so the continuation only has to return the next results
+	 */
+	public void addContinuation(List<InternalQueryResponse> continuationResponses) throws Exception {
+		validate();
+
+		for (InternalQueryResponse iqr : continuationResponses) {
+			for (IndexShardResponse isr : iqr.getIndexShardResponseList()) {
+				Map<Integer, ShardQueryResponse> shardResponseMap = indexToShardQueryResponseMap.get(isr.getIndexName());
+				for (ShardQueryResponse continuation : isr.getShardQueryResponseList()) {
+					ShardQueryResponse existing = shardResponseMap != null ? shardResponseMap.get(continuation.getShardNumber()) : null;
+					if (existing == null) {
+						throw new Exception(
+								"Continuation for shard " + continuation.getShardNumber() + " of " + isr.getIndexName() + " has no first response");
+					}
+
+					ShardQueryResponse.Builder merged = existing.toBuilder().addAllScoredResult(continuation.getScoredResultList()).clearNext();
+					if (continuation.hasNext()) {
+						merged.setNext(continuation.getNext());
+					}
+					if (continuation.getTimedOut()) {
+						merged.setTimedOut(true);
+						if (partialResults && !existing.getTimedOut()) {
+							incompleteShards.add(
+									IncompleteShard.newBuilder().setIndexName(isr.getIndexName()).setShardNumber(continuation.getShardNumber()).build());
+						}
+					}
+
+					ShardQueryResponse mergedResponse = merged.build();
+					shardResponseMap.put(continuation.getShardNumber(), mergedResponse);
+					shardResponses.set(shardResponses.indexOf(existing), mergedResponse);
+				}
+			}
+		}
+	}
+
 }
@@ -0,0 +1,120 @@
+package io.zulia.server.search;
+
+import io.zulia.message.ZuliaQuery.FetchType;
+import io.zulia.message.ZuliaQuery.IncompleteShard;
+import io.zulia.message.ZuliaQuery.IndexShardResponse;
+import io.zulia.message.ZuliaQuery.ScoredResult;
+import io.zulia.message.ZuliaQuery.ShardFetch;
+import io.zulia.message.ZuliaQuery.ShardQueryResponse;
+import io.zulia.message.ZuliaServiceOuterClass.InternalQueryResponse;
+import io.zulia.message.ZuliaServiceOuterClass.QueryRequest;
+import io.zulia.message.ZuliaServiceOuterClass.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helpers for the two phase query then fetch search.  The query phase runs without loading documents on the shards, the results are merged,
+ * and then only the documents (and highlights) for the page returned are loaded from the shards that own them.
+ */
+public class QueryThenFetch {
+
+	public static boolean isQueryThenFetch(QueryRequest queryRequest) {
+		// analysis is computed from the documents during the shard query so those requests stay single phase
+		return queryRequest.getQueryThenFetch() && !FetchType.NONE.equals(queryRequest.getResultFetchType()) && queryRequest.getAnalysisRequestCount() == 0;
+	}
+
+	public static QueryRequest getQueryPhaseRequest(QueryRequest queryRequest) {
+		return queryRequest.toBuilder().setResultFetchType(FetchType.NONE).clearDocumentFields().clearDocumentMaskedFields().clearHighlightRequest().build();
+	}
+
+	/**
+	 * @return the ids to fetch grouped by index and shard in the order they appear in the results
+	 */
+	public static List<ShardFetch> getShardFetches(List<ScoredResult> scoredResults) {
+		Map<String, Map<Integer, ShardFetch.Builder>> indexToShardFetch = new LinkedHashMap<>();
+		for (ScoredResult scoredResult : scoredResults) {
+			indexToShardFetch.computeIfAbsent(scoredResult.getIndexName(), k -> new LinkedHashMap<>())
+					.computeIfAbsent(scoredResult.getShard(), k -> ShardFetch.newBuilder().setIndexName(scoredResult.getIndexName()).setShardNumber(k))
+					.addUniqueId(scoredResult.getUniqueId());
+		}
+
+		List<ShardFetch> shardFetches = new ArrayList<>();
+		for (Map<Integer, ShardFetch.Builder> shardToFetch : indexToShardFetch.values()) {
+			for (ShardFetch.Builder shardFetch : shardToFetch.values()) {
+				shardFetches.add(shardFetch.build());
+			}
+		}
+		return shardFetches;
+	}
+
+	/**
+	 * Copies the documents and highlights from the fetch phase into the merged query phase results.  Score, sort values, and the last result
+	 * are kept from the query phase.  A document deleted between the phases is returned without a result document.
+	 */
+	public static QueryResponse mergeFetchedDocuments(QueryResponse queryResponse, List<InternalQueryResponse> fetchResponses) {
+
+		Map<String, Map<String, ScoredResult>> indexToFetched = new HashMap<>();
+		for (InternalQueryResponse internalQueryResponse : fetchResponses) {
+			for (IndexShardResponse indexShardResponse : internalQueryResponse.getIndexShardResponseList()) {
+				for (ShardQueryResponse shardQueryResponse : indexShardResponse.getShardQueryResponseList()) {
+					for (ScoredResult scoredResult : shardQueryResponse.getScoredResultList()) {
+						indexToFetched.computeIfAbsent(scoredResult.getIndexName(), k -> new HashMap<>()).put(scoredResult.getUniqueId(), scoredResult);
+					}
+				}
+			}
+		}
+
+		QueryResponse.Builder builder = queryResponse.toBuilder().clearResults();
+		for (ScoredResult scoredResult : queryResponse.getResultsList()) {
+			ScoredResult fetched = indexToFetched.getOrDefault(scoredResult.getIndexName(), Map.of()).get(scoredResult.getUniqueId());
+			if (fetched != null) {
+				ScoredResult.Builder resultBuilder = scoredResult.toBuilder().setTimestamp(fetched.getTimestamp()).addAllHighlightResult(
+						fetched.getHighlightResultList());
+				if (fetched.hasResultDocument()) {
+					resultBuilder.setResultDocument(fetched.getResultDocument());
+				}
+				builder.addResults(resultBuilder);
+			}
+			else {
+				builder.addResults(scoredResult);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Reports the shards whose fetch got no response before the deadline as incomplete.  Their results keep the score and sort values from the
+	 * query phase but have no documents or highlights.
+	 */
+	public static QueryResponse markUnfetchedShards(QueryResponse queryResponse, List<ShardFetch> shardFetches,
+			List<InternalQueryResponse> fetchResponses) {
+		Set<String> fetchedShards = new HashSet<>();
+		for (InternalQueryResponse internalQueryResponse : fetchResponses) {
+			for (IndexShardResponse indexShardResponse : internalQueryResponse.getIndexShardResponseList()) {
+				for (ShardQueryResponse shardQueryResponse : indexShardResponse.getShardQueryResponseList()) {
+					fetchedShards.add(indexShardResponse.getIndexName() + ":" + shardQueryResponse.getShardNumber());
+				}
+			}
+		}
+		for (IncompleteShard incompleteShard : queryResponse.getIncompleteShardList()) {
+			// already reported by the query phase
+			fetchedShards.add(incompleteShard.getIndexName() + ":" + incompleteShard.getShardNumber());
+		}
+
+		QueryResponse.Builder builder = queryResponse.toBuilder();
+		for (ShardFetch shardFetch : shardFetches) {
+			String indexName = shardFetch.getIndexName();
+			if (!fetchedShards.contains(indexName + ":" + shardFetch.getShardNumber())) {
+				builder.setTimedOut(true);
+				builder.addIncompleteShard(IncompleteShard.newBuilder().setIndexName(indexName).setShardNumber(shardFetch.getShardNumber()).setMissing(true));
+			}
+		}
+		return builder.build();
+	}
+}
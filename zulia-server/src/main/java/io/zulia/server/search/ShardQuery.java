@@ -14,9 +14,11 @@ import org.apache.lucene.util.BytesRef;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 public class ShardQuery {
 	Query query;
+	Query highlightQuery;
 	Map<String, ZuliaBase.Similarity> similarityOverrideMap;
 	int amount;
 	Map<Integer, FieldDoc> shardToAfter;
@@ -33,12 +35,19 @@ public class ShardQuery {
 	String searchLabel;
 	boolean realtime;
 	int concurrency;
+	boolean compressedDocuments;
+	List<String> docValueFields = Collections.emptyList();
+	boolean profile;
+	int totalHitsThreshold = Integer.MAX_VALUE;
+	long deadlineNanos;
+	BooleanSupplier cancelled = () -> false;
 
 	public ShardQuery(Query query, Map<String, ZuliaBase.Similarity> similarityOverrideMap, int amount, Map<Integer, FieldDoc> shardToAfter,
 			ZuliaQuery.FacetRequest facetRequest, ZuliaQuery.SortRequest sortRequest, QueryCacheKey queryCacheKey, ZuliaQuery.FetchType resultFetchType,
 			List<String> fieldsToReturn, List<String> fieldsToMask, List<ZuliaQuery.HighlightRequest> highlightList,
 			List<ZuliaQuery.AnalysisRequest> analysisRequestList, boolean debug, long searchId, String searchLabel, boolean realtime, int concurrency) {
 		this.query = query;
+		this.highlightQuery = query;
 		this.similarityOverrideMap = similarityOverrideMap;
 		this.amount = amount;
 		this.shardToAfter = shardToAfter;
@@ -72,10 +81,27 @@ public class ShardQuery {
 				fieldsToReturn, fieldsToMask, Collections.emptyList(), Collections.emptyList(), false, 0, "", realtime, 1);
 	}
 
+	/**
+	 * Fetch phase of a query then fetch search.  Only the given ids are loaded but highlighting is still done against the original query
+	 */
+	public static ShardQuery fetchByIds(List<String> uniqueIds, Query highlightQuery, ZuliaQuery.FetchType resultFetchType, List<String> fieldsToReturn,
+			List<String> fieldsToMask, List<ZuliaQuery.HighlightRequest> highlightList, long searchId, String searchLabel) {
+		List<BytesRef> bytesRefs = uniqueIds.stream().map(BytesRef::new).toList();
+		Query query = new ConstantScoreQuery(new TermInSetQuery(ZuliaFieldConstants.ID_FIELD, bytesRefs));
+		ShardQuery shardQuery = new ShardQuery(query, null, uniqueIds.size(), Collections.emptyMap(), ZuliaQuery.FacetRequest.newBuilder().build(), null, null,
+				resultFetchType, fieldsToReturn, fieldsToMask, highlightList, Collections.emptyList(), false, searchId, searchLabel, false, 1);
+		shardQuery.highlightQuery = highlightQuery;
+		return shardQuery;
+	}
+
 	public Query getQuery() {
 		return query;
 	}
 
+	public Query getHighlightQuery() {
+		return highlightQuery;
+	}
+
 	public Map<String, ZuliaBase.Similarity> getSimilarityOverrideMap() {
 		return similarityOverrideMap;
 	}
@@ -143,4 +169,64 @@ public class ShardQuery {
 	public void setConcurrency(int concurrency) {
 		this.concurrency = concurrency;
 	}
+
+	/**
+	 * @return true if the client decompresses documents itself so stored documents that are not changed are returned still compressed
+	 */
+	public boolean isCompressedDocuments() {
+		return compressedDocuments;
+	}
+
+	public void setCompressedDocuments(boolean compressedDocuments) {
+		this.compressedDocuments = compressedDocuments;
+	}
+
+	/**
+	 * @return the sortable fields returned from their doc values on each result
+	 */
+	public List<String> getDocValueFields() {
+		return docValueFields;
+	}
+
+	public void setDocValueFields(List<String> docValueFields) {
+		this.docValueFields = docValueFields;
+	}
+
+	public boolean isProfile() {
+		return profile;
+	}
+
+	public void setProfile(boolean profile) {
+		this.profile = profile;
+	}
+
+	public int getTotalHitsThreshold() {
+		return totalHitsThreshold;
+	}
+
+	public void setTotalHitsThreshold(int totalHitsThreshold) {
+		this.totalHitsThreshold = totalHitsThreshold;
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} collection stops at, or 0 for no timeout
+	 */
+	public long getDeadlineNanos() {
+		return deadlineNanos;
+	}
+
+	public void setDeadlineNanos(long deadlineNanos) {
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * @return true if the caller went away or another part of the search failed, so the shard search should stop
+	 */
+	public boolean isCancelled() {
+		return cancelled.getAsBoolean();
+	}
+
+	public void setCancelled(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+	}
 }
@@ -0,0 +1,100 @@
+package io.zulia.server.search;
+
+import io.zulia.message.ZuliaIndex.FieldConfig.FieldType;
+import io.zulia.message.ZuliaIndex.IndexSort;
+import io.zulia.server.config.ServerIndexConfig;
+import io.zulia.server.config.SortFieldInfo;
+import io.zulia.server.field.FieldTypeUtil;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSelector;
+import org.apache.lucene.search.SortedSetSortField;
+
+public class SortFieldUtil {
+
+	/**
+	 * Builds the lucene sort field for a string, numeric, or date sort field.  The index sort and the query sort are both built here so a
+	 * query sort on the index sort field is equal to it, which lucene requires to early terminate
+	 */
+	public static SortField getSortField(SortFieldInfo sortFieldInfo, String sortField, boolean reverse, boolean missingLast) {
+		FieldType sortFieldType = sortFieldInfo.getFieldType();
+		String internalSortFieldName = sortFieldInfo.getInternalSortFieldName();
+
+		if (FieldTypeUtil.isStringFieldType(sortFieldType)) {
+
+			SortedSetSelector.Type sortedSetSelector = SortedSetSelector.Type.MIN;
+			if (reverse) {
+				sortedSetSelector = SortedSetSelector.Type.MAX;
+			}
+
+			return new SortedSetSortField(internalSortFieldName, reverse, sortedSetSelector, !missingLast ? SortField.STRING_FIRST : SortField.STRING_LAST);
+		}
+
+		SortedNumericSelector.Type sortedNumericSelector = SortedNumericSelector.Type.MIN;
+		if (reverse) {
+			sortedNumericSelector = SortedNumericSelector.Type.MAX;
+		}
+
+		Object missingValue;
+		SortField.Type type;
+		if (FieldTypeUtil.isStoredAsInt(sortFieldType)) {
+			type = SortField.Type.INT;
+			missingValue = !missingLast ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		}
+		else if (FieldTypeUtil.isStoredAsLong(sortFieldType)) {
+			type = SortField.Type.LONG;
+			missingValue = !missingLast ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+		else if (FieldTypeUtil.isNumericFloatFieldType(sortFieldType)) {
+			type = SortField.Type.FLOAT;
+			missingValue = !missingLast ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+		}
+		else if (FieldTypeUtil.isNumericDoubleFieldType(sortFieldType)) {
+			type = SortField.Type.DOUBLE;
+			missingValue = !missingLast ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		else {
+			throw new IllegalArgumentException("Invalid numeric sort type " + sortFieldType + " for sort field " + sortField);
+		}
+
+		return new SortedNumericSortField(internalSortFieldName, type, reverse, sortedNumericSelector, missingValue);
+	}
+
+	/**
+	 * @return the sort the documents of each segment are written in or null if the index does not have an index sort
+	 */
+	public static Sort getIndexSort(ServerIndexConfig indexConfig) {
+		if (!indexConfig.getIndexSettings().hasIndexSort()) {
+			return null;
+		}
+
+		IndexSort indexSort = indexConfig.getIndexSettings().getIndexSort();
+		SortFieldInfo sortFieldInfo = indexConfig.getSortFieldInfo(indexSort.getSortField());
+		if (sortFieldInfo == null || sortFieldInfo.getInternalSortFieldName() == null || FieldTypeUtil.isGeoPointFieldType(sortFieldInfo.getFieldType())) {
+			throw new IllegalArgumentException("Index sort field <" + indexSort.getSortField() + "> must be a sortable field that is not a GEO_POINT");
+		}
+		return new Sort(getSortField(sortFieldInfo, indexSort.getSortField(), indexSort.getDescending(), indexSort.getMissingLast()));
+	}
+
+	/**
+	 * @return true if the sort is a prefix of the index sort so the hits of each segment are collected in sort order
+	 */
+	public static boolean isIndexSortPrefix(Sort sort, Sort indexSort) {
+		if (indexSort == null) {
+			return false;
+		}
+		SortField[] sortFields = sort.getSort();
+		SortField[] indexSortFields = indexSort.getSort();
+		if (sortFields.length > indexSortFields.length) {
+			return false;
+		}
+		for (int i = 0; i < sortFields.length; i++) {
+			if (!sortFields[i].equals(indexSortFields[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -32,7 +32,6 @@ import io.zulia.server.search.aggregation.ordinal.MapStatOrdinalStorage;
 import io.zulia.server.search.aggregation.stats.NumericFieldStatContext;
 import io.zulia.server.search.aggregation.stats.NumericFieldStatInfo;
 import io.zulia.util.pool.TaskExecutor;
-import io.zulia.util.pool.WorkPool;
 import org.apache.lucene.facet.FacetsCollector;
 import org.apache.lucene.facet.FacetsCollector.MatchingDocs;
 import org.apache.lucene.facet.TopOrdAndIntQueue;
@@ -49,7 +48,10 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
 import java.util.function.IntUnaryOperator;
 
 public class AggregationHandler {
@@ -67,13 +69,21 @@ public class AggregationHandler {
 	private final boolean individualFacet;
 	private final IntUnaryOperator dimensionChildCount;
 	private final AggregationSettings aggregationSettings;
+	private final BooleanSupplier cancelled;
+	private final IntFunction<TaskExecutor> taskExecutorFactory;
+
+	// documents aggregated between checks for cancellation of the search
+	private static final int CANCEL_CHECK_INTERVAL = 4096;
 
 	public AggregationHandler(TaxonomyReader taxoReader, FacetsCollector fc, List<ZuliaQuery.StatRequest> statRequests,
 			List<ZuliaQuery.CountRequest> countRequests, ServerIndexConfig serverIndexConfig, int requestedConcurrency,
-			IntUnaryOperator dimensionChildCount, boolean debug, long searchId, AggregationSettings aggregationSettings) throws IOException {
+			IntUnaryOperator dimensionChildCount, boolean debug, long searchId, AggregationSettings aggregationSettings, BooleanSupplier cancelled,
+			IntFunction<TaskExecutor> taskExecutorFactory) throws IOException {
 
 		this.dimensionChildCount = dimensionChildCount;
+		this.taskExecutorFactory = taskExecutorFactory;
 		this.aggregationSettings = aggregationSettings;
+		this.cancelled = cancelled;
 
 		this.taxoReader = taxoReader;
 		this.requestedConcurrency = requestedConcurrency;
@@ -198,7 +208,7 @@ public class AggregationHandler {
 
 		if (concurrency > 1) {
 			List<ListenableFuture<Object>> futures = new ArrayList<>();
-			try (TaskExecutor taskExecutor = WorkPool.virtualBounded(concurrency)) {
+			try (TaskExecutor taskExecutor = taskExecutorFactory.apply(concurrency)) {
 
 				for (MatchingDocs segment : matchingDocs) {
 					futures.add(taskExecutor.executeAsync(() -> {
@@ -218,6 +228,9 @@ public class AggregationHandler {
 					if (e.getCause() instanceof IOException ioException) {
 						throw ioException;
 					}
+					if (e.getCause() instanceof CancellationException cancellationException) {
+						throw cancellationException;
+					}
 					throw new RuntimeException(e.getCause());
 				}
 			}
@@ -267,8 +280,13 @@ public class AggregationHandler {
 
 		docs = facetReader.getCombinedIterator(docs);
 
+		int count = 0;
 		for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
 
+			if (++count % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+				throw new CancellationException("Aggregation was cancelled");
+			}
+
 			final FacetHandler facetHandler =  facetReader.getFacetHandler();
 			localGlobalFacetInfo.maybeHandleFacets(facetHandler);
 
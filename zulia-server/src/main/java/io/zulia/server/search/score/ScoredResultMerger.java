@@ -0,0 +1,248 @@
+package io.zulia.server.search.score;
+
+import io.zulia.ZuliaFieldConstants;
+import io.zulia.message.ZuliaIndex.FieldConfig;
+import io.zulia.message.ZuliaQuery.FieldSort;
+import io.zulia.message.ZuliaQuery.ScoredResult;
+import io.zulia.message.ZuliaQuery.SortValue;
+import io.zulia.message.ZuliaQuery.SortValues;
+import io.zulia.server.field.FieldTypeUtil;
+import org.apache.lucene.util.BytesRef;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Merges the already sorted results of each shard with a heap, stopping once enough results are taken.  The sort values of each result are
+ * decoded once into primitive arrays so the merge does not compare protobuf sort values repeatedly.  Orders the same as
+ * {@link ZuliaPostSortingComparator} with ties kept in shard order
+ */
+public class ScoredResultMerger {
+
+	private enum SortKind {
+		SCORE,
+		INT,
+		LONG,
+		DATE,
+		FLOAT,
+		DOUBLE,
+		STRING
+	}
+
+	private final SortKind[] sortKinds;
+	private final boolean[] descending;
+	private final boolean[] missingLast;
+	private final boolean hasNumeric;
+	private final boolean hasString;
+
+	public ScoredResultMerger(List<FieldSort> fieldSortList, Map<String, FieldConfig.FieldType> sortTypeMap) {
+		int size = fieldSortList.size();
+		this.sortKinds = new SortKind[size];
+		this.descending = new boolean[size];
+		this.missingLast = new boolean[size];
+
+		boolean hasNumeric = false;
+		boolean hasString = false;
+		for (int i = 0; i < size; i++) {
+			FieldSort fs = fieldSortList.get(i);
+			sortKinds[i] = getSortKind(fs.getSortField(), sortTypeMap.get(fs.getSortField()));
+			descending[i] = FieldSort.Direction.DESCENDING.equals(fs.getDirection());
+			missingLast[i] = fs.getMissingLast();
+			hasNumeric |= sortKinds[i] != SortKind.SCORE && sortKinds[i] != SortKind.STRING;
+			hasString |= sortKinds[i] == SortKind.STRING;
+		}
+		this.hasNumeric = hasNumeric;
+		this.hasString = hasString;
+	}
+
+	private static SortKind getSortKind(String sortField, FieldConfig.FieldType sortType) {
+		if (ZuliaFieldConstants.SCORE_FIELD.equals(sortField)) {
+			return SortKind.SCORE;
+		}
+		if (FieldTypeUtil.isNumericIntFieldType(sortType)) {
+			return SortKind.INT;
+		}
+		if (FieldTypeUtil.isNumericLongFieldType(sortType)) {
+			return SortKind.LONG;
+		}
+		if (FieldTypeUtil.isDateFieldType(sortType)) {
+			return SortKind.DATE;
+		}
+		if (FieldTypeUtil.isNumericFloatFieldType(sortType)) {
+			return SortKind.FLOAT;
+		}
+		if (FieldTypeUtil.isNumericDoubleFieldType(sortType) || FieldTypeUtil.isGeoPointFieldType(sortType)) {
+			return SortKind.DOUBLE;
+		}
+		return SortKind.STRING;
+	}
+
+	/**
+	 * @param shardResults the results of each shard in the order they are sorted in
+	 * @param resultsSize  the number of results to return
+	 * @return the first resultsSize results across all shards
+	 */
+	public List<ScoredResult> merge(List<List<ScoredResult>> shardResults, int resultsSize) {
+		List<ScoredResult> results = new ArrayList<>(resultsSize);
+		if (resultsSize <= 0) {
+			return results;
+		}
+
+		PriorityQueue<SortKey> queue = new PriorityQueue<>(Math.max(1, shardResults.size()), this::compareInMerge);
+		for (int shardPosition = 0; shardPosition < shardResults.size(); shardPosition++) {
+			List<ScoredResult> shardResult = shardResults.get(shardPosition);
+			if (!shardResult.isEmpty()) {
+				queue.add(decode(shardResult.getFirst(), shardPosition, 0));
+			}
+		}
+
+		while (results.size() < resultsSize && !queue.isEmpty()) {
+			SortKey top = queue.poll();
+			results.add(top.result);
+
+			List<ScoredResult> shardResult = shardResults.get(top.shardPosition);
+			int nextPosition = top.position + 1;
+			if (nextPosition < shardResult.size()) {
+				SortKey next = decode(shardResult.get(nextPosition), top.shardPosition, nextPosition);
+				if (compare(next, top) < 0) {
+					// a shard returned results out of order for this sort, sort everything instead of merging
+					return sortAll(shardResults, resultsSize);
+				}
+				queue.add(next);
+			}
+		}
+
+		return results;
+	}
+
+	private List<ScoredResult> sortAll(List<List<ScoredResult>> shardResults, int resultsSize) {
+		List<SortKey> sortKeys = new ArrayList<>();
+		for (int shardPosition = 0; shardPosition < shardResults.size(); shardPosition++) {
+			List<ScoredResult> shardResult = shardResults.get(shardPosition);
+			for (int position = 0; position < shardResult.size(); position++) {
+				sortKeys.add(decode(shardResult.get(position), shardPosition, position));
+			}
+		}
+		sortKeys.sort(this::compare);
+
+		List<ScoredResult> results = new ArrayList<>(resultsSize);
+		for (int i = 0; i < Math.min(resultsSize, sortKeys.size()); i++) {
+			results.add(sortKeys.get(i).result);
+		}
+		return results;
+	}
+
+	private SortKey decode(ScoredResult result, int shardPosition, int position) {
+		SortKey sortKey = new SortKey(result, shardPosition, position);
+		if (sortKinds.length == 0) {
+			return sortKey;
+		}
+
+		sortKey.exists = new boolean[sortKinds.length];
+		if (hasNumeric) {
+			sortKey.longValues = new long[sortKinds.length];
+			sortKey.doubleValues = new double[sortKinds.length];
+		}
+		if (hasString) {
+			sortKey.stringValues = new BytesRef[sortKinds.length];
+		}
+
+		SortValues sortValues = result.getSortValues();
+		for (int i = 0; i < sortKinds.length; i++) {
+			if (sortKinds[i] == SortKind.SCORE) {
+				continue;
+			}
+			SortValue sortValue = sortValues.getSortValue(i);
+			sortKey.exists[i] = sortValue.getExists();
+			if (!sortKey.exists[i]) {
+				continue;
+			}
+			switch (sortKinds[i]) {
+				case INT -> sortKey.longValues[i] = sortValue.getIntegerValue();
+				case LONG -> sortKey.longValues[i] = sortValue.getLongValue();
+				case DATE -> sortKey.longValues[i] = sortValue.getDateValue();
+				case FLOAT -> sortKey.doubleValues[i] = sortValue.getFloatValue();
+				case DOUBLE -> sortKey.doubleValues[i] = sortValue.getDoubleValue();
+				case STRING -> sortKey.stringValues[i] = new BytesRef(sortValue.getStringValue());
+			}
+		}
+		return sortKey;
+	}
+
+	private int compareInMerge(SortKey o1, SortKey o2) {
+		int compare = compare(o1, o2);
+		if (compare == 0) {
+			compare = Integer.compare(o1.shardPosition, o2.shardPosition);
+		}
+		return compare;
+	}
+
+	private int compare(SortKey o1, SortKey o2) {
+		if (sortKinds.length == 0) {
+			return compareScore(o1, o2, true);
+		}
+
+		for (int i = 0; i < sortKinds.length; i++) {
+			int compare;
+			if (sortKinds[i] == SortKind.SCORE) {
+				compare = compareScore(o1, o2, descending[i]);
+			}
+			else {
+				boolean exists1 = o1.exists[i];
+				boolean exists2 = o2.exists[i];
+				if (exists1 && exists2) {
+					compare = switch (sortKinds[i]) {
+						case INT, LONG, DATE -> Long.compare(o1.longValues[i], o2.longValues[i]);
+						case FLOAT, DOUBLE -> Double.compare(o1.doubleValues[i], o2.doubleValues[i]);
+						default -> o1.stringValues[i].compareTo(o2.stringValues[i]);
+					};
+				}
+				else if (exists1 == exists2) {
+					compare = 0;
+				}
+				else {
+					// a missing value sorts first unless missing last is requested
+					compare = exists1 != missingLast[i] ? 1 : -1;
+				}
+
+				if (descending[i]) {
+					compare *= -1;
+				}
+			}
+
+			if (compare != 0) {
+				return compare;
+			}
+		}
+		return 0;
+	}
+
+	private static int compareScore(SortKey o1, SortKey o2, boolean descending) {
+		int compare = Double.compare(o1.result.getScore(), o2.result.getScore());
+		if (descending) {
+			compare *= -1;
+		}
+		if (compare == 0) {
+			return Integer.compare(o1.result.getResultIndex(), o2.result.getResultIndex());
+		}
+		return compare;
+	}
+
+	private static class SortKey {
+		private final ScoredResult result;
+		private final int shardPosition;
+		private final int position;
+		private boolean[] exists;
+		private long[] longValues;
+		private double[] doubleValues;
+		private BytesRef[] stringValues;
+
+		private SortKey(ScoredResult result, int shardPosition, int position) {
+			this.result = result;
+			this.shardPosition = shardPosition;
+			this.position = position;
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package io.zulia.server.serde;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public interface AdmissionLimitStatsModifier {
+
+	@JsonIgnore
+	com.google.protobuf.ByteString getNameBytes();
+
+}
@@ -0,0 +1,10 @@
+package io.zulia.server.serde;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public interface IndexSearchExecutorStatsModifier {
+
+	@JsonIgnore
+	com.google.protobuf.ByteString getIndexNameBytes();
+
+}
@@ -18,4 +18,19 @@ public interface NodeStatsModifier {
 	@JsonIgnore
 	com.google.protobuf.ByteString getZuliaVersionBytes();
 
+	@JsonIgnore
+	io.zulia.message.ZuliaBase.FilterCacheStatsOrBuilder getFilterCacheOrBuilder();
+
+	@JsonIgnore
+	io.zulia.message.ZuliaBase.SearchExecutorStatsOrBuilder getSearchExecutorOrBuilder();
+
+	@JsonIgnore
+	java.util.List<? extends io.zulia.message.ZuliaBase.AdmissionLimitStatsOrBuilder> getAdmissionLimitOrBuilderList();
+
+	@JsonIgnore
+	int getAdmissionLimitCount();
+
+	@JsonProperty("admissionLimit")
+	java.util.List<? extends ZuliaBase.AdmissionLimitStats> getAdmissionLimitList();
+
 }
@@ -0,0 +1,17 @@
+package io.zulia.server.serde;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public interface SearchExecutorStatsModifier {
+
+	@JsonIgnore
+	java.util.List<? extends io.zulia.message.ZuliaBase.IndexSearchExecutorStatsOrBuilder> getIndexStatOrBuilderList();
+
+	@JsonProperty("indexStat")
+	java.util.List<? extends io.zulia.message.ZuliaBase.IndexSearchExecutorStats> getIndexStatList();
+
+	@JsonIgnore
+	int getIndexStatCount();
+
+}
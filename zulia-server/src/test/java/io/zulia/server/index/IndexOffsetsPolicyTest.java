@@ -0,0 +1,57 @@
+package io.zulia.server.index;
+
+import io.zulia.message.ZuliaIndex.FieldConfig;
+import io.zulia.message.ZuliaIndex.FieldConfig.FieldType;
+import io.zulia.message.ZuliaIndex.IndexAs;
+import io.zulia.message.ZuliaIndex.IndexSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *  Test that offsets can be chosen for a new indexed field but not turned on or off for one that already exists. (Offsets are written into
+ *  the postings of the indexed documents)
+ */
+public class IndexOffsetsPolicyTest {
+
+	private static FieldConfig field(String name, boolean offsets) {
+		IndexAs indexAs = IndexAs.newBuilder().setIndexFieldName(name).setAnalyzerName("standard").setIndexOffsets(offsets).build();
+		return FieldConfig.newBuilder().setStoredFieldName(name).setFieldType(FieldType.STRING).addIndexAs(indexAs).build();
+	}
+
+	private static IndexSettings settings(FieldConfig... fieldConfigs) {
+		IndexSettings.Builder builder = IndexSettings.newBuilder().setIndexName("x");
+		for (FieldConfig fieldConfig : fieldConfigs) {
+			builder.addFieldConfig(fieldConfig);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void newIndexAndNewFieldsChooseOffsets() {
+		ZuliaIndexManager.validateIndexOffsetsUnchanged(settings(field("a", true), field("b", false)), null);
+
+		IndexSettings existing = settings(field("a", true));
+		ZuliaIndexManager.validateIndexOffsetsUnchanged(settings(field("a", true), field("b", true), field("c", false)), existing);
+	}
+
+	@Test
+	public void existingFieldCannotTurnOffsetsOn() {
+		IndexSettings existing = settings(field("a", false));
+		IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ZuliaIndexManager.validateIndexOffsetsUnchanged(settings(field("a", true)), existing));
+		Assertions.assertTrue(e.getMessage().contains("Cannot change indexOffsets for existing indexed field <a>"), e.getMessage());
+	}
+
+	@Test
+	public void existingFieldCannotTurnOffsetsOff() {
+		IndexSettings existing = settings(field("a", true));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ZuliaIndexManager.validateIndexOffsetsUnchanged(settings(field("a", false)), existing));
+	}
+
+	@Test
+	public void removedFieldCanBeLeftOut() {
+		IndexSettings existing = settings(field("a", true), field("b", false));
+		ZuliaIndexManager.validateIndexOffsetsUnchanged(settings(field("b", false)), existing);
+	}
+}
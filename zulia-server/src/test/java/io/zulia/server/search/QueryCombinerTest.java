@@ -2,6 +2,7 @@ package io.zulia.server.search;
 
 import io.zulia.DefaultAnalyzers;
 import io.zulia.client.command.Store;
+import io.zulia.client.command.UpdateIndex;
 import io.zulia.client.command.builder.Search;
 import io.zulia.client.command.builder.Sort;
 import io.zulia.client.config.ClientIndexConfig;
@@ -9,6 +10,8 @@ import io.zulia.client.pool.ZuliaWorkPool;
 import io.zulia.client.result.SearchResult;
 import io.zulia.doc.ResultDocBuilder;
 import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaQuery.NodeProfile;
+import io.zulia.message.ZuliaQuery.QueryProfile;
 import io.zulia.server.test.node.shared.NodeExtension;
 import org.bson.Document;
 import org.junit.jupiter.api.Assertions;
@@ -18,6 +21,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class QueryCombinerTest {
 
@@ -219,4 +226,58 @@ public class QueryCombinerTest {
 		Assertions.assertTrue(result2.getShardsCached() >= 0);
 		Assertions.assertEquals(SHARD_COUNT, result2.getShardsQueried());
 	}
+
+	@Test
+	@Order(7)
+	public void testShortShardsContinued() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		// each shard is asked for only 10 / 5 = 2 results so the first merge is short and the shards have to be continued
+		zuliaWorkPool.updateIndex(new UpdateIndex(TEST_INDEX).setRequestFactor(1.0).setMinShardRequest(0));
+
+		Search search = new Search(TEST_INDEX);
+		search.addSort(new Sort("rank"));
+		search.setAmount(10);
+		search.setDontCache(true).setProfile(true);
+
+		SearchResult result = zuliaWorkPool.search(search);
+		Assertions.assertEquals(DOC_COUNT, result.getTotalHits());
+		Assertions.assertEquals(10, result.getCompleteResults().size());
+		for (int i = 0; i < 10; i++) {
+			Document doc = result.getCompleteResults().get(i).getDocument();
+			Assertions.assertEquals(i, doc.getInteger("rank"));
+		}
+		assertContinued(result);
+
+		search.setStart(30);
+		result = zuliaWorkPool.search(search);
+		Assertions.assertEquals(DOC_COUNT, result.getTotalHits());
+		Assertions.assertEquals(10, result.getCompleteResults().size());
+		for (int i = 0; i < 10; i++) {
+			Document doc = result.getCompleteResults().get(i).getDocument();
+			Assertions.assertEquals(30 + i, doc.getInteger("rank"));
+		}
+		assertNotRerunFull(result.getProfile());
+	}
+
+	/**
+	 * Asserts the short shards were continued rather than the whole query rerun with fetchFull
+	 */
+	private static void assertContinued(SearchResult result) {
+		QueryProfile profile = result.getProfile();
+		assertNotRerunFull(profile);
+
+		Assertions.assertTrue(profile.getNodeProfileList().stream().anyMatch(p -> p.getPhase().equals("continuation")));
+
+		// the first pass profiles every shard, the continuations only the short shards
+		int continuedShards = profile.getShardProfileCount() - SHARD_COUNT;
+		Assertions.assertTrue(continuedShards > 0);
+		Assertions.assertTrue(continuedShards <= 3 * SHARD_COUNT);
+	}
+
+	private static void assertNotRerunFull(QueryProfile profile) {
+		List<NodeProfile> queryPhase = profile.getNodeProfileList().stream().filter(p -> p.getPhase().equals("query")).toList();
+		Set<String> queriedNodes = queryPhase.stream().map(p -> p.getServerAddress() + ":" + p.getServicePort()).collect(Collectors.toSet());
+		Assertions.assertEquals(queriedNodes.size(), queryPhase.size(), "a fetchFull retry queries every node again");
+	}
 }
@@ -0,0 +1,60 @@
+package io.zulia.server.test.index;
+
+import io.zulia.server.search.BoundedHitCountCollectorManager;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the count after early termination stops at the total hits threshold.
+ */
+public class BoundedHitCountCollectorManagerTest {
+
+	private static final String RANK = "rank";
+
+	@Test
+	public void countStopsAtThreshold() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			for (int i = 0; i < 1000; i++) {
+				Document doc = new Document();
+				doc.add(new SortedNumericDocValuesField(RANK, i));
+				writer.addDocument(doc);
+				if (i % 250 == 249) {
+					writer.commit();
+				}
+			}
+		}
+
+		try (DirectoryReader reader = DirectoryReader.open(dir)) {
+			IndexSearcher indexSearcher = new IndexSearcher(reader);
+
+			// a doc values range has no per segment count so its hits are visited
+			Query range = SortedNumericDocValuesField.newSlowRangeQuery(RANK, 0, 499);
+
+			TotalHits bounded = indexSearcher.search(range, new BoundedHitCountCollectorManager(100));
+			Assertions.assertEquals(TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO, bounded.relation());
+			Assertions.assertEquals(100, bounded.value());
+
+			TotalHits exact = indexSearcher.search(range, new BoundedHitCountCollectorManager(10000));
+			Assertions.assertEquals(TotalHits.Relation.EQUAL_TO, exact.relation());
+			Assertions.assertEquals(500, exact.value());
+
+			// segments counted from their statistics stop the count once it passes the threshold
+			TotalHits matchAll = indexSearcher.search(new MatchAllDocsQuery(), new BoundedHitCountCollectorManager(100));
+			Assertions.assertEquals(TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO, matchAll.relation());
+			Assertions.assertTrue(matchAll.value() >= 100 && matchAll.value() < 1000);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package io.zulia.server.test.index;
+
+import io.zulia.message.ZuliaBase.SearchExecutorStats;
+import io.zulia.server.index.FairSearchExecutor;
+import io.zulia.util.pool.TaskExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests that search tasks are limited by the index quotas and that waiting indexes take turns on the node's search threads
+ */
+public class FairSearchExecutorTest {
+
+	@Test
+	public void quotaLimitsRunningTasks() throws Exception {
+		FairSearchExecutor fairSearchExecutor = new FairSearchExecutor(4, Map.of(), Map.of("limited", 1), 0);
+
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		try (TaskExecutor taskExecutor = fairSearchExecutor.forSearch("limited", 3)) {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				futures.add(taskExecutor.executeAsync(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					Thread.sleep(50);
+					running.decrementAndGet();
+					return null;
+				}));
+			}
+			for (Future<Object> future : futures) {
+				future.get();
+			}
+		}
+		Assertions.assertEquals(1, maxRunning.get());
+
+		SearchExecutorStats stats = fairSearchExecutor.getSearchExecutorStats();
+		Assertions.assertEquals(3, stats.getCompletedCount());
+		Assertions.assertEquals(1, stats.getIndexStat(0).getQuota());
+		fairSearchExecutor.close();
+	}
+
+	@Test
+	public void waitingIndexesTakeTurns() throws Exception {
+		FairSearchExecutor fairSearchExecutor = new FairSearchExecutor(1, Map.of(), Map.of(), 0);
+
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> order = new CopyOnWriteArrayList<>();
+
+		TaskExecutor blocker = fairSearchExecutor.forSearch("heavy", 1);
+		blocker.executeAsync(() -> {
+			blocked.countDown();
+			release.await();
+			return null;
+		});
+		blocked.await();
+
+		// the heavy index queues its tasks first but the light index does not wait behind all of them
+		TaskExecutor heavy = fairSearchExecutor.forSearch("heavy", 4);
+		TaskExecutor light = fairSearchExecutor.forSearch("light", 2);
+		for (int i = 0; i < 4; i++) {
+			String name = "heavy" + i;
+			heavy.executeAsync(() -> order.add(name));
+		}
+		for (int i = 0; i < 2; i++) {
+			String name = "light" + i;
+			light.executeAsync(() -> order.add(name));
+		}
+		Assertions.assertEquals(6, fairSearchExecutor.getSearchExecutorStats().getQueued());
+
+		release.countDown();
+		blocker.close();
+		heavy.close();
+		light.close();
+
+		Assertions.assertEquals(6, order.size());
+		Assertions.assertTrue(order.indexOf("light1") < order.indexOf("heavy2"), order.toString());
+		fairSearchExecutor.close();
+	}
+
+	@Test
+	public void closeWaitsForTasks() throws Exception {
+		FairSearchExecutor fairSearchExecutor = new FairSearchExecutor(2, Map.of(), Map.of(), 0);
+
+		AtomicBoolean finished = new AtomicBoolean();
+		TaskExecutor taskExecutor = fairSearchExecutor.forSearch("index", 2);
+		taskExecutor.executeAsync(() -> {
+			Thread.sleep(100);
+			finished.set(true);
+			return null;
+		});
+		taskExecutor.close();
+		Assertions.assertTrue(finished.get());
+		fairSearchExecutor.close();
+	}
+}
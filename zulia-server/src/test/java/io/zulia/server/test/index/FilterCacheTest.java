@@ -0,0 +1,67 @@
+package io.zulia.server.test.index;
+
+import io.zulia.message.ZuliaBase;
+import io.zulia.server.index.FilterCache;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a filter reused with different scored queries is cached per segment once it has been used repeatedly, and that the node
+ * level stats reflect it.
+ */
+public class FilterCacheTest {
+
+	@Test
+	public void repeatedFilterIsCached() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			for (int i = 0; i < 200; i++) {
+				Document doc = new Document();
+				doc.add(new StringField("color", i % 2 == 0 ? "red" : "blue", Field.Store.NO));
+				doc.add(new StringField("size", i % 3 == 0 ? "small" : "large", Field.Store.NO));
+				doc.add(new IntPoint("rank", i));
+				writer.addDocument(doc);
+			}
+			writer.commit();
+		}
+
+		FilterCache filterCache = new FilterCache(100, 1024 * 1024, 0);
+		Query filter = IntPoint.newRangeQuery("rank", 0, 99);
+
+		try (DirectoryReader reader = DirectoryReader.open(dir)) {
+			String[][] scoredTerms = new String[][] { { "color", "red" }, { "color", "blue" }, { "size", "small" }, { "size", "large" } };
+			int[] expected = new int[] { 50, 50, 34, 66 };
+			for (int i = 0; i < scoredTerms.length; i++) {
+				IndexSearcher indexSearcher = new IndexSearcher(reader);
+				filterCache.apply(indexSearcher);
+
+				BooleanQuery.Builder query = new BooleanQuery.Builder();
+				query.add(new TermQuery(new Term(scoredTerms[i][0], scoredTerms[i][1])), BooleanClause.Occur.MUST);
+				query.add(filter, BooleanClause.Occur.FILTER);
+				Assertions.assertEquals(expected[i], indexSearcher.search(query.build(), 10).totalHits.value());
+			}
+		}
+
+		ZuliaBase.FilterCacheStats stats = filterCache.getFilterCacheStats();
+		Assertions.assertTrue(stats.getHitCount() > 0);
+		Assertions.assertEquals(1, stats.getCacheSize());
+		Assertions.assertTrue(stats.getRamBytesUsed() > 0);
+		Assertions.assertEquals(1024 * 1024, stats.getMaxRamBytes());
+	}
+}
@@ -0,0 +1,73 @@
+package io.zulia.server.test.index;
+
+import io.zulia.message.ZuliaIndex.FieldConfig.FieldType;
+import io.zulia.server.config.SortFieldInfo;
+import io.zulia.server.field.FieldTypeUtil;
+import io.zulia.server.search.SortFieldUtil;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopFieldCollectorManager;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a query sorted by the index sort stops collecting each segment early while returning the same top hits, and that only a
+ * prefix of the index sort is treated as matching it.
+ */
+public class IndexSortTest {
+
+	private static final SortFieldInfo RANK = new SortFieldInfo(FieldTypeUtil.getSortField("rank", FieldType.NUMERIC_INT), FieldType.NUMERIC_INT,
+			null);
+
+	@Test
+	public void sortedQueryTerminatesEarly() throws Exception {
+		Sort indexSort = new Sort(SortFieldUtil.getSortField(RANK, "rank", false, false));
+
+		Directory dir = new ByteBuffersDirectory();
+		IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer());
+		config.setIndexSort(indexSort);
+		try (IndexWriter writer = new IndexWriter(dir, config)) {
+			for (int i = 0; i < 1000; i++) {
+				Document doc = new Document();
+				// written out of order so the index sort has to reorder them
+				doc.add(new SortedNumericDocValuesField(RANK.getInternalSortFieldName(), (i * 7919) % 1000));
+				writer.addDocument(doc);
+				if (i % 250 == 249) {
+					writer.commit();
+				}
+			}
+		}
+
+		try (DirectoryReader reader = DirectoryReader.open(dir)) {
+			IndexSearcher indexSearcher = new IndexSearcher(reader);
+
+			Sort querySort = new Sort(SortFieldUtil.getSortField(RANK, "rank", false, false));
+			Assertions.assertTrue(SortFieldUtil.isIndexSortPrefix(querySort, indexSort));
+
+			TopFieldDocs topFieldDocs = indexSearcher.search(new MatchAllDocsQuery(), new TopFieldCollectorManager(querySort, 10, null, 10));
+			Assertions.assertEquals(TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO, topFieldDocs.totalHits.relation());
+			Assertions.assertTrue(topFieldDocs.totalHits.value() < 1000);
+			for (int i = 0; i < 10; i++) {
+				Assertions.assertEquals(i, ((Number) ((FieldDoc) topFieldDocs.scoreDocs[i]).fields[0]).intValue());
+			}
+
+			Assertions.assertEquals(1000, indexSearcher.count(new MatchAllDocsQuery()));
+		}
+
+		Sort reversed = new Sort(SortFieldUtil.getSortField(RANK, "rank", true, false));
+		Assertions.assertFalse(SortFieldUtil.isIndexSortPrefix(reversed, indexSort));
+		Assertions.assertFalse(SortFieldUtil.isIndexSortPrefix(reversed, null));
+	}
+}
@@ -0,0 +1,79 @@
+package io.zulia.server.test.index;
+
+import io.zulia.message.ZuliaQuery.Query.Operator;
+import io.zulia.server.index.ParsedQueryCache;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests that parsed queries are reused only for the same query text, parser settings and index config
+ */
+public class ParsedQueryCacheTest {
+
+	private static Query parse(ParsedQueryCache parsedQueryCache, String queryText, int minimumShouldMatch, Operator operator, List<String> fields,
+			AtomicInteger parseCount) throws Exception {
+		return parsedQueryCache.getQuery(queryText, minimumShouldMatch, operator, fields, () -> {
+			parseCount.incrementAndGet();
+			return new TermQuery(new Term(fields.getFirst(), queryText));
+		});
+	}
+
+	@Test
+	public void reusesParsedQuery() throws Exception {
+		ParsedQueryCache parsedQueryCache = new ParsedQueryCache(100);
+		AtomicInteger parseCount = new AtomicInteger();
+
+		Query first = parse(parsedQueryCache, "red", 0, Operator.OR, List.of("title"), parseCount);
+		Query second = parse(parsedQueryCache, "red", 0, Operator.OR, List.of("title"), parseCount);
+		Assertions.assertSame(first, second);
+		Assertions.assertEquals(1, parseCount.get());
+
+		parse(parsedQueryCache, "blue", 0, Operator.OR, List.of("title"), parseCount);
+		parse(parsedQueryCache, "red", 1, Operator.OR, List.of("title"), parseCount);
+		parse(parsedQueryCache, "red", 0, Operator.AND, List.of("title"), parseCount);
+		parse(parsedQueryCache, "red", 0, Operator.OR, List.of("title", "body"), parseCount);
+		Assertions.assertEquals(5, parseCount.get());
+	}
+
+	@Test
+	public void invalidatedOnConfigChange() throws Exception {
+		ParsedQueryCache parsedQueryCache = new ParsedQueryCache(100);
+		AtomicInteger parseCount = new AtomicInteger();
+
+		Query first = parse(parsedQueryCache, "red", 0, Operator.OR, List.of("title"), parseCount);
+		parsedQueryCache.invalidate();
+		Query second = parse(parsedQueryCache, "red", 0, Operator.OR, List.of("title"), parseCount);
+		Assertions.assertNotSame(first, second);
+		Assertions.assertEquals(2, parseCount.get());
+	}
+
+	@Test
+	public void failuresAreNotCached() {
+		ParsedQueryCache parsedQueryCache = new ParsedQueryCache(100);
+		AtomicInteger parseCount = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			Assertions.assertThrows(IllegalArgumentException.class, () -> parsedQueryCache.getQuery("title:(", 0, Operator.OR, List.of("title"), () -> {
+				parseCount.incrementAndGet();
+				throw new IllegalArgumentException("Invalid Query");
+			}));
+		}
+		Assertions.assertEquals(2, parseCount.get());
+	}
+
+	@Test
+	public void disabled() throws Exception {
+		ParsedQueryCache parsedQueryCache = new ParsedQueryCache(0);
+		AtomicInteger parseCount = new AtomicInteger();
+
+		parse(parsedQueryCache, "red", 0, Operator.OR, List.of("title"), parseCount);
+		parse(parsedQueryCache, "red", 0, Operator.OR, List.of("title"), parseCount);
+		Assertions.assertEquals(2, parseCount.get());
+	}
+}
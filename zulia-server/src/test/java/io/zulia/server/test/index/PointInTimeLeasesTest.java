@@ -0,0 +1,74 @@
+package io.zulia.server.test.index;
+
+import io.zulia.server.exceptions.PointInTimeDoesNotExistException;
+import io.zulia.server.index.PointInTimeLease;
+import io.zulia.server.index.PointInTimeLeases;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests that only the first page of a point in time creates its lease, and that concurrent first pages cannot create more leases than the
+ * node allows.
+ */
+public class PointInTimeLeasesTest {
+
+	@Test
+	public void unknownLeaseIsNotCreated() throws Exception {
+		PointInTimeLeases pointInTimeLeases = new PointInTimeLeases(10, 60_000);
+		try {
+			Assertions.assertThrows(PointInTimeDoesNotExistException.class, () -> pointInTimeLeases.getLease("unknown", 0));
+			Assertions.assertNull(pointInTimeLeases.findLease("unknown", 0));
+			Assertions.assertEquals(0, pointInTimeLeases.getLeaseCount());
+
+			PointInTimeLease created = pointInTimeLeases.createLease("known", 1000);
+			Assertions.assertSame(created, pointInTimeLeases.createLease("known", 0));
+			Assertions.assertSame(created, pointInTimeLeases.getLease("known", 2000));
+			Assertions.assertEquals(2000, created.getKeepAliveMs());
+			Assertions.assertEquals(1, pointInTimeLeases.getLeaseCount());
+		}
+		finally {
+			pointInTimeLeases.close();
+		}
+	}
+
+	@Test
+	public void concurrentCreatesStayUnderMax() throws Exception {
+		int maxLeases = 5;
+		PointInTimeLeases pointInTimeLeases = new PointInTimeLeases(maxLeases, 60_000);
+		try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<PointInTimeLease>> creates = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				String id = "pit" + i;
+				creates.add(executorService.submit(() -> {
+					start.await();
+					return pointInTimeLeases.createLease(id, 0);
+				}));
+			}
+			start.countDown();
+
+			int created = 0;
+			for (Future<PointInTimeLease> create : creates) {
+				try {
+					create.get();
+					created++;
+				}
+				catch (Exception e) {
+					Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+				}
+			}
+			Assertions.assertEquals(maxLeases, created);
+			Assertions.assertEquals(maxLeases, pointInTimeLeases.getLeaseCount());
+		}
+		finally {
+			pointInTimeLeases.close();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package io.zulia.server.test.index;
+
+import io.zulia.util.FieldAndSubFields;
+import io.zulia.util.RawDocumentFilter;
+import io.zulia.util.ZuliaUtil;
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests that filtering the stored bson bytes keeps the same fields as decoding the document and filtering it
+ */
+public class RawDocumentFilterTest {
+
+	private static Document createDocument() {
+		Document document = new Document();
+		document.put("title", "a title");
+		document.put("rank", 7);
+		document.put("count", 7L);
+		document.put("score", 1.5);
+		document.put("flag", true);
+		document.put("empty", null);
+		document.put("date", new Date(1234567890L));
+		document.put("id", new ObjectId("5f1d7a3e2b3c4d5e6f708192"));
+		document.put("bytes", new Binary(new byte[] { 1, 2, 3 }));
+		document.put("decimal", Decimal128.parse("12.34"));
+		document.put("regex", new BsonRegularExpression("a.*b", "i"));
+		document.put("tags", List.of("x", "y"));
+		document.put("author", new Document("first", "Jane").append("last", "Doe").append("address", new Document("city", "Town").append("zip", "12345")));
+		document.put("sections",
+				List.of(new Document("name", "intro").append("text", "one"), "not a document", List.of(new Document("name", "nested").append("text", "two"))));
+		return document;
+	}
+
+	private static final List<List<String>> FIELDS = List.of(List.of(), List.of("title"), List.of("title", "rank", "missing"), List.of("author"),
+			List.of("author.first"), List.of("author.address.city"), List.of("author", "author.last"), List.of("sections.name"),
+			List.of("sections.text", "title"), List.of("regex", "decimal", "bytes", "id", "date", "empty"), List.of("tags.value"));
+
+	@Test
+	public void matchesDecodedFilter() {
+		byte[] bson = ZuliaUtil.mongoDocumentToByteArray(createDocument());
+
+		for (List<String> returnFields : FIELDS) {
+			for (List<String> maskFields : FIELDS) {
+				Document expected = createDocument();
+				ZuliaUtil.filterDocument(expected, returnFields, maskFields);
+
+				byte[] filtered = RawDocumentFilter.filterDocument(bson, new FieldAndSubFields(returnFields), new FieldAndSubFields(maskFields));
+				Assertions.assertEquals(expected, ZuliaUtil.byteArrayToMongoDocument(filtered), "return " + returnFields + " mask " + maskFields);
+			}
+		}
+	}
+
+	@Test
+	public void unfilteredIsCopied() {
+		byte[] bson = ZuliaUtil.mongoDocumentToByteArray(createDocument());
+		Assertions.assertArrayEquals(bson, RawDocumentFilter.filterDocument(bson, FieldAndSubFields.NO_FIELDS, FieldAndSubFields.NO_FIELDS));
+	}
+}
@@ -0,0 +1,87 @@
+package io.zulia.server.test.index;
+
+import io.zulia.server.index.ScoredDocLeafHandler;
+import io.zulia.util.pool.SemaphoreLimitedVirtualPool;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests that handling the hits of a page in chunks on an executor returns the same results in the same order as handling them on one thread
+ */
+public class ScoredDocLeafHandlerTest {
+
+	private static class ValueLeafHandler extends ScoredDocLeafHandler<Long> {
+
+		private NumericDocValues values;
+
+		@Override
+		protected void handleNewLeaf(LeafReaderContext currentLeaf) throws IOException {
+			values = currentLeaf.reader().getNumericDocValues("value");
+		}
+
+		@Override
+		protected Long handleDocument(LeafReaderContext currentLeaf, int docId, int docBase, ScoreDoc scoreDoc) throws IOException {
+			// doc values only advance forward so this also checks each handler sees its documents in doc id order
+			if (!values.advanceExact(docId - docBase)) {
+				throw new IOException("Missing value for " + docId);
+			}
+			return values.longValue();
+		}
+	}
+
+	@Test
+	public void concurrentMatchesSerial() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			for (int i = 0; i < 1000; i++) {
+				Document doc = new Document();
+				doc.add(new NumericDocValuesField("value", i * 7L));
+				writer.addDocument(doc);
+				if (i % 150 == 0) {
+					// several segments so chunks cross leaves
+					writer.commit();
+				}
+			}
+			writer.commit();
+		}
+
+		try (DirectoryReader reader = DirectoryReader.open(dir); SemaphoreLimitedVirtualPool executor = new SemaphoreLimitedVirtualPool(4)) {
+			Assertions.assertTrue(reader.leaves().size() > 1);
+
+			List<ScoreDoc> hits = new ArrayList<>();
+			for (int docId = 0; docId < reader.maxDoc(); docId += 2) {
+				hits.add(new ScoreDoc(docId, 1.0f));
+			}
+			// hits come in score order, not doc id order
+			Collections.shuffle(hits, new Random(1234));
+			ScoreDoc[] scoreDocs = hits.toArray(new ScoreDoc[0]);
+
+			Long[] serial = new ValueLeafHandler().handle(reader, scoreDocs, Long[]::new);
+			for (int concurrency : new int[] { 1, 2, 3, 8 }) {
+				Long[] concurrent = ScoredDocLeafHandler.handleConcurrently(ValueLeafHandler::new, reader, scoreDocs, Long[]::new, executor, concurrency, 50);
+				Assertions.assertArrayEquals(serial, concurrent);
+			}
+
+			for (int i = 0; i < scoreDocs.length; i++) {
+				Assertions.assertEquals(scoreDocs[i].doc * 7L, serial[i]);
+			}
+		}
+	}
+}
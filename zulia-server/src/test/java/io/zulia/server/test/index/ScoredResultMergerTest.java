@@ -0,0 +1,70 @@
+package io.zulia.server.test.index;
+
+import io.zulia.ZuliaFieldConstants;
+import io.zulia.message.ZuliaIndex.FieldConfig.FieldType;
+import io.zulia.message.ZuliaQuery.FieldSort;
+import io.zulia.message.ZuliaQuery.ScoredResult;
+import io.zulia.message.ZuliaQuery.SortValue;
+import io.zulia.message.ZuliaQuery.SortValues;
+import io.zulia.server.search.score.ScoredResultMerger;
+import io.zulia.server.search.score.ZuliaPostSortingComparator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests that the heap merge of sorted shard results returns the same results in the same order as sorting all of them
+ */
+public class ScoredResultMergerTest {
+
+	private static final int SHARDS = 7;
+
+	@Test
+	public void scoreMerge() {
+		assertMergeMatchesSort(List.of(), Map.of());
+	}
+
+	@Test
+	public void fieldSortMerge() {
+		List<FieldSort> fieldSortList = List.of(FieldSort.newBuilder().setSortField("rank").setMissingLast(true).build(),
+				FieldSort.newBuilder().setSortField("title").setDirection(FieldSort.Direction.DESCENDING).build(),
+				FieldSort.newBuilder().setSortField(ZuliaFieldConstants.SCORE_FIELD).setDirection(FieldSort.Direction.DESCENDING).build());
+		assertMergeMatchesSort(fieldSortList, Map.of("rank", FieldType.NUMERIC_INT, "title", FieldType.STRING));
+	}
+
+	private void assertMergeMatchesSort(List<FieldSort> fieldSortList, Map<String, FieldType> sortTypeMap) {
+		Comparator<ScoredResult> comparator = new ZuliaPostSortingComparator(fieldSortList, sortTypeMap);
+		Random random = new Random(1234);
+
+		List<List<ScoredResult>> shardResults = new ArrayList<>();
+		List<ScoredResult> all = new ArrayList<>();
+		for (int shard = 0; shard < SHARDS; shard++) {
+			List<ScoredResult> shardResult = new ArrayList<>();
+			int count = random.nextInt(50);
+			for (int i = 0; i < count; i++) {
+				SortValues.Builder sortValues = SortValues.newBuilder();
+				// few distinct values so ties across shards are common
+				int rank = random.nextInt(10);
+				sortValues.addSortValue(rank == 0 ? SortValue.newBuilder().setExists(false) : SortValue.newBuilder().setExists(true).setIntegerValue(rank));
+				sortValues.addSortValue(SortValue.newBuilder().setExists(true).setStringValue("title" + random.nextInt(5)));
+				sortValues.addSortValue(SortValue.newBuilder().setExists(false));
+				shardResult.add(ScoredResult.newBuilder().setUniqueId(shard + "-" + i).setShard(shard).setScore(random.nextInt(20) / 4f)
+						.setSortValues(sortValues).build());
+			}
+			shardResult.sort(comparator);
+			shardResults.add(shardResult);
+			all.addAll(shardResult);
+		}
+		all.sort(comparator);
+
+		ScoredResultMerger merger = new ScoredResultMerger(fieldSortList, sortTypeMap);
+		for (int resultsSize : new int[] { 0, 1, 10, all.size() }) {
+			Assertions.assertEquals(all.subList(0, resultsSize), merger.merge(shardResults, resultsSize));
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package io.zulia.server.test.index;
+
+import io.zulia.message.ZuliaBase;
+import io.zulia.message.ZuliaIndex.IndexSettings;
+import io.zulia.message.ZuliaQuery.FetchType;
+import io.zulia.message.ZuliaQuery.ShardQueryResponse;
+import io.zulia.message.ZuliaServiceOuterClass.QueryRequest;
+import io.zulia.server.config.ServerIndexConfig;
+import io.zulia.server.index.NodeQueryCache;
+import io.zulia.server.index.ShardQueryCache;
+import io.zulia.server.index.ShardQueryCache.ReaderState;
+import io.zulia.server.search.QueryCacheKey;
+import io.zulia.server.search.ShardQuery;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests that cached shard query results survive a reader refresh only when the segments they were computed on are unchanged, and that
+ * rewarming recomputes the hottest results against the new reader before it is used.  Also tests that the node byte budget is shared fairly
+ * between indexes and that a cancelled search does not fail the identical searches waiting on it.
+ */
+public class ShardQueryCacheTest {
+
+	private static void addDoc(IndexWriter writer, String id) throws Exception {
+		Document doc = new Document();
+		doc.add(new StringField("id", id, Field.Store.YES));
+		writer.addDocument(doc);
+	}
+
+	private static ShardQueryCache cache(NodeQueryCache nodeQueryCache, String indexName, int rewarmCount) {
+		IndexSettings indexSettings = IndexSettings.newBuilder().setIndexName(indexName).setShardQueryCacheSize(16)
+				.setShardQueryCacheRewarmCount(rewarmCount).build();
+		return new ShardQueryCache(nodeQueryCache, new ServerIndexConfig(indexSettings), 0);
+	}
+
+	private static ShardQueryCache cache(int rewarmCount) {
+		return cache(new NodeQueryCache(1024 * 1024), "x", rewarmCount);
+	}
+
+	private static QueryCacheKey key(int id) {
+		return new QueryCacheKey(QueryRequest.newBuilder().addIndex("x").setStart(id).build());
+	}
+
+	private static ShardQuery shardQuery() {
+		return ShardQuery.queryById("1", FetchType.NONE, List.of(), List.of(), false);
+	}
+
+	@Test
+	public void carriedForwardOnlyWhenSegmentsUnchanged() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			addDoc(writer, "1");
+			writer.commit();
+
+			ShardQueryCache shardQueryCache = cache(0);
+			AtomicInteger executions = new AtomicInteger();
+			ShardQueryCache.ShardQueryExecutor executor = sq -> ShardQueryResponse.newBuilder().setTotalHits(executions.incrementAndGet()).build();
+
+			DirectoryReader first = DirectoryReader.open(dir);
+			ReaderState firstState = ReaderState.of(first);
+			Assertions.assertEquals(1, shardQueryCache.get(key(1), shardQuery(), firstState, executor).getTotalHits());
+			Assertions.assertEquals(1, shardQueryCache.getIfPresent(key(1), firstState).getTotalHits());
+			Assertions.assertEquals(1, executions.get());
+
+			// a commit that only changes the commit data produces a new reader that shares every segment
+			writer.setLiveCommitData(Map.of("k", "v").entrySet());
+			writer.commit();
+			DirectoryReader second = DirectoryReader.openIfChanged(first);
+			Assertions.assertNotNull(second);
+			ReaderState secondState = ReaderState.of(second);
+			Assertions.assertNotEquals(firstState.version(), secondState.version());
+			shardQueryCache.readerRefreshed(secondState, executor);
+
+			Assertions.assertEquals(1, shardQueryCache.getIfPresent(key(1), secondState).getTotalHits());
+			Assertions.assertEquals(1, executions.get());
+
+			addDoc(writer, "2");
+			writer.commit();
+			DirectoryReader third = DirectoryReader.openIfChanged(second);
+			Assertions.assertNotNull(third);
+			ReaderState thirdState = ReaderState.of(third);
+			shardQueryCache.readerRefreshed(thirdState, executor);
+
+			Assertions.assertNull(shardQueryCache.getIfPresent(key(1), thirdState));
+			Assertions.assertEquals(2, shardQueryCache.get(key(1), shardQuery(), thirdState, executor).getTotalHits());
+
+			ZuliaBase.CacheStats stats = shardQueryCache.getShardCacheStats().getGeneralCache();
+			Assertions.assertEquals(1, stats.getCarriedForwardCount());
+			Assertions.assertEquals(0, stats.getRewarmCount());
+
+			first.close();
+			second.close();
+			third.close();
+		}
+	}
+
+	@Test
+	public void hotQueriesRewarmedBeforeUse() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			addDoc(writer, "1");
+			writer.commit();
+
+			ShardQueryCache shardQueryCache = cache(1);
+			AtomicInteger executions = new AtomicInteger();
+			ShardQueryCache.ShardQueryExecutor executor = sq -> ShardQueryResponse.newBuilder().setTotalHits(executions.incrementAndGet()).build();
+
+			DirectoryReader first = DirectoryReader.open(dir);
+			ReaderState firstState = ReaderState.of(first);
+			shardQueryCache.get(key(1), shardQuery(), firstState, executor);
+			Assertions.assertEquals(1, executions.get());
+
+			addDoc(writer, "2");
+			writer.commit();
+			DirectoryReader second = DirectoryReader.openIfChanged(first);
+			ReaderState secondState = ReaderState.of(second);
+			shardQueryCache.readerRefreshed(secondState, executor);
+			Assertions.assertEquals(2, executions.get());
+
+			Assertions.assertEquals(2, shardQueryCache.getIfPresent(key(1), secondState).getTotalHits());
+			Assertions.assertEquals(2, executions.get());
+			Assertions.assertEquals(1, shardQueryCache.getShardCacheStats().getGeneralCache().getRewarmCount());
+
+			first.close();
+			second.close();
+		}
+	}
+
+	@Test
+	public void rewarmedResultHeldToNodeBudget() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			addDoc(writer, "1");
+			writer.commit();
+
+			ShardQueryResponse small = ShardQueryResponse.newBuilder().setIndexName("x".repeat(100)).build();
+			long entryBytes = key(1).getSize() + small.getSerializedSize();
+			ShardQueryResponse large = ShardQueryResponse.newBuilder().setIndexName("x".repeat((int) (20 * entryBytes))).build();
+
+			NodeQueryCache nodeQueryCache = new NodeQueryCache(10 * entryBytes);
+			ShardQueryCache shardQueryCache = cache(nodeQueryCache, "x", 1);
+			AtomicInteger executions = new AtomicInteger();
+			ShardQueryCache.ShardQueryExecutor executor = sq -> executions.incrementAndGet() == 1 ? small : large;
+
+			DirectoryReader first = DirectoryReader.open(dir);
+			ReaderState firstState = ReaderState.of(first);
+			shardQueryCache.get(key(1), shardQuery(), firstState, executor);
+			Assertions.assertEquals(entryBytes, nodeQueryCache.getIndexBytes("x"));
+
+			// the rewarmed result no longer fits the budget so the entry is dropped instead of replaced
+			addDoc(writer, "2");
+			writer.commit();
+			DirectoryReader second = DirectoryReader.openIfChanged(first);
+			ReaderState secondState = ReaderState.of(second);
+			shardQueryCache.readerRefreshed(secondState, executor);
+			Assertions.assertEquals(2, executions.get());
+
+			Assertions.assertNull(shardQueryCache.getIfPresent(key(1), secondState));
+			ZuliaBase.CacheStats stats = shardQueryCache.getShardCacheStats().getGeneralCache();
+			Assertions.assertEquals(0, stats.getRewarmCount());
+			Assertions.assertEquals(1, stats.getRejectedCount());
+			Assertions.assertEquals(0, nodeQueryCache.getIndexBytes("x"));
+
+			first.close();
+			second.close();
+		}
+	}
+
+	@Test
+	public void nodeBudgetSharedBetweenIndexes() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			addDoc(writer, "1");
+			writer.commit();
+
+			ShardQueryResponse response = ShardQueryResponse.newBuilder().setIndexName("x".repeat(100)).build();
+			long entryBytes = key(1).getSize() + response.getSerializedSize();
+
+			NodeQueryCache nodeQueryCache = new NodeQueryCache(10 * entryBytes);
+			ShardQueryCache first = cache(nodeQueryCache, "first", 0);
+			ShardQueryCache second = cache(nodeQueryCache, "second", 0);
+			ShardQueryCache.ShardQueryExecutor executor = sq -> response;
+
+			try (DirectoryReader reader = DirectoryReader.open(dir)) {
+				ReaderState readerState = ReaderState.of(reader);
+
+				// the only index using the cache may use all of it
+				for (int i = 1; i <= 5; i++) {
+					first.get(key(i), shardQuery(), readerState, executor);
+				}
+				Assertions.assertEquals(5 * entryBytes, nodeQueryCache.getIndexBytes("first"));
+				Assertions.assertEquals(10 * entryBytes, nodeQueryCache.getFairShareBytes("first"));
+
+				for (int i = 1; i <= 5; i++) {
+					second.get(key(i), shardQuery(), readerState, executor);
+				}
+				Assertions.assertEquals(10 * entryBytes, nodeQueryCache.getUsedBytes());
+				Assertions.assertEquals(5 * entryBytes, nodeQueryCache.getFairShareBytes("first"));
+
+				// the cache is full and the first index is at its share, so its new result is not cached in place of the second index results
+				first.get(key(6), shardQuery(), readerState, executor);
+				Assertions.assertNull(first.getIfPresent(key(6), readerState));
+				Assertions.assertEquals(1, first.getShardCacheStats().getGeneralCache().getRejectedCount());
+				Assertions.assertEquals(5 * entryBytes, nodeQueryCache.getIndexBytes("first"));
+				for (int i = 1; i <= 5; i++) {
+					Assertions.assertNotNull(second.getIfPresent(key(i), readerState));
+				}
+				Assertions.assertEquals(5 * entryBytes, second.getShardCacheStats().getGeneralCache().getResultSize());
+
+				// unloading a shard releases its share of the budget
+				second.close();
+				Assertions.assertEquals(0, nodeQueryCache.getIndexBytes("second"));
+				Assertions.assertEquals(5 * entryBytes, nodeQueryCache.getUsedBytes());
+			}
+		}
+	}
+
+	@Test
+	public void waiterSearchesWhenComputingSearchIsCancelled() throws Exception {
+		Directory dir = new ByteBuffersDirectory();
+		try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+			addDoc(writer, "1");
+			writer.commit();
+
+			ShardQueryCache shardQueryCache = cache(0);
+			CountDownLatch computing = new CountDownLatch(1);
+			CountDownLatch cancel = new CountDownLatch(1);
+			ShardQueryCache.ShardQueryExecutor cancelledExecutor = sq -> {
+				computing.countDown();
+				cancel.await();
+				throw new CancellationException("Search was cancelled");
+			};
+			ShardQueryCache.ShardQueryExecutor executor = sq -> ShardQueryResponse.newBuilder().setTotalHits(1).build();
+
+			try (DirectoryReader reader = DirectoryReader.open(dir); ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+				ReaderState readerState = ReaderState.of(reader);
+
+				Future<ShardQueryResponse> cancelled = executorService.submit(
+						() -> shardQueryCache.get(key(1), shardQuery(), readerState, cancelledExecutor));
+				computing.await();
+
+				Thread[] waiterThread = new Thread[1];
+				CountDownLatch waiterStarted = new CountDownLatch(1);
+				Future<ShardQueryResponse> waiter = executorService.submit(() -> {
+					waiterThread[0] = Thread.currentThread();
+					waiterStarted.countDown();
+					return shardQueryCache.get(key(1), shardQuery(), readerState, executor);
+				});
+				waiterStarted.await();
+				// wait for the identical search to block on the in flight computation before cancelling it
+				while (waiterThread[0].getState() != Thread.State.WAITING) {
+					Thread.sleep(1);
+				}
+				cancel.countDown();
+
+				Exception e = Assertions.assertThrows(Exception.class, cancelled::get);
+				Assertions.assertInstanceOf(CancellationException.class, e.getCause());
+				Assertions.assertEquals(1, waiter.get().getTotalHits());
+				Assertions.assertEquals(1, shardQueryCache.getIfPresent(key(1), readerState).getTotalHits());
+			}
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.CompleteResult;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaBase;
+import io.zulia.message.ZuliaQuery.FetchType;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CompressedDocumentsTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String COMPRESSED_DOCUMENTS_TEST = "compressedDocumentsTest";
+
+	private static final int docCount = 20;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.setIndexName(COMPRESSED_DOCUMENTS_TEST);
+		indexConfig.setNumberOfShards(2);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "document " + i);
+			mongoDocument.put("rank", i);
+			mongoDocument.put("body", "some longer text that compresses ".repeat(10));
+
+			Store s = new Store(String.valueOf(i), COMPRESSED_DOCUMENTS_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument).setMetadata(new Document("source", "test" + i)));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void compressedMatchesUncompressed() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(COMPRESSED_DOCUMENTS_TEST).setAmount(docCount).setResultFetchType(FetchType.ALL).addSort(new Sort("rank"));
+		SearchResult uncompressed = zuliaWorkPool.search(search);
+		SearchResult compressed = zuliaWorkPool.search(search.setCompressedDocuments(true));
+
+		List<CompleteResult> uncompressedResults = uncompressed.getCompleteResults();
+		List<CompleteResult> compressedResults = compressed.getCompleteResults();
+		Assertions.assertEquals(docCount, compressedResults.size());
+		for (int i = 0; i < docCount; i++) {
+			Assertions.assertEquals(uncompressedResults.get(i).getDocument(), compressedResults.get(i).getDocument());
+			Assertions.assertEquals(uncompressedResults.get(i).getMetadata(), compressedResults.get(i).getMetadata());
+			Assertions.assertEquals("test" + i, compressedResults.get(i).getMetadata().getString("source"));
+		}
+
+		Assertions.assertEquals(ZuliaBase.DocumentCodec.UNCOMPRESSED, uncompressed.getResults().getFirst().getResultDocument().getDocumentCodec());
+		Assertions.assertEquals(ZuliaBase.DocumentCodec.SNAPPY, compressed.getResults().getFirst().getResultDocument().getDocumentCodec());
+		Assertions.assertTrue(compressed.getResults().getFirst().getResultDocument().getDocument().size() < uncompressed.getResults().getFirst()
+				.getResultDocument().getDocument().size());
+		Assertions.assertEquals(uncompressed.getDocuments(), compressed.getDocuments());
+	}
+
+	@Test
+	@Order(4)
+	public void filteredDocumentsAreDecompressed() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(COMPRESSED_DOCUMENTS_TEST).setAmount(docCount).addDocumentField("title").setCompressedDocuments(true);
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		Assertions.assertEquals(ZuliaBase.DocumentCodec.UNCOMPRESSED, searchResult.getResults().getFirst().getResultDocument().getDocumentCodec());
+		for (CompleteResult completeResult : searchResult.getCompleteResults()) {
+			Assertions.assertNotNull(completeResult.getDocument().getString("title"));
+			Assertions.assertNull(completeResult.getDocument().get("body"));
+		}
+	}
+}
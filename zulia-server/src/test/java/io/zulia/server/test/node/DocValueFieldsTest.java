@@ -0,0 +1,143 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.CompleteResult;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaQuery.FetchType;
+import io.zulia.message.ZuliaQuery.SortValue;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Date;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class DocValueFieldsTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String DOC_VALUE_FIELDS_TEST = "docValueFieldsTest";
+
+	private static final int docCount = 20;
+
+	private static final long baseTime = 1700000000000L;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("code").indexAs(DefaultAnalyzers.LC_KEYWORD).sort());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("tag").indexAs(DefaultAnalyzers.LC_KEYWORD).sort());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createDouble("rating").index().sort());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createDate("added").index().sort());
+		indexConfig.setIndexName(DOC_VALUE_FIELDS_TEST);
+		indexConfig.setNumberOfShards(2);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "document " + i);
+			mongoDocument.put("code", "c" + i);
+			mongoDocument.put("tag", List.of("a" + i, "b" + i));
+			mongoDocument.put("rank", i);
+			mongoDocument.put("rating", i + 0.5);
+			mongoDocument.put("added", new Date(baseTime + i));
+			// every other document has no code so the missing value can be checked
+			if (i % 2 == 1) {
+				mongoDocument.remove("code");
+			}
+
+			Store s = new Store(String.valueOf(i), DOC_VALUE_FIELDS_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void docValuesWithoutDocuments() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(DOC_VALUE_FIELDS_TEST).setAmount(docCount).setResultFetchType(FetchType.NONE).addSort(new Sort("rank"));
+		search.addDocValueFields("rank", "rating", "added", "code", "tag");
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		List<CompleteResult> completeResults = searchResult.getCompleteResults();
+		Assertions.assertEquals(docCount, completeResults.size());
+		for (int i = 0; i < docCount; i++) {
+			CompleteResult completeResult = completeResults.get(i);
+			Assertions.assertNull(completeResult.getDocument());
+			Assertions.assertEquals(5, completeResult.getDocValueResultList().size());
+
+			Assertions.assertEquals(i, single(completeResult, "rank").getIntegerValue());
+			Assertions.assertEquals(i + 0.5, single(completeResult, "rating").getDoubleValue(), 0.0001);
+			Assertions.assertEquals(baseTime + i, single(completeResult, "added").getDateValue());
+
+			if (i % 2 == 0) {
+				Assertions.assertEquals("c" + i, single(completeResult, "code").getStringValue());
+			}
+			else {
+				Assertions.assertTrue(completeResult.getDocValues("code").isEmpty());
+			}
+
+			List<String> tags = completeResult.getDocValues("tag").stream().map(SortValue::getStringValue).toList();
+			Assertions.assertEquals(List.of("a" + i, "b" + i), tags);
+		}
+	}
+
+	@Test
+	@Order(4)
+	public void docValuesWithQueryThenFetch() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(DOC_VALUE_FIELDS_TEST).setAmount(5).setResultFetchType(FetchType.FULL).addSort(new Sort("rank").descending());
+		search.setQueryThenFetch(true).addDocValueField("rank");
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		for (CompleteResult completeResult : searchResult.getCompleteResults()) {
+			Assertions.assertEquals(completeResult.getDocument().getInteger("rank"), single(completeResult, "rank").getIntegerValue());
+		}
+	}
+
+	@Test
+	@Order(5)
+	public void notSortable() {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(DOC_VALUE_FIELDS_TEST).setAmount(5).addDocValueField("title");
+		Assertions.assertThrows(Exception.class, () -> zuliaWorkPool.search(search), "title is not sortable");
+	}
+
+	private static SortValue single(CompleteResult completeResult, String field) {
+		List<SortValue> values = completeResult.getDocValues(field);
+		Assertions.assertEquals(1, values.size());
+		return values.getFirst();
+	}
+
+}
@@ -0,0 +1,143 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaQuery;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class IndexSortSearchTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String INDEX_SORT_SEARCH_TEST = "indexSortSearchTest";
+
+	private static final int docCount = 1000;
+
+	private static ClientIndexConfig getIndexConfig(String indexName) {
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createGeoPoint("location").index().sort());
+		indexConfig.setIndexName(indexName);
+		indexConfig.setNumberOfShards(3);
+		return indexConfig;
+	}
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = getIndexConfig(INDEX_SORT_SEARCH_TEST);
+		indexConfig.setIndexSort("rank", false);
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			// store the ranks out of order so the index sort has to reorder them
+			int rank = (i * 7919) % docCount;
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "fish number " + rank);
+			mongoDocument.put("rank", rank);
+
+			Store s = new Store(String.valueOf(i), INDEX_SORT_SEARCH_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void indexSortPrefixTerminatesEarly() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(INDEX_SORT_SEARCH_TEST).setAmount(10).setDontCache(true).setProfile(true);
+		search.addSort(new Sort("rank"));
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+		Assertions.assertFalse(searchResult.isTotalHitsLowerBound());
+		Assertions.assertEquals(10, searchResult.getCompleteResults().size());
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertEquals(i, searchResult.getCompleteResults().get(i).getDocument().getInteger("rank"));
+		}
+
+		List<ZuliaQuery.ShardProfile> shardProfiles = searchResult.getProfile().getShardProfileList();
+		Assertions.assertEquals(3, shardProfiles.size());
+		for (ZuliaQuery.ShardProfile shardProfile : shardProfiles) {
+			Assertions.assertTrue(shardProfile.getEarlyTerminated(), shardProfile.toString());
+		}
+	}
+
+	@Test
+	@Order(4)
+	public void otherSortCollectsEverything() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(INDEX_SORT_SEARCH_TEST).setAmount(10).setDontCache(true).setProfile(true);
+		search.addSort(new Sort("rank").descending());
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+		Assertions.assertFalse(searchResult.isTotalHitsLowerBound());
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertEquals(docCount - 1 - i, searchResult.getCompleteResults().get(i).getDocument().getInteger("rank"));
+		}
+
+		for (ZuliaQuery.ShardProfile shardProfile : searchResult.getProfile().getShardProfileList()) {
+			Assertions.assertFalse(shardProfile.getEarlyTerminated(), shardProfile.toString());
+		}
+	}
+
+	@Test
+	@Order(5)
+	public void indexSortMustBeSortable() {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig notSortable = getIndexConfig("indexSortNotSortable");
+		notSortable.setIndexSort("title", false);
+		Exception e = Assertions.assertThrows(Exception.class, () -> zuliaWorkPool.createIndex(notSortable));
+		Assertions.assertTrue(e.getMessage().contains("Index sort field <title> must be a sortable field that is not a GEO_POINT"), e.getMessage());
+
+		ClientIndexConfig geoPoint = getIndexConfig("indexSortGeoPoint");
+		geoPoint.setIndexSort("location", false);
+		e = Assertions.assertThrows(Exception.class, () -> zuliaWorkPool.createIndex(geoPoint));
+		Assertions.assertTrue(e.getMessage().contains("Index sort field <location> must be a sortable field that is not a GEO_POINT"), e.getMessage());
+	}
+
+	@Test
+	@Order(6)
+	public void indexSortCannotChange() {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = getIndexConfig(INDEX_SORT_SEARCH_TEST);
+		indexConfig.setIndexSort("rank", true);
+		Exception e = Assertions.assertThrows(Exception.class, () -> zuliaWorkPool.createIndex(indexConfig));
+		Assertions.assertTrue(e.getMessage().contains("Cannot change index sort for existing index"), e.getMessage());
+	}
+
+}
@@ -0,0 +1,119 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.CompleteResult;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PointInTimeTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String POINT_IN_TIME_TEST = "pointInTimeTest";
+
+	private static final int docCount = 100;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.setIndexName(POINT_IN_TIME_TEST);
+		indexConfig.setNumberOfShards(2);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			store(zuliaWorkPool, String.valueOf(i), i);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void pagesSeeTheSameDocuments() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(POINT_IN_TIME_TEST).setAmount(10).setRealtime(true).setPointInTime(60_000);
+		search.addSort(new Sort("rank"));
+
+		SearchResult searchResult = zuliaWorkPool.search(search);
+		Assertions.assertNotNull(searchResult.getPointInTimeId());
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+
+		// documents that sort first are added after the first page and must not show up in the later pages
+		for (int i = 0; i < 20; i++) {
+			store(zuliaWorkPool, "new" + i, -1 - i);
+		}
+
+		List<Integer> ranks = new ArrayList<>();
+		while (searchResult.hasResults()) {
+			for (CompleteResult completeResult : searchResult.getCompleteResults()) {
+				ranks.add(completeResult.getDocument().getInteger("rank"));
+			}
+			search.setLastResult(searchResult);
+			searchResult = zuliaWorkPool.search(search);
+			if (searchResult.hasResults()) {
+				Assertions.assertEquals(docCount, searchResult.getTotalHits());
+			}
+		}
+
+		Assertions.assertEquals(docCount, ranks.size());
+		for (int i = 0; i < docCount; i++) {
+			Assertions.assertEquals(i, ranks.get(i));
+		}
+
+		// without the point in time the new documents are searched
+		searchResult = zuliaWorkPool.search(new Search(POINT_IN_TIME_TEST).setAmount(10).setRealtime(true));
+		Assertions.assertEquals(docCount + 20, searchResult.getTotalHits());
+	}
+
+	@Test
+	@Order(4)
+	public void unknownPointInTime() {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(POINT_IN_TIME_TEST).setAmount(10).setPointInTimeId("doesNotExist");
+		Exception e = Assertions.assertThrows(Exception.class, () -> zuliaWorkPool.search(search), "fail with point in time expired");
+		Assertions.assertTrue(e.getMessage().contains("Point in time <doesNotExist> does not exist"), e.getMessage());
+	}
+
+	private static void store(ZuliaWorkPool zuliaWorkPool, String uniqueId, int rank) throws Exception {
+		Document mongoDocument = new Document();
+		mongoDocument.put("title", "document " + uniqueId);
+		mongoDocument.put("rank", rank);
+
+		Store s = new Store(uniqueId, POINT_IN_TIME_TEST);
+		s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+		zuliaWorkPool.store(s);
+	}
+
+}
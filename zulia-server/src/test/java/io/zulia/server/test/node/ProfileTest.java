@@ -0,0 +1,126 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.CountFacet;
+import io.zulia.client.command.builder.Highlight;
+import io.zulia.client.command.builder.ScoredQuery;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaQuery.NodeProfile;
+import io.zulia.message.ZuliaQuery.QueryProfile;
+import io.zulia.message.ZuliaQuery.ShardProfile;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ProfileTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String PROFILE_TEST = "profileTest";
+
+	private static final int docCount = 50;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("color").indexAs(DefaultAnalyzers.LC_KEYWORD).facet());
+		indexConfig.setIndexName(PROFILE_TEST);
+		indexConfig.setNumberOfShards(2);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "the " + (i % 2 == 0 ? "blue" : "red") + " shirt " + i);
+			mongoDocument.put("color", i % 2 == 0 ? "blue" : "red");
+
+			Store s = new Store(String.valueOf(i), PROFILE_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void profile() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(PROFILE_TEST).setAmount(10).setProfile(true).setDontCache(true);
+		search.addQuery(new ScoredQuery("shirt"));
+		search.addCountFacet(new CountFacet("color"));
+		search.addHighlight(new Highlight("title"));
+
+		SearchResult searchResult = zuliaWorkPool.search(search);
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+
+		QueryProfile profile = searchResult.getProfile();
+		Assertions.assertNotNull(profile);
+		Assertions.assertEquals(2, profile.getShardProfileCount());
+		for (ShardProfile shardProfile : profile.getShardProfileList()) {
+			Assertions.assertEquals(PROFILE_TEST, shardProfile.getIndexName());
+			Assertions.assertFalse(shardProfile.getCacheHit());
+			Assertions.assertTrue(shardProfile.getSearchNanos() > 0);
+			Assertions.assertTrue(shardProfile.getSegmentProfileCount() > 0);
+			Assertions.assertTrue(shardProfile.getAggregationCollectNanos() > 0);
+			Assertions.assertTrue(shardProfile.getHighlightNanos() > 0);
+		}
+
+		Assertions.assertEquals(1, profile.getNodeProfileCount());
+		NodeProfile nodeProfile = profile.getNodeProfile(0);
+		Assertions.assertEquals("query", nodeProfile.getPhase());
+		Assertions.assertTrue(nodeProfile.getRequestNanos() >= nodeProfile.getShardNanos());
+		Assertions.assertTrue(nodeProfile.getResponseBytes() > 0);
+	}
+
+	@Test
+	@Order(4)
+	public void profileCacheHit() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		// warmed by normal traffic
+		Search search = new Search(PROFILE_TEST).setAmount(10);
+		search.addQuery(new ScoredQuery("blue"));
+		Assertions.assertNull(zuliaWorkPool.search(search).getProfile());
+
+		search.setProfile(true);
+		QueryProfile profile = zuliaWorkPool.search(search).getProfile();
+		Assertions.assertEquals(2, profile.getShardProfileCount());
+		for (ShardProfile shardProfile : profile.getShardProfileList()) {
+			Assertions.assertTrue(shardProfile.getCacheHit());
+		}
+	}
+
+	@Test
+	@Order(5)
+	public void notProfiled() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		SearchResult searchResult = zuliaWorkPool.search(new Search(PROFILE_TEST).setAmount(10));
+		Assertions.assertNull(searchResult.getProfile());
+	}
+
+}
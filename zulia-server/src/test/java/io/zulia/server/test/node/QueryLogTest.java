@@ -0,0 +1,154 @@
+package io.zulia.server.test.node;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.UpdateIndex;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaServiceOuterClass.ShardGeneration;
+import io.zulia.server.index.federator.QueryRequestFederator;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class QueryLogTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String QUERY_LOG_TEST = "queryLogTest";
+
+	private static final int slowQueryThresholdMs = 300;
+
+	private static final Logger federatorLogger = (Logger) LoggerFactory.getLogger(QueryRequestFederator.class);
+	private static final ListAppender<ILoggingEvent> queryLog = new ListAppender<>();
+
+	@BeforeAll
+	public static void captureQueryLog() {
+		queryLog.start();
+		federatorLogger.addAppender(queryLog);
+	}
+
+	@AfterAll
+	public static void releaseQueryLog() {
+		federatorLogger.detachAppender(queryLog);
+		queryLog.stop();
+	}
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.setIndexName(QUERY_LOG_TEST);
+		indexConfig.setNumberOfShards(1);
+		indexConfig.setShardCommitInterval(100_000);
+		indexConfig.setIdleTimeWithoutCommit(0);
+		indexConfig.setSlowQueryThresholdMs(slowQueryThresholdMs);
+		// a search waiting for a write within this interval of the last reopen is held past the slow query threshold
+		indexConfig.setRealtimeRefreshMinIntervalMs(1000);
+
+		zuliaWorkPool.createIndex(indexConfig);
+
+		for (int i = 0; i < 10; i++) {
+			store(String.valueOf(i));
+		}
+	}
+
+	@Test
+	@Order(2)
+	public void queriesUnderThresholdAreNotLogged() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Assertions.assertEquals(10, zuliaWorkPool.search(new Search(QUERY_LOG_TEST).setRealtime(true).setDontCache(true)).getTotalHits());
+		queryLog.list.clear();
+
+		for (int i = 0; i < 10; i++) {
+			zuliaWorkPool.search(new Search(QUERY_LOG_TEST).setDontCache(true));
+		}
+		Assertions.assertTrue(queryLog.list.isEmpty(), () -> "Unexpected query log " + queryLog.list);
+	}
+
+	@Test
+	@Order(3)
+	public void slowQueryLoggedWithPhases() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		zuliaWorkPool.search(new Search(QUERY_LOG_TEST).setRealtime(true).setDontCache(true));
+		queryLog.list.clear();
+
+		ShardGeneration shardGeneration = store("slow");
+		Search search = new Search(QUERY_LOG_TEST).setDontCache(true).addMinShardGeneration(shardGeneration).setSearchLabel("slowSearch");
+		Assertions.assertEquals(11, zuliaWorkPool.search(search).getTotalHits());
+
+		List<ILoggingEvent> events = List.copyOf(queryLog.list);
+		Assertions.assertEquals(1, events.size(), () -> "Expected one query log entry " + events);
+		ILoggingEvent event = events.getFirst();
+		Assertions.assertEquals(Level.WARN, event.getLevel());
+
+		String message = event.getFormattedMessage();
+		Assertions.assertTrue(message.contains("with label slowSearch"), message);
+		Assertions.assertTrue(message.contains("over the slow query threshold of " + slowQueryThresholdMs + "ms"), message);
+		assertPhases(message);
+		// the slow query log carries the request
+		Assertions.assertTrue(message.contains(QUERY_LOG_TEST), message);
+	}
+
+	@Test
+	@Order(4)
+	public void sampledQueriesLoggedWithoutRequest() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		zuliaWorkPool.updateIndex(new UpdateIndex(QUERY_LOG_TEST).setQueryLogSampleRate(1f));
+		queryLog.list.clear();
+
+		zuliaWorkPool.search(new Search(QUERY_LOG_TEST).setDontCache(true));
+
+		List<ILoggingEvent> events = List.copyOf(queryLog.list);
+		Assertions.assertEquals(1, events.size(), () -> "Expected one query log entry " + events);
+		ILoggingEvent event = events.getFirst();
+		Assertions.assertEquals(Level.INFO, event.getLevel());
+
+		String message = event.getFormattedMessage();
+		Assertions.assertFalse(message.contains("slow query threshold"), message);
+		assertPhases(message);
+		Assertions.assertFalse(message.contains(QUERY_LOG_TEST), message);
+	}
+
+	private static void assertPhases(String message) {
+		for (String phase : List.of("parse ", "search ", "aggregation ", "documents ", "fetch ", "network ", "merge ")) {
+			Assertions.assertTrue(message.contains(phase), () -> "Missing phase <" + phase + "> in " + message);
+		}
+	}
+
+	private ShardGeneration store(String uniqueId) throws Exception {
+		Document mongoDocument = new Document();
+		mongoDocument.put("title", "document " + uniqueId);
+
+		Store s = new Store(uniqueId, QUERY_LOG_TEST);
+		s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+		return nodeExtension.getClient().store(s).getShardGeneration();
+	}
+
+}
@@ -0,0 +1,117 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.Highlight;
+import io.zulia.client.command.builder.ScoredQuery;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.CompleteResult;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class QueryThenFetchTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(3);
+
+	public static final String QUERY_THEN_FETCH_TEST = "queryThenFetchTest";
+
+	private static final int docCount = 200;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("id").indexAs(DefaultAnalyzers.LC_KEYWORD).sort());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD).sort());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.setIndexName(QUERY_THEN_FETCH_TEST);
+		indexConfig.setNumberOfShards(4);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			String uniqueId = String.valueOf(i);
+			Document mongoDocument = new Document();
+			mongoDocument.put("id", uniqueId);
+			mongoDocument.put("title", i % 2 == 0 ? "red fish number " + i : "blue fish number " + i);
+			mongoDocument.put("rank", i);
+
+			Store s = new Store(uniqueId, QUERY_THEN_FETCH_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void matchesSinglePhase() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(QUERY_THEN_FETCH_TEST).setAmount(25).addSort(new Sort("rank").descending());
+		search.addQuery(new ScoredQuery("fish"));
+		SearchResult singlePhase = zuliaWorkPool.search(search);
+
+		search.setQueryThenFetch(true);
+		SearchResult twoPhase = zuliaWorkPool.search(search);
+
+		Assertions.assertEquals(singlePhase.getTotalHits(), twoPhase.getTotalHits());
+		Assertions.assertEquals(singlePhase.getUniqueIds(), twoPhase.getUniqueIds());
+		Assertions.assertEquals(singlePhase.getDocuments(), twoPhase.getDocuments());
+		Assertions.assertEquals("199", twoPhase.getFirstDocument().getString("id"));
+
+		// paging with the last result from the two phase search
+		search.setLastResult(twoPhase);
+		SearchResult nextPage = zuliaWorkPool.search(search);
+		Assertions.assertEquals(25, nextPage.getCompleteResults().size());
+		Assertions.assertEquals("174", nextPage.getFirstDocument().getString("id"));
+	}
+
+	@Test
+	@Order(4)
+	public void fieldsAndHighlights() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(QUERY_THEN_FETCH_TEST).setAmount(10).setQueryThenFetch(true).addSort(new Sort("rank"));
+		search.addQuery(new ScoredQuery("red").addQueryField("title"));
+		search.addDocumentField("title");
+		search.addHighlight(new Highlight("title"));
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		Assertions.assertEquals(docCount / 2, searchResult.getTotalHits());
+		List<CompleteResult> completeResults = searchResult.getCompleteResults();
+		Assertions.assertEquals(10, completeResults.size());
+		for (CompleteResult completeResult : completeResults) {
+			Document document = completeResult.getDocument();
+			Assertions.assertNull(document.get("id"));
+			Assertions.assertTrue(document.getString("title").startsWith("red fish"));
+			Assertions.assertEquals(1, completeResult.getHighlightsForField("title").size());
+			Assertions.assertTrue(completeResult.getHighlightsForField("title").getFirst().startsWith("<em>red</em>"));
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.UpdateIndex;
+import io.zulia.client.command.builder.FilterQuery;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RealtimeRefreshTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String REALTIME_REFRESH_TEST = "realtimeRefreshTest";
+
+	private static final int writers = 20;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("id").indexAs(DefaultAnalyzers.LC_KEYWORD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.setIndexName(REALTIME_REFRESH_TEST);
+		indexConfig.setNumberOfShards(2);
+		indexConfig.setShardCommitInterval(100_000);
+		indexConfig.setRealtimeRefreshMinIntervalMs(50);
+
+		zuliaWorkPool.createIndex(indexConfig);
+
+		Assertions.assertEquals(50, zuliaWorkPool.getIndexConfig(REALTIME_REFRESH_TEST).getIndexConfig().getRealtimeRefreshMinIntervalMs());
+	}
+
+	@Test
+	@Order(2)
+	public void concurrentRealtimeSearchesSeeTheirWrites() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<Long>> hits = new ArrayList<>();
+			for (int i = 0; i < writers; i++) {
+				String uniqueId = String.valueOf(i);
+				hits.add(executorService.submit(() -> {
+					Document mongoDocument = new Document();
+					mongoDocument.put("id", uniqueId);
+					mongoDocument.put("title", "realtime document " + uniqueId);
+
+					Store s = new Store(uniqueId, REALTIME_REFRESH_TEST);
+					s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+					zuliaWorkPool.store(s);
+
+					Search search = new Search(REALTIME_REFRESH_TEST).setRealtime(true);
+					search.addQuery(new FilterQuery("id:" + uniqueId));
+					return zuliaWorkPool.search(search).getTotalHits();
+				}));
+			}
+
+			for (Future<Long> hit : hits) {
+				Assertions.assertEquals(1, hit.get());
+			}
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void updateInterval() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		zuliaWorkPool.updateIndex(new UpdateIndex(REALTIME_REFRESH_TEST).setRealtimeRefreshMinIntervalMs(0));
+		Assertions.assertEquals(0, zuliaWorkPool.getIndexConfig(REALTIME_REFRESH_TEST).getIndexConfig().getRealtimeRefreshMinIntervalMs());
+
+		Search search = new Search(REALTIME_REFRESH_TEST).setRealtime(true);
+		Assertions.assertEquals(writers, zuliaWorkPool.search(search).getTotalHits());
+	}
+
+}
@@ -0,0 +1,81 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.UpdateIndex;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RefreshIntervalTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String REFRESH_INTERVAL_TEST = "refreshIntervalTest";
+
+	private static final int docCount = 30;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.setIndexName(REFRESH_INTERVAL_TEST);
+		indexConfig.setNumberOfShards(2);
+		// no commits so only the scheduled refresh can make the documents searchable
+		indexConfig.setShardCommitInterval(100_000);
+		indexConfig.setIdleTimeWithoutCommit(0);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void notVisibleWithoutRefresh() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "document " + i);
+
+			Store s = new Store(String.valueOf(i), REFRESH_INTERVAL_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+
+		Thread.sleep(1500);
+		Assertions.assertEquals(0, zuliaWorkPool.search(new Search(REFRESH_INTERVAL_TEST).setDontCache(true)).getTotalHits());
+	}
+
+	@Test
+	@Order(3)
+	public void visibleAfterScheduledRefresh() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		zuliaWorkPool.updateIndex(new UpdateIndex(REFRESH_INTERVAL_TEST).setRefreshIntervalMs(100));
+		Assertions.assertEquals(100, zuliaWorkPool.getIndexConfig(REFRESH_INTERVAL_TEST).getIndexConfig().getRefreshIntervalMs());
+
+		long totalHits = 0;
+		for (int i = 0; i < 50 && totalHits != docCount; i++) {
+			Thread.sleep(100);
+			totalHits = zuliaWorkPool.search(new Search(REFRESH_INTERVAL_TEST).setDontCache(true)).getTotalHits();
+		}
+		Assertions.assertEquals(docCount, totalHits);
+	}
+
+}
@@ -0,0 +1,99 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.rest.ZuliaRESTClient;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaBase.AdmissionLimitStats;
+import io.zulia.message.ZuliaBase.IndexSearchExecutorStats;
+import io.zulia.message.ZuliaBase.NodeStats;
+import io.zulia.message.ZuliaBase.SearchExecutorStats;
+import io.zulia.server.test.node.shared.RestNodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RestStatsTest {
+
+	@RegisterExtension
+	static final RestNodeExtension restNodeExtension = new RestNodeExtension(1, zuliaConfig -> zuliaConfig.setAdmissionControl(true));
+
+	public static final String REST_STATS_TEST = "restStatsTest";
+
+	private static final int docCount = 200;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = restNodeExtension.getGrpcClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.setIndexName(REST_STATS_TEST);
+		indexConfig.setNumberOfShards(1);
+
+		zuliaWorkPool.createIndex(indexConfig);
+
+		for (int i = 0; i < docCount; i++) {
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "document " + i);
+
+			Store s = new Store(String.valueOf(i), REST_STATS_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(2)
+	public void searchExecutorStats() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = restNodeExtension.getGrpcClient();
+
+		// a page this large with concurrency loads its documents in chunks on the search executor
+		Search search = new Search(REST_STATS_TEST).setRealtime(true).setDontCache(true).setAmount(docCount).setConcurrency(2);
+		Assertions.assertEquals(docCount, zuliaWorkPool.search(search).getCompleteResults().size());
+
+		ZuliaRESTClient restClient = restNodeExtension.getRESTClient();
+		NodeStats nodeStats = restClient.getStats();
+
+		SearchExecutorStats searchExecutor = nodeStats.getSearchExecutor();
+		Assertions.assertTrue(searchExecutor.getThreads() > 0);
+		Assertions.assertTrue(searchExecutor.getCompletedCount() >= 2);
+
+		IndexSearchExecutorStats indexStat = searchExecutor.getIndexStatList().stream().filter(s -> s.getIndexName().equals(REST_STATS_TEST))
+				.findFirst().orElseThrow();
+		Assertions.assertTrue(indexStat.getWeight() > 0);
+		Assertions.assertTrue(indexStat.getQuota() > 0);
+		Assertions.assertTrue(indexStat.getCompletedCount() >= 2);
+	}
+
+	@Test
+	@Order(3)
+	public void admissionLimitStats() throws Exception {
+		ZuliaRESTClient restClient = restNodeExtension.getRESTClient();
+		NodeStats nodeStats = restClient.getStats();
+
+		List<String> names = nodeStats.getAdmissionLimitList().stream().map(AdmissionLimitStats::getName).toList();
+		Assertions.assertEquals(List.of("query", "store", "fetch"), names);
+		for (AdmissionLimitStats admissionLimit : nodeStats.getAdmissionLimitList()) {
+			Assertions.assertTrue(admissionLimit.getLimit() > 0);
+		}
+
+		AdmissionLimitStats store = nodeStats.getAdmissionLimit(1);
+		Assertions.assertTrue(store.getAdmittedCount() >= docCount);
+		Assertions.assertEquals(0, store.getRejectedCount());
+	}
+
+}
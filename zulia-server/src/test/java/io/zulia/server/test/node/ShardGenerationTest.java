@@ -0,0 +1,92 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.FilterQuery;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.StoreResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaServiceOuterClass.ShardGeneration;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ShardGenerationTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String SHARD_GENERATION_TEST = "shardGenerationTest";
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("id").indexAs(DefaultAnalyzers.LC_KEYWORD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.setIndexName(SHARD_GENERATION_TEST);
+		indexConfig.setNumberOfShards(2);
+		// no commits so only the shard generation can make the documents searchable
+		indexConfig.setShardCommitInterval(100_000);
+		indexConfig.setIdleTimeWithoutCommit(0);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void readOwnWrite() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ShardGeneration shardGeneration = store("a");
+		Assertions.assertNotNull(shardGeneration);
+		Assertions.assertEquals(SHARD_GENERATION_TEST, shardGeneration.getIndexName());
+		Assertions.assertTrue(shardGeneration.getSequenceNumber() > 0);
+
+		Search search = new Search(SHARD_GENERATION_TEST).setDontCache(true).addMinShardGeneration(shardGeneration);
+		search.addQuery(new FilterQuery("id:a"));
+		Assertions.assertEquals(1, zuliaWorkPool.search(search).getTotalHits());
+	}
+
+	@Test
+	@Order(3)
+	public void onlyWaitsWhenAsked() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ShardGeneration shardGeneration = store("b");
+
+		Search search = new Search(SHARD_GENERATION_TEST).setDontCache(true);
+		search.addQuery(new FilterQuery("id:b"));
+		Assertions.assertEquals(0, zuliaWorkPool.search(search).getTotalHits());
+
+		search.addMinShardGeneration(shardGeneration);
+		Assertions.assertEquals(1, zuliaWorkPool.search(search).getTotalHits());
+
+		// the reader already includes the write so the shard does not wait again
+		Assertions.assertEquals(1, zuliaWorkPool.search(search).getTotalHits());
+	}
+
+	private ShardGeneration store(String uniqueId) throws Exception {
+		Document mongoDocument = new Document();
+		mongoDocument.put("id", uniqueId);
+		mongoDocument.put("title", "document " + uniqueId);
+
+		Store s = new Store(uniqueId, SHARD_GENERATION_TEST);
+		s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+		StoreResult storeResult = nodeExtension.getClient().store(s);
+		return storeResult.getShardGeneration();
+	}
+
+}
@@ -0,0 +1,96 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.StreamSearch;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.StreamSearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.server.index.PointInTimeLeases;
+import io.zulia.server.test.node.shared.NodeExtension;
+import io.zulia.server.test.node.shared.TestHelper;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class StreamSearchCancelTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String STREAM_SEARCH_CANCEL_TEST = "streamSearchCancelTest";
+
+	private static final int docCount = 1000;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.setIndexName(STREAM_SEARCH_CANCEL_TEST);
+		indexConfig.setNumberOfShards(2);
+
+		zuliaWorkPool.createIndex(indexConfig);
+
+		// large enough documents that the stream cannot fit in the transport buffers and the server waits on the client
+		String filler = "filler text to make the stored document large ".repeat(200);
+		for (int i = 0; i < docCount; i++) {
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "document " + i + " " + filler);
+			mongoDocument.put("rank", i);
+
+			Store s = new Store(String.valueOf(i), STREAM_SEARCH_CANCEL_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(2)
+	public void abandonedStreamReleasesItsPointInTime() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+		PointInTimeLeases pointInTimeLeases = TestHelper.getZuliaNodes().getFirst().getIndexManager().getPointInTimeLeases();
+		long leasesBefore = pointInTimeLeases.getLeaseCount();
+
+		Search search = new Search(STREAM_SEARCH_CANCEL_TEST).setRealtime(true).addSort(new Sort("rank"));
+		try (StreamSearchResult streamSearchResult = zuliaWorkPool.streamSearch(new StreamSearch(search).setChunkSize(10))) {
+			Assertions.assertEquals(docCount, streamSearchResult.getTotalHits());
+			Assertions.assertEquals(5, streamSearchResult.stream().limit(5).count());
+			Assertions.assertTrue(pointInTimeLeases.getLeaseCount() > leasesBefore, "the open stream should hold its point in time");
+		}
+
+		long leases = pointInTimeLeases.getLeaseCount();
+		for (int i = 0; i < 50 && leases != leasesBefore; i++) {
+			Thread.sleep(100);
+			leases = pointInTimeLeases.getLeaseCount();
+		}
+		Assertions.assertEquals(leasesBefore, leases);
+	}
+
+	@Test
+	@Order(3)
+	public void streamReadToTheEndCloses() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+		PointInTimeLeases pointInTimeLeases = TestHelper.getZuliaNodes().getFirst().getIndexManager().getPointInTimeLeases();
+		long leasesBefore = pointInTimeLeases.getLeaseCount();
+
+		Search search = new Search(STREAM_SEARCH_CANCEL_TEST).addSort(new Sort("rank"));
+		StreamSearchResult streamSearchResult = zuliaWorkPool.streamSearch(new StreamSearch(search).setChunkSize(100));
+		Assertions.assertEquals(docCount, streamSearchResult.stream().count());
+
+		Assertions.assertEquals(leasesBefore, pointInTimeLeases.getLeaseCount());
+	}
+}
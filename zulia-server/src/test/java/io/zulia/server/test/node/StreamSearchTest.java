@@ -0,0 +1,117 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.StreamSearch;
+import io.zulia.client.command.builder.CountFacet;
+import io.zulia.client.command.builder.FilterQuery;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.CompleteResult;
+import io.zulia.client.result.StreamSearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaQuery.FacetCount;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class StreamSearchTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(2);
+
+	public static final String STREAM_SEARCH_TEST = "streamSearchTest";
+
+	private static final int docCount = 2500;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("parity").indexAs(DefaultAnalyzers.LC_KEYWORD).facet());
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.setIndexName(STREAM_SEARCH_TEST);
+		indexConfig.setNumberOfShards(3);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "document " + i);
+			mongoDocument.put("parity", i % 2 == 0 ? "even" : "odd");
+			mongoDocument.put("rank", i);
+
+			Store s = new Store(String.valueOf(i), STREAM_SEARCH_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void streamAll() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(STREAM_SEARCH_TEST).setRealtime(true).addSort(new Sort("rank")).addCountFacet(new CountFacet("parity"));
+		StreamSearchResult streamSearchResult = zuliaWorkPool.streamSearch(new StreamSearch(search).setChunkSize(100));
+
+		Assertions.assertEquals(docCount, streamSearchResult.getTotalHits());
+		List<FacetCount> facetCounts = streamSearchResult.getSummary().getFacetCounts("parity");
+		Assertions.assertEquals(2, facetCounts.size());
+		Assertions.assertEquals(docCount / 2, facetCounts.getFirst().getCount());
+
+		List<Integer> ranks = streamSearchResult.stream().map(CompleteResult::getDocument).map(d -> d.getInteger("rank")).toList();
+		Assertions.assertEquals(docCount, ranks.size());
+		for (int i = 0; i < docCount; i++) {
+			Assertions.assertEquals(i, ranks.get(i));
+		}
+	}
+
+	@Test
+	@Order(4)
+	public void streamAmount() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(STREAM_SEARCH_TEST).setAmount(250).setStart(10).addSort(new Sort("rank"));
+		StreamSearchResult streamSearchResult = zuliaWorkPool.streamSearch(new StreamSearch(search).setChunkSize(100));
+
+		List<Integer> ranks = streamSearchResult.stream().map(CompleteResult::getDocument).map(d -> d.getInteger("rank")).toList();
+		Assertions.assertEquals(250, ranks.size());
+		for (int i = 0; i < ranks.size(); i++) {
+			Assertions.assertEquals(i + 10, ranks.get(i));
+		}
+	}
+
+	@Test
+	@Order(5)
+	public void streamNoHits() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(STREAM_SEARCH_TEST).addQuery(new FilterQuery("title:missing"));
+		StreamSearchResult streamSearchResult = zuliaWorkPool.streamSearch(new StreamSearch(search));
+
+		Assertions.assertEquals(0, streamSearchResult.getTotalHits());
+		Assertions.assertFalse(streamSearchResult.getCompleteResults().hasNext());
+	}
+}
@@ -0,0 +1,109 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaQuery.IncompleteShard;
+import io.zulia.message.ZuliaServiceOuterClass.ShardGeneration;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TimeoutTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String TIMEOUT_TEST = "timeoutTest";
+
+	private static final int docCount = 40;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.setIndexName(TIMEOUT_TEST);
+		indexConfig.setNumberOfShards(2);
+		indexConfig.setShardCommitInterval(100_000);
+		indexConfig.setIdleTimeWithoutCommit(0);
+		// a shard asked to wait for a write within this interval of its last reopen is held past the timeout of the search
+		indexConfig.setRealtimeRefreshMinIntervalMs(3000);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			store(String.valueOf(i));
+		}
+
+		Search search = new Search(TIMEOUT_TEST).setRealtime(true).setDontCache(true).setTimeoutMs(10_000);
+		SearchResult searchResult = zuliaWorkPool.search(search);
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+		Assertions.assertFalse(searchResult.isTimedOut());
+		Assertions.assertTrue(searchResult.getIncompleteShards().isEmpty());
+	}
+
+	@Test
+	@Order(3)
+	public void partialResultsOnTimeout() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		// the shard of this write cannot reopen before the timeout, the other shard answers with everything it has
+		ShardGeneration shardGeneration = store("late");
+
+		Search search = new Search(TIMEOUT_TEST).setDontCache(true).setTimeoutMs(200).addMinShardGeneration(shardGeneration).setAmount(docCount);
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		Assertions.assertTrue(searchResult.isTimedOut());
+		Assertions.assertTrue(searchResult.isTotalHitsLowerBound());
+		Assertions.assertTrue(searchResult.getTotalHits() > 0);
+		Assertions.assertTrue(searchResult.getTotalHits() < docCount);
+
+		Assertions.assertEquals(1, searchResult.getIncompleteShards().size());
+		IncompleteShard incompleteShard = searchResult.getIncompleteShards().getFirst();
+		Assertions.assertEquals(TIMEOUT_TEST, incompleteShard.getIndexName());
+		Assertions.assertEquals(shardGeneration.getShardNumber(), incompleteShard.getShardNumber());
+		Assertions.assertFalse(incompleteShard.getMissing());
+	}
+
+	@Test
+	@Order(4)
+	public void completeWithoutTimeout() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		SearchResult searchResult = zuliaWorkPool.search(new Search(TIMEOUT_TEST).setRealtime(true).setDontCache(true));
+		Assertions.assertEquals(docCount + 1, searchResult.getTotalHits());
+		Assertions.assertFalse(searchResult.isTimedOut());
+		Assertions.assertTrue(searchResult.getIncompleteShards().isEmpty());
+	}
+
+	private ShardGeneration store(String uniqueId) throws Exception {
+		Document mongoDocument = new Document();
+		mongoDocument.put("title", "document " + uniqueId);
+
+		Store s = new Store(uniqueId, TIMEOUT_TEST);
+		s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+		return nodeExtension.getClient().store(s).getShardGeneration();
+	}
+
+}
@@ -0,0 +1,116 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.UpdateIndex;
+import io.zulia.client.command.builder.CountFacet;
+import io.zulia.client.command.builder.ScoredQuery;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TotalHitsThresholdTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String TOTAL_HITS_THRESHOLD_TEST = "totalHitsThresholdTest";
+
+	private static final int docCount = 2000;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("title");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("color").indexAs(DefaultAnalyzers.LC_KEYWORD).facet());
+		indexConfig.setIndexName(TOTAL_HITS_THRESHOLD_TEST);
+		indexConfig.setNumberOfShards(1);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		for (int i = 0; i < docCount; i++) {
+			String uniqueId = String.valueOf(i);
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", i % 10 == 0 ? "fish fish fish number " + i : "fish number " + i);
+			mongoDocument.put("color", i % 2 == 0 ? "red" : "blue");
+
+			Store s = new Store(uniqueId, TOTAL_HITS_THRESHOLD_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void exactByDefault() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(TOTAL_HITS_THRESHOLD_TEST).setAmount(5);
+		search.addQuery(new ScoredQuery("fish"));
+		SearchResult searchResult = zuliaWorkPool.search(search);
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+		Assertions.assertFalse(searchResult.isTotalHitsLowerBound());
+	}
+
+	@Test
+	@Order(4)
+	public void queryThreshold() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(TOTAL_HITS_THRESHOLD_TEST).setAmount(5).setTotalHitsThreshold(100);
+		search.addQuery(new ScoredQuery("fish"));
+		SearchResult searchResult = zuliaWorkPool.search(search);
+		Assertions.assertTrue(searchResult.isTotalHitsLowerBound());
+		Assertions.assertTrue(searchResult.getTotalHits() >= 100);
+		Assertions.assertTrue(searchResult.getTotalHits() <= docCount);
+		Assertions.assertEquals(5, searchResult.getCompleteResults().size());
+
+		// facets need every hit so the count stays exact
+		search.addCountFacet(new CountFacet("color"));
+		searchResult = zuliaWorkPool.search(search);
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+		Assertions.assertFalse(searchResult.isTotalHitsLowerBound());
+	}
+
+	@Test
+	@Order(5)
+	public void indexDefaultThreshold() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		zuliaWorkPool.updateIndex(new UpdateIndex(TOTAL_HITS_THRESHOLD_TEST).setTotalHitsThreshold(100));
+
+		Search search = new Search(TOTAL_HITS_THRESHOLD_TEST).setAmount(5);
+		search.addQuery(new ScoredQuery("fish"));
+		SearchResult searchResult = zuliaWorkPool.search(search);
+		Assertions.assertTrue(searchResult.isTotalHitsLowerBound());
+
+		// a negative threshold overrides the index default and counts exactly
+		search.setTotalHitsThreshold(-1);
+		searchResult = zuliaWorkPool.search(search);
+		Assertions.assertEquals(docCount, searchResult.getTotalHits());
+		Assertions.assertFalse(searchResult.isTotalHitsLowerBound());
+	}
+
+}
@@ -0,0 +1,150 @@
+package io.zulia.server.test.node;
+
+import io.zulia.DefaultAnalyzers;
+import io.zulia.client.command.Store;
+import io.zulia.client.command.UpdateIndex;
+import io.zulia.client.command.builder.Highlight;
+import io.zulia.client.command.builder.ScoredQuery;
+import io.zulia.client.command.builder.Search;
+import io.zulia.client.command.builder.Sort;
+import io.zulia.client.config.ClientIndexConfig;
+import io.zulia.client.pool.ZuliaWorkPool;
+import io.zulia.client.result.CompleteResult;
+import io.zulia.client.result.SearchResult;
+import io.zulia.doc.ResultDocBuilder;
+import io.zulia.fields.FieldConfigBuilder;
+import io.zulia.message.ZuliaIndex.FieldConfig;
+import io.zulia.message.ZuliaQuery.HighlightRequest.Engine;
+import io.zulia.server.test.node.shared.NodeExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class UnifiedHighlightTest {
+
+	@RegisterExtension
+	static final NodeExtension nodeExtension = new NodeExtension(1);
+
+	public static final String UNIFIED_HIGHLIGHT_TEST = "unifiedHighlightTest";
+
+	private static final int docCount = 10;
+
+	@Test
+	@Order(1)
+	public void createIndex() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		ClientIndexConfig indexConfig = new ClientIndexConfig();
+		indexConfig.addDefaultSearchField("abstract");
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("abstract").indexWithOffsets(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("notes").indexWithOffsets(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createString("title").indexAs(DefaultAnalyzers.STANDARD));
+		indexConfig.addFieldConfig(FieldConfigBuilder.createInt("rank").index().sort());
+		indexConfig.setIndexName(UNIFIED_HIGHLIGHT_TEST);
+		indexConfig.setNumberOfShards(1);
+
+		zuliaWorkPool.createIndex(indexConfig);
+	}
+
+	@Test
+	@Order(2)
+	public void index() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		String filler = "This sentence is only here to make the abstract longer than a single fragment. ".repeat(20);
+		for (int i = 0; i < docCount; i++) {
+			// only the even documents mention the zebra
+			String animal = i % 2 == 0 ? "zebra" : "horse";
+			Document mongoDocument = new Document();
+			mongoDocument.put("title", "the " + animal + " " + i);
+			mongoDocument.put("abstract", filler + "The striped " + animal + " ran across the plain. " + filler);
+			mongoDocument.put("notes", List.of("a note about nothing", "a note about a " + animal));
+			mongoDocument.put("rank", i);
+
+			Store s = new Store(String.valueOf(i), UNIFIED_HIGHLIGHT_TEST);
+			s.setResultDocument(ResultDocBuilder.newBuilder().setDocument(mongoDocument));
+			zuliaWorkPool.store(s);
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void highlightFromOffsets() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(UNIFIED_HIGHLIGHT_TEST).setAmount(docCount).addSort(new Sort("rank"));
+		search.addQuery(new ScoredQuery("zebra").addQueryFields("abstract", "notes", "title"));
+		search.addHighlight(new Highlight("abstract").setEngine(Engine.UNIFIED));
+		search.addHighlight(new Highlight("notes").setEngine(Engine.UNIFIED));
+		// title is not indexed with offsets so the unified engine analyzes the stored text again
+		search.addHighlight(new Highlight("title").setEngine(Engine.UNIFIED));
+		SearchResult searchResult = zuliaWorkPool.search(search);
+
+		List<CompleteResult> completeResults = searchResult.getCompleteResults();
+		Assertions.assertEquals(docCount / 2, completeResults.size());
+		for (CompleteResult completeResult : completeResults) {
+			List<String> abstractFragments = completeResult.getHighlightsForField("abstract");
+			Assertions.assertEquals(1, abstractFragments.size());
+			Assertions.assertTrue(abstractFragments.getFirst().contains("The striped <em>zebra</em> ran across the plain."));
+			Assertions.assertTrue(abstractFragments.getFirst().length() < 500);
+
+			Assertions.assertEquals(List.of("a note about a <em>zebra</em>"), completeResult.getHighlightsForField("notes"));
+
+			List<String> titleFragments = completeResult.getHighlightsForField("title");
+			Assertions.assertEquals(1, titleFragments.size());
+			Assertions.assertTrue(titleFragments.getFirst().startsWith("the <em>zebra</em>"));
+		}
+	}
+
+	@Test
+	@Order(4)
+	public void matchesStandardHighlighter() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		Search search = new Search(UNIFIED_HIGHLIGHT_TEST).setAmount(docCount).addSort(new Sort("rank"));
+		search.addQuery(new ScoredQuery("striped").addQueryField("abstract"));
+		search.addHighlight(new Highlight("abstract").setPreTag("[").setPostTag("]"));
+		SearchResult standard = zuliaWorkPool.search(search);
+
+		search.clearHighlights().addHighlight(new Highlight("abstract").setPreTag("[").setPostTag("]").setEngine(Engine.UNIFIED));
+		SearchResult unified = zuliaWorkPool.search(search);
+
+		Assertions.assertEquals(docCount, unified.getCompleteResults().size());
+		for (int i = 0; i < docCount; i++) {
+			Assertions.assertEquals(1, standard.getCompleteResults().get(i).getHighlightsForField("abstract").size());
+			List<String> unifiedFragments = unified.getCompleteResults().get(i).getHighlightsForField("abstract");
+			Assertions.assertEquals(1, unifiedFragments.size());
+			Assertions.assertTrue(unifiedFragments.getFirst().contains("The [striped]"));
+		}
+	}
+
+	@Test
+	@Order(5)
+	public void offsetsCannotChangeForExistingField() throws Exception {
+		ZuliaWorkPool zuliaWorkPool = nodeExtension.getClient();
+
+		UpdateIndex turnOff = new UpdateIndex(UNIFIED_HIGHLIGHT_TEST).mergeFieldConfig(
+				FieldConfigBuilder.createString("abstract").indexAs(DefaultAnalyzers.STANDARD));
+		Exception e = Assertions.assertThrows(Exception.class, () -> zuliaWorkPool.updateIndex(turnOff));
+		Assertions.assertTrue(e.getMessage().contains("Cannot change indexOffsets for existing indexed field <abstract>"), e.getMessage());
+
+		UpdateIndex turnOn = new UpdateIndex(UNIFIED_HIGHLIGHT_TEST).mergeFieldConfig(
+				FieldConfigBuilder.createString("title").indexWithOffsets(DefaultAnalyzers.STANDARD));
+		e = Assertions.assertThrows(Exception.class, () -> zuliaWorkPool.updateIndex(turnOn));
+		Assertions.assertTrue(e.getMessage().contains("Cannot change indexOffsets for existing indexed field <title>"), e.getMessage());
+
+		// a new field chooses its offsets freely
+		zuliaWorkPool.updateIndex(new UpdateIndex(UNIFIED_HIGHLIGHT_TEST).mergeFieldConfig(
+				FieldConfigBuilder.createString("summary").indexWithOffsets(DefaultAnalyzers.STANDARD)));
+		FieldConfig summary = zuliaWorkPool.getIndexConfig(UNIFIED_HIGHLIGHT_TEST).getIndexConfig().getFieldConfig("summary");
+		Assertions.assertTrue(summary.getIndexAsList().getFirst().getIndexOffsets());
+	}
+
+}
@@ -2,6 +2,7 @@ package io.zulia.server.test.node.shared;
 
 import io.zulia.client.pool.ZuliaWorkPool;
 import io.zulia.client.rest.ZuliaRESTClient;
+import io.zulia.server.config.ZuliaConfig;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
@@ -10,15 +11,23 @@ import org.junit.jupiter.api.extension.ExtensionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Consumer;
+
 public class RestNodeExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
 	private final static Logger LOG = LoggerFactory.getLogger(RestNodeExtension.class);
 	private final int nodeCount;
+	private final Consumer<ZuliaConfig> configCustomizer;
 
 	private ZuliaWorkPool zuliaWorkPool;
 	private ZuliaRESTClient zuliaRestClient;
 
 	public RestNodeExtension(int nodeCount) {
+		this(nodeCount, null);
+	}
+
+	public RestNodeExtension(int nodeCount, Consumer<ZuliaConfig> configCustomizer) {
 		this.nodeCount = nodeCount;
+		this.configCustomizer = configCustomizer;
 	}
 
 	public ZuliaWorkPool getGrpcClient() {
@@ -35,7 +44,7 @@ public class RestNodeExtension implements BeforeAllCallback, AfterAllCallback, B
 			LOG.info("Suite started: {}", context.getTestClass().get());
 		}
 		TestHelper.createNodes(nodeCount);
-		TestHelper.startNodes(true);
+		TestHelper.startNodes(true, configCustomizer);
 		Thread.sleep(2000);
 		zuliaWorkPool = TestHelper.createClient();
 		zuliaRestClient = TestHelper.createRESTClient();
@@ -0,0 +1,75 @@
+package io.zulia.server.test.util;
+
+import io.zulia.message.ZuliaBase.AdmissionLimitStats;
+import io.zulia.server.connection.server.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the concurrency limit rejects calls over it, grows while calls are fast and backs off once per burst of slow calls
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+	@Test
+	public void rejectsOverLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("query", 2, 1, 10, 1000);
+
+		Assertions.assertTrue(limiter.tryAcquire());
+		Assertions.assertTrue(limiter.tryAcquire());
+		Assertions.assertFalse(limiter.tryAcquire());
+
+		// a failed call frees its slot without changing the limit
+		limiter.release(System.nanoTime(), false);
+		Assertions.assertTrue(limiter.tryAcquire());
+
+		AdmissionLimitStats stats = limiter.getAdmissionLimitStats();
+		Assertions.assertEquals(2, stats.getLimit());
+		Assertions.assertEquals(2, stats.getInFlight());
+		Assertions.assertEquals(3, stats.getAdmittedCount());
+		Assertions.assertEquals(1, stats.getRejectedCount());
+	}
+
+	@Test
+	public void growsWhenFast() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("store", 2, 1, 4, 1000);
+
+		for (int i = 0; i < 5; i++) {
+			Assertions.assertTrue(limiter.tryAcquire());
+			limiter.release(System.nanoTime(), true);
+		}
+		// only grows while at least half the limit is in use
+		Assertions.assertEquals(3, limiter.getLimit());
+
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertTrue(limiter.tryAcquire());
+			Assertions.assertTrue(limiter.tryAcquire());
+			limiter.release(System.nanoTime(), true);
+			limiter.release(System.nanoTime(), true);
+		}
+		Assertions.assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	public void backsOffOncePerBurst() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("fetch", 20, 4, 100, 10);
+
+		Thread.sleep(1);
+		long burstStart = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			Assertions.assertTrue(limiter.tryAcquire());
+		}
+		Thread.sleep(20);
+		for (int i = 0; i < 5; i++) {
+			limiter.release(burstStart, true);
+		}
+		// the other slow calls of the burst started before the cut and do not cut again
+		Assertions.assertEquals(18, limiter.getLimit());
+		Assertions.assertTrue(limiter.getRetryAfterMs() >= 20);
+
+		long nextStart = System.nanoTime();
+		Assertions.assertTrue(limiter.tryAcquire());
+		Thread.sleep(20);
+		limiter.release(nextStart, true);
+		Assertions.assertEquals(16, limiter.getLimit());
+	}
+}
@@ -72,6 +72,24 @@ public class UpdateIndexCmd implements Callable<Integer> {
 	@CommandLine.Option(names = "--transientIndex", arity = "1", paramLabel = "true|false", description = "When true the index loads lazily and can be unloaded when idle or over the node's transient cache bound (default false)")
 	private Boolean transientIndex;
 
+	@CommandLine.Option(names = "--shardQueryCacheRewarmCount", description = "Number of the most frequently used cached queries re-executed against a refreshed shard reader before it is published (default 0 disables)")
+	private Integer shardQueryCacheRewarmCount;
+
+	@CommandLine.Option(names = "--totalHitsThreshold", description = "Number of hits each shard counts exactly before total hits becomes a lower bound (default 0 counts exactly)")
+	private Integer totalHitsThreshold;
+
+	@CommandLine.Option(names = "--slowQueryThresholdMs", description = "Queries taking at least this long are logged with their per phase timings and full request (default 0 disables)")
+	private Integer slowQueryThresholdMs;
+
+	@CommandLine.Option(names = "--queryLogSampleRate", description = "Fraction of the other queries logged with their per phase timings (default 0)")
+	private Float queryLogSampleRate;
+
+	@CommandLine.Option(names = "--realtimeRefreshMinIntervalMs", description = "Minimum time between two reader reopens for realtime requests (default 0)")
+	private Integer realtimeRefreshMinIntervalMs;
+
+	@CommandLine.Option(names = "--refreshIntervalMs", description = "How often shards with changes reopen their readers in the background (default 0 disables)")
+	private Integer refreshIntervalMs;
+
 	@Override
 	public Integer call() throws Exception {
 
@@ -149,6 +167,24 @@ public class UpdateIndexCmd implements Callable<Integer> {
 		if (transientIndex != null) {
 			updateIndex.setTransientIndex(transientIndex);
 		}
+		if (shardQueryCacheRewarmCount != null) {
+			updateIndex.setShardQueryCacheRewarmCount(shardQueryCacheRewarmCount);
+		}
+		if (totalHitsThreshold != null) {
+			updateIndex.setTotalHitsThreshold(totalHitsThreshold);
+		}
+		if (slowQueryThresholdMs != null) {
+			updateIndex.setSlowQueryThresholdMs(slowQueryThresholdMs);
+		}
+		if (queryLogSampleRate != null) {
+			updateIndex.setQueryLogSampleRate(queryLogSampleRate);
+		}
+		if (realtimeRefreshMinIntervalMs != null) {
+			updateIndex.setRealtimeRefreshMinIntervalMs(realtimeRefreshMinIntervalMs);
+		}
+		if (refreshIntervalMs != null) {
+			updateIndex.setRefreshIntervalMs(refreshIntervalMs);
+		}
 
 		return updateIndex;
 	}